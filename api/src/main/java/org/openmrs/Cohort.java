@@ -13,7 +13,9 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -33,6 +35,8 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	
 	private Collection<CohortMembership> memberships;
 	
+	private transient MemberIndex memberIndex;
+	
 	public Cohort() {
 		memberships = new TreeSet<>();
 	}
@@ -135,9 +139,13 @@ public class Cohort extends BaseChangeableOpenmrsData {
 		return StringUtils.join(getMemberIds(), ',');
 	}
 	
+	/**
+	 * @param patientId the id of a patient
+	 * @return true if the cohort has a membership of the patient which is not voided, regardless of
+	 *         whether it is active
+	 */
 	public boolean contains(Integer patientId) {
-		return getMemberships() != null
-		        && getMemberships().stream().anyMatch(m -> m.getPatientId().equals(patientId) && !m.getVoided());
+		return patientId != null && getMemberIndex().members.contains(patientId);
 	}
 	
 	@Override
@@ -162,6 +170,7 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	public boolean addMembership(CohortMembership cohortMembership) {
 		if (cohortMembership != null) {
 			cohortMembership.setCohort(this);
+			clearMemberIndex();
 			return getMemberships().add(cohortMembership);
 		}
 		return false;
@@ -171,6 +180,7 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	 * @since 2.1.0
 	 */
 	public boolean removeMembership(CohortMembership cohortMembership) {
+		clearMemberIndex();
 		return getMemberships().remove(cohortMembership);
 	}
 	
@@ -209,6 +219,33 @@ public class Cohort extends BaseChangeableOpenmrsData {
 		return getActiveMemberships(new Date());
 	}
 	
+	/**
+	 * Returns the ids of the patients with an active membership as a bitmap. The bitmap is cached until
+	 * the memberships change or a membership starts or ends.
+	 *
+	 * @return the ids of the active members
+	 * @since 2.7.0
+	 * @see org.openmrs.api.CohortService#getActiveMemberBitmap(Cohort, Date)
+	 */
+	public CohortBitmap getActiveMemberBitmap() {
+		return getMemberIndex().activeMembers;
+	}
+	
+	/**
+	 * @param asOfDate date used to determine the active memberships
+	 * @return the ids of the patients with a membership active as of the given date
+	 * @since 2.7.0
+	 */
+	public CohortBitmap getActiveMemberBitmap(Date asOfDate) {
+		CohortBitmap.Builder builder = CohortBitmap.builder();
+		for (CohortMembership membership : getMemberships()) {
+			if (membership.getPatientId() != null && membership.isActive(asOfDate)) {
+				builder.add(membership.getPatientId());
+			}
+		}
+		return builder.build();
+	}
+	
 	/**
 	 * @since 2.1.0
 	 */
@@ -348,6 +385,29 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	
 	public void setMemberships(Collection<CohortMembership> members) {
 		this.memberships = members;
+		clearMemberIndex();
+	}
+	
+	/**
+	 * Discards the cached member index, called whenever a membership of this cohort changes. The
+	 * method is final so that calling it on an uninitialized proxy does not load the cohort.
+	 */
+	final void clearMemberIndex() {
+		memberIndex = null;
+	}
+	
+	private MemberIndex getMemberIndex() {
+		Collection<CohortMembership> currentMemberships = getMemberships();
+		if (currentMemberships == null) {
+			// e.g. returned by a subclass, treated as no memberships like before the index existed
+			currentMemberships = Collections.emptyList();
+		}
+		MemberIndex index = memberIndex;
+		if (index == null || !index.isValid(currentMemberships, System.currentTimeMillis())) {
+			index = new MemberIndex(currentMemberships, System.currentTimeMillis());
+			memberIndex = index;
+		}
+		return index;
 	}
 	
 	/**
@@ -379,7 +439,7 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	 * @return true if cohort has active membership for the requested patient             
 	 */
 	public boolean hasActiveMembership(int patientId) {
-		return getMemberships().stream().anyMatch(m  -> m.getPatientId() == patientId && m.isActive());
+		return getMemberIndex().activeMembers.contains(patientId);
 	}
 	
 	/**
@@ -403,4 +463,58 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	public boolean hasNoActiveMemberships() {
 		return getActiveMemberships().isEmpty();
 	}
+	
+	/**
+	 * The ids of the members of a cohort, derived from its memberships which remain the source of
+	 * truth. The index is rebuilt when the memberships are replaced, added or removed and once the
+	 * time passes the next start or end of a membership, since that changes the active members.
+	 */
+	private static class MemberIndex {
+		
+		private final Collection<CohortMembership> memberships;
+		
+		private final int membershipCount;
+		
+		private final CohortBitmap members;
+		
+		private final CohortBitmap activeMembers;
+		
+		private final long validUntil;
+		
+		private MemberIndex(Collection<CohortMembership> memberships, long now) {
+			CohortBitmap.Builder nonVoided = CohortBitmap.builder();
+			CohortBitmap.Builder active = CohortBitmap.builder();
+			Date asOfDate = new Date(now);
+			long nextChange = Long.MAX_VALUE;
+			int count = 0;
+			for (Iterator<CohortMembership> iterator = memberships.iterator(); iterator.hasNext(); count++) {
+				CohortMembership membership = iterator.next();
+				if (membership.getPatientId() == null || membership.getVoided()) {
+					continue;
+				}
+				nonVoided.add(membership.getPatientId());
+				if (membership.isActive(asOfDate)) {
+					active.add(membership.getPatientId());
+				}
+				Date startDate = membership.getStartDate();
+				if (startDate != null && startDate.getTime() > now) {
+					nextChange = Math.min(nextChange, startDate.getTime());
+				}
+				Date endDate = membership.getEndDate();
+				if (endDate != null && endDate.getTime() >= now) {
+					// the end date is inclusive
+					nextChange = Math.min(nextChange, endDate.getTime() + 1);
+				}
+			}
+			this.memberships = memberships;
+			this.membershipCount = count;
+			this.members = nonVoided.build();
+			this.activeMembers = active.build();
+			this.validUntil = nextChange;
+		}
+		
+		private boolean isValid(Collection<CohortMembership> currentMemberships, long now) {
+			return memberships == currentMemberships && membershipCount == currentMemberships.size() && now < validUntil;
+		}
+	}
 }
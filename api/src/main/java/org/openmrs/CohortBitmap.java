@@ -0,0 +1,223 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * An immutable set of patient ids stored as a compressed bitmap. It is a light weight alternative to
+ * the memberships of a {@link Cohort} when only the ids of the members matter, e.g. in reporting:
+ * checking whether a patient is a member takes constant time, set operations work on whole words
+ * of the bitmap without creating objects per member and the size is known without iterating.
+ * <p>
+ * The active members of a cohort are available through {@link Cohort#getActiveMemberBitmap()} or can
+ * be loaded straight from the database without loading the memberships with
+ * {@link org.openmrs.api.CohortService#getActiveMemberBitmap(Cohort, java.util.Date)}.
+ *
+ * @since 2.7.0
+ */
+public final class CohortBitmap implements Iterable<Integer>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final CohortBitmap EMPTY = new CohortBitmap(new RoaringBitmap());
+
+	private final RoaringBitmap bitmap;
+
+	private CohortBitmap(RoaringBitmap bitmap) {
+		this.bitmap = bitmap;
+	}
+
+	/**
+	 * @param patientIds the ids of the patients
+	 * @return a bitmap containing the given ids
+	 */
+	public static CohortBitmap of(int... patientIds) {
+		RoaringBitmap bitmap = RoaringBitmap.bitmapOf(patientIds);
+		bitmap.runOptimize();
+		return new CohortBitmap(bitmap);
+	}
+
+	/**
+	 * @param patientIds the ids of the patients, null elements are ignored
+	 * @return a bitmap containing the given ids
+	 */
+	public static CohortBitmap of(Collection<Integer> patientIds) {
+		Builder builder = builder();
+		for (Integer patientId : patientIds) {
+			if (patientId != null) {
+				builder.add(patientId);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return a builder to add the ids of the patients one by one
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param patientId the id of a patient
+	 * @return true if this bitmap contains the patient
+	 */
+	public boolean contains(int patientId) {
+		return bitmap.contains(patientId);
+	}
+
+	/**
+	 * @return the number of patients in this bitmap
+	 */
+	public int size() {
+		return bitmap.getCardinality();
+	}
+
+	public boolean isEmpty() {
+		return bitmap.isEmpty();
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return the patients in this or the other bitmap
+	 */
+	public CohortBitmap union(CohortBitmap other) {
+		return new CohortBitmap(RoaringBitmap.or(bitmap, other.bitmap));
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return the patients in both this and the other bitmap
+	 */
+	public CohortBitmap intersect(CohortBitmap other) {
+		return new CohortBitmap(RoaringBitmap.and(bitmap, other.bitmap));
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return the patients in this bitmap but not in the other one
+	 */
+	public CohortBitmap subtract(CohortBitmap other) {
+		return new CohortBitmap(RoaringBitmap.andNot(bitmap, other.bitmap));
+	}
+
+	/**
+	 * @return the ids of the patients in ascending order
+	 */
+	public int[] toArray() {
+		return bitmap.toArray();
+	}
+
+	/**
+	 * @return the ids of the patients in ascending order
+	 */
+	public IntStream stream() {
+		return StreamSupport.intStream(Spliterators.spliterator(new PatientIdIterator(bitmap.getIntIterator()), size(),
+		    Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * @return the ids of the patients in ascending order
+	 */
+	@Override
+	public Iterator<Integer> iterator() {
+		return new PatientIdIterator(bitmap.getIntIterator());
+	}
+
+	/**
+	 * @return a new cohort with a membership starting now for each patient in this bitmap
+	 */
+	public Cohort toCohort() {
+		Cohort cohort = new Cohort();
+		IntIterator iterator = bitmap.getIntIterator();
+		while (iterator.hasNext()) {
+			cohort.addMember(iterator.next());
+		}
+		return cohort;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof CohortBitmap && bitmap.equals(((CohortBitmap) obj).bitmap);
+	}
+
+	@Override
+	public int hashCode() {
+		return bitmap.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "CohortBitmap size=" + size();
+	}
+
+	/**
+	 * Collects the ids of patients into a new {@link CohortBitmap}
+	 */
+	public static class Builder {
+
+		private final RoaringBitmap bitmap = new RoaringBitmap();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param patientId the id of a patient
+		 * @return this builder
+		 */
+		public Builder add(int patientId) {
+			bitmap.add(patientId);
+			return this;
+		}
+
+		/**
+		 * @return a bitmap with the ids added so far, the builder can still be used afterwards
+		 */
+		public CohortBitmap build() {
+			RoaringBitmap copy = bitmap.clone();
+			copy.runOptimize();
+			return new CohortBitmap(copy);
+		}
+	}
+
+	private static class PatientIdIterator implements PrimitiveIterator.OfInt {
+
+		private final IntIterator iterator;
+
+		private PatientIdIterator(IntIterator iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public int nextInt() {
+			if (!iterator.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return iterator.next();
+		}
+	}
+}
@@ -91,6 +91,7 @@ public class CohortMembership extends BaseChangeableOpenmrsData implements Compa
 	
 	public void setPatientId(Integer patientId) {
 		this.patientId = patientId;
+		membershipChanged();
 	}
 	
 	public Date getStartDate() {
@@ -99,6 +100,7 @@ public class CohortMembership extends BaseChangeableOpenmrsData implements Compa
 	
 	public void setStartDate(Date startDate) {
 		 this.startDate = startDate != null ? new Date(startDate.getTime()) : null;
+		membershipChanged();
 	}
 	
 	public Date getEndDate() {
@@ -113,6 +115,25 @@ public class CohortMembership extends BaseChangeableOpenmrsData implements Compa
 	 */
 	public void setEndDate(Date endDate) {
 		this.endDate = endDate != null ? new Date(endDate.getTime()) : null;
+		membershipChanged();
+	}
+	
+	/**
+	 * @see org.openmrs.BaseOpenmrsData#setVoided(java.lang.Boolean)
+	 */
+	@Override
+	public void setVoided(Boolean voided) {
+		super.setVoided(voided);
+		membershipChanged();
+	}
+	
+	/**
+	 * Keeps the member index of the cohort consistent with its memberships
+	 */
+	private void membershipChanged() {
+		if (cohort != null) {
+			cohort.clearMemberIndex();
+		}
 	}
 	
 	
@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * An entry of the latest obs store, pointing to the most recent non-voided {@link Obs} of a concept
+ * for a person. The store is kept up to date by the {@link org.openmrs.api.ObsService} when obs are
+ * saved, voided and unvoided, and is read with
+ * {@link org.openmrs.api.ObsService#getLatestObs(java.util.Collection, java.util.Collection)}.
+ * <p>
+ * The obs is referenced by id only, so that purging obs does not depend on the store.
+ *
+ * @since 2.7.0
+ */
+public class LatestObs implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer personId;
+	
+	private Integer conceptId;
+	
+	private Integer obsId;
+	
+	private Date obsDatetime;
+	
+	public LatestObs() {
+	}
+	
+	/**
+	 * @param personId the id of the person
+	 * @param conceptId the id of the concept
+	 */
+	public LatestObs(Integer personId, Integer conceptId) {
+		this.personId = personId;
+		this.conceptId = conceptId;
+	}
+	
+	public Integer getPersonId() {
+		return personId;
+	}
+	
+	public void setPersonId(Integer personId) {
+		this.personId = personId;
+	}
+	
+	public Integer getConceptId() {
+		return conceptId;
+	}
+	
+	public void setConceptId(Integer conceptId) {
+		this.conceptId = conceptId;
+	}
+	
+	/**
+	 * @return the id of the most recent obs
+	 */
+	public Integer getObsId() {
+		return obsId;
+	}
+	
+	public void setObsId(Integer obsId) {
+		this.obsId = obsId;
+	}
+	
+	/**
+	 * @return the obsDatetime of the most recent obs
+	 */
+	public Date getObsDatetime() {
+		return obsDatetime;
+	}
+	
+	public void setObsDatetime(Date obsDatetime) {
+		this.obsDatetime = obsDatetime;
+	}
+	
+	/**
+	 * Entries are identified by person and concept, which is the composite id of the mapping
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof LatestObs)) {
+			return false;
+		}
+		LatestObs other = (LatestObs) obj;
+		return Objects.equals(personId, other.personId) && Objects.equals(conceptId, other.conceptId);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(personId, conceptId);
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An immutable summary of a patient holding what lists of patients usually show: the preferred
+ * name, the preferred identifier, the gender, the birthdate and whether the patient died. Summaries
+ * are loaded with a single query from
+ * {@link org.openmrs.api.PatientService#getPatientSummaries(java.util.Collection)} without loading
+ * the {@link Patient} entities, which is a lot cheaper for long lists.
+ *
+ * @since 2.7.0
+ */
+public final class PatientSummary implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final Integer patientId;
+	
+	private final String uuid;
+	
+	private final String givenName;
+	
+	private final String middleName;
+	
+	private final String familyName;
+	
+	private final String identifier;
+	
+	private final String identifierType;
+	
+	private final String gender;
+	
+	private final Date birthdate;
+	
+	private final boolean birthdateEstimated;
+	
+	private final boolean dead;
+	
+	private final Date deathDate;
+	
+	/**
+	 * @param patientId the id of the patient
+	 * @param uuid the uuid of the patient
+	 * @param givenName the given name of the preferred name
+	 * @param middleName the middle name of the preferred name
+	 * @param familyName the family name of the preferred name
+	 * @param identifier the preferred identifier
+	 * @param identifierType the name of the type of the preferred identifier
+	 * @param gender the gender
+	 * @param birthdate the birthdate
+	 * @param birthdateEstimated whether the birthdate is estimated
+	 * @param dead whether the patient died
+	 * @param deathDate the date of death
+	 */
+	public PatientSummary(Integer patientId, String uuid, String givenName, String middleName, String familyName,
+	    String identifier, String identifierType, String gender, Date birthdate, boolean birthdateEstimated,
+	    boolean dead, Date deathDate) {
+		this.patientId = patientId;
+		this.uuid = uuid;
+		this.givenName = givenName;
+		this.middleName = middleName;
+		this.familyName = familyName;
+		this.identifier = identifier;
+		this.identifierType = identifierType;
+		this.gender = gender;
+		this.birthdate = birthdate == null ? null : new Date(birthdate.getTime());
+		this.birthdateEstimated = birthdateEstimated;
+		this.dead = dead;
+		this.deathDate = deathDate == null ? null : new Date(deathDate.getTime());
+	}
+	
+	public Integer getPatientId() {
+		return patientId;
+	}
+	
+	public String getUuid() {
+		return uuid;
+	}
+	
+	public String getGivenName() {
+		return givenName;
+	}
+	
+	public String getMiddleName() {
+		return middleName;
+	}
+	
+	public String getFamilyName() {
+		return familyName;
+	}
+	
+	/**
+	 * @return the given, middle and family names separated by spaces or null if the patient has no
+	 *         name
+	 */
+	public String getFullName() {
+		return StringUtils.trimToNull(StringUtils.normalizeSpace(StringUtils.joinWith(" ", givenName, middleName, familyName)));
+	}
+	
+	/**
+	 * @return the preferred identifier or null if the patient has no identifier
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+	
+	/**
+	 * @return the name of the type of the preferred identifier
+	 */
+	public String getIdentifierType() {
+		return identifierType;
+	}
+	
+	public String getGender() {
+		return gender;
+	}
+	
+	public Date getBirthdate() {
+		return birthdate == null ? null : new Date(birthdate.getTime());
+	}
+	
+	public boolean getBirthdateEstimated() {
+		return birthdateEstimated;
+	}
+	
+	public boolean getDead() {
+		return dead;
+	}
+	
+	public Date getDeathDate() {
+		return deathDate == null ? null : new Date(deathDate.getTime());
+	}
+	
+	/**
+	 * @return the age of the patient today, or at the date of death, or null if the birthdate is
+	 *         unknown
+	 * @see Person#getAge()
+	 */
+	public Integer getAge() {
+		Person person = new Person();
+		person.setBirthdate(birthdate);
+		person.setDeathDate(deathDate);
+		return person.getAge();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof PatientSummary && patientId != null
+		        && patientId.equals(((PatientSummary) obj).patientId);
+	}
+	
+	@Override
+	public int hashCode() {
+		return patientId == null ? 0 : patientId.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return "PatientSummary#" + patientId;
+	}
+}
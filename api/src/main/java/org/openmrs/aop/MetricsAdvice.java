@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openmrs.metrics.MetricsRegistry;
+import org.openmrs.metrics.ServiceMethodMetrics;
+
+/**
+ * Records the number of calls, failures and the duration of each service method in the
+ * {@link MetricsRegistry}. This advice is placed on all services via the spring application
+ * context, it is kept as light as possible: the metrics of a method are looked up once and cached
+ * by method.
+ *
+ * @since 2.7.0
+ */
+public class MetricsAdvice implements MethodInterceptor {
+	
+	private final Map<Method, ServiceMethodMetrics> metricsByMethod = new ConcurrentHashMap<>();
+	
+	private MetricsRegistry metricsRegistry;
+	
+	/**
+	 * @param metricsRegistry the registry to record the calls in
+	 */
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+		metricsByMethod.clear();
+	}
+	
+	/**
+	 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (metricsRegistry == null) {
+			return invocation.proceed();
+		}
+		
+		ServiceMethodMetrics metrics = getMetrics(invocation.getMethod());
+		boolean failed = true;
+		long start = System.nanoTime();
+		try {
+			Object result = invocation.proceed();
+			failed = false;
+			return result;
+		}
+		finally {
+			metrics.record(System.nanoTime() - start, failed);
+		}
+	}
+	
+	private ServiceMethodMetrics getMetrics(Method method) {
+		ServiceMethodMetrics metrics = metricsByMethod.get(method);
+		if (metrics == null) {
+			metrics = metricsByMethod.computeIfAbsent(method,
+			    m -> metricsRegistry.getServiceMethodMetrics(m.getDeclaringClass().getName(), m.getName()));
+		}
+		return metrics;
+	}
+}
@@ -21,6 +21,7 @@ import org.openmrs.OpenmrsObject;
 import org.openmrs.User;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.AdministrationDAO;
+import org.openmrs.metrics.ServiceMethodMetrics;
 import org.openmrs.util.HttpClient;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.PrivilegeConstants;
@@ -392,4 +393,47 @@ public interface AdministrationService extends OpenmrsService {
 	 * @since 2.4
 	 */
 	public void updatePostgresSequence();
+	
+	/**
+	 * Gets the number of calls, failed calls and the latency histogram of every service method
+	 * called since the application started or the metrics were last reset
+	 * 
+	 * @return the metrics sorted by service and method
+	 * @since 2.7.0
+	 * <strong>Should</strong> include the calls of service methods
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public List<ServiceMethodMetrics> getServiceMethodMetrics();
+	
+	/**
+	 * Gets the statistics collected by Hibernate such as the number of executed queries, the second
+	 * level cache hit ratio and the slowest query, keyed by name. The map is empty if Hibernate
+	 * statistics are disabled, see the <i>hibernate.generate_statistics</i> runtime property.
+	 * 
+	 * @return the statistics by name
+	 * @since 2.7.0
+	 * <strong>Should</strong> return the hibernate statistics
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public Map<String, Object> getHibernateStatistics();
+	
+	/**
+	 * Gets the service method metrics, the registered gauges and histograms and the Hibernate
+	 * statistics in the Prometheus text exposition format
+	 * 
+	 * @return the metrics as text
+	 * @since 2.7.0
+	 * <strong>Should</strong> export the service method metrics
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public String getMetricsInPrometheusFormat();
+	
+	/**
+	 * Clears the service method metrics and the Hibernate statistics
+	 * 
+	 * @since 2.7.0
+	 * <strong>Should</strong> clear the service method metrics
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public void resetMetrics();
 }
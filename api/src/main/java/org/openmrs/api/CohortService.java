@@ -13,6 +13,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
 import org.openmrs.User;
@@ -290,4 +291,20 @@ public interface CohortService extends OpenmrsService {
 	 */
 	@Authorized({ PrivilegeConstants.GET_PATIENT_COHORTS })
 	List<CohortMembership> getCohortMemberships(Integer patientId, Date activeOnDate, boolean includeVoided);
+	
+	/**
+	 * Gets the ids of the patients with an active membership in the given cohort as a bitmap. For a
+	 * saved cohort the ids are read straight from the cohort_member table without loading the
+	 * memberships, which is much cheaper for large cohorts.
+	 *
+	 * @since 2.7.0
+	 * @param cohort the cohort
+	 * @param asOfDate date used to determine the active memberships, defaults to now if null
+	 * @return the ids of the active members
+	 * <strong>Should</strong> return the ids of the active members
+	 * <strong>Should</strong> exclude voided and ended memberships
+	 * <strong>Should</strong> use the memberships of a cohort which is not saved
+	 */
+	@Authorized({ PrivilegeConstants.GET_PATIENT_COHORTS })
+	CohortBitmap getActiveMemberBitmap(Cohort cohort, Date asOfDate);
 }
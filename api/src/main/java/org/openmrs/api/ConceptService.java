@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptAnswer;
@@ -294,6 +295,24 @@ public interface ConceptService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.GET_CONCEPTS)
 	public List<Concept> getAllConcepts(String sortBy, boolean asc, boolean includeRetired) throws APIException;
 	
+	/**
+	 * Streams the concepts ordered by concept id without loading the whole dictionary into the
+	 * session. Concepts are detached from the session in batches as the stream advances, so they are
+	 * meant to be read only. The cursor behind the stream is closed when the transaction ends, so this
+	 * method has to be called within a transaction, an IllegalTransactionStateException is thrown
+	 * otherwise, and the stream has to be consumed within that transaction and closed once done,
+	 * preferably with try-with-resources.
+	 * 
+	 * @param includeRetired If <code>true</code>, retired concepts will also be returned
+	 * @return a stream of the concepts
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> stream the concepts ordered by concept id
+	 * <strong>Should</strong> exclude retired concepts when set includeRetired to false
+	 */
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	public Stream<Concept> streamAllConcepts(boolean includeRetired) throws APIException;
+	
 	/**
 	 * Returns a list of concepts matching any part of a concept name, this method is case
 	 * insensitive to the concept name string
@@ -939,15 +958,33 @@ public interface ConceptService extends OpenmrsService {
 	public Integer getMaxConceptId();
 	
 	/**
-	 * Returns an iterator for all concepts, including retired and expired.
+	 * Returns an iterator for all concepts, including retired and expired, ordered by concept id. The
+	 * concepts are fetched in pages of the size set by the concept_iterator.page_size runtime
+	 * property, or 500 if it is not set.
 	 * 
 	 * @return the Iterator
+	 * @see #conceptIterator(int)
 	 * <strong>Should</strong> start with the smallest concept id
 	 * <strong>Should</strong> iterate over all concepts
 	 */
 	@Authorized(PrivilegeConstants.GET_CONCEPTS)
 	public Iterator<Concept> conceptIterator();
 	
+	/**
+	 * Returns an iterator for all concepts, including retired and expired, ordered by concept id.
+	 * Instead of querying the concepts one by one, the iterator fetches a page of concepts at a time
+	 * along with their names, answers and mappings. The concepts of a page are evicted from the
+	 * session once the iterator moves past it, so changes to them are not saved.
+	 * 
+	 * @param pageSize the number of concepts to fetch at once
+	 * @return the Iterator
+	 * @since 2.7.0
+	 * <strong>Should</strong> iterate over all concepts across pages
+	 * <strong>Should</strong> fail if the page size is not positive
+	 */
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	public Iterator<Concept> conceptIterator(int pageSize);
+	
 	/**
 	 * Looks up a concept via {@link ConceptMap} This will return the {@link Concept} which contains
 	 * a {@link ConceptMap} entry whose <code>sourceCode</code> is equal to the passed
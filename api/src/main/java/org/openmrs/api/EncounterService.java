@@ -13,6 +13,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.openmrs.Cohort;
 import org.openmrs.Encounter;
@@ -28,6 +29,7 @@ import org.openmrs.VisitType;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.EncounterDAO;
 import org.openmrs.api.handler.EncounterVisitHandler;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -182,6 +184,42 @@ public interface EncounterService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.GET_ENCOUNTERS })
 	public List<Encounter> getEncounters(EncounterSearchCriteria encounterSearchCriteria);
 	
+	/**
+	 * Streams the encounters matching the given criteria like
+	 * {@link #getEncounters(EncounterSearchCriteria)}, leaving out the encounters the authenticated
+	 * user is not allowed to view. The encounters are read as the stream is consumed and detached from
+	 * the session in batches, which keeps the memory used by bulk reads bounded. The cursor behind the
+	 * stream is closed when the transaction ends, so this method must be called within a
+	 * transaction, an IllegalTransactionStateException is thrown otherwise, and the stream must be
+	 * consumed within that transaction and closed afterwards.
+	 *
+	 * @param encounterSearchCriteria the object containing search parameters
+	 * @return a stream of encounters ordered by increasing encounterDatetime
+	 * @since 2.7.0
+	 * <strong>Should</strong> stream the same encounters as get encounters
+	 * <strong>Should</strong> not stream the encounters the user is not allowed to view
+	 */
+	@Authorized( { PrivilegeConstants.GET_ENCOUNTERS })
+	public Stream<Encounter> streamEncounters(EncounterSearchCriteria encounterSearchCriteria);
+	
+	/**
+	 * Gets a page of the encounters matching the given criteria ordered by encounterDatetime and
+	 * encounter id, leaving out the encounters the authenticated user is not allowed to view. The
+	 * continuation token of the previous page lets the database seek straight to the first encounter
+	 * of the page instead of skipping the encounters of all the previous pages.
+	 *
+	 * @param encounterSearchCriteria the object containing search parameters
+	 * @param continuationToken the token of the previous page, null for the first page
+	 * @param length the number of encounters in the page
+	 * @return the page of encounters with the token of the next page
+	 * @since 2.7.0
+	 * <strong>Should</strong> page through the same encounters as get encounters
+	 * <strong>Should</strong> order encounters with the same encounterDatetime by encounter id
+	 */
+	@Authorized( { PrivilegeConstants.GET_ENCOUNTERS })
+	public KeysetPage<Encounter> getEncountersPage(EncounterSearchCriteria encounterSearchCriteria,
+	        String continuationToken, int length);
+	
 	/**
 	 * Voiding a encounter essentially removes it from circulation
 	 * 
@@ -429,6 +467,8 @@ public interface EncounterService extends OpenmrsService {
 	 * <strong>Should</strong> match on the provider person name
 	 * <strong>Should</strong> match on the encounter type name
 	 * <strong>Should</strong> match on the form name
+	 * <strong>Should</strong> return full pages of the encounters the user is allowed to view
+	 * <strong>Should</strong> leave out the encounter types restricted since the user last read encounters
 	 */
 	@Authorized( { PrivilegeConstants.GET_ENCOUNTERS })
 	public List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length,
@@ -627,6 +667,7 @@ public interface EncounterService extends OpenmrsService {
 	 * @return number of results
 	 * @throws APIException
 	 * @since 1.9
+	 * <strong>Should</strong> not count the encounters the user is not allowed to view
 	 */
 	@Authorized( { PrivilegeConstants.GET_VISITS })
 	public Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query)
@@ -9,9 +9,11 @@
  */
 package org.openmrs.api;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -21,6 +23,8 @@ import org.openmrs.Obs;
 import org.openmrs.Person;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.ObsDAO;
+import org.openmrs.collection.KeysetPage;
+import org.openmrs.obs.Flowsheet;
 import org.openmrs.obs.ComplexObsHandler;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 import org.openmrs.util.PrivilegeConstants;
@@ -281,6 +285,127 @@ public interface ObsService extends OpenmrsService {
 	        Integer mostRecentN, Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs,
 	        String accessionNumber) throws APIException;
 	
+	/**
+	 * Streams the observations matching the given arguments, which work like the ones of
+	 * {@link #getObservations(List, List, List, List, List, List, List, Integer, Integer, Date, Date, boolean, String)}.
+	 * The observations are read from the database as the stream is consumed and detached from the
+	 * session in batches, so that exporting all observations does not load them all into memory. Use
+	 * {@link Stream#limit(long)} instead of mostRecentN. The cursor behind the stream is closed when
+	 * the transaction ends, so this method must be called within a transaction, an
+	 * IllegalTransactionStateException is thrown otherwise, and the stream must be consumed within
+	 * that transaction and closed afterwards, e.g. with try-with-resources.
+	 * 
+	 * @param whom List&lt;Person&gt; to restrict obs to (optional)
+	 * @param encounters List&lt;Encounter&gt; to restrict obs to (optional)
+	 * @param questions List&lt;Concept&gt; to restrict the obs to (optional)
+	 * @param answers List&lt;Concept&gt; to restrict the valueCoded to (optional)
+	 * @param personTypes List&lt;PERSON_TYPE&gt; objects to restrict this to. Only used if
+	 *            <code>whom</code> is an empty list (optional)
+	 * @param locations The org.openmrs.Location objects to restrict to (optional)
+	 * @param sort list of column names to sort on (obsId, obsDatetime, etc) if null, defaults to
+	 *            obsDatetime (optional), sorting on "obsId asc" avoids sorting large results
+	 * @param obsGroupId the Obs.getObsGroupId() to this integer (optional)
+	 * @param fromDate the earliest Obs date to get (optional)
+	 * @param toDate the latest Obs date to get (optional)
+	 * @param includeVoidedObs true/false whether to also include the voided obs (required)
+	 * @param accessionNumber accession number (optional)
+	 * @return a stream of the observations that match all of the criteria given in the arguments
+	 * @since 2.7.0
+	 * @throws APIException
+	 * <strong>Should</strong> stream the same obs as get observations
+	 * <strong>Should</strong> not include voided obs
+	 */
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public Stream<Obs> streamObservations(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, List<String> sort,
+	        Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber)
+	        throws APIException;
+	
+	/**
+	 * Gets a page of the observations matching the given criteria like
+	 * {@link #getObservations(List, List, List, List, List, List, List, Integer, Integer, Date, Date, boolean, String)}
+	 * ordered by obsDatetime and obs id descending. The continuation token of the previous page lets
+	 * the database seek straight to the first observation of the page instead of skipping the
+	 * observations of all the previous pages.
+	 * 
+	 * @param whom List&lt;Person&gt; to restrict obs to (optional)
+	 * @param encounters List&lt;Encounter&gt; to restrict obs to (optional)
+	 * @param questions List&lt;Concept&gt; to restrict the obs to (optional)
+	 * @param answers List&lt;Concept&gt; to restrict the valueCoded to (optional)
+	 * @param personTypes List&lt;PERSON_TYPE&gt; objects to restrict this to. Only used if
+	 *            <code>whom</code> is an empty list (optional)
+	 * @param locations The org.openmrs.Location objects to restrict to (optional)
+	 * @param obsGroupId the Obs.getObsGroupId() to this integer (optional)
+	 * @param fromDate the earliest Obs date to get (optional)
+	 * @param toDate the latest Obs date to get (optional)
+	 * @param includeVoidedObs true/false whether to also include the voided obs (required)
+	 * @param accessionNumber accession number (optional)
+	 * @param continuationToken the token of the previous page, null for the first page
+	 * @param length the number of observations in the page
+	 * @return the page of observations with the token of the next page
+	 * @since 2.7.0
+	 * @throws APIException
+	 * <strong>Should</strong> page through the same obs as get observations
+	 * <strong>Should</strong> fail if the length is not positive
+	 */
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public KeysetPage<Obs> getObservationsPage(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, Integer obsGroupId,
+	        Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber, String continuationToken,
+	        int length) throws APIException;
+	
+	/**
+	 * Gets the most recent non-voided obs of each of the given concepts for each of the given persons
+	 * from the latest obs store, which is kept up to date as obs are saved, voided, unvoided and
+	 * purged through this service. This is a lot cheaper than asking
+	 * {@link #getObservations(List, List, List, List, List, List, List, Integer, Integer, Date, Date, boolean)}
+	 * for the most recent obs when showing a patient list or a dashboard.
+	 * 
+	 * @param personIds the ids of the persons
+	 * @param conceptIds the ids of the concepts
+	 * @return the latest obs keyed by person id and then by concept id, persons without any obs of the
+	 *         concepts being left out
+	 * @since 2.7.0
+	 * <strong>Should</strong> return the most recent obs of each concept for each person
+	 * <strong>Should</strong> return the previous obs after the most recent one is voided
+	 * <strong>Should</strong> return the previous obs after the most recent one is edited to an earlier date
+	 * <strong>Should</strong> return the previous obs after the concept of the most recent one is changed
+	 */
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public Map<Integer, Map<Integer, Obs>> getLatestObs(Collection<Integer> personIds, Collection<Integer> conceptIds)
+	        throws APIException;
+	
+	/**
+	 * Rebuilds the latest obs store from the obs table, which is needed after obs were changed
+	 * without going through this service, e.g. by an SQL script or an import.
+	 * 
+	 * @return the number of entries in the store
+	 * @since 2.7.0
+	 * <strong>Should</strong> point to the same obs as get observations with most recent one
+	 */
+	@Authorized(PrivilegeConstants.EDIT_OBS)
+	public int rebuildLatestObs() throws APIException;
+	
+	/**
+	 * Gets the observations of a person for the given concepts over a period of time as a
+	 * {@link Flowsheet}, i.e. the values of the obs ordered by obsDatetime. The values are read with
+	 * a single query without loading any {@link Obs}, which is a lot cheaper than calling
+	 * {@link #getObservationsByPersonAndConcept(Person, Concept)} for each concept when the flowsheet
+	 * spans years of observations.
+	 * 
+	 * @param person the person to get the observations of
+	 * @param concepts the concepts of the flowsheet, concept sets standing for their members
+	 * @param fromDate the earliest obsDatetime (optional)
+	 * @param toDate the latest obsDatetime (optional)
+	 * @return the flowsheet of the non-voided observations
+	 * @since 2.7.0
+	 * <strong>Should</strong> get the values of the obs of the concepts and of the members of concept sets
+	 * <strong>Should</strong> only get the obs in the date range
+	 */
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public Flowsheet getFlowsheet(Person person, List<Concept> concepts, Date fromDate, Date toDate)
+	        throws APIException;
+	
 	/**
 	 * This method fetches the count of observations according to the criteria in the given
 	 * arguments. All arguments are optional and nullable. If more than one argument is non-null,
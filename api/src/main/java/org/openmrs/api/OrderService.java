@@ -347,6 +347,18 @@ public interface OrderService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.ADD_ORDERS)
 	public Long getNextOrderNumberSeedSequenceValue();
 	
+	/**
+	 * Reserves a block of consecutive order number seeds, the reservation is committed in its own
+	 * transaction so that the seeds are never handed out twice even if the caller rolls back.
+	 * 
+	 * @param blockSize the number of seeds to reserve
+	 * @return the first seed of the reserved block
+	 * @since 2.7.0
+	 * <strong>Should</strong> reserve consecutive seeds
+	 */
+	@Authorized(PrivilegeConstants.ADD_ORDERS)
+	public Long getNextOrderNumberSeedSequenceValue(int blockSize);
+	
 	/**
 	 * Gets the order matching the specified order number and its previous orders in the ordering
 	 * they occurred, i.e if this order has a previous order, fetch it and if it also has a previous
@@ -12,6 +12,7 @@ package org.openmrs.api;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.openmrs.Allergies;
 import org.openmrs.Allergy;
@@ -21,8 +22,10 @@ import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientProgram;
+import org.openmrs.PatientSummary;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.PatientDAO;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.comparator.PatientIdentifierTypeDefaultComparator;
 import org.openmrs.patient.IdentifierValidator;
 import org.openmrs.person.PersonMergeLogData;
@@ -140,6 +143,47 @@ public interface PatientService extends OpenmrsService {
 	 */
 	@Authorized( { PrivilegeConstants.GET_PATIENTS })
 	public List<Patient> getAllPatients(boolean includeVoided) throws APIException;
+	
+	/**
+	 * Streams the patients in the system ordered by patient id, reading them from the database as
+	 * the stream is consumed rather than loading them all at once, e.g. for exports. The patients
+	 * are detached from the session in batches while streaming, so they should not be modified. The
+	 * cursor behind the stream is closed when the transaction ends, so this method must be called
+	 * within a transaction, an IllegalTransactionStateException is thrown otherwise, and the stream
+	 * must be consumed within that transaction and closed afterwards:
+	 * 
+	 * <pre>
+	 * try (Stream&lt;Patient&gt; patients = patientService.streamAllPatients(false)) {
+	 * 	patients.forEach(exporter::write);
+	 * }
+	 * </pre>
+	 * 
+	 * @param includeVoided if false, will limit the stream to non-voided patients
+	 * @return a stream of the patients in the system
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> stream the same patients as get all patients
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENTS })
+	public Stream<Patient> streamAllPatients(boolean includeVoided) throws APIException;
+	
+	/**
+	 * Gets a page of the patients in the system ordered by patient id. Unlike an offset, the
+	 * continuation token of the previous page lets the database seek straight to the first patient of
+	 * the page, so walking through all the patients costs the same for every page.
+	 * 
+	 * @param includeVoided if false, will limit the page to non-voided patients
+	 * @param continuationToken the token of the previous page, null for the first page
+	 * @param length the number of patients in the page
+	 * @return the page of patients with the token of the next page
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> page through all the patients ordered by patient id
+	 * <strong>Should</strong> fail if the continuation token is invalid
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENTS })
+	public KeysetPage<Patient> getPatientsPage(boolean includeVoided, String continuationToken, int length)
+	        throws APIException;
 		
 	/**
 	 * Get patients based on given criteria The identifier is matched with the regex
@@ -460,6 +504,41 @@ public interface PatientService extends OpenmrsService {
 	 */
 	@Authorized( { PrivilegeConstants.GET_PATIENTS })
 	public List<Patient> getPatients(String query, boolean includeVoided, Integer start, Integer length) throws APIException;
+	
+	/**
+	 * Gets light weight summaries of the given patients, holding their preferred name and
+	 * identifier, gender, birthdate and whether they died, with a single query and without loading
+	 * the patients. This is meant for lists of patients.
+	 * 
+	 * @param patientIds the ids of the patients
+	 * @return the summaries in the order of the given ids, ids of patients which do not exist are
+	 *         skipped
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> get the summaries in the order of the given ids
+	 * <strong>Should</strong> use the preferred name and identifier
+	 * <strong>Should</strong> skip ids of patients which do not exist
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENTS })
+	public List<PatientSummary> getPatientSummaries(Collection<Integer> patientIds) throws APIException;
+	
+	/**
+	 * Searches the patients like {@link #getPatients(String, boolean, Integer, Integer)} but returns
+	 * summaries of the matching patients, see {@link #getPatientSummaries(Collection)}. Only the ids of
+	 * the patients are read from the search indexes before loading the summaries.
+	 * 
+	 * @param query the string to search on
+	 * @param includeVoided true/false whether or not to included voided patients
+	 * @param start the starting index
+	 * @param length the number of patients to return
+	 * @return the summaries of the matching patients in the order of relevance
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> get the summaries of the same patients as get patients
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENTS })
+	public List<PatientSummary> getPatientSummaries(String query, boolean includeVoided, Integer start, Integer length)
+	        throws APIException;
 		
 	/**
 	 * This method tries to find a patient in the database given the attributes on the given
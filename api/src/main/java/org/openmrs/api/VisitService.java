@@ -373,10 +373,30 @@ public interface VisitService extends OpenmrsService {
 	 * Stops all active visits started before or on the specified date which match any of the visit
 	 * types specified by the {@link OpenmrsConstants#GP_VISIT_TYPES_TO_AUTO_CLOSE} global property.
 	 * If startDatetime is null, the default will be end of the current day.
+	 * <p>
+	 * The visits are stopped in batches through {@link #stopVisits(Date, int)}, each committed in its
+	 * own transaction unless this method is called within a transaction.
 	 * 
 	 * @param maximumStartDate Visits started on or before this date time value will get stopped
 	 * <strong>Should</strong> close all unvoided active visit matching the specified visit types
 	 */
 	@Authorized(PrivilegeConstants.EDIT_VISITS)
 	public void stopVisits(Date maximumStartDate);
+	
+	/**
+	 * Stops at most the given number of the visits that {@link #stopVisits(Date)} would stop. Callers
+	 * closing a large number of visits can call this method repeatedly until it returns 0 so that
+	 * each batch is committed in its own transaction.
+	 * 
+	 * @param maximumStartDate Visits started on or before this date time value will get stopped
+	 * @param batchSize the maximum number of visits to stop, greater than 0
+	 * @return the number of visits that were stopped
+	 * @throws IllegalArgumentException if the batch size is not greater than 0
+	 * @since 2.7.0
+	 * <strong>Should</strong> stop at most the given number of visits
+	 * <strong>Should</strong> fail if the batch size is not greater than 0
+	 * <strong>Should</strong> not leave stale visits in the session
+	 */
+	@Authorized(PrivilegeConstants.EDIT_VISITS)
+	public int stopVisits(Date maximumStartDate, int batchSize);
 }
@@ -63,6 +63,7 @@ import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.openmrs.util.StartupProfiler;
 import org.openmrs.validator.ValidateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -904,27 +905,39 @@ public class Context {
 	 */
 	public static synchronized void startup(Properties props) throws DatabaseUpdateException, InputRequiredException,
 	ModuleMustStartException {
-		// do any context database specific startup
-		getContextDAO().startup(props);
+		try (StartupProfiler.Phase startupPhase = StartupProfiler.start("Context.startup")) {
+			// do any context database specific startup
+			try (StartupProfiler.Phase phase = StartupProfiler.start("ContextDAO.startup")) {
+				getContextDAO().startup(props);
+			}
 
-		// find/set/check whether the current database version is compatible
-		checkForDatabaseUpdates(props);
+			// find/set/check whether the current database version is compatible
+			try (StartupProfiler.Phase phase = StartupProfiler.start("Context.checkForDatabaseUpdates")) {
+				checkForDatabaseUpdates(props);
+			}
 
-		// this should be first in the startup routines so that the application
-		// data directory can be set from the runtime properties
-		OpenmrsUtil.startup(props);
+			// this should be first in the startup routines so that the application
+			// data directory can be set from the runtime properties
+			OpenmrsUtil.startup(props);
 
-		openSession();
-		clearSession();
+			openSession();
+			clearSession();
 
-		// add any privileges/roles that /must/ exist for openmrs to work
-		// correctly.
-		checkCoreDataset();
+			// add any privileges/roles that /must/ exist for openmrs to work
+			// correctly.
+			try (StartupProfiler.Phase phase = StartupProfiler.start("Context.checkCoreDataset")) {
+				checkCoreDataset();
+			}
 
-		getContextDAO().setupSearchIndex();
+			try (StartupProfiler.Phase phase = StartupProfiler.start("ContextDAO.setupSearchIndex")) {
+				getContextDAO().setupSearchIndex();
+			}
 
-		// Loop over each module and startup each with these custom properties
-		ModuleUtil.startup(props);
+			// Loop over each module and startup each with these custom properties
+			try (StartupProfiler.Phase phase = StartupProfiler.start("ModuleUtil.startup")) {
+				ModuleUtil.startup(props);
+			}
+		}
 	}
 
 	/**
@@ -1195,7 +1208,7 @@ public class Context {
 	 */
 	private static void checkForDatabaseUpdates(Properties props) throws DatabaseUpdateException, InputRequiredException {
 		boolean updatesRequired;
-		try {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("DatabaseUpdater.updatesRequired")) {
 			updatesRequired = DatabaseUpdater.updatesRequired();
 		}
 		catch (Exception e) {
@@ -1205,7 +1218,9 @@ public class Context {
 		// this must be the first thing run in case it changes database mappings
 		if (updatesRequired) {
 			if (DatabaseUpdater.allowAutoUpdate()) {
-				DatabaseUpdater.executeChangelog();
+				try (StartupProfiler.Phase phase = StartupProfiler.start("DatabaseUpdater.executeChangelog")) {
+					DatabaseUpdater.executeChangelog();
+				}
 			} else {
 				throw new DatabaseUpdateException(
 						"Database updates are required.  Call Context.updateDatabase() before .startup() to continue.");
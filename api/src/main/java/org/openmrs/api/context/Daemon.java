@@ -26,6 +26,7 @@ import org.openmrs.module.ModuleFactory;
 import org.openmrs.scheduler.Task;
 import org.openmrs.scheduler.timer.TimerSchedulerTask;
 import org.openmrs.util.OpenmrsSecurityManager;
+import org.openmrs.util.StartupProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.AbstractRefreshableApplicationContext;
@@ -75,13 +76,16 @@ public class Daemon {
 	 */
 	public static Module startModule(final Module module, final boolean isOpenmrsStartup,
 	        final AbstractRefreshableApplicationContext applicationContext) throws ModuleException {
+		// the phases of the startup of the module belong to the phase of the calling thread
+		final StartupProfiler.Phase phase = StartupProfiler.current();
+		
 		// create a new thread and execute that task in it
 		DaemonThread startModuleThread = new DaemonThread() {
 			
 			@Override
 			public void run() {
 				isDaemonThread.set(true);
-				try {
+				try (StartupProfiler.Binding binding = StartupProfiler.bind(phase)) {
 					Context.openSession();
 					returnedObject = ModuleFactory.startModuleInternal(module, isOpenmrsStartup, applicationContext);
 				}
@@ -10,6 +10,7 @@
 package org.openmrs.api.db;
 
 import java.util.List;
+import java.util.Map;
 
 import org.openmrs.GlobalProperty;
 import org.openmrs.OpenmrsObject;
@@ -85,4 +86,14 @@ public interface AdministrationDAO {
 	 * @see AdministrationService#updatePostgresSequence()
 	 */
 	public void updatePostgresSequence() throws DAOException;
+	
+	/**
+	 * @see AdministrationService#getHibernateStatistics()
+	 */
+	public Map<String, Object> getHibernateStatistics();
+	
+	/**
+	 * Clears the statistics collected by Hibernate
+	 */
+	public void clearHibernateStatistics();
 }
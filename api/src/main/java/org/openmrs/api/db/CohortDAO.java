@@ -13,6 +13,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
 import org.openmrs.CohortMembership;
 
 /**
@@ -113,4 +114,12 @@ public interface CohortDAO {
 	 * @since 2.1.0
 	 */
 	CohortMembership saveCohortMembership(CohortMembership cohortMembership);
+	
+	/**
+	 * @param cohortId the id of the cohort
+	 * @param asOfDate date used to determine the active memberships
+	 * @return the ids of the patients with an active membership in the cohort
+	 * @since 2.7.0
+	 */
+	CohortBitmap getActiveMemberBitmap(Integer cohortId, Date asOfDate);
 }
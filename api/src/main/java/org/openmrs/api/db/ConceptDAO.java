@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptAnswer;
@@ -95,6 +96,12 @@ public interface ConceptDAO {
 	 */
 	public List<Concept> getAllConcepts(String sortBy, boolean asc, boolean includeRetired) throws DAOException;
 	
+	/**
+	 * @see org.openmrs.api.ConceptService#streamAllConcepts(boolean)
+	 * @since 2.7.0
+	 */
+	public Stream<Concept> streamAllConcepts(boolean includeRetired) throws DAOException;
+	
 	/**
 	 * Returns a list of concepts based on the search criteria
 	 * 
@@ -320,6 +327,11 @@ public interface ConceptDAO {
 	 */
 	public Iterator<Concept> conceptIterator();
 	
+	/**
+	 * @see org.openmrs.api.ConceptService#conceptIterator(int)
+	 */
+	public Iterator<Concept> conceptIterator(int pageSize);
+	
 	/**
 	 * @see org.openmrs.api.ConceptService#getConceptsByMapping(java.lang.String, java.lang.String)
 	 * 
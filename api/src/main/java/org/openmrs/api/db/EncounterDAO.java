@@ -9,9 +9,11 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.openmrs.Cohort;
 import org.openmrs.Encounter;
@@ -21,6 +23,8 @@ import org.openmrs.Location;
 import org.openmrs.Patient;
 import org.openmrs.Visit;
 import org.openmrs.api.EncounterService;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 
 /**
@@ -59,11 +63,54 @@ public interface EncounterDAO {
 	 */
 	public List<Encounter> getEncountersByPatientId(Integer patientId) throws DAOException;
 	
+	/**
+	 * @param patientId
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @return all encounters for the given patient identifier
+	 * @throws DAOException
+	 * @since 2.7.0
+	 */
+	public List<Encounter> getEncountersByPatientId(Integer patientId, Collection<EncounterType> excludedEncounterTypes)
+	        throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.EncounterService#getEncounters(org.openmrs.parameter.EncounterSearchCriteria)
 	 */
 	public List<Encounter> getEncounters(EncounterSearchCriteria encounterSearchCriteria);
 	
+	/**
+	 * @param encounterSearchCriteria
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see org.openmrs.api.EncounterService#getEncounters(org.openmrs.parameter.EncounterSearchCriteria)
+	 * @since 2.7.0
+	 */
+	public List<Encounter> getEncounters(EncounterSearchCriteria encounterSearchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
+	/**
+	 * @param encounterSearchCriteria
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see org.openmrs.api.EncounterService#streamEncounters(org.openmrs.parameter.EncounterSearchCriteria)
+	 * @since 2.7.0
+	 */
+	public Stream<Encounter> streamEncounters(EncounterSearchCriteria encounterSearchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
+	/**
+	 * @param encounterSearchCriteria
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @param token the position after which the page starts, null for the first page
+	 * @param length the number of encounters in the page
+	 * @see org.openmrs.api.EncounterService#getEncountersPage(EncounterSearchCriteria, String, int)
+	 * @since 2.7.0
+	 */
+	public KeysetPage<Encounter> getEncountersPage(EncounterSearchCriteria encounterSearchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes, ContinuationToken token, int length);
+	
 	/**
 	 * Save an Encounter Type
 	 * 
@@ -155,6 +202,23 @@ public interface EncounterDAO {
 	 */
 	List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length, boolean includeVoided);
 	
+	/**
+	 * Get a list of {@link Encounter} by Patient name or identifier based on batch settings
+	 * 
+	 * @param query patient name or identifier
+	 * @param patientId the patient id
+	 * @param start beginning index for the batch
+	 * @param length number of encounters to return in the batch
+	 * @param includeVoided Specifies whether voided encounters should be included
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @return list of {@link Encounter} based on batch settings
+	 * @see EncounterService#getEncounters(String, Integer, Integer, boolean)
+	 * @since 2.7.0
+	 */
+	List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length, boolean includeVoided,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
 	/**
 	 * Gets the location of the encounter
 	 * 
@@ -179,11 +243,37 @@ public interface EncounterDAO {
 	 */
 	public Long getCountOfEncounters(String query, Integer patientId, boolean includeVoided);
 	
+	/**
+	 * Return the number of encounters matching a patient name or patient identifier
+	 * 
+	 * @param query patient name or identifier
+	 * @param patientId the patient id
+	 * @param includeVoided Specifies whether voided encounters should be included
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @return the number of encounters matching the given search phrase
+	 * @see EncounterService#getCountOfEncounters(String, boolean)
+	 * @since 2.7.0
+	 */
+	public Long getCountOfEncounters(String query, Integer patientId, boolean includeVoided,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
 	/**
 	 * @see EncounterService#getEncountersByVisit(Visit, boolean)
 	 */
 	public List<Encounter> getEncountersByVisit(Visit visit, boolean includeVoided);
 	
+	/**
+	 * @param visit
+	 * @param includeVoided
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see EncounterService#getEncountersByVisit(Visit, boolean)
+	 * @since 2.7.0
+	 */
+	public List<Encounter> getEncountersByVisit(Visit visit, boolean includeVoided,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
 	/**
 	 * Saves an encounter role
 	 * 
@@ -236,17 +326,53 @@ public interface EncounterDAO {
 	 */
 	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient) throws DAOException;
 	
+	/**
+	 * @param patient
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see EncounterService#getEncountersNotAssignedToAnyVisit(Patient)
+	 * @since 2.7.0
+	 */
+	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient,
+	        Collection<EncounterType> excludedEncounterTypes) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.EncounterService#getEncountersByVisitsAndPatient(org.openmrs.Patient, boolean, java.lang.String, java.lang.Integer, java.lang.Integer)
 	 */
 	List<Encounter> getEncountersByVisitsAndPatient(Patient patient, boolean includeVoided, String query, Integer start,
 	        Integer length);
 	
+	/**
+	 * @param patient
+	 * @param includeVoided
+	 * @param query
+	 * @param start
+	 * @param length
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see org.openmrs.api.EncounterService#getEncountersByVisitsAndPatient(org.openmrs.Patient, boolean, java.lang.String, java.lang.Integer, java.lang.Integer)
+	 * @since 2.7.0
+	 */
+	List<Encounter> getEncountersByVisitsAndPatient(Patient patient, boolean includeVoided, String query, Integer start,
+	        Integer length, Collection<EncounterType> excludedEncounterTypes);
+	
 	/**
 	 * @see EncounterService#getEncountersByVisitsAndPatientCount(Patient, boolean, String)
 	 */
 	Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query);
 	
+	/**
+	 * @param patient
+	 * @param includeVoided
+	 * @param query
+	 * @param excludedEncounterTypes encounter types whose encounters are left out, e.g. the ones the
+	 *            user is not allowed to view, null or empty to include all types
+	 * @see EncounterService#getEncountersByVisitsAndPatientCount(Patient, boolean, String)
+	 * @since 2.7.0
+	 */
+	Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query,
+	        Collection<EncounterType> excludedEncounterTypes);
+	
 	/**
 	 * Get encounter roles by name
 	 * 
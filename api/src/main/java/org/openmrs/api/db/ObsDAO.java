@@ -9,8 +9,10 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -19,6 +21,9 @@ import org.openmrs.Location;
 import org.openmrs.Obs;
 import org.openmrs.Person;
 import org.openmrs.api.ObsService;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
+import org.openmrs.obs.Flowsheet;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 
 /**
@@ -54,6 +59,28 @@ public interface ObsDAO {
 	        Integer mostRecentN, Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs,
 	        String accessionNumber) throws DAOException;
 	
+	/**
+	 * @see org.openmrs.api.ObsService#streamObservations(java.util.List, java.util.List,
+	 *      java.util.List, java.util.List, java.util.List, java.util.List, java.util.List,
+	 *      java.lang.Integer, java.util.Date, java.util.Date, boolean, java.lang.String)
+	 * @since 2.7.0
+	 */
+	public Stream<Obs> streamObservations(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, List<String> sort,
+	        Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber)
+	        throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getObservationsPage(java.util.List, java.util.List,
+	 *      java.util.List, java.util.List, java.util.List, java.util.List, java.lang.Integer,
+	 *      java.util.Date, java.util.Date, boolean, java.lang.String, java.lang.String, int)
+	 * @since 2.7.0
+	 */
+	public KeysetPage<Obs> getObservationsPage(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, Integer obsGroupId,
+	        Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber, ContinuationToken token,
+	        int length) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.ObsService#getObservationCount(java.util.List, java.util.List,
 	 *      java.util.List, java.util.List, java.util.List, java.util.List, java.lang.Integer,
@@ -87,4 +114,46 @@ public interface ObsDAO {
 	 */
 	public Obs.Status getSavedStatus(Obs obs);
 	
+	/**
+	 * Points the latest obs entry of the person and concept of the given obs to it if it is more
+	 * recent than the current one or if there is no entry yet
+	 *
+	 * @param obs a saved non-voided obs
+	 * @since 2.7.0
+	 */
+	public void updateLatestObs(Obs obs) throws DAOException;
+	
+	/**
+	 * Points the latest obs entry of the given person and concept to the most recent non-voided obs,
+	 * deleting the entry if there is none
+	 *
+	 * @param personId the id of the person
+	 * @param conceptId the id of the concept
+	 * @since 2.7.0
+	 */
+	public void refreshLatestObs(Integer personId, Integer conceptId) throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.ObsService#rebuildLatestObs()
+	 * @since 2.7.0
+	 */
+	public int rebuildLatestObs() throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getLatestObs(Collection, Collection)
+	 * @since 2.7.0
+	 */
+	public List<Obs> getLatestObs(Collection<Integer> personIds, Collection<Integer> conceptIds) throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getFlowsheet(Person, List, Date, Date)
+	 * @param personId the id of the person
+	 * @param conceptIds the ids of the concepts, concept sets being already replaced by their members
+	 * @param fromDate the earliest obsDatetime (optional)
+	 * @param toDate the latest obsDatetime (optional)
+	 * @since 2.7.0
+	 */
+	public Flowsheet getFlowsheet(Integer personId, List<Integer> conceptIds, Date fromDate, Date toDate)
+	        throws DAOException;
+	
 }
@@ -104,6 +104,16 @@ public interface OrderDAO {
 	 */
 	public Long getNextOrderNumberSeedSequenceValue();
 	
+	/**
+	 * Reserves a block of consecutive order number seeds by advancing the next order number seed by
+	 * the given block size
+	 * 
+	 * @param blockSize the number of seeds to reserve
+	 * @return the first seed of the reserved block
+	 * @since 2.7.0
+	 */
+	public Long getNextOrderNumberSeedSequenceValue(int blockSize);
+	
 	/**
 	 * @see org.openmrs.api.OrderService#getActiveOrders(org.openmrs.Patient, org.openmrs.OrderType,
 	 *      org.openmrs.CareSetting, java.util.Date)
@@ -9,7 +9,9 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.openmrs.Allergies;
 import org.openmrs.Allergy;
@@ -18,7 +20,10 @@ import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientProgram;
+import org.openmrs.PatientSummary;
 import org.openmrs.api.PatientService;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 
 /**
  * Database methods for the PatientService
@@ -53,6 +58,35 @@ public interface PatientDAO {
 	 */
 	public List<Patient> getAllPatients(boolean includeVoided) throws DAOException;
 	
+	/**
+	 * @see org.openmrs.api.PatientService#streamAllPatients(boolean)
+	 * @since 2.7.0
+	 */
+	public Stream<Patient> streamAllPatients(boolean includeVoided) throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.PatientService#getPatientsPage(boolean, String, int)
+	 * @since 2.7.0
+	 */
+	public KeysetPage<Patient> getPatientsPage(boolean includeVoided, ContinuationToken token, int length)
+	        throws DAOException;
+	
+	/**
+	 * Searches the patients like {@link #getPatients(String, boolean, Integer, Integer)} without
+	 * loading them
+	 *
+	 * @return the ids of the matching patients in the order of relevance
+	 * @since 2.7.0
+	 */
+	public List<Integer> getPatientIds(String query, boolean includeVoided, Integer start, Integer length)
+	        throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.PatientService#getPatientSummaries(Collection)
+	 * @since 2.7.0
+	 */
+	public List<PatientSummary> getPatientSummaries(Collection<Integer> patientIds) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.PatientService#getPatients(String, Integer, Integer)
 	 *
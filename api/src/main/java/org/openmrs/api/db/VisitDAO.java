@@ -17,6 +17,7 @@ import java.util.Map;
 import org.openmrs.Concept;
 import org.openmrs.Location;
 import org.openmrs.Patient;
+import org.openmrs.User;
 import org.openmrs.Visit;
 import org.openmrs.VisitAttribute;
 import org.openmrs.VisitAttributeType;
@@ -156,4 +157,31 @@ public interface VisitDAO {
 	 */
 	public Visit getNextVisit(Visit previousVisit, Collection<VisitType> visitTypes, Date maximumStartDate);
 	
+	/**
+	 * Gets the ids of the active visits which match the specified visit types, ordered by id
+	 * 
+	 * @param visitTypes a collection of visit types to match against
+	 * @param maximumStartDate the visits should have been started before or at this date time
+	 * @param afterVisitId only visits with a greater id are returned, null to start from the first
+	 *            visit
+	 * @param maxResults the maximum number of ids to return
+	 * @return the ids of the matching unvoided active visits
+	 * @since 2.7.0
+	 */
+	public List<Integer> getActiveVisitIds(Collection<VisitType> visitTypes, Date maximumStartDate, Integer afterVisitId,
+	        int maxResults);
+	
+	/**
+	 * Stops the given visits with a single bulk update, visits which are already stopped are left
+	 * untouched. The update bypasses the session, so the audit fields are set explicitly.
+	 * 
+	 * @param visitIds the ids of the visits to stop
+	 * @param stopDatetime the stop date time to set
+	 * @param changedBy the user recorded as having changed the visits
+	 * @param dateChanged the date recorded as the date the visits were changed
+	 * @return the number of stopped visits
+	 * @since 2.7.0
+	 */
+	public int stopVisits(Collection<Integer> visitIds, Date stopDatetime, User changedBy, Date dateChanged);
+	
 }
@@ -18,7 +18,9 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.FlushMode;
 import org.hibernate.MappingException;
@@ -30,6 +32,7 @@ import org.hibernate.jdbc.Work;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.stat.Statistics;
 import org.hibernate.type.StringType;
 import org.hibernate.type.TextType;
 import org.hibernate.type.Type;
@@ -59,6 +62,17 @@ import org.springframework.validation.Validator;
 public class HibernateAdministrationDAO implements AdministrationDAO, ApplicationContextAware {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateAdministrationDAO.class);
+	
+	/**
+	 * The key of the Hibernate statistic holding the slowest query
+	 */
+	public static final String HIBERNATE_SLOWEST_QUERY = "slowestQuery";
+	
+	/**
+	 * The key of the Hibernate statistic holding the duration of the slowest query in milliseconds
+	 */
+	public static final String HIBERNATE_QUERY_MAX_TIME = "queryExecutionMaxTime";
+	
 	private static final String PROPERTY = "property";
 	
 	/**
@@ -429,4 +443,44 @@ public class HibernateAdministrationDAO implements AdministrationDAO, Applicatio
 			});
 		}
 	}
+	
+	/**
+	 * @see AdministrationDAO#getHibernateStatistics()
+	 */
+	@Override
+	public Map<String, Object> getHibernateStatistics() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		Statistics statistics = sessionFactory.getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			return result;
+		}
+		
+		long hits = statistics.getSecondLevelCacheHitCount();
+		long misses = statistics.getSecondLevelCacheMissCount();
+		result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+		result.put(HIBERNATE_QUERY_MAX_TIME, statistics.getQueryExecutionMaxTime());
+		result.put(HIBERNATE_SLOWEST_QUERY, statistics.getQueryExecutionMaxTimeQueryString());
+		result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+		result.put("entityLoadCount", statistics.getEntityLoadCount());
+		result.put("entityFetchCount", statistics.getEntityFetchCount());
+		result.put("collectionLoadCount", statistics.getCollectionLoadCount());
+		result.put("collectionFetchCount", statistics.getCollectionFetchCount());
+		result.put("secondLevelCacheHitCount", hits);
+		result.put("secondLevelCacheMissCount", misses);
+		result.put("secondLevelCacheHitRatio", hits + misses == 0 ? 0.0 : hits / (double) (hits + misses));
+		result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+		result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+		result.put("sessionOpenCount", statistics.getSessionOpenCount());
+		result.put("transactionCount", statistics.getTransactionCount());
+		result.put("flushCount", statistics.getFlushCount());
+		return result;
+	}
+	
+	/**
+	 * @see AdministrationDAO#clearHibernateStatistics()
+	 */
+	@Override
+	public void clearHibernateStatistics() {
+		sessionFactory.getStatistics().clear();
+	}
 }
@@ -18,9 +18,12 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
 import org.openmrs.CohortMembership;
 import org.openmrs.api.db.CohortDAO;
 import org.openmrs.api.db.DAOException;
@@ -206,4 +209,20 @@ public class HibernateCohortDAO implements CohortDAO {
 		sessionFactory.getCurrentSession().saveOrUpdate(cohortMembership);
 		return cohortMembership;
 	}
+	
+	@Override
+	public CohortBitmap getActiveMemberBitmap(Integer cohortId, Date asOfDate) {
+		CohortBitmap.Builder builder = CohortBitmap.builder();
+		try (ScrollableResults results = sessionFactory.getCurrentSession()
+		        .createQuery("select m.patientId from CohortMembership m where m.cohort.cohortId = :cohortId"
+		                + " and m.voided = false and m.startDate <= :asOfDate"
+		                + " and (m.endDate is null or m.endDate >= :asOfDate)")
+		        .setParameter("cohortId", cohortId).setParameter("asOfDate", asOfDate).setReadOnly(true)
+		        .setFetchSize(1000).scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				builder.add((Integer) results.get(0));
+			}
+		}
+		return builder.build();
+	}
 }
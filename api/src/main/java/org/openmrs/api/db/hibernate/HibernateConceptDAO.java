@@ -27,8 +27,10 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -82,6 +84,18 @@ public class HibernateConceptDAO implements ConceptDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateConceptDAO.class);
 	
+	/**
+	 * The runtime property setting the number of concepts {@link #conceptIterator()} fetches at once
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final String CONCEPT_ITERATOR_PAGE_SIZE_PROPERTY = "concept_iterator.page_size";
+	
+	/**
+	 * @since 2.7.0
+	 */
+	public static final int DEFAULT_CONCEPT_ITERATOR_PAGE_SIZE = 500;
+	
 	private SessionFactory sessionFactory;
 	
 	/**
@@ -322,6 +336,17 @@ public class HibernateConceptDAO implements ConceptDAO {
 		return (List<Concept>) query.getResultList();
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ConceptDAO#streamAllConcepts(boolean)
+	 */
+	@Override
+	public Stream<Concept> streamAllConcepts(boolean includeRetired) throws DAOException {
+		Session session = sessionFactory.getCurrentSession();
+		String hql = "from Concept as concept" + (includeRetired ? "" : " where concept.retired = false")
+		        + " order by concept.conceptId asc";
+		return HibernateUtil.stream(session, session.createQuery(hql, Concept.class));
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.ConceptDAO#saveDrug(org.openmrs.Drug)
 	 */
@@ -1044,21 +1069,49 @@ public class HibernateConceptDAO implements ConceptDAO {
 	 */
 	@Override
 	public Iterator<Concept> conceptIterator() {
-		return new ConceptIterator();
+		String pageSize = Context.getRuntimeProperties().getProperty(CONCEPT_ITERATOR_PAGE_SIZE_PROPERTY);
+		if (StringUtils.isNotBlank(pageSize)) {
+			try {
+				return conceptIterator(Integer.parseInt(pageSize.trim()));
+			}
+			catch (IllegalArgumentException e) {
+				log.warn("Invalid value for runtime property {}: {}", CONCEPT_ITERATOR_PAGE_SIZE_PROPERTY, pageSize);
+			}
+		}
+		return conceptIterator(DEFAULT_CONCEPT_ITERATOR_PAGE_SIZE);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ConceptDAO#conceptIterator(int)
+	 */
+	@Override
+	public Iterator<Concept> conceptIterator(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("The page size must be greater than 0");
+		}
+		return new ConceptIterator(pageSize);
 	}
 	
 	/**
-	 * An iterator that loops over all concepts in the dictionary one at a time
+	 * An iterator that loops over all concepts in the dictionary ordered by concept id. The concepts
+	 * are fetched a page at a time with a query on the concept ids greater than the last one, their
+	 * names, answers and mappings are initialized with one query each per page. Once a page is done,
+	 * its concepts are evicted from the session to keep the memory used bounded.
 	 */
 	private class ConceptIterator implements Iterator<Concept> {
 		
-		Concept currentConcept = null;
+		private final int pageSize;
+		
+		private List<Concept> page = Collections.emptyList();
 		
-		Concept nextConcept;
+		private int index = 0;
 		
-		public ConceptIterator() {
-			final int firstConceptId = getMinConceptId();
-			nextConcept = getConcept(firstConceptId);
+		private Integer lastConceptId = null;
+		
+		private boolean lastPage = false;
+		
+		public ConceptIterator(int pageSize) {
+			this.pageSize = pageSize;
 		}
 		
 		/**
@@ -1066,7 +1119,10 @@ public class HibernateConceptDAO implements ConceptDAO {
 		 */
 		@Override
 		public boolean hasNext() {
-			return nextConcept != null;
+			if (index >= page.size() && !lastPage) {
+				fetchNextPage();
+			}
+			return index < page.size();
 		}
 		
 		/**
@@ -1074,14 +1130,10 @@ public class HibernateConceptDAO implements ConceptDAO {
 		 */
 		@Override
 		public Concept next() {
-			if (currentConcept != null) {
-				sessionFactory.getCurrentSession().evict(currentConcept);
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
-			
-			currentConcept = nextConcept;
-			nextConcept = getNextConcept(currentConcept);
-			
-			return currentConcept;
+			return page.get(index++);
 		}
 		
 		/**
@@ -1092,8 +1144,43 @@ public class HibernateConceptDAO implements ConceptDAO {
 			throw new UnsupportedOperationException();
 		}
 		
+		private void fetchNextPage() {
+			Session session = sessionFactory.getCurrentSession();
+			for (Concept concept : page) {
+				// names and mappings are evicted by cascade
+				concept.getAnswers().forEach(session::evict);
+				session.evict(concept);
+			}
+			
+			String hql = "from Concept as concept"
+			        + (lastConceptId == null ? "" : " where concept.conceptId > :lastConceptId")
+			        + " order by concept.conceptId asc";
+			org.hibernate.query.Query<Concept> query = session.createQuery(hql, Concept.class).setMaxResults(pageSize);
+			if (lastConceptId != null) {
+				query.setParameter("lastConceptId", lastConceptId);
+			}
+			page = query.getResultList();
+			index = 0;
+			lastPage = page.size() < pageSize;
+			
+			if (!page.isEmpty()) {
+				lastConceptId = page.get(page.size() - 1).getConceptId();
+				initializeCollections(session, "names");
+				initializeCollections(session, "answers");
+				initializeCollections(session, "conceptMappings");
+			}
+		}
+		
+		/**
+		 * Fetches the given collection of all the concepts in the page at once, the fetched concepts
+		 * are the same instances as the ones in the page, so their collection gets initialized
+		 */
+		private void initializeCollections(Session session, String collection) {
+			session.createQuery("select distinct concept from Concept as concept left join fetch concept." + collection
+			        + " where concept in (:concepts)", Concept.class).setParameter("concepts", page).getResultList();
+		}
 	}
-
+	
 	/**
 	 * @see org.openmrs.api.db.ConceptDAO#getConceptsByMapping(String, String, boolean)
 	 */
@@ -10,11 +10,13 @@
 package org.openmrs.api.db.hibernate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
@@ -40,6 +42,8 @@ import org.openmrs.api.EncounterService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.EncounterDAO;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 
 /**
@@ -94,11 +98,21 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByPatientId(java.lang.Integer)
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<Encounter> getEncountersByPatientId(Integer patientId) throws DAOException {
+		return getEncountersByPatientId(patientId, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByPatientId(java.lang.Integer, Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Encounter> getEncountersByPatientId(Integer patientId, Collection<EncounterType> excludedEncounterTypes)
+	        throws DAOException {
 		Criteria crit = sessionFactory.getCurrentSession().createCriteria(Encounter.class).createAlias("patient", "p").add(
 		    Restrictions.eq("p.patientId", patientId)).add(Restrictions.eq("voided", false)).addOrder(
 		    Order.desc("encounterDatetime"));
+		excludeEncounterTypes(crit, "encounterType", excludedEncounterTypes);
 		
 		return crit.list();
 	}
@@ -106,10 +120,48 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	/**
 	 * @see org.openmrs.api.db.EncounterDAO#getEncounters(org.openmrs.parameter.EncounterSearchCriteria)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<Encounter> getEncounters(EncounterSearchCriteria searchCriteria) {
+		return getEncounters(searchCriteria, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncounters(org.openmrs.parameter.EncounterSearchCriteria, Collection)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Encounter> getEncounters(EncounterSearchCriteria searchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes) {
+		return createEncountersCriteria(searchCriteria, excludedEncounterTypes).addOrder(Order.asc("encounterDatetime"))
+		        .list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#streamEncounters(org.openmrs.parameter.EncounterSearchCriteria, Collection)
+	 */
+	@Override
+	public Stream<Encounter> streamEncounters(EncounterSearchCriteria searchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes) {
+		return HibernateUtil.stream(sessionFactory.getCurrentSession(),
+		    createEncountersCriteria(searchCriteria, excludedEncounterTypes).addOrder(Order.asc("encounterDatetime")));
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncountersPage(EncounterSearchCriteria, Collection,
+	 *      ContinuationToken, int)
+	 */
+	@Override
+	public KeysetPage<Encounter> getEncountersPage(EncounterSearchCriteria searchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes, ContinuationToken token, int length) {
+		return HibernateUtil.getKeysetPage(createEncountersCriteria(searchCriteria, excludedEncounterTypes),
+		    "encounterDatetime", "encounterId", true, token, length,
+		    (Encounter encounter) -> new ContinuationToken(encounter.getEncounterDatetime(), encounter.getEncounterId()));
+	}
+	
+	private Criteria createEncountersCriteria(EncounterSearchCriteria searchCriteria,
+	        Collection<EncounterType> excludedEncounterTypes) {
 		Criteria crit = sessionFactory.getCurrentSession().createCriteria(Encounter.class);
+		excludeEncounterTypes(crit, "encounterType", excludedEncounterTypes);
 		
 		if (searchCriteria.getPatient() != null && searchCriteria.getPatient().getPatientId() != null) {
 			crit.add(Restrictions.eq("patient", searchCriteria.getPatient()));
@@ -154,8 +206,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		if (!searchCriteria.getIncludeVoided()) {
 			crit.add(Restrictions.eq("voided", false));
 		}
-		crit.addOrder(Order.asc("encounterDatetime"));
-		return crit.list();
+		return crit;
 	}
 	
 	/**
@@ -268,14 +319,25 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 *      boolean)
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length,
 	        boolean includeVoided) {
+		return getEncounters(query, patientId, start, length, includeVoided, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncounters(String, Integer, Integer, Integer,
+	 *      boolean, Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length,
+	        boolean includeVoided, Collection<EncounterType> excludedEncounterTypes) {
 		if (StringUtils.isBlank(query) && patientId == null) {
 			return Collections.emptyList();
 		}
 		
-		Criteria criteria = createEncounterByQueryCriteria(query, patientId, includeVoided, true);
+		Criteria criteria = createEncounterByQueryCriteria(query, patientId, includeVoided, true,
+		    excludedEncounterTypes);
 		
 		if (start != null) {
 			criteria.setFirstResult(start);
@@ -362,7 +424,18 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 */
 	@Override
 	public Long getCountOfEncounters(String query, Integer patientId, boolean includeVoided) {
-		Criteria criteria = createEncounterByQueryCriteria(query, patientId, includeVoided, false);
+		return getCountOfEncounters(query, patientId, includeVoided, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getCountOfEncounters(java.lang.String,
+	 *      java.lang.Integer, boolean, Collection)
+	 */
+	@Override
+	public Long getCountOfEncounters(String query, Integer patientId, boolean includeVoided,
+	        Collection<EncounterType> excludedEncounterTypes) {
+		Criteria criteria = createEncounterByQueryCriteria(query, patientId, includeVoided, false,
+		    excludedEncounterTypes);
 		
 		criteria.setProjection(Projections.countDistinct("enc.encounterId"));
 		return (Long) criteria.uniqueResult();
@@ -376,14 +449,16 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 * @param patientId the patient id
 	 * @param includeVoided Specifies whether voided encounters should be included
 	 * @param orderByNames specifies whether the encounters should be ordered by person names
+	 * @param excludedEncounterTypes encounter types whose encounters are left out
 	 * @return Criteria
 	 */
 	private Criteria createEncounterByQueryCriteria(String query, Integer patientId, boolean includeVoided,
-	        boolean orderByNames) {
+	        boolean orderByNames, Collection<EncounterType> excludedEncounterTypes) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Encounter.class, "enc");
 		if (!includeVoided) {
 			criteria.add(Restrictions.eq("enc.voided", false));
 		}
+		excludeEncounterTypes(criteria, "enc.encounterType", excludedEncounterTypes);
 		
 		criteria = criteria.createCriteria("patient", "pat");
 		if (patientId != null) {
@@ -447,13 +522,23 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByVisit(Visit, boolean)
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<Encounter> getEncountersByVisit(Visit visit, boolean includeVoided) {
+		return getEncountersByVisit(visit, includeVoided, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByVisit(Visit, boolean, Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Encounter> getEncountersByVisit(Visit visit, boolean includeVoided,
+	        Collection<EncounterType> excludedEncounterTypes) {
 		Criteria crit = sessionFactory.getCurrentSession().createCriteria(Encounter.class).add(
 		    Restrictions.eq("visit", visit));
 		if (!includeVoided) {
 			crit.add(Restrictions.eq("voided", false));
 		}
+		excludeEncounterTypes(crit, "encounterType", excludedEncounterTypes);
 		crit.addOrder(Order.asc("encounterDatetime"));
 		
 		return crit.list();
@@ -524,12 +609,19 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		        .uniqueResult();
 	}
 	
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient) throws DAOException {
-		return sessionFactory.getCurrentSession().createCriteria(Encounter.class).add(Restrictions.eq("patient", patient))
-		        .add(Restrictions.isNull("visit")).add(Restrictions.eq("voided", false)).addOrder(
-		            Order.desc("encounterDatetime")).setMaxResults(100).list();
+		return getEncountersNotAssignedToAnyVisit(patient, null);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient,
+	        Collection<EncounterType> excludedEncounterTypes) throws DAOException {
+		Criteria crit = sessionFactory.getCurrentSession().createCriteria(Encounter.class).add(
+		    Restrictions.eq("patient", patient)).add(Restrictions.isNull("visit")).add(Restrictions.eq("voided", false));
+		excludeEncounterTypes(crit, "encounterType", excludedEncounterTypes);
+		return crit.addOrder(Order.desc("encounterDatetime")).setMaxResults(100).list();
 	}
 	
 	/**
@@ -539,8 +631,19 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	@Override
 	public List<Encounter> getEncountersByVisitsAndPatient(Patient patient, boolean includeVoided, String query,
 	        Integer start, Integer length) {
+		return getEncountersByVisitsAndPatient(patient, includeVoided, query, start, length, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByVisitsAndPatient(org.openmrs.Patient,
+	 *      boolean, java.lang.String, java.lang.Integer, java.lang.Integer, Collection)
+	 */
+	@Override
+	public List<Encounter> getEncountersByVisitsAndPatient(Patient patient, boolean includeVoided, String query,
+	        Integer start, Integer length, Collection<EncounterType> excludedEncounterTypes) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Encounter.class);
 		addEncountersByPatientCriteria(criteria, patient, includeVoided, query);
+		excludeEncounterTypes(criteria, "encounterType", excludedEncounterTypes);
 		criteria.addOrder(Order.desc("visit.startDatetime"));
 		criteria.addOrder(Order.desc("visit.visitId"));
 		criteria.addOrder(Order.desc("encounterDatetime"));
@@ -591,6 +694,16 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 */
 	@Override
 	public Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query) {
+		return getEncountersByVisitsAndPatientCount(patient, includeVoided, query, null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.EncounterDAO#getEncountersByVisitsAndPatientCount(org.openmrs.Patient,
+	 *      boolean, java.lang.String, Collection)
+	 */
+	@Override
+	public Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query,
+	        Collection<EncounterType> excludedEncounterTypes) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Visit.class);
 		addEmptyVisitsByPatientCriteria(criteria, patient, includeVoided, query);
 		
@@ -599,6 +712,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		
 		criteria = sessionFactory.getCurrentSession().createCriteria(Encounter.class);
 		addEncountersByPatientCriteria(criteria, patient, includeVoided, query);
+		excludeEncounterTypes(criteria, "encounterType", excludedEncounterTypes);
 		
 		criteria.setProjection(Projections.rowCount());
 		count = count + ((Number) criteria.uniqueResult()).intValue();
@@ -650,6 +764,21 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		
 	}
 	
+	/**
+	 * Leaves out the encounters of the given types in the database rather than filtering them once
+	 * loaded, so that paging and counts are not affected by the encounters left out
+	 *
+	 * @param criteria the criteria to restrict
+	 * @param property the path of the encounter type of the encounter
+	 * @param excludedEncounterTypes the encounter types to leave out
+	 */
+	private void excludeEncounterTypes(Criteria criteria, String property,
+	        Collection<EncounterType> excludedEncounterTypes) {
+		if (excludedEncounterTypes != null && !excludedEncounterTypes.isEmpty()) {
+			criteria.add(Restrictions.not(Restrictions.in(property, excludedEncounterTypes)));
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.EncounterDAO#getEncounterRolesByName(String)
 	 */
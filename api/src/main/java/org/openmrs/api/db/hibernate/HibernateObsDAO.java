@@ -9,14 +9,24 @@
  */
 package org.openmrs.api.db.hibernate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.FlushMode;
+import org.hibernate.Query;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.DetachedCriteria;
@@ -28,6 +38,7 @@ import org.hibernate.criterion.Subqueries;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.Encounter;
+import org.openmrs.LatestObs;
 import org.openmrs.Location;
 import org.openmrs.Obs;
 import org.openmrs.Patient;
@@ -35,6 +46,9 @@ import org.openmrs.Person;
 import org.openmrs.User;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.ObsDAO;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
+import org.openmrs.obs.Flowsheet;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 
 /**
@@ -46,6 +60,12 @@ import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
  */
 public class HibernateObsDAO implements ObsDAO {
 	
+	/**
+	 * The maximum number of persons looked up by a single latest obs query, to keep the size of the
+	 * in clause reasonable
+	 */
+	private static final int MAX_PERSONS_PER_LATEST_OBS_QUERY = 1000;
+	
 	protected SessionFactory sessionFactory;
 	
 	/**
@@ -111,6 +131,39 @@ public class HibernateObsDAO implements ObsDAO {
 		return criteria.list();
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#streamObservations(List, List, List, List, List, List, List,
+	 *      Integer, Date, Date, boolean, String)
+	 */
+	@Override
+	public Stream<Obs> streamObservations(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, List<String> sortList,
+	        Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber)
+	        throws DAOException {
+		
+		Criteria criteria = createGetObservationsCriteria(whom, encounters, questions, answers, personTypes, locations,
+		    sortList, null, obsGroupId, fromDate, toDate, null, includeVoidedObs, accessionNumber);
+		
+		return HibernateUtil.stream(sessionFactory.getCurrentSession(), criteria);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#getObservationsPage(List, List, List, List, List, List, Integer,
+	 *      Date, Date, boolean, String, ContinuationToken, int)
+	 */
+	@Override
+	public KeysetPage<Obs> getObservationsPage(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, Integer obsGroupId,
+	        Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber, ContinuationToken token,
+	        int length) throws DAOException {
+		
+		Criteria criteria = createGetObservationsCriteria(whom, encounters, questions, answers, personTypes, locations,
+		    null, null, obsGroupId, fromDate, toDate, null, includeVoidedObs, accessionNumber);
+		
+		return HibernateUtil.getKeysetPage(criteria, "obsDatetime", "obsId", false, token, length,
+		    (Obs obs) -> new ContinuationToken(obs.getObsDatetime(), obs.getObsId()));
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.ObsDAO#getObservationCount(List, List, List, List, List, List, Integer, Date, Date, List, boolean, String)
 	 */
@@ -284,4 +337,177 @@ public class HibernateObsDAO implements ObsDAO {
 		}
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#updateLatestObs(org.openmrs.Obs)
+	 */
+	@Override
+	public void updateLatestObs(Obs obs) throws DAOException {
+		// the store is only changed with statements so that no stale entry stays in the session
+		Integer personId = obs.getPerson().getPersonId();
+		Integer conceptId = obs.getConcept().getConceptId();
+		if (replaceOlderLatestObs(personId, conceptId, obs.getObsId(), obs.getObsDatetime()) == 0
+		        && !latestObsExists(personId, conceptId)
+		        && !insertLatestObs(personId, conceptId, obs.getObsId(), obs.getObsDatetime())) {
+			// another transaction added the entry in the meantime
+			replaceOlderLatestObs(personId, conceptId, obs.getObsId(), obs.getObsDatetime());
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#refreshLatestObs(java.lang.Integer, java.lang.Integer)
+	 */
+	@Override
+	public void refreshLatestObs(Integer personId, Integer conceptId) throws DAOException {
+		Session session = sessionFactory.getCurrentSession();
+		Object[] latest = (Object[]) session.createQuery(
+		    "select o.obsId, o.obsDatetime from Obs o where o.person.personId = :personId "
+		            + "and o.concept.conceptId = :conceptId and o.voided = false order by o.obsDatetime desc, o.obsId desc")
+		        .setParameter("personId", personId).setParameter("conceptId", conceptId).setMaxResults(1)
+		        .uniqueResult();
+		session.createQuery("delete from LatestObs lo where lo.personId = :personId and lo.conceptId = :conceptId")
+		        .setParameter("personId", personId).setParameter("conceptId", conceptId).executeUpdate();
+		if (latest != null && !insertLatestObs(personId, conceptId, (Integer) latest[0], (Date) latest[1])) {
+			replaceOlderLatestObs(personId, conceptId, (Integer) latest[0], (Date) latest[1]);
+		}
+	}
+	
+	/**
+	 * Points the entry of the given person and concept to the given obs if the entry points to an
+	 * older obs or to the same one
+	 *
+	 * @return the number of updated entries
+	 */
+	private int replaceOlderLatestObs(Integer personId, Integer conceptId, Integer obsId, Date obsDatetime) {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("update LatestObs lo set lo.obsId = :obsId, lo.obsDatetime = :obsDatetime "
+		                + "where lo.personId = :personId and lo.conceptId = :conceptId and (lo.obsId = :obsId "
+		                + "or lo.obsDatetime < :obsDatetime or (lo.obsDatetime = :obsDatetime and lo.obsId < :obsId))")
+		        .setParameter("obsId", obsId).setParameter("obsDatetime", obsDatetime).setParameter("personId", personId)
+		        .setParameter("conceptId", conceptId).executeUpdate();
+	}
+	
+	private boolean latestObsExists(Integer personId, Integer conceptId) {
+		return ((Number) sessionFactory.getCurrentSession()
+		        .createQuery("select count(*) from LatestObs lo where lo.personId = :personId and lo.conceptId = :conceptId")
+		        .setParameter("personId", personId).setParameter("conceptId", conceptId).uniqueResult()).intValue() > 0;
+	}
+	
+	/**
+	 * Inserts an entry within a savepoint, so that losing the race against another transaction
+	 * inserting the same entry does not roll back the whole transaction
+	 *
+	 * @return true if the entry was inserted, false if it already exists
+	 */
+	private boolean insertLatestObs(Integer personId, Integer conceptId, Integer obsId, Date obsDatetime) {
+		return sessionFactory.getCurrentSession().doReturningWork(connection -> {
+			Savepoint savepoint = connection.setSavepoint();
+			try (PreparedStatement insert = connection.prepareStatement(
+			    "insert into obs_latest (person_id, concept_id, obs_id, obs_datetime) values (?, ?, ?, ?)")) {
+				insert.setInt(1, personId);
+				insert.setInt(2, conceptId);
+				insert.setInt(3, obsId);
+				insert.setTimestamp(4, new Timestamp(obsDatetime.getTime()));
+				insert.executeUpdate();
+			}
+			catch (SQLException e) {
+				// class 23 is the integrity constraint violation, i.e. the duplicate primary key
+				if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+					throw e;
+				}
+				connection.rollback(savepoint);
+				return false;
+			}
+			connection.releaseSavepoint(savepoint);
+			return true;
+		});
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#rebuildLatestObs()
+	 */
+	@Override
+	public int rebuildLatestObs() throws DAOException {
+		Session session = sessionFactory.getCurrentSession();
+		session.flush();
+		session.createQuery("delete from LatestObs").executeUpdate();
+		return session.createSQLQuery("insert into obs_latest (person_id, concept_id, obs_id, obs_datetime) "
+		        + "select o.person_id, o.concept_id, o.obs_id, o.obs_datetime from obs o where o.voided = :voided "
+		        + "and not exists (select 1 from obs n where n.person_id = o.person_id and n.concept_id = o.concept_id "
+		        + "and n.voided = :voided and (n.obs_datetime > o.obs_datetime "
+		        + "or (n.obs_datetime = o.obs_datetime and n.obs_id > o.obs_id)))")
+		        .addSynchronizedEntityClass(LatestObs.class).setParameter("voided", false).executeUpdate();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Obs> getLatestObs(Collection<Integer> personIds, Collection<Integer> conceptIds) throws DAOException {
+		List<Obs> obs = new ArrayList<>();
+		if (personIds.isEmpty() || conceptIds.isEmpty()) {
+			return obs;
+		}
+		List<Integer> ids = new ArrayList<>(personIds);
+		for (int i = 0; i < ids.size(); i += MAX_PERSONS_PER_LATEST_OBS_QUERY) {
+			List<Integer> chunk = ids.subList(i, Math.min(i + MAX_PERSONS_PER_LATEST_OBS_QUERY, ids.size()));
+			obs.addAll(sessionFactory.getCurrentSession()
+			        .createQuery("select o from LatestObs lo, Obs o where o.obsId = lo.obsId and o.voided = false "
+			                + "and o.person.personId = lo.personId and o.concept.conceptId = lo.conceptId "
+			                + "and lo.personId in (:personIds) and lo.conceptId in (:conceptIds)")
+			        .setParameterList("personIds", chunk).setParameterList("conceptIds", conceptIds).list());
+		}
+		return obs;
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#getFlowsheet(java.lang.Integer, java.util.List, java.util.Date,
+	 *      java.util.Date)
+	 */
+	@Override
+	public Flowsheet getFlowsheet(Integer personId, List<Integer> conceptIds, Date fromDate, Date toDate)
+	        throws DAOException {
+		Flowsheet.Builder flowsheet = new Flowsheet.Builder(conceptIds);
+		if (conceptIds.isEmpty()) {
+			return flowsheet.build();
+		}
+		
+		// only the values are selected so that no obs is loaded into the session
+		StringBuilder hql = new StringBuilder("select o.obsId, o.concept.conceptId, o.obsDatetime, o.valueNumeric, "
+		        + "vc.conceptId, o.valueText from Obs o left join o.valueCoded vc where o.person.personId = :personId "
+		        + "and o.concept.conceptId in (:conceptIds) and o.voided = false");
+		if (fromDate != null) {
+			hql.append(" and o.obsDatetime >= :fromDate");
+		}
+		if (toDate != null) {
+			hql.append(" and o.obsDatetime <= :toDate");
+		}
+		hql.append(" order by o.obsDatetime, o.obsId");
+		
+		Query query = sessionFactory.getCurrentSession().createQuery(hql.toString());
+		query.setParameter("personId", personId);
+		query.setParameterList("conceptIds", conceptIds);
+		if (fromDate != null) {
+			query.setParameter("fromDate", fromDate);
+		}
+		if (toDate != null) {
+			query.setParameter("toDate", toDate);
+		}
+		query.setReadOnly(true);
+		query.setFetchSize(HibernateUtil.STREAM_FETCH_SIZE);
+		
+		ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+		try {
+			while (results.next()) {
+				Object[] row = results.get();
+				flowsheet.addRow((Integer) row[0], (Integer) row[1], (Date) row[2], (Double) row[3], (Integer) row[4],
+				    (String) row[5]);
+			}
+		}
+		finally {
+			results.close();
+		}
+		return flowsheet.build();
+	}
+	
 }
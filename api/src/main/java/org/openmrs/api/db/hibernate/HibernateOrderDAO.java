@@ -372,6 +372,18 @@ public class HibernateOrderDAO implements OrderDAO {
 	 */
 	@Override
 	public Long getNextOrderNumberSeedSequenceValue() {
+		return getNextOrderNumberSeedSequenceValue(1);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.OrderDAO#getNextOrderNumberSeedSequenceValue(int)
+	 */
+	@Override
+	public Long getNextOrderNumberSeedSequenceValue(int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size must be at least 1");
+		}
+		
 		GlobalProperty globalProperty = (GlobalProperty) sessionFactory.getCurrentSession().get(GlobalProperty.class,
 		    OpenmrsConstants.GP_NEXT_ORDER_NUMBER_SEED, LockOptions.UPGRADE);
 		
@@ -394,7 +406,7 @@ public class HibernateOrderDAO implements OrderDAO {
 			        new Object[] { OpenmrsConstants.GP_NEXT_ORDER_NUMBER_SEED });
 		}
 		
-		globalProperty.setPropertyValue(String.valueOf(gpNumericValue + 1));
+		globalProperty.setPropertyValue(String.valueOf(gpNumericValue + blockSize));
 		
 		sessionFactory.getCurrentSession().save(globalProperty);
 		
@@ -11,15 +11,18 @@ package org.openmrs.api.db.hibernate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -38,6 +41,7 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientIdentifierType.UniquenessBehavior;
 import org.openmrs.PatientProgram;
+import org.openmrs.PatientSummary;
 import org.openmrs.Person;
 import org.openmrs.PersonAttribute;
 import org.openmrs.PersonName;
@@ -45,6 +49,8 @@ import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.PatientDAO;
 import org.openmrs.api.db.hibernate.search.LuceneQuery;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.collection.ListPart;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
@@ -62,6 +68,20 @@ public class HibernatePatientDAO implements PatientDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernatePatientDAO.class);
 	
+	/**
+	 * Projects the columns of a {@link PatientSummary}, with one row per name and non-voided
+	 * identifier of each patient sorted so that the first row of a patient holds the preferred name
+	 * and identifier
+	 */
+	private static final String PATIENT_SUMMARY_QUERY = "select p.patientId, p.uuid, n.givenName, n.middleName, "
+	        + "n.familyName, pi.identifier, pit.name, p.gender, p.birthdate, p.birthdateEstimated, p.dead, n.voided, "
+	        + "p.voided, p.deathDate from Patient p left join p.names n "
+	        + "left join p.identifiers pi with pi.voided = false left join pi.identifierType pit "
+	        + "where p.patientId in (:patientIds) "
+	        + "order by p.patientId, n.voided, n.preferred desc, n.personNameId, pi.preferred desc, pi.patientIdentifierId";
+	
+	private static final int MAX_PATIENT_SUMMARIES_PER_QUERY = 1000;
+	
 	/**
 	 * Hibernate session factory
 	 */
@@ -240,13 +260,91 @@ public class HibernatePatientDAO implements PatientDAO {
 	@SuppressWarnings("unchecked")
         @Override
 	public List<Patient> getAllPatients(boolean includeVoided) throws DAOException {
+		return createAllPatientsCriteria(includeVoided).list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.PatientDAO#streamAllPatients(boolean)
+	 */
+	@Override
+	public Stream<Patient> streamAllPatients(boolean includeVoided) throws DAOException {
+		return HibernateUtil.stream(sessionFactory.getCurrentSession(),
+		    createAllPatientsCriteria(includeVoided).addOrder(Order.asc("patientId")));
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.PatientDAO#getPatientsPage(boolean, ContinuationToken, int)
+	 */
+	@Override
+	public KeysetPage<Patient> getPatientsPage(boolean includeVoided, ContinuationToken token, int length)
+	        throws DAOException {
+		return HibernateUtil.getKeysetPage(createAllPatientsCriteria(includeVoided), null, "patientId", true, token,
+		    length, (Patient patient) -> new ContinuationToken(null, patient.getPatientId()));
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.PatientDAO#getPatientIds(String, boolean, Integer, Integer)
+	 */
+	@Override
+	public List<Integer> getPatientIds(String query, boolean includeVoided, Integer start, Integer length)
+	        throws DAOException {
+		if (StringUtils.isBlank(query) || (length != null && length < 1)) {
+			return Collections.emptyList();
+		}
+		
+		Integer tmpStart = start;
+		if (tmpStart == null || tmpStart < 0) {
+			tmpStart = 0;
+		}
+		
+		return findPatientIds(query, includeVoided, tmpStart, length);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.PatientDAO#getPatientSummaries(Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<PatientSummary> getPatientSummaries(Collection<Integer> patientIds) throws DAOException {
+		List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(patientIds));
+		ids.remove(null);
+		Map<Integer, PatientSummary> summaries = new HashMap<>();
+		for (int i = 0; i < ids.size(); i += MAX_PATIENT_SUMMARIES_PER_QUERY) {
+			Query query = sessionFactory.getCurrentSession().createQuery(PATIENT_SUMMARY_QUERY);
+			query.setParameterList("patientIds", ids.subList(i, Math.min(i + MAX_PATIENT_SUMMARIES_PER_QUERY, ids.size())));
+			List<Object[]> rows = query.list();
+			// the rows of a patient are sorted best name and identifier first
+			for (Object[] row : rows) {
+				summaries.computeIfAbsent((Integer) row[0], patientId -> toPatientSummary(row));
+			}
+		}
+		
+		List<PatientSummary> result = new ArrayList<>(summaries.size());
+		for (Integer patientId : ids) {
+			PatientSummary summary = summaries.get(patientId);
+			if (summary != null) {
+				result.add(summary);
+			}
+		}
+		return result;
+	}
+	
+	private PatientSummary toPatientSummary(Object[] row) {
+		// like Person#getPersonName(), voided names are only shown for voided patients
+		boolean nameVoided = Boolean.TRUE.equals(row[11]) && !Boolean.TRUE.equals(row[12]);
+		return new PatientSummary((Integer) row[0], (String) row[1], nameVoided ? null : (String) row[2],
+		        nameVoided ? null : (String) row[3], nameVoided ? null : (String) row[4], (String) row[5], (String) row[6],
+		        (String) row[7], (Date) row[8], Boolean.TRUE.equals(row[9]), Boolean.TRUE.equals(row[10]), (Date) row[13]);
+	}
+	
+	private Criteria createAllPatientsCriteria(boolean includeVoided) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Patient.class);
 		
 		if (!includeVoided) {
 			criteria.add(Restrictions.eq("voided", false));
 		}
 		
-		return criteria.list();
+		return criteria;
 	}
 	
 	/**
@@ -747,6 +845,17 @@ public class HibernatePatientDAO implements PatientDAO {
 	}
 	
 	public List<Patient> findPatients(String query, boolean includeVoided, Integer start, Integer length){
+		List<Patient> patients = new LinkedList<>();
+		findPatientIds(query, includeVoided, start, length).forEach(patientId -> patients.add(getPatient(patientId)));
+		return patients;
+	}
+	
+	/**
+	 * Searches the patients with the Lucene indexes, only projecting the ids of the patients
+	 *
+	 * @return the ids of the matching patients in the order of relevance
+	 */
+	private List<Integer> findPatientIds(String query, boolean includeVoided, Integer start, Integer length) {
 		Integer tmpStart = start;
 		if (tmpStart == null) {
 			tmpStart = 0;
@@ -758,7 +867,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 		query = LuceneQuery.escapeQuery(query);
 
-		List<Patient> patients = new LinkedList<>();
+		List<Integer> patientIds = new ArrayList<>();
 
 		String minChars = Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS);
 
@@ -766,7 +875,7 @@ public class HibernatePatientDAO implements PatientDAO {
 			minChars = "" + OpenmrsConstants.GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS;
 		}
 		if (query.length() < Integer.valueOf(minChars)) {
-			return patients;
+			return patientIds;
 		}
 
 		LuceneQuery<PatientIdentifier> identifierQuery = getPatientIdentifierLuceneQuery(query, includeVoided, false);
@@ -774,7 +883,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		long identifiersSize = identifierQuery.resultSize();
 		if (identifiersSize > tmpStart) {
 			ListPart<Object[]> patientIdentifiers = identifierQuery.listPartProjection(tmpStart, tmpLength, "patient.personId");
-			patientIdentifiers.getList().forEach(patientIdentifier -> patients.add(getPatient((Integer) patientIdentifier[0])));
+			patientIdentifiers.getList().forEach(patientIdentifier -> patientIds.add((Integer) patientIdentifier[0]));
 
 			tmpLength -= patientIdentifiers.getList().size();
 			tmpStart = 0;
@@ -783,7 +892,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 
 		if (tmpLength == 0) {
-			return patients;
+			return patientIds;
 		}
 
 		PersonLuceneQuery personLuceneQuery = new PersonLuceneQuery(sessionFactory);
@@ -792,7 +901,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		long namesSize = nameQuery.resultSize();
 		if (namesSize > tmpStart) {
 			ListPart<Object[]> personNames = nameQuery.listPartProjection(tmpStart, tmpLength, "person.personId");
-			personNames.getList().forEach(personName -> patients.add(getPatient((Integer) personName[0])));
+			personNames.getList().forEach(personName -> patientIds.add((Integer) personName[0]));
 
 			tmpLength -= personNames.getList().size();
 			tmpStart = 0;
@@ -801,17 +910,17 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 
 		if (tmpLength == 0) {
-			return patients;
+			return patientIds;
 		}
 
 		LuceneQuery<PersonAttribute> attributeQuery = personLuceneQuery.getPatientAttributeQuery(query, includeVoided, nameQuery);
 		long attributesSize = attributeQuery.resultSize();
 		if (attributesSize > tmpStart) {
 			ListPart<Object[]> personAttributes = attributeQuery.listPartProjection(tmpStart, tmpLength, "person.personId");
-			personAttributes.getList().forEach(personAttribute -> patients.add(getPatient((Integer) personAttribute[0])));
+			personAttributes.getList().forEach(personAttribute -> patientIds.add((Integer) personAttribute[0]));
 		}
 
-		return patients;
+		return patientIds;
 	}
 	private LuceneQuery<PatientIdentifier> getPatientIdentifierLuceneQuery(String query, List<PatientIdentifierType> identifierTypes, boolean matchExactly) {
 		LuceneQuery<PatientIdentifier> patientIdentifierLuceneQuery = getPatientIdentifierLuceneQuery(query, matchExactly);
@@ -22,13 +22,17 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.Interceptor;
 import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.integrator.spi.Integrator;
 import org.hibernate.service.spi.SessionFactoryServiceRegistry;
 import org.openmrs.api.context.Context;
+import org.openmrs.metrics.MetricsRegistry;
 import org.openmrs.module.Module;
 import org.openmrs.module.ModuleFactory;
 import org.openmrs.util.OpenmrsUtil;
@@ -57,6 +61,9 @@ public class HibernateSessionFactoryBean extends LocalSessionFactoryBean impleme
 	@Autowired(required = false)
 	public Map<String, Interceptor> interceptors = new HashMap<>();
 	
+	@Autowired(required = false)
+	private MetricsRegistry metricsRegistry;
+	
 	private Metadata metadata;
 	
 	/**
@@ -168,6 +175,15 @@ public class HibernateSessionFactoryBean extends LocalSessionFactoryBean impleme
 			entry.setValue(value);
 		}
 		
+		if (!config.containsKey(AvailableSettings.CONNECTION_PROVIDER)) {
+			if (StringUtils.isNotBlank(config.getProperty(ReplicaRoutingConnectionProvider.REPLICA_URLS_PROPERTY))) {
+				// send read-only transactions to the read replicas, the pools are chosen by the routing provider
+				config.setProperty(AvailableSettings.CONNECTION_PROVIDER, ReplicaRoutingConnectionProvider.class.getName());
+			} else if (HikariConnectionProvider.isSelected(config)) {
+				config.setProperty(AvailableSettings.CONNECTION_PROVIDER, HikariConnectionProvider.class.getName());
+			}
+		}
+		
 		log.debug("Setting global Hibernate Session Interceptor for SessionFactory, Interceptor: " + chainingInterceptor);
 		
 		// make sure all autowired interceptors are put onto our chaining interceptor
@@ -188,6 +204,22 @@ public class HibernateSessionFactoryBean extends LocalSessionFactoryBean impleme
 		setHibernateIntegrators(this);
 		
 		super.afterPropertiesSet();
+		
+		registerConnectionPoolMetrics();
+	}
+	
+	/**
+	 * Publishes the metrics of the connection pool if it provides any
+	 */
+	private void registerConnectionPoolMetrics() {
+		if (metricsRegistry == null) {
+			return;
+		}
+		ConnectionProvider connectionProvider = ((SessionFactoryImplementor) getObject()).getServiceRegistry()
+		        .getService(ConnectionProvider.class);
+		if (connectionProvider != null && connectionProvider.isUnwrappableAs(HikariConnectionProvider.class)) {
+			connectionProvider.unwrap(HikariConnectionProvider.class).registerMetrics(metricsRegistry);
+		}
 	}
 	
 	/**
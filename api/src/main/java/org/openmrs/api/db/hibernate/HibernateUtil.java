@@ -18,8 +18,15 @@ import javax.persistence.criteria.Subquery;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
@@ -29,7 +36,9 @@ import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Conjunction;
+import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Property;
 import org.hibernate.criterion.Restrictions;
@@ -42,6 +51,8 @@ import org.openmrs.Location;
 import org.openmrs.LocationAttribute;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.attribute.AttributeType;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +72,12 @@ public class HibernateUtil {
 	
 	private static Boolean isPostgreSQLDialect = null;
 	
+	/**
+	 * The number of rows fetched at a time and the number of entities detached at a time by
+	 * {@link #stream(Session, Criteria)}
+	 */
+	public static final int STREAM_FETCH_SIZE = 1000;
+	
 	/**
 	 * Check and cache whether the currect dialect is HSQL or not. This is needed because some
 	 * queries are different if in the hsql world as opposed to the mysql/postgres world
@@ -269,4 +286,124 @@ public class HibernateUtil {
 			.setFetchSize(fetchSize)
 			.scroll(ScrollMode.FORWARD_ONLY);
 	}
+
+	/**
+	 * Streams the entities selected by the given criteria with a forward only cursor, fetching
+	 * {@value #STREAM_FETCH_SIZE} rows at a time. The entities are detached from the session in
+	 * batches of the same size once the following batch is read, so that the session does not grow
+	 * with the number of rows. Changes made to the entities are therefore not saved unless they are
+	 * saved before the batch is detached.
+	 * <p>
+	 * The stream must be consumed within the transaction or session it was created in and should be
+	 * closed, e.g. with try-with-resources, to release the cursor. Note that MySQL drivers only fetch
+	 * rows in batches if the connection URL contains useCursorFetch=true.
+	 *
+	 * @param session the session the criteria was created with
+	 * @param criteria the criteria selecting the entities
+	 * @return a stream of the selected entities
+	 * @since 2.7.0
+	 */
+	public static <T> Stream<T> stream(Session session, Criteria criteria) {
+		return stream(session, criteria.setFetchSize(STREAM_FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY));
+	}
+	
+	/**
+	 * Streams the entities selected by the given query like {@link #stream(Session, Criteria)}
+	 *
+	 * @param session the session the query was created with
+	 * @param query the query selecting the entities
+	 * @return a stream of the selected entities
+	 * @since 2.7.0
+	 */
+	public static <T> Stream<T> stream(Session session, org.hibernate.query.Query<T> query) {
+		return stream(session, query.setFetchSize(STREAM_FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY));
+	}
+	
+	/**
+	 * Gets a page of the entities selected by the given criteria with keyset pagination. The entities
+	 * are ordered by the sort property and then by the id property, and only the entities after the
+	 * position of the token are selected, so that the database can seek to the first entity of the
+	 * page with an index instead of reading and skipping all the preceding rows like an offset.
+	 * <p>
+	 * The criteria must not be ordered yet and the sort property must not be nullable.
+	 *
+	 * @param criteria the criteria selecting the entities
+	 * @param sortProperty the property of a date to order by or null to only order by id
+	 * @param idProperty the id property
+	 * @param ascending whether to order ascending or descending
+	 * @param token the position after which the page starts, null for the first page
+	 * @param length the number of entities in the page
+	 * @param keyOf gets the continuation token of an entity, i.e. its sort key and id
+	 * @return the page of entities
+	 * @since 2.7.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> KeysetPage<T> getKeysetPage(Criteria criteria, String sortProperty, String idProperty,
+	        boolean ascending, ContinuationToken token, int length, Function<T, ContinuationToken> keyOf) {
+		if (length < 1) {
+			throw new IllegalArgumentException("The length of a page must be greater than 0");
+		}
+		
+		if (token != null) {
+			Criterion afterId = ascending ? Restrictions.gt(idProperty, token.getId())
+			        : Restrictions.lt(idProperty, token.getId());
+			if (sortProperty == null) {
+				criteria.add(afterId);
+			} else {
+				Date sortKey = token.getSortKey();
+				if (sortKey == null) {
+					throw new IllegalArgumentException("The continuation token has no sort key");
+				}
+				Criterion afterSortKey = ascending ? Restrictions.gt(sortProperty, sortKey)
+				        : Restrictions.lt(sortProperty, sortKey);
+				criteria.add(Restrictions.or(afterSortKey,
+				    Restrictions.and(Restrictions.eq(sortProperty, sortKey), afterId)));
+			}
+		}
+		
+		if (sortProperty != null) {
+			criteria.addOrder(ascending ? Order.asc(sortProperty) : Order.desc(sortProperty));
+		}
+		criteria.addOrder(ascending ? Order.asc(idProperty) : Order.desc(idProperty));
+		criteria.setMaxResults(length + 1);
+		
+		return KeysetPage.of((List<T>) criteria.list(), length, keyOf);
+	}
+	
+	private static <T> Stream<T> stream(Session session, ScrollableResults results) {
+		return StreamSupport.stream(new ScrollableResultsSpliterator<T>(session, results), false).onClose(results::close);
+	}
+	
+	private static class ScrollableResultsSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+		
+		private final Session session;
+		
+		private final ScrollableResults results;
+		
+		private final List<Object> batch = new ArrayList<>(STREAM_FETCH_SIZE);
+		
+		private ScrollableResultsSpliterator(Session session, ScrollableResults results) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.session = session;
+			this.results = results;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (!results.next()) {
+				return false;
+			}
+			if (batch.size() == STREAM_FETCH_SIZE) {
+				for (Object entity : batch) {
+					session.evict(entity);
+				}
+				batch.clear();
+			}
+			T entity = (T) results.get(0);
+			batch.add(entity);
+			action.accept(entity);
+			return true;
+		}
+	}
 }
@@ -20,10 +20,12 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.openmrs.Concept;
 import org.openmrs.Location;
 import org.openmrs.Patient;
+import org.openmrs.User;
 import org.openmrs.Visit;
 import org.openmrs.VisitAttribute;
 import org.openmrs.VisitAttributeType;
@@ -302,4 +304,43 @@ public class HibernateVisitDAO implements VisitDAO {
 		
 		return (Visit) criteria.uniqueResult();
 	}
+	
+	/**
+	 * @see org.openmrs.api.db.VisitDAO#getActiveVisitIds(Collection, Date, Integer, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Integer> getActiveVisitIds(Collection<VisitType> visitTypes, Date maximumStartDate, Integer afterVisitId,
+	        int maxResults) {
+		Criteria criteria = getCurrentSession().createCriteria(Visit.class);
+		criteria.setProjection(Projections.id());
+		criteria.add(Restrictions.eq("voided", false)).add(Restrictions.isNull("stopDatetime"))
+		        .add(Restrictions.gt("visitId", afterVisitId != null ? afterVisitId : 0)).addOrder(Order.asc("visitId"))
+		        .setMaxResults(maxResults);
+		if (maximumStartDate != null) {
+			criteria.add(Restrictions.le("startDatetime", maximumStartDate));
+		}
+		
+		if (CollectionUtils.isNotEmpty(visitTypes)) {
+			criteria.add(Restrictions.in("visitType", visitTypes));
+		}
+		
+		return criteria.list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.VisitDAO#stopVisits(Collection, Date, User, Date)
+	 */
+	@Override
+	public int stopVisits(Collection<Integer> visitIds, Date stopDatetime, User changedBy, Date dateChanged) {
+		if (CollectionUtils.isEmpty(visitIds)) {
+			return 0;
+		}
+		
+		return getCurrentSession().createQuery(
+		    "update Visit v set v.stopDatetime = :stopDatetime, v.changedBy = :changedBy, v.dateChanged = :dateChanged "
+		            + "where v.visitId in (:visitIds) and v.stopDatetime is null").setParameter("stopDatetime", stopDatetime)
+		        .setParameter("changedBy", changedBy).setParameter("dateChanged", dateChanged)
+		        .setParameterList("visitIds", visitIds).executeUpdate();
+	}
 }
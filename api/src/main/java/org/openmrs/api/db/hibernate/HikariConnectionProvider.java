@@ -0,0 +1,219 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.hikaricp.internal.HikariConfigurationUtil;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+import org.openmrs.metrics.Counter;
+import org.openmrs.metrics.Gauge;
+import org.openmrs.metrics.Histogram;
+import org.openmrs.metrics.MetricsRegistry;
+
+/**
+ * A connection provider backed by a HikariCP connection pool, used instead of the default c3p0 pool
+ * when the {@value #CONNECTION_POOL_PROPERTY} runtime property is set to {@value #HIKARI}. The pool
+ * is configured with the hibernate.hikari.* properties named after the HikariCP settings, e.g.
+ * hibernate.hikari.maximumPoolSize. The c3p0 settings of existing installations are carried over
+ * unless the corresponding HikariCP setting is given:
+ * <ul>
+ * <li>hibernate.c3p0.max_size as maximumPoolSize</li>
+ * <li>hibernate.c3p0.min_size as minimumIdle</li>
+ * <li>hibernate.c3p0.timeout (in seconds) as idleTimeout</li>
+ * </ul>
+ * HikariCP leaves caching prepared statements to the JDBC driver, so the statement cache of the
+ * MySQL driver is turned on unless hibernate.hikari.dataSource.cachePrepStmts says otherwise.
+ * <p>
+ * Like the c3p0 provider of Hibernate, connections are handed out with auto-commit disabled unless
+ * hibernate.connection.autocommit is set.
+ *
+ * @since 2.7.0
+ */
+public class HikariConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String CONNECTION_POOL_PROPERTY = "hibernate.connection.pool";
+
+	public static final String HIKARI = "hikari";
+
+	private static final String HIKARI_PREFIX = "hibernate.hikari.";
+
+	/**
+	 * The upper bounds in seconds of the buckets of the acquisition time histogram, up to the default
+	 * connection timeout of HikariCP
+	 */
+	private static final double[] ACQUIRE_BUCKET_BOUNDS = { 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5,
+	        10, 30 };
+
+	private transient HikariDataSource dataSource;
+
+	private final transient Histogram acquireTime = new Histogram("connection_pool_acquire_seconds",
+	        "Time taken to get a connection from the connection pool", ACQUIRE_BUCKET_BOUNDS);
+
+	private final LongAdder timeouts = new LongAdder();
+
+	/**
+	 * @param settings the Hibernate settings
+	 * @return true if the settings ask for a HikariCP connection pool
+	 */
+	public static boolean isSelected(Map<?, ?> settings) {
+		Object pool = settings.get(CONNECTION_POOL_PROPERTY);
+		return pool != null && HIKARI.equalsIgnoreCase(pool.toString().trim());
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Configurable#configure(Map)
+	 */
+	@Override
+	public void configure(Map configurationValues) {
+		@SuppressWarnings("unchecked")
+		Map<String, Object> settings = new HashMap<>(configurationValues);
+
+		carryOver(settings, "hibernate.c3p0.max_size", "maximumPoolSize", 1);
+		carryOver(settings, "hibernate.c3p0.min_size", "minimumIdle", 1);
+		carryOver(settings, "hibernate.c3p0.timeout", "idleTimeout", 1000);
+
+		Object url = settings.get(AvailableSettings.URL);
+		if (url != null && url.toString().startsWith("jdbc:mysql:")) {
+			settings.putIfAbsent(HIKARI_PREFIX + "dataSource.cachePrepStmts", "true");
+			settings.putIfAbsent(HIKARI_PREFIX + "dataSource.prepStmtCacheSize", "250");
+			settings.putIfAbsent(HIKARI_PREFIX + "dataSource.prepStmtCacheSqlLimit", "2048");
+		}
+
+		HikariConfig config = HikariConfigurationUtil.loadConfiguration(settings);
+		if (!settings.containsKey(AvailableSettings.AUTOCOMMIT)) {
+			config.setAutoCommit(false);
+		}
+		config.setMetricsTrackerFactory((poolName, poolStats) -> new MetricsTracker());
+		dataSource = new HikariDataSource(config);
+	}
+
+	private void carryOver(Map<String, Object> settings, String c3p0Setting, String hikariSetting, long factor) {
+		Object value = settings.get(c3p0Setting);
+		if (value == null || settings.containsKey(HIKARI_PREFIX + hikariSetting)) {
+			return;
+		}
+		try {
+			settings.put(HIKARI_PREFIX + hikariSetting, Long.toString(Long.parseLong(value.toString().trim()) * factor));
+		}
+		catch (NumberFormatException e) {
+			// leave the default of HikariCP
+		}
+	}
+
+	/**
+	 * Publishes the number of active, idle and total connections, the number of threads waiting for
+	 * a connection, the number of timeouts and the connection acquisition time histogram
+	 *
+	 * @param metricsRegistry the registry to publish the metrics to
+	 */
+	public void registerMetrics(MetricsRegistry metricsRegistry) {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		metricsRegistry.registerGauge(new Gauge("connection_pool_active_connections", "Connections in use",
+		        pool::getActiveConnections));
+		metricsRegistry.registerGauge(new Gauge("connection_pool_idle_connections", "Connections idle in the pool",
+		        pool::getIdleConnections));
+		metricsRegistry.registerGauge(new Gauge("connection_pool_total_connections", "Connections open",
+		        pool::getTotalConnections));
+		metricsRegistry.registerGauge(new Gauge("connection_pool_max_connections", "Maximum number of connections",
+		        dataSource::getMaximumPoolSize));
+		metricsRegistry.registerGauge(new Gauge("connection_pool_pending_threads",
+		        "Threads waiting for a connection", pool::getThreadsAwaitingConnection));
+		metricsRegistry.registerGauge(new Counter("connection_pool_timeouts_total",
+		        "Number of times getting a connection timed out", timeouts::sum));
+		metricsRegistry.registerHistogram(acquireTime);
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#getConnection()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return dataSource.getConnection();
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#closeConnection(Connection)
+	 */
+	@Override
+	public void closeConnection(Connection conn) throws SQLException {
+		conn.close();
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#supportsAggressiveRelease()
+	 */
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Wrapped#isUnwrappableAs(Class)
+	 */
+	@Override
+	public boolean isUnwrappableAs(Class unwrapType) {
+		return unwrapType.isInstance(this) || unwrapType.isAssignableFrom(HikariDataSource.class);
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Wrapped#unwrap(Class)
+	 */
+	@Override
+	public <T> T unwrap(Class<T> unwrapType) {
+		if (unwrapType.isInstance(this)) {
+			return unwrapType.cast(this);
+		}
+		if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+			return unwrapType.cast(dataSource);
+		}
+		throw new UnknownUnwrapTypeException(unwrapType);
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Stoppable#stop()
+	 */
+	@Override
+	public void stop() {
+		if (dataSource != null) {
+			dataSource.close();
+		}
+	}
+
+	/**
+	 * Records the time taken to get a connection from the pool
+	 */
+	private class MetricsTracker implements IMetricsTracker {
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			acquireTime.record(elapsedAcquiredNanos);
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			timeouts.increment();
+		}
+	}
+}
@@ -0,0 +1,608 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection provider which sends read-only transactions to read replicas of the database and
+ * everything else to the primary database configured with hibernate.connection.url. It is used
+ * when the {@value #REPLICA_URLS_PROPERTY} runtime property lists the JDBC urls of one or more
+ * replicas, which take the username and password of the primary unless
+ * {@value #REPLICA_USERNAME_PROPERTY} and {@value #REPLICA_PASSWORD_PROPERTY} are set. Each
+ * database gets its own connection pool, a c3p0 pool or a HikariCP pool if selected with
+ * {@value HikariConnectionProvider#CONNECTION_POOL_PROPERTY}. Only the metrics of the pool of the
+ * primary are published.
+ * <p>
+ * Hibernate keeps the connection of a session across transactions, so the connections handed out
+ * are not bound to a database until a statement is executed. Spring marks the connection of a
+ * transaction annotated with <code>@Transactional(readOnly = true)</code> as read-only before it
+ * begins, a connection marked as read-only is then bound to the next healthy replica in turn,
+ * otherwise to the primary. Between transactions the connection is released and bound again as
+ * needed. A read-only transaction joining a read-write transaction stays on the primary, while a
+ * transaction joining a read-only transaction runs on the replica and can therefore not write.
+ * <p>
+ * Replicas lag behind the primary, so after a transaction on the primary commits, read-only
+ * transactions with the same routing key are kept on the primary for
+ * {@value #STICKY_PRIMARY_SECONDS_PROPERTY} seconds (default
+ * {@value #DEFAULT_STICKY_PRIMARY_SECONDS}) to let the user read their own writes. The routing key
+ * is the HTTP session for web requests, see {@link #setRoutingKey(String)}, or else the thread.
+ * <p>
+ * Every {@value #HEALTH_CHECK_INTERVAL_SECONDS_PROPERTY} seconds (default
+ * {@value #DEFAULT_HEALTH_CHECK_INTERVAL_SECONDS}, 0 disables the checks) each replica is checked
+ * and skipped until the next check if it cannot be reached. If {@value #LAG_QUERY_PROPERTY} is set
+ * to a query returning the lag of a replica in seconds, e.g.
+ * <code>select extract(epoch from now() - pg_last_xact_replay_timestamp())</code> on PostgreSQL,
+ * replicas lagging more than {@value #MAX_LAG_SECONDS_PROPERTY} seconds are skipped as well.
+ *
+ * @since 2.7.0
+ */
+public class ReplicaRoutingConnectionProvider implements ConnectionProvider, Configurable, Stoppable, ServiceRegistryAwareService {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingConnectionProvider.class);
+
+	public static final String REPLICA_URLS_PROPERTY = "hibernate.connection.replica.urls";
+
+	public static final String REPLICA_USERNAME_PROPERTY = "hibernate.connection.replica.username";
+
+	public static final String REPLICA_PASSWORD_PROPERTY = "hibernate.connection.replica.password";
+
+	public static final String STICKY_PRIMARY_SECONDS_PROPERTY = "hibernate.connection.replica.sticky_primary_seconds";
+
+	public static final String HEALTH_CHECK_INTERVAL_SECONDS_PROPERTY = "hibernate.connection.replica.health_check_interval_seconds";
+
+	public static final String LAG_QUERY_PROPERTY = "hibernate.connection.replica.lag_query";
+
+	public static final String MAX_LAG_SECONDS_PROPERTY = "hibernate.connection.replica.max_lag_seconds";
+
+	public static final int DEFAULT_STICKY_PRIMARY_SECONDS = 5;
+
+	public static final int DEFAULT_HEALTH_CHECK_INTERVAL_SECONDS = 10;
+
+	public static final int DEFAULT_MAX_LAG_SECONDS = 30;
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+	private static final ThreadLocal<String> routingKey = new ThreadLocal<>();
+
+	private transient ServiceRegistryImplementor serviceRegistry;
+
+	private transient ConnectionProvider primary;
+
+	private final transient List<Replica> replicas = new ArrayList<>();
+
+	private final AtomicInteger nextReplica = new AtomicInteger();
+
+	private final Map<String, Long> stickyPrimaryUntil = new ConcurrentHashMap<>();
+
+	private final AtomicLong nextStickyPrimaryPrune = new AtomicLong();
+
+	private long stickyPrimaryMillis;
+
+	private String lagQuery;
+
+	private int maxLagSeconds;
+
+	private boolean defaultAutoCommit;
+
+	private transient ScheduledExecutorService healthCheck;
+
+	/**
+	 * Sets the key identifying the user of the current thread, e.g. the id of the HTTP session, to
+	 * keep the reads of a user on the primary for a while after they wrote something
+	 *
+	 * @param key the routing key or null to use the current thread as key
+	 */
+	public static void setRoutingKey(String key) {
+		if (key == null) {
+			routingKey.remove();
+		} else {
+			routingKey.set(key);
+		}
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.ServiceRegistryAwareService#injectServices(ServiceRegistryImplementor)
+	 */
+	@Override
+	public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+		this.serviceRegistry = serviceRegistry;
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Configurable#configure(Map)
+	 */
+	@Override
+	public void configure(Map configurationValues) {
+		@SuppressWarnings("unchecked")
+		Map<String, Object> settings = new HashMap<>(configurationValues);
+		settings.remove(AvailableSettings.CONNECTION_PROVIDER);
+
+		primary = createConnectionProvider(settings);
+
+		String username = ConfigurationHelper.getString(REPLICA_USERNAME_PROPERTY, settings);
+		String password = ConfigurationHelper.getString(REPLICA_PASSWORD_PROPERTY, settings);
+		for (String url : StringUtils.split(ConfigurationHelper.getString(REPLICA_URLS_PROPERTY, settings, ""), ',')) {
+			if (StringUtils.isBlank(url)) {
+				continue;
+			}
+			Map<String, Object> replicaSettings = new HashMap<>(settings);
+			replicaSettings.put(AvailableSettings.URL, url.trim());
+			if (username != null) {
+				replicaSettings.put(AvailableSettings.USER, username);
+				replicaSettings.put(AvailableSettings.PASS, password == null ? "" : password);
+			}
+			replicas.add(new Replica(url.trim(), createConnectionProvider(replicaSettings)));
+		}
+		log.info("Routing read-only transactions to {} replicas", replicas.size());
+
+		stickyPrimaryMillis = TimeUnit.SECONDS.toMillis(
+		    ConfigurationHelper.getInt(STICKY_PRIMARY_SECONDS_PROPERTY, settings, DEFAULT_STICKY_PRIMARY_SECONDS));
+		lagQuery = StringUtils.trimToNull(ConfigurationHelper.getString(LAG_QUERY_PROPERTY, settings));
+		maxLagSeconds = ConfigurationHelper.getInt(MAX_LAG_SECONDS_PROPERTY, settings, DEFAULT_MAX_LAG_SECONDS);
+		defaultAutoCommit = ConfigurationHelper.getBoolean(AvailableSettings.AUTOCOMMIT, settings, false);
+
+		int interval = ConfigurationHelper.getInt(HEALTH_CHECK_INTERVAL_SECONDS_PROPERTY, settings,
+		    DEFAULT_HEALTH_CHECK_INTERVAL_SECONDS);
+		if (interval > 0 && !replicas.isEmpty()) {
+			healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "replica-health-check");
+				thread.setDaemon(true);
+				return thread;
+			});
+			healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.SECONDS);
+		}
+	}
+
+	private ConnectionProvider createConnectionProvider(Map<String, Object> settings) {
+		if (HikariConnectionProvider.isSelected(settings)) {
+			HikariConnectionProvider connectionProvider = new HikariConnectionProvider();
+			connectionProvider.configure(settings);
+			return connectionProvider;
+		}
+		C3P0ConnectionProvider connectionProvider = new C3P0ConnectionProvider();
+		connectionProvider.injectServices(serviceRegistry);
+		connectionProvider.configure(settings);
+		return connectionProvider;
+	}
+
+	/**
+	 * Checks whether each replica can be reached and is not lagging behind too much
+	 */
+	void checkReplicas() {
+		for (Replica replica : replicas) {
+			boolean healthy = isHealthy(replica);
+			if (healthy != replica.healthy) {
+				if (healthy) {
+					log.info("Routing read-only transactions to the replica {} again", replica.url);
+				} else {
+					log.warn("Not routing read-only transactions to the replica {} until it is healthy again",
+					    replica.url);
+				}
+				replica.healthy = healthy;
+			}
+		}
+	}
+
+	private boolean isHealthy(Replica replica) {
+		Connection connection = null;
+		try {
+			connection = replica.connectionProvider.getConnection();
+			if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+				return false;
+			}
+			if (lagQuery == null) {
+				return true;
+			}
+			try (Statement statement = connection.createStatement();
+			        ResultSet resultSet = statement.executeQuery(lagQuery)) {
+				if (!resultSet.next()) {
+					return false;
+				}
+				double lag = resultSet.getDouble(1);
+				return !resultSet.wasNull() && lag <= maxLagSeconds;
+			}
+		}
+		catch (SQLException e) {
+			log.debug("Failed to check the replica {}", replica.url, e);
+			return false;
+		}
+		finally {
+			if (connection != null) {
+				try {
+					replica.connectionProvider.closeConnection(connection);
+				}
+				catch (SQLException e) {
+					log.debug("Failed to close the connection to the replica {}", replica.url, e);
+				}
+			}
+		}
+	}
+
+	private Replica getNextHealthyReplica() {
+		int size = replicas.size();
+		int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (replica.healthy) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	private String getRoutingKey() {
+		String key = routingKey.get();
+		return key != null ? key : "thread-" + Thread.currentThread().getId();
+	}
+
+	private boolean isStickyPrimary() {
+		String key = getRoutingKey();
+		Long until = stickyPrimaryUntil.get(key);
+		if (until == null) {
+			return false;
+		}
+		if (until <= System.currentTimeMillis()) {
+			stickyPrimaryUntil.remove(key, until);
+			return false;
+		}
+		return true;
+	}
+
+	private void wroteToPrimary() {
+		if (stickyPrimaryMillis > 0) {
+			long now = System.currentTimeMillis();
+			stickyPrimaryUntil.put(getRoutingKey(), now + stickyPrimaryMillis);
+			pruneStickyPrimary(now);
+		}
+	}
+
+	/**
+	 * Removes the expired routing keys of users who did not read again since they wrote, at most once
+	 * per sticky period so that writes do not scan the keys every time
+	 *
+	 * @param now the current time in milliseconds
+	 */
+	private void pruneStickyPrimary(long now) {
+		long next = nextStickyPrimaryPrune.get();
+		if (now >= next && nextStickyPrimaryPrune.compareAndSet(next, now + stickyPrimaryMillis)) {
+			stickyPrimaryUntil.values().removeIf(until -> until <= now);
+		}
+	}
+
+	/**
+	 * @return the number of routing keys whose reads are currently kept on the primary, including
+	 *         expired ones not pruned yet
+	 */
+	int getStickyPrimaryKeyCount() {
+		return stickyPrimaryUntil.size();
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#getConnection()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+		    new RoutingConnection());
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#closeConnection(Connection)
+	 */
+	@Override
+	public void closeConnection(Connection conn) throws SQLException {
+		conn.close();
+	}
+
+	/**
+	 * @see org.hibernate.engine.jdbc.connections.spi.ConnectionProvider#supportsAggressiveRelease()
+	 */
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Wrapped#isUnwrappableAs(Class)
+	 */
+	@Override
+	public boolean isUnwrappableAs(Class unwrapType) {
+		return unwrapType.isInstance(this) || primary.isUnwrappableAs(unwrapType);
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Wrapped#unwrap(Class)
+	 */
+	@Override
+	public <T> T unwrap(Class<T> unwrapType) {
+		if (unwrapType.isInstance(this)) {
+			return unwrapType.cast(this);
+		}
+		if (primary.isUnwrappableAs(unwrapType)) {
+			return primary.unwrap(unwrapType);
+		}
+		throw new UnknownUnwrapTypeException(unwrapType);
+	}
+
+	/**
+	 * @see org.hibernate.service.spi.Stoppable#stop()
+	 */
+	@Override
+	public void stop() {
+		if (healthCheck != null) {
+			healthCheck.shutdownNow();
+		}
+		List<ConnectionProvider> connectionProviders = new ArrayList<>();
+		connectionProviders.add(primary);
+		replicas.forEach(replica -> connectionProviders.add(replica.connectionProvider));
+		for (ConnectionProvider connectionProvider : connectionProviders) {
+			if (connectionProvider instanceof Stoppable) {
+				((Stoppable) connectionProvider).stop();
+			}
+		}
+	}
+
+	/**
+	 * @return the urls of the replicas which read-only transactions are currently routed to
+	 */
+	public List<String> getHealthyReplicaUrls() {
+		List<String> urls = new ArrayList<>();
+		for (Replica replica : replicas) {
+			if (replica.healthy) {
+				urls.add(replica.url);
+			}
+		}
+		return Collections.unmodifiableList(urls);
+	}
+
+	private static class Replica {
+
+		private final String url;
+
+		private final ConnectionProvider connectionProvider;
+
+		private volatile boolean healthy = true;
+
+		private Replica(String url, ConnectionProvider connectionProvider) {
+			this.url = url;
+			this.connectionProvider = connectionProvider;
+		}
+	}
+
+	/**
+	 * A connection which records the settings made before a statement is executed and only then
+	 * borrows a connection from the primary or a replica, depending on whether it is read-only
+	 */
+	private class RoutingConnection implements InvocationHandler {
+
+		private Connection target;
+
+		private Replica targetReplica;
+
+		private boolean readOnly;
+
+		private Boolean autoCommit;
+
+		private Integer transactionIsolation;
+
+		private boolean inTransaction;
+
+		private boolean closed;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Routing connection to " + (target == null ? "no database yet" : target);
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "isClosed":
+					return closed;
+				case "close":
+					release();
+					closed = true;
+					return null;
+				case "isReadOnly":
+					return readOnly;
+				case "setReadOnly":
+					setReadOnly((Boolean) args[0]);
+					return null;
+				case "getAutoCommit":
+					if (target == null) {
+						return autoCommit != null ? autoCommit : defaultAutoCommit;
+					}
+					break;
+				case "setAutoCommit":
+					autoCommit = (Boolean) args[0];
+					if (target == null) {
+						return null;
+					}
+					target.setAutoCommit(autoCommit);
+					if (autoCommit) {
+						// switching to auto-commit commits the current transaction
+						transactionCompleted();
+					}
+					return null;
+				case "getTransactionIsolation":
+					if (target == null && transactionIsolation != null) {
+						return transactionIsolation;
+					}
+					break;
+				case "setTransactionIsolation":
+					transactionIsolation = (Integer) args[0];
+					if (target == null) {
+						return null;
+					}
+					break;
+				case "commit":
+					if (target == null) {
+						return null;
+					}
+					target.commit();
+					transactionCompleted();
+					return null;
+				case "rollback":
+					if (target == null) {
+						return null;
+					}
+					if (args == null) {
+						inTransaction = false;
+					}
+					break;
+				case "getWarnings":
+					if (target == null) {
+						return null;
+					}
+					break;
+				case "clearWarnings":
+					if (target == null) {
+						return null;
+					}
+					break;
+				case "isValid":
+					if (target == null) {
+						return !closed;
+					}
+					break;
+				default:
+					if (autoCommit == null ? !defaultAutoCommit : !autoCommit) {
+						inTransaction = true;
+					}
+			}
+
+			try {
+				return method.invoke(getTarget(), args);
+			}
+			catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+
+		private void transactionCompleted() {
+			if (inTransaction && targetReplica == null && !readOnly) {
+				wroteToPrimary();
+			}
+			inTransaction = false;
+		}
+
+		private void setReadOnly(boolean readOnly) throws SQLException {
+			this.readOnly = readOnly;
+			if (target == null) {
+				return;
+			}
+			if (!inTransaction && (targetReplica != null) != readOnly) {
+				// bind the connection again once it is used, e.g. to the primary after a read-only transaction
+				release();
+			} else {
+				target.setReadOnly(readOnly);
+			}
+		}
+
+		private Connection getTarget() throws SQLException {
+			if (closed) {
+				throw new SQLException("The connection is closed");
+			}
+			if (target != null) {
+				return target;
+			}
+
+			if (readOnly && !isStickyPrimary()) {
+				Replica replica = getNextHealthyReplica();
+				if (replica != null) {
+					try {
+						target = replica.connectionProvider.getConnection();
+						targetReplica = replica;
+					}
+					catch (SQLException e) {
+						log.warn("Failed to connect to the replica {}, using the primary instead", replica.url, e);
+						replica.healthy = false;
+					}
+				}
+			}
+			if (target == null) {
+				target = primary.getConnection();
+			}
+
+			if (autoCommit != null && target.getAutoCommit() != autoCommit) {
+				target.setAutoCommit(autoCommit);
+			}
+			if (transactionIsolation != null) {
+				target.setTransactionIsolation(transactionIsolation);
+			}
+			if (readOnly) {
+				target.setReadOnly(true);
+			}
+			return target;
+		}
+
+		private void release() throws SQLException {
+			if (target == null) {
+				return;
+			}
+			try {
+				if (target.isReadOnly()) {
+					target.setReadOnly(false);
+				}
+			}
+			finally {
+				(targetReplica == null ? primary : targetReplica.connectionProvider).closeConnection(target);
+				target = null;
+				targetReplica = null;
+				inTransaction = false;
+			}
+		}
+	}
+}
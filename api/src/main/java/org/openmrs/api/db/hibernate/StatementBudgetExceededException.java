@@ -0,0 +1,27 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import org.openmrs.api.db.DAOException;
+
+/**
+ * Thrown when a unit of work executes more statements than its budget allows
+ *
+ * @see StatementMonitor
+ * @since 2.7.0
+ */
+public class StatementBudgetExceededException extends DAOException {
+
+	private static final long serialVersionUID = 3908472095716453031L;
+
+	public StatementBudgetExceededException(String message) {
+		super(message);
+	}
+}
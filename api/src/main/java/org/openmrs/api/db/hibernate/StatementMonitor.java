@@ -0,0 +1,353 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the SQL statements Hibernate prepares per unit of work to catch N+1 query patterns and slow
+ * statements early. A unit of work is either begun explicitly, e.g. for each web request, or
+ * implicitly by a transaction if no unit of work is open on the thread yet. When a unit of work is
+ * closed, every statement executed at least {@value #DEFAULT_REPEATED_STATEMENT_THRESHOLD} times
+ * within it is logged. Statements taking longer than
+ * {@value #DEFAULT_SLOW_STATEMENT_THRESHOLD_MS} ms are logged as soon as they complete.
+ * <p>
+ * A unit of work can be given a budget of statements. Exceeding the budget of a unit of work begun
+ * with {@link #begin(String, int)} always throws a {@link StatementBudgetExceededException}, which is
+ * meant to be used by tests guarding against performance regressions:
+ *
+ * <pre>
+ * try (StatementMonitor.UnitOfWork work = StatementMonitor.begin("find patients", 5)) {
+ * 	patientService.getPatients("John");
+ * }
+ * </pre>
+ *
+ * The thresholds and a default budget for all units of work are set with the runtime properties
+ * named by the constants of this class, a value of 0 disables the corresponding check. The default
+ * budget is only enforced when {@value #FAIL_ON_EXCEEDED_BUDGET_PROPERTY} is true, which should only
+ * be the case in development and test environments, otherwise exceeding it is logged.
+ *
+ * @since 2.7.0
+ */
+public final class StatementMonitor {
+
+	private static final Logger log = LoggerFactory.getLogger(StatementMonitor.class);
+
+	public static final String SLOW_STATEMENT_THRESHOLD_PROPERTY = "statement_monitor.slow_statement_threshold_ms";
+
+	public static final String REPEATED_STATEMENT_THRESHOLD_PROPERTY = "statement_monitor.repeated_statement_threshold";
+
+	public static final String STATEMENT_BUDGET_PROPERTY = "statement_monitor.statement_budget";
+
+	public static final String FAIL_ON_EXCEEDED_BUDGET_PROPERTY = "statement_monitor.fail_on_exceeded_budget";
+
+	public static final int DEFAULT_SLOW_STATEMENT_THRESHOLD_MS = 1000;
+
+	public static final int DEFAULT_REPEATED_STATEMENT_THRESHOLD = 10;
+
+	/**
+	 * The state of this thread, only set while a unit of work is open or a statement is being executed
+	 * so that nothing is left behind on pooled threads
+	 */
+	private static final ThreadLocal<MonitorState> state = new ThreadLocal<>();
+
+	private static volatile long slowStatementThresholdNanos = TimeUnit.MILLISECONDS
+	        .toNanos(DEFAULT_SLOW_STATEMENT_THRESHOLD_MS);
+
+	private static volatile int repeatedStatementThreshold = DEFAULT_REPEATED_STATEMENT_THRESHOLD;
+
+	private static volatile int statementBudget;
+
+	private static volatile boolean failOnExceededBudget;
+
+	private StatementMonitor() {
+	}
+
+	/**
+	 * Sets the thresholds and the default budget from the given properties, properties which are
+	 * missing or invalid are reset to their default
+	 *
+	 * @param properties the runtime properties
+	 */
+	public static void configure(Properties properties) {
+		slowStatementThresholdNanos = TimeUnit.MILLISECONDS
+		        .toNanos(getInt(properties, SLOW_STATEMENT_THRESHOLD_PROPERTY, DEFAULT_SLOW_STATEMENT_THRESHOLD_MS));
+		repeatedStatementThreshold = getInt(properties, REPEATED_STATEMENT_THRESHOLD_PROPERTY,
+		    DEFAULT_REPEATED_STATEMENT_THRESHOLD);
+		statementBudget = getInt(properties, STATEMENT_BUDGET_PROPERTY, 0);
+		failOnExceededBudget = Boolean.parseBoolean(properties.getProperty(FAIL_ON_EXCEEDED_BUDGET_PROPERTY));
+	}
+
+	private static int getInt(Properties properties, String name, int defaultValue) {
+		String value = properties.getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			return Math.max(Integer.parseInt(value.trim()), 0);
+		}
+		catch (NumberFormatException e) {
+			log.warn("Invalid value for runtime property {}: {}", name, value);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Begins a unit of work on this thread with the default budget
+	 *
+	 * @param name the name of the unit of work used when logging, e.g. the URI of a request
+	 * @return the unit of work to close once it is done
+	 */
+	public static UnitOfWork begin(String name) {
+		return begin(new UnitOfWork(name, statementBudget, failOnExceededBudget, false));
+	}
+
+	/**
+	 * Begins a unit of work on this thread which fails as soon as it executes more statements than
+	 * the given budget
+	 *
+	 * @param name the name of the unit of work used when logging
+	 * @param statementBudget the maximum number of statements the unit of work may execute
+	 * @return the unit of work to close once it is done
+	 */
+	public static UnitOfWork begin(String name, int statementBudget) {
+		return begin(new UnitOfWork(name, statementBudget, true, false));
+	}
+
+	private static UnitOfWork begin(UnitOfWork work) {
+		getOrCreateState().unitsOfWork.push(work);
+		return work;
+	}
+
+	/**
+	 * @return the innermost unit of work open on this thread or null if there is none
+	 */
+	public static UnitOfWork current() {
+		MonitorState monitorState = state.get();
+		return monitorState == null ? null : monitorState.unitsOfWork.peek();
+	}
+
+	/**
+	 * Counts a statement in all the units of work open on this thread
+	 *
+	 * @param sql the statement
+	 */
+	static void statementPrepared(String sql) {
+		MonitorState monitorState = state.get();
+		if (monitorState == null) {
+			if (slowStatementThresholdNanos <= 0) {
+				return;
+			}
+			// only kept until the statement is executed, to log it if it is slow
+			monitorState = getOrCreateState();
+		}
+		monitorState.lastStatement = sql;
+		for (UnitOfWork work : monitorState.unitsOfWork) {
+			work.count(sql);
+		}
+	}
+
+	/**
+	 * Logs the last statement prepared on this thread if it took longer than the threshold
+	 *
+	 * @param durationNanos the time it took to execute the statement
+	 */
+	static void statementExecuted(long durationNanos) {
+		MonitorState monitorState = state.get();
+		String sql = null;
+		if (monitorState != null) {
+			sql = monitorState.lastStatement;
+			monitorState.lastStatement = null;
+			removeStateIfIdle(monitorState);
+		}
+		long threshold = slowStatementThresholdNanos;
+		if (threshold > 0 && durationNanos >= threshold) {
+			log.warn("Slow statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(durationNanos), sql);
+		}
+	}
+
+	/**
+	 * Begins a unit of work for a transaction unless one is already open on this thread
+	 */
+	static void transactionBegun() {
+		Deque<UnitOfWork> unitsOfWork = getOrCreateState().unitsOfWork;
+		UnitOfWork transaction = getTransactionUnitOfWork(unitsOfWork);
+		if (transaction != null) {
+			// a nested transaction, e.g. with propagation REQUIRES_NEW
+			transaction.transactions++;
+		} else if (unitsOfWork.isEmpty()) {
+			begin(new UnitOfWork("transaction", statementBudget, failOnExceededBudget, true));
+		}
+	}
+
+	/**
+	 * Closes the unit of work begun by the outermost transaction once it completes
+	 */
+	static void transactionCompleted() {
+		MonitorState monitorState = state.get();
+		if (monitorState == null) {
+			return;
+		}
+		UnitOfWork transaction = getTransactionUnitOfWork(monitorState.unitsOfWork);
+		if (transaction != null && --transaction.transactions == 0) {
+			transaction.close();
+		}
+	}
+
+	/**
+	 * @return true if this thread holds any state, i.e. a unit of work is open or a statement is being
+	 *         executed
+	 */
+	static boolean hasState() {
+		return state.get() != null;
+	}
+
+	private static MonitorState getOrCreateState() {
+		MonitorState monitorState = state.get();
+		if (monitorState == null) {
+			monitorState = new MonitorState();
+			state.set(monitorState);
+		}
+		return monitorState;
+	}
+
+	private static void removeStateIfIdle(MonitorState monitorState) {
+		if (monitorState.unitsOfWork.isEmpty() && monitorState.lastStatement == null) {
+			state.remove();
+		}
+	}
+
+	private static UnitOfWork getTransactionUnitOfWork(Deque<UnitOfWork> unitsOfWork) {
+		for (UnitOfWork work : unitsOfWork) {
+			if (work.transactions > 0) {
+				return work;
+			}
+		}
+		return null;
+	}
+
+	private static class MonitorState {
+
+		private final Deque<UnitOfWork> unitsOfWork = new ArrayDeque<>();
+
+		private String lastStatement;
+	}
+
+	/**
+	 * The statements executed by a request, a transaction or any other piece of work
+	 */
+	public static class UnitOfWork implements AutoCloseable {
+
+		private final String name;
+
+		private final int statementBudget;
+
+		private final boolean enforceBudget;
+
+		private final Map<String, Integer> statementCounts = new HashMap<>();
+
+		private int statementCount;
+
+		private int transactions;
+
+		private UnitOfWork(String name, int statementBudget, boolean enforceBudget, boolean startedByTransaction) {
+			this.name = name;
+			this.statementBudget = statementBudget;
+			this.enforceBudget = enforceBudget;
+			this.transactions = startedByTransaction ? 1 : 0;
+		}
+
+		private void count(String sql) {
+			statementCount++;
+			statementCounts.merge(sql, 1, Integer::sum);
+			if (statementBudget > 0 && statementCount == statementBudget + 1) {
+				String message = "The unit of work " + name + " exceeded its budget of " + statementBudget
+				        + " statements when executing: " + sql;
+				if (enforceBudget) {
+					throw new StatementBudgetExceededException(message);
+				}
+				log.warn(message);
+			}
+		}
+
+		/**
+		 * @return the name of this unit of work
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the number of statements executed so far
+		 */
+		public int getStatementCount() {
+			return statementCount;
+		}
+
+		/**
+		 * @return the number of executions of each distinct statement executed so far
+		 */
+		public Map<String, Integer> getStatementCounts() {
+			return Collections.unmodifiableMap(statementCounts);
+		}
+
+		/**
+		 * @return the statements executed at least as many times as the repeated statement threshold
+		 *         with their number of executions, ordered by the number of executions descending
+		 */
+		public Map<String, Integer> getRepeatedStatements() {
+			int threshold = repeatedStatementThreshold;
+			Map<String, Integer> repeated = new LinkedHashMap<>();
+			if (threshold > 0) {
+				statementCounts.entrySet().stream().filter(e -> e.getValue() >= threshold)
+				        .sorted(Map.Entry.<String, Integer> comparingByValue().reversed())
+				        .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+			}
+			return repeated;
+		}
+
+		/**
+		 * Ends this unit of work and logs the statements which were repeated, possibly because of an N+1
+		 * query pattern
+		 */
+		@Override
+		public void close() {
+			MonitorState monitorState = state.get();
+			if (monitorState != null) {
+				Iterator<UnitOfWork> iterator = monitorState.unitsOfWork.iterator();
+				while (iterator.hasNext()) {
+					if (iterator.next() == this) {
+						iterator.remove();
+						break;
+					}
+				}
+				removeStateIfIdle(monitorState);
+			}
+
+			for (Map.Entry<String, Integer> repeated : getRepeatedStatements().entrySet()) {
+				log.warn("The unit of work {} executed the same statement {} times, this may be an N+1 query: {}", name,
+				    repeated.getValue(), repeated.getKey());
+			}
+			log.debug("The unit of work {} executed {} statements", name, statementCount);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.openmrs.api.context.Context;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the statements and transactions of all sessions to the {@link StatementMonitor}. Since no
+ * StatementInspector is configured, Hibernate hands every statement to
+ * {@link #onPrepareStatement(String)} through the {@link ChainingInterceptor}.
+ *
+ * @since 2.7.0
+ */
+@Component("statementMonitorInterceptor")
+public class StatementMonitorInterceptor extends EmptyInterceptor {
+
+	private static final long serialVersionUID = 1L;
+
+	public StatementMonitorInterceptor() {
+		StatementMonitor.configure(Context.getRuntimeProperties());
+	}
+
+	@Override
+	public String onPrepareStatement(String sql) {
+		StatementMonitor.statementPrepared(sql);
+		return sql;
+	}
+
+	@Override
+	public void afterTransactionBegin(Transaction tx) {
+		StatementMonitor.transactionBegun();
+	}
+
+	@Override
+	public void afterTransactionCompletion(Transaction tx) {
+		StatementMonitor.transactionCompleted();
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times the execution of statements for the {@link StatementMonitor}. Hibernate creates an instance
+ * for each session as configured by the hibernate.session.events.auto property.
+ *
+ * @since 2.7.0
+ */
+public class StatementMonitorSessionEventListener extends BaseSessionEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private long executionStart;
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		executionStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		StatementMonitor.statementExecuted(System.nanoTime() - executionStart);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		executionStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		StatementMonitor.statementExecuted(System.nanoTime() - executionStart);
+	}
+}
@@ -43,6 +43,11 @@ import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.AdministrationDAO;
 import org.openmrs.customdatatype.CustomDatatypeUtil;
+import org.openmrs.metrics.Gauge;
+import org.openmrs.metrics.Histogram;
+import org.openmrs.metrics.MetricsRegistry;
+import org.openmrs.metrics.PrometheusFormatter;
+import org.openmrs.metrics.ServiceMethodMetrics;
 import org.openmrs.module.Module;
 import org.openmrs.module.ModuleFactory;
 import org.openmrs.module.ModuleUtil;
@@ -79,6 +84,8 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 	
 	private HttpClient implementationIdHttpClient;
 	
+	private MetricsRegistry metricsRegistry;
+	
 	/**
 	 * Default empty constructor
 	 */
@@ -96,6 +103,10 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 	public void setEventListeners(EventListeners eventListeners) {
 		this.eventListeners = eventListeners;
 	}
+	
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
 		
 	/**
 	 * Static-ish variable used to cache the system variables. This is not static so that every time
@@ -942,4 +953,44 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		dao.updatePostgresSequence();
 	}
 	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getServiceMethodMetrics()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<ServiceMethodMetrics> getServiceMethodMetrics() {
+		return metricsRegistry == null ? new ArrayList<>() : metricsRegistry.getServiceMethodMetrics();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getHibernateStatistics()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Object> getHibernateStatistics() {
+		return dao.getHibernateStatistics();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getMetricsInPrometheusFormat()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public String getMetricsInPrometheusFormat() {
+		List<Gauge> gauges = metricsRegistry == null ? new ArrayList<>() : metricsRegistry.getGauges();
+		List<Histogram> histograms = metricsRegistry == null ? new ArrayList<>() : metricsRegistry.getHistograms();
+		return PrometheusFormatter.format(getServiceMethodMetrics(), gauges, histograms, getHibernateStatistics());
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#resetMetrics()
+	 */
+	@Override
+	public void resetMetrics() {
+		if (metricsRegistry != null) {
+			metricsRegistry.reset();
+		}
+		dao.clearHibernateStatistics();
+	}
+	
 }
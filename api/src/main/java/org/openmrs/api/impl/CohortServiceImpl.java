@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
 import org.openmrs.User;
@@ -279,4 +280,19 @@ public class CohortServiceImpl extends BaseOpenmrsService implements CohortServi
 		}
 		return dao.getCohortMemberships(patientId, activeOnDate, includeVoided);
 	}
+	
+	/**
+	 * @see org.openmrs.api.CohortService#getActiveMemberBitmap(Cohort, Date)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CohortBitmap getActiveMemberBitmap(Cohort cohort, Date asOfDate) {
+		if (cohort == null) {
+			return CohortBitmap.EMPTY;
+		}
+		if (cohort.getCohortId() == null) {
+			return asOfDate == null ? cohort.getActiveMemberBitmap() : cohort.getActiveMemberBitmap(asOfDate);
+		}
+		return dao.getActiveMemberBitmap(cohort.getCohortId(), asOfDate == null ? new Date() : asOfDate);
+	}
 }
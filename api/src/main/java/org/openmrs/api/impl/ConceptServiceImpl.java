@@ -23,6 +23,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.collections.CollectionUtils;
@@ -70,6 +71,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -454,6 +456,15 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 		
 		return dao.getAllConcepts(tmpSortBy, asc, includeRetired);
 	}
+	
+	/**
+	 * @see org.openmrs.api.ConceptService#streamAllConcepts(boolean)
+	 */
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Concept> streamAllConcepts(boolean includeRetired) throws APIException {
+		return dao.streamAllConcepts(includeRetired);
+	}
 
 	/**
 	 * @see org.openmrs.api.ConceptService#getConceptsByName(java.lang.String)
@@ -1048,6 +1059,15 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 		return dao.conceptIterator();
 	}
 	
+	/**
+	 * @see org.openmrs.api.ConceptService#conceptIterator(int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Iterator<Concept> conceptIterator(int pageSize) {
+		return dao.conceptIterator(pageSize);
+	}
+	
 	/**
 	 * @see org.openmrs.api.ConceptService#getConceptByUuid(java.lang.String)
 	 */
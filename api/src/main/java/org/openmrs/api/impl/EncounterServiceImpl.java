@@ -11,11 +11,15 @@ package org.openmrs.api.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -43,6 +47,8 @@ import org.openmrs.api.OrderService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.EncounterDAO;
 import org.openmrs.api.handler.EncounterVisitHandler;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.util.HandlerUtil;
@@ -50,7 +56,10 @@ import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Default implementation of the {@link EncounterService}
@@ -66,6 +75,17 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	
 	private EncounterDAO dao;
 	
+	/**
+	 * Incremented whenever an encounter type is saved or purged, and again once the transaction doing
+	 * so completes, which discards the encounter types cached in {@link #notViewableByUser}
+	 */
+	private final AtomicLong encounterTypesVersion = new AtomicLong();
+	
+	/**
+	 * The encounter types each user may not view, by user id
+	 */
+	private final Map<Integer, NotViewableEncounterTypes> notViewableByUser = new ConcurrentHashMap<>();
+	
 	/**
 	 * @see org.openmrs.api.EncounterService#setEncounterDAO(org.openmrs.api.db.EncounterDAO)
 	 */
@@ -85,7 +105,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		}
 		
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncounters(query, null, null, null, includeVoided), null);
+		    dao.getEncounters(query, null, null, null, includeVoided, getEncounterTypesNotViewable()), null);
 	}
 	
 	/**
@@ -350,7 +370,8 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 			throw new IllegalArgumentException("The 'patientId' parameter is requred and cannot be null");
 		}
 		return Context.getEncounterService()
-		        .filterEncountersByViewPermissions(dao.getEncountersByPatientId(patientId), null);
+		        .filterEncountersByViewPermissions(dao.getEncountersByPatientId(patientId, getEncounterTypesNotViewable()),
+		            null);
 	}
 	
 	/**
@@ -398,8 +419,34 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	@Override
 	public List<Encounter> getEncounters(EncounterSearchCriteria encounterSearchCriteria) {
 		// the second search parameter is null as it defaults to authenticated user from context
-		return Context.getEncounterService().filterEncountersByViewPermissions(dao.getEncounters(encounterSearchCriteria),
-		    null);
+		return Context.getEncounterService().filterEncountersByViewPermissions(
+		    dao.getEncounters(encounterSearchCriteria, getEncounterTypesNotViewable()), null);
+	}
+	
+	/**
+	 * @see org.openmrs.api.EncounterService#streamEncounters(org.openmrs.parameter.EncounterSearchCriteria)
+	 */
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Encounter> streamEncounters(EncounterSearchCriteria encounterSearchCriteria) {
+		User user = Context.getAuthenticatedUser();
+		return dao.streamEncounters(encounterSearchCriteria, getEncounterTypesNotViewable())
+		        .filter(e -> e.getEncounterType() == null || user == null
+		                || userHasEncounterPrivilege(e.getEncounterType().getViewPrivilege(), user));
+	}
+	
+	/**
+	 * @see org.openmrs.api.EncounterService#getEncountersPage(EncounterSearchCriteria, String, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<Encounter> getEncountersPage(EncounterSearchCriteria encounterSearchCriteria,
+	        String continuationToken, int length) {
+		KeysetPage<Encounter> page = dao.getEncountersPage(encounterSearchCriteria, getEncounterTypesNotViewable(),
+		    ContinuationToken.decode(continuationToken), length);
+		// the token stays the same, the next page starts after the last encounter read from the database
+		return new KeysetPage<>(Context.getEncounterService().filterEncountersByViewPermissions(
+		    new ArrayList<>(page.getList()), null), page.getNextToken());
 	}
 	
 	/**
@@ -535,6 +582,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		Context.getEncounterService().checkIfEncounterTypesAreLocked();
 		
 		dao.saveEncounterType(encounterType);
+		encounterTypesChanged();
 		return encounterType;
 	}
 	
@@ -620,6 +668,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		Context.getEncounterService().checkIfEncounterTypesAreLocked();
 		
 		dao.deleteEncounterType(encounterType);
+		encounterTypesChanged();
 	}
 	
 	/**
@@ -658,7 +707,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	public List<Encounter> getEncounters(String query, Integer start, Integer length, boolean includeVoided)
 	    throws APIException {
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncounters(query, null, start, length, includeVoided), null);
+		    dao.getEncounters(query, null, start, length, includeVoided, getEncounterTypesNotViewable()), null);
 	}
 	
 	/**
@@ -670,7 +719,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	public List<Encounter> getEncounters(String query, Integer patientId, Integer start, Integer length,
 	                                     boolean includeVoided) throws APIException {
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncounters(query, patientId, start, length, includeVoided), null);
+		    dao.getEncounters(query, patientId, start, length, includeVoided, getEncounterTypesNotViewable()), null);
 	}
 	
 	/**
@@ -679,7 +728,8 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	@Override
 	@Transactional(readOnly = true)
 	public Integer getCountOfEncounters(String query, boolean includeVoided) {
-		return OpenmrsUtil.convertToInteger(dao.getCountOfEncounters(query, null, includeVoided));
+		return OpenmrsUtil.convertToInteger(dao.getCountOfEncounters(query, null, includeVoided,
+		    getEncounterTypesNotViewable()));
 	}
 	
 	/**
@@ -689,7 +739,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	@Transactional(readOnly = true)
 	public List<Encounter> getEncountersByVisit(Visit visit, boolean includeVoided) {
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncountersByVisit(visit, includeVoided), null);
+		    dao.getEncountersByVisit(visit, includeVoided, getEncounterTypesNotViewable()), null);
 	}
 	
 	@Override
@@ -820,7 +870,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	@Transactional(readOnly = true)
 	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient) throws APIException {
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncountersNotAssignedToAnyVisit(patient), null);
+		    dao.getEncountersNotAssignedToAnyVisit(patient, getEncounterTypesNotViewable()), null);
 	}
 	
 	/**
@@ -832,7 +882,8 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	public List<Encounter> getEncountersByVisitsAndPatient(Patient patient, boolean includeVoided, String query,
 	                                                       Integer start, Integer length) throws APIException {
 		return Context.getEncounterService().filterEncountersByViewPermissions(
-		    dao.getEncountersByVisitsAndPatient(patient, includeVoided, query, start, length), null);
+		    dao.getEncountersByVisitsAndPatient(patient, includeVoided, query, start, length,
+		        getEncounterTypesNotViewable()), null);
 	}
 	
 	/**
@@ -843,7 +894,7 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 	@Transactional(readOnly = true)
 	public Integer getEncountersByVisitsAndPatientCount(Patient patient, boolean includeVoided, String query)
 	    throws APIException {
-		return dao.getEncountersByVisitsAndPatientCount(patient, includeVoided, query);
+		return dao.getEncountersByVisitsAndPatientCount(patient, includeVoided, query, getEncounterTypesNotViewable());
 	}
 	
 	/**
@@ -948,6 +999,63 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		return userHasEncounterPrivilege(encounter.getEncounterType().getViewPrivilege(), user);
 	}
 	
+	/**
+	 * Resolves the encounter types the authenticated user is not allowed to view, so that queries
+	 * leave out their encounters instead of loading them only to filter them out afterwards, which
+	 * also keeps pages full and counts accurate. The results are still passed through
+	 * {@link #filterEncountersByViewPermissions(List, User)} to account for encounter types changed in
+	 * the session but not saved yet.
+	 * <p>
+	 * Super users may view every encounter type, so nothing is looked up for them. For other users,
+	 * the encounter types are looked up once and kept until an encounter type is saved or purged, or
+	 * the authenticated user is refreshed, e.g. because their roles changed.
+	 *
+	 * @return the encounter types whose encounters the user may not view
+	 */
+	private List<EncounterType> getEncounterTypesNotViewable() {
+		User user = Context.getAuthenticatedUser();
+		if (user != null && user.isSuperUser()) {
+			return Collections.emptyList();
+		}
+		
+		long version = encounterTypesVersion.get();
+		NotViewableEncounterTypes cached = user == null ? null : notViewableByUser.get(user.getUserId());
+		if (cached != null && cached.user == user && cached.version == version) {
+			return cached.encounterTypes;
+		}
+		
+		List<EncounterType> notViewable = new ArrayList<>();
+		for (EncounterType encounterType : dao.getAllEncounterTypes(true)) {
+			Privilege viewPrivilege = encounterType.getViewPrivilege();
+			if (viewPrivilege != null && (user == null || !userHasEncounterPrivilege(viewPrivilege, user))) {
+				notViewable.add(encounterType);
+			}
+		}
+		notViewable = Collections.unmodifiableList(notViewable);
+		if (user != null && user.getUserId() != null) {
+			notViewableByUser.put(user.getUserId(), new NotViewableEncounterTypes(user, version, notViewable));
+		}
+		return notViewable;
+	}
+	
+	/**
+	 * Discards the encounter types cached by {@link #getEncounterTypesNotViewable()}, now and once the
+	 * current transaction completes, so that none are cached from before it was committed or rolled
+	 * back
+	 */
+	private void encounterTypesChanged() {
+		encounterTypesVersion.incrementAndGet();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					encounterTypesVersion.incrementAndGet();
+				}
+			});
+		}
+	}
+	
 	/**
 	 * Convenient method that safely checks if user has given encounter privilege
 	 * 
@@ -1000,4 +1108,22 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		
 		return saveEncounter(encounterCopy);
 	}
+	
+	/**
+	 * The encounter types a user may not view, as of a version of the encounter types
+	 */
+	private static class NotViewableEncounterTypes {
+		
+		private final User user;
+		
+		private final long version;
+		
+		private final List<EncounterType> encounterTypes;
+		
+		private NotViewableEncounterTypes(User user, long version, List<EncounterType> encounterTypes) {
+			this.user = user;
+			this.version = version;
+			this.encounterTypes = encounterTypes;
+		}
+	}
 }
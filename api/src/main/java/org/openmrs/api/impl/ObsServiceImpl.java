@@ -10,11 +10,16 @@
 package org.openmrs.api.impl;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -31,13 +36,17 @@ import org.openmrs.api.PatientService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.ObsDAO;
 import org.openmrs.api.handler.SaveHandler;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.obs.Flowsheet;
 import org.openmrs.obs.handler.AbstractHandler;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -103,14 +112,51 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 
 		//Should allow updating a voided Obs, it seems to be pointless to restrict it,
 		//otherwise operations like merge patients won't be possible when to moving voided obs
+		Obs savedObs;
 		if (obs.getObsId() == null || obs.getVoided()) {
-			return saveNewOrVoidedObs(obs,changeMessage);
+			savedObs = saveNewOrVoidedObs(obs,changeMessage);
 		} else if(!obs.isDirty()){
 			setPersonFromEncounter(obs);
-			return saveObsNotDirty(obs, changeMessage);
+			savedObs = saveObsNotDirty(obs, changeMessage);
 		} else {
 			setPersonFromEncounter(obs);
-			return saveExistingObs(obs,changeMessage);
+			savedObs = saveExistingObs(obs,changeMessage);
+		}
+		updateLatestObs(savedObs);
+		return savedObs;
+	}
+
+	/**
+	 * Updates the latest obs entries of the given obs and of its group members, which are voided and
+	 * unvoided along with it
+	 */
+	private void updateLatestObs(Obs obs) {
+		if (obs.getObsId() != null && obs.getPerson() != null && obs.getConcept() != null) {
+			if (obs.getVoided()) {
+				dao.refreshLatestObs(obs.getPerson().getPersonId(), obs.getConcept().getConceptId());
+			} else {
+				dao.updateLatestObs(obs);
+			}
+		}
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				updateLatestObs(member);
+			}
+		}
+	}
+
+	/**
+	 * Points the latest obs entries of the given purged or edited obs and of its group members to the
+	 * obs left
+	 */
+	private void refreshLatestObs(Obs obs) {
+		if (obs.getPerson() != null && obs.getConcept() != null) {
+			dao.refreshLatestObs(obs.getPerson().getPersonId(), obs.getConcept().getConceptId());
+		}
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				refreshLatestObs(member);
+			}
 		}
 	}
 
@@ -121,7 +167,7 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 		}
 	}
 
-	private void voidExistingObs(Obs obs, String changeMessage, Obs newObs) {
+	private Obs voidExistingObs(Obs obs, String changeMessage, Obs newObs) {
 		// void out the original observation to keep it around for
 		// historical purposes
 		try {
@@ -138,7 +184,7 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 				previousFile.delete();
 			}
 			// calling this via the service so that AOP hooks are called
-			Context.getObsService().voidObs(obs, changeMessage);
+			return Context.getObsService().voidObs(obs, changeMessage);
 
 		}
 		finally {
@@ -165,7 +211,11 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 
 		saveObsGroup(newObs,null);
 
-		voidExistingObs(obs, changeMessage, newObs);
+		Obs previousVersion = voidExistingObs(obs, changeMessage, newObs);
+		// the edit may have moved the obs to an earlier date, another person or another concept, which
+		// the update of the entries of the new obs does not undo for the entries of the previous version
+		Context.flushSession();
+		refreshLatestObs(previousVersion);
 
 		return newObs;
 
@@ -280,7 +330,9 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 	 */
 	@Override
 	public Obs voidObs(Obs obs, String reason) throws APIException {
-		return dao.saveObs(obs);
+		Obs voidedObs = dao.saveObs(obs);
+		updateLatestObs(voidedObs);
+		return voidedObs;
 	}
 	
 	/**
@@ -316,6 +368,7 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 		}
 		
 		dao.deleteObs(obs);
+		refreshLatestObs(obs);
 	}
 	
 	/**
@@ -372,6 +425,90 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 		    obsGroupId, fromDate, toDate, includeVoidedObs, accessionNumber);
 	}
 	
+	/**
+	 * @see org.openmrs.api.ObsService#streamObservations(java.util.List, java.util.List,
+	 *      java.util.List, java.util.List, List, List, java.util.List, java.lang.Integer,
+	 *      java.util.Date, java.util.Date, boolean, java.lang.String)
+	 */
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Obs> streamObservations(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	                                      List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations,
+	                                      List<String> sort, Integer obsGroupId, Date fromDate, Date toDate,
+	                                      boolean includeVoidedObs, String accessionNumber) throws APIException {
+		
+		if (sort == null) {
+			sort = new ArrayList<>();
+		}
+		if (sort.isEmpty()) {
+			sort.add("obsDatetime");
+		}
+		
+		return dao.streamObservations(whom, encounters, questions, answers, personTypes, locations, sort, obsGroupId,
+		    fromDate, toDate, includeVoidedObs, accessionNumber);
+	}
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getObservationsPage(List, List, List, List, List, List, Integer,
+	 *      Date, Date, boolean, String, String, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<Obs> getObservationsPage(List<Person> whom, List<Encounter> encounters, List<Concept> questions,
+	        List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, Integer obsGroupId,
+	        Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber, String continuationToken,
+	        int length) throws APIException {
+		return dao.getObservationsPage(whom, encounters, questions, answers, personTypes, locations, obsGroupId,
+		    fromDate, toDate, includeVoidedObs, accessionNumber, ContinuationToken.decode(continuationToken), length);
+	}
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, Map<Integer, Obs>> getLatestObs(Collection<Integer> personIds, Collection<Integer> conceptIds)
+	        throws APIException {
+		Map<Integer, Map<Integer, Obs>> latestObs = new HashMap<>();
+		for (Obs obs : dao.getLatestObs(personIds, conceptIds)) {
+			latestObs.computeIfAbsent(obs.getPerson().getPersonId(), personId -> new HashMap<>())
+			        .put(obs.getConcept().getConceptId(), obs);
+		}
+		return latestObs;
+	}
+	
+	/**
+	 * @see org.openmrs.api.ObsService#rebuildLatestObs()
+	 */
+	@Override
+	public int rebuildLatestObs() throws APIException {
+		return dao.rebuildLatestObs();
+	}
+	
+	/**
+	 * @see org.openmrs.api.ObsService#getFlowsheet(org.openmrs.Person, java.util.List, java.util.Date,
+	 *      java.util.Date)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Flowsheet getFlowsheet(Person person, List<Concept> concepts, Date fromDate, Date toDate)
+	        throws APIException {
+		if (person == null || person.getPersonId() == null) {
+			throw new IllegalArgumentException("The person of a flowsheet must be saved");
+		}
+		Set<Integer> conceptIds = new LinkedHashSet<>();
+		for (Concept concept : concepts) {
+			if (concept.getSet()) {
+				for (Concept member : concept.getSetMembers()) {
+					conceptIds.add(member.getConceptId());
+				}
+			} else {
+				conceptIds.add(concept.getConceptId());
+			}
+		}
+		return dao.getFlowsheet(person.getPersonId(), new ArrayList<>(conceptIds), fromDate, toDate);
+	}
+	
 	/**
 	 * @see org.openmrs.api.ObsService#getObservationCount(java.util.List, java.util.List,
 	 *      java.util.List, java.util.List, java.util.List, java.util.List, java.lang.Integer,
@@ -67,6 +67,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.openmrs.Order.Action.DISCONTINUE;
 import static org.openmrs.Order.Action.REVISE;
@@ -89,6 +91,14 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	protected OrderDAO dao;
 	
 	private static OrderNumberGenerator orderNumberGenerator = null;
+	
+	/**
+	 * The block of order number seeds currently handed out by this server, refilled from
+	 * {@link OpenmrsConstants#GP_NEXT_ORDER_NUMBER_SEED} once exhausted
+	 */
+	private final AtomicReference<OrderNumberSeedBlock> orderNumberSeedBlock = new AtomicReference<>();
+	
+	private volatile Integer orderNumberSeedBlockSize = null;
 
 	public OrderServiceImpl() {
 	}
@@ -624,7 +634,40 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 */
 	@Override
 	public String getNewOrderNumber(OrderContext orderContext) throws APIException {
-		return ORDER_NUMBER_PREFIX + Context.getOrderService().getNextOrderNumberSeedSequenceValue();
+		return ORDER_NUMBER_PREFIX + getNextOrderNumberSeed();
+	}
+	
+	/**
+	 * Hands out the next seed of the current block, only threads finding the block exhausted go to
+	 * the database to reserve the next one
+	 */
+	private Long getNextOrderNumberSeed() {
+		while (true) {
+			OrderNumberSeedBlock block = orderNumberSeedBlock.get();
+			if (block != null) {
+				Long seed = block.next();
+				if (seed != null) {
+					return seed;
+				}
+			}
+			
+			synchronized (orderNumberSeedBlock) {
+				if (orderNumberSeedBlock.get() == block) {
+					int blockSize = getOrderNumberSeedBlockSize();
+					Long firstSeed = Context.getOrderService().getNextOrderNumberSeedSequenceValue(blockSize);
+					orderNumberSeedBlock.set(new OrderNumberSeedBlock(firstSeed, blockSize));
+				}
+			}
+		}
+	}
+	
+	private int getOrderNumberSeedBlockSize() {
+		if (orderNumberSeedBlockSize == null) {
+			Integer blockSize = Context.getAdministrationService().getGlobalPropertyValue(
+			    OpenmrsConstants.GP_ORDER_NUMBER_SEED_BLOCK_SIZE, 1);
+			orderNumberSeedBlockSize = blockSize < 1 ? 1 : blockSize;
+		}
+		return orderNumberSeedBlockSize;
 	}
 	
 	/**
@@ -664,6 +707,15 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 		return dao.getNextOrderNumberSeedSequenceValue();
 	}
 	
+	/**
+	 * @see org.openmrs.api.OrderService#getNextOrderNumberSeedSequenceValue(int)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public synchronized Long getNextOrderNumberSeedSequenceValue(int blockSize) {
+		return dao.getNextOrderNumberSeedSequenceValue(blockSize);
+	}
+	
 	/**
 	 * @see org.openmrs.api.OrderService#getOrderHistoryByOrderNumber(java.lang.String)
 	 */
@@ -902,7 +954,8 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 */
 	@Override
 	public boolean supportsPropertyName(String propertyName) {
-		return OpenmrsConstants.GP_ORDER_NUMBER_GENERATOR_BEAN_ID.equals(propertyName);
+		return OpenmrsConstants.GP_ORDER_NUMBER_GENERATOR_BEAN_ID.equals(propertyName)
+		        || OpenmrsConstants.GP_ORDER_NUMBER_SEED_BLOCK_SIZE.equals(propertyName);
 	}
 	
 	/**
@@ -910,7 +963,7 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 */
 	@Override
 	public void globalPropertyChanged(GlobalProperty newValue) {
-		setOrderNumberGenerator(null);
+		globalPropertyDeleted(newValue.getProperty());
 	}
 	
 	/**
@@ -918,7 +971,12 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 */
 	@Override
 	public void globalPropertyDeleted(String propertyName) {
-		setOrderNumberGenerator(null);
+		if (OpenmrsConstants.GP_ORDER_NUMBER_SEED_BLOCK_SIZE.equals(propertyName)) {
+			// seeds left in the current block are still reserved and handed out first
+			orderNumberSeedBlockSize = null;
+		} else {
+			setOrderNumberGenerator(null);
+		}
 	}
 	
 	/**
@@ -1262,4 +1320,27 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	public OrderAttribute getOrderAttributeByUuid(String uuid)throws APIException {
 		return dao.getOrderAttributeByUuid(uuid);
 	}
+	
+	/**
+	 * A range of order number seeds reserved in the database for this server
+	 */
+	private static class OrderNumberSeedBlock {
+		
+		private final AtomicLong next;
+		
+		private final long end;
+		
+		OrderNumberSeedBlock(long firstSeed, int size) {
+			this.next = new AtomicLong(firstSeed);
+			this.end = firstSeed + size;
+		}
+		
+		/**
+		 * @return the next seed or null if the block is exhausted
+		 */
+		Long next() {
+			long seed = next.getAndIncrement();
+			return seed < end ? seed : null;
+		}
+	}
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Allergen;
@@ -35,6 +36,7 @@ import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientProgram;
+import org.openmrs.PatientSummary;
 import org.openmrs.Person;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttribute;
@@ -59,6 +61,8 @@ import org.openmrs.api.VisitService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.PatientDAO;
 import org.openmrs.api.db.hibernate.HibernateUtil;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.patient.IdentifierValidator;
@@ -72,6 +76,7 @@ import org.openmrs.util.PrivilegeConstants;
 import org.openmrs.validator.PatientIdentifierValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -251,6 +256,25 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		return dao.getAllPatients(includeVoided);
 	}
 	
+	/**
+	 * @see org.openmrs.api.PatientService#streamAllPatients(boolean)
+	 */
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Patient> streamAllPatients(boolean includeVoided) throws APIException {
+		return dao.streamAllPatients(includeVoided);
+	}
+	
+	/**
+	 * @see org.openmrs.api.PatientService#getPatientsPage(boolean, String, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<Patient> getPatientsPage(boolean includeVoided, String continuationToken, int length)
+	        throws APIException {
+		return dao.getPatientsPage(includeVoided, ContinuationToken.decode(continuationToken), length);
+	}
+	
 	/**
 	 * @see org.openmrs.api.PatientService#getPatients(java.lang.String, java.lang.String,
 	 *      java.util.List, boolean)
@@ -1603,6 +1627,33 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		return dao.getPatients(query, includeVoided, start, length);
 	}
 	
+	/**
+	 * @see PatientService#getPatientSummaries(Collection)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<PatientSummary> getPatientSummaries(Collection<Integer> patientIds) throws APIException {
+		if (patientIds == null || patientIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		return dao.getPatientSummaries(patientIds);
+	}
+	
+	/**
+	 * @see PatientService#getPatientSummaries(String, boolean, Integer, Integer)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<PatientSummary> getPatientSummaries(String query, boolean includeVoided, Integer start, Integer length)
+	        throws APIException {
+		if (StringUtils.isBlank(query)) {
+			return Collections.emptyList();
+		}
+		
+		return getPatientSummaries(dao.getPatientIds(query, includeVoided, start, length));
+	}
+	
 	/**
 	 * @see PatientService#getPatients(String, String, List, boolean, Integer, Integer)
 	 */
@@ -33,6 +33,9 @@ import org.openmrs.customdatatype.CustomDatatypeUtil;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.PrivilegeConstants;
 import org.openmrs.validator.ValidateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -44,6 +47,13 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class VisitServiceImpl extends BaseOpenmrsService implements VisitService {
 	
+	private static final Logger log = LoggerFactory.getLogger(VisitServiceImpl.class);
+	
+	/**
+	 * The number of visits stopped per transaction by {@link #stopVisits(Date)}
+	 */
+	private static final int STOP_VISITS_BATCH_SIZE = 1000;
+	
 	private VisitDAO dao;
 	
 	/**
@@ -350,7 +360,32 @@ public class VisitServiceImpl extends BaseOpenmrsService implements VisitService
 	 * @see org.openmrs.api.VisitService#stopVisits(Date)
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public void stopVisits(Date maximumStartDate) {
+		if (maximumStartDate == null) {
+			maximumStartDate = new Date();
+		}
+		
+		//go through the proxy so that each batch is committed in its own transaction unless the caller
+		//already has one
+		VisitService visitService = Context.getVisitService();
+		int stopped;
+		do {
+			stopped = visitService.stopVisits(maximumStartDate, STOP_VISITS_BATCH_SIZE);
+		} while (stopped > 0);
+	}
+	
+	/**
+	 * Stops the first matching visits in ascending visit id order with one bulk update instead of
+	 * saving each visit.
+	 * 
+	 * @see org.openmrs.api.VisitService#stopVisits(Date, int)
+	 */
+	@Override
+	public int stopVisits(Date maximumStartDate, int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be greater than 0, got " + batchSize);
+		}
 		
 		final List<VisitType> visitTypesToStop = getVisitTypesToStop();
 		
@@ -359,24 +394,25 @@ public class VisitServiceImpl extends BaseOpenmrsService implements VisitService
 		}
 			
 		if (visitTypesToStop.isEmpty()) {
-			return;
+			return 0;
 		}
 		
-		int counter = 0;
-		Date stopDate = new Date();
-		Visit nextVisit = dao.getNextVisit(null, visitTypesToStop, maximumStartDate);
-		while (nextVisit != null) {
-			nextVisit.setStopDatetime(stopDate);
-			dao.saveVisit(nextVisit);
-			if (counter++ > 50) {
-				//ensure changes are persisted to DB before reclaiming memory
-				Context.flushSession();
-				Context.clearSession();
-				counter = 0;
-			}
-					
-		nextVisit = dao.getNextVisit(nextVisit, visitTypesToStop, maximumStartDate);
+		List<Integer> visitIds = dao.getActiveVisitIds(visitTypesToStop, maximumStartDate, null, batchSize);
+		if (visitIds.isEmpty()) {
+			return 0;
 		}
+		
+		//the bulk update bypasses the session, so pending changes must reach the DB first and the
+		//visits loaded in the session are stale afterwards
+		Context.flushSession();
+		long startTime = System.currentTimeMillis();
+		Date stopDate = new Date();
+		int stopped = dao.stopVisits(visitIds, stopDate, Context.getAuthenticatedUser(), stopDate);
+		Context.clearSession();
+		
+		log.debug("Stopped {} visits in {} ms", stopped, System.currentTimeMillis() - startTime);
+		
+		return stopped;
 	}
 	
 	private List<VisitType> getVisitTypesToStop() {
@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.collection;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The position after which the next {@link KeysetPage} starts, made of the sort key and the id of
+ * the last element of the previous page. Callers only see the token as the opaque string returned
+ * by {@link #encode()}, which they hand back to get the next page.
+ *
+ * @since 2.7.0
+ */
+public final class ContinuationToken implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final char SEPARATOR = ':';
+
+	private final Date sortKey;
+
+	private final int id;
+
+	/**
+	 * @param sortKey the sort key of the last element, null if the elements are only sorted by id
+	 * @param id the id of the last element
+	 */
+	public ContinuationToken(Date sortKey, int id) {
+		this.sortKey = sortKey == null ? null : new Date(sortKey.getTime());
+		this.id = id;
+	}
+
+	/**
+	 * @return the sort key of the last element or null if the elements are only sorted by id
+	 */
+	public Date getSortKey() {
+		return sortKey == null ? null : new Date(sortKey.getTime());
+	}
+
+	/**
+	 * @return the id of the last element
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return this token as a url safe string
+	 */
+	public String encode() {
+		String key = (sortKey == null ? "" : Long.toString(sortKey.getTime())) + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param token a token returned by {@link #encode()}
+	 * @return the decoded token or null if the given token is null or empty
+	 * @throws IllegalArgumentException if the token is not a valid token
+	 */
+	public static ContinuationToken decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		try {
+			String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = key.indexOf(SEPARATOR);
+			String sortKey = key.substring(0, separator);
+			return new ContinuationToken(sortKey.isEmpty() ? null : new Date(Long.parseLong(sortKey)),
+			        Integer.parseInt(key.substring(separator + 1)));
+		}
+		catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof ContinuationToken)) {
+			return false;
+		}
+		ContinuationToken other = (ContinuationToken) obj;
+		return id == other.id && Objects.equals(sortKey, other.sortKey);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(sortKey, id);
+	}
+
+	@Override
+	public String toString() {
+		return encode();
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.collection;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A page of a result set which is walked with keyset pagination: instead of skipping the elements
+ * of the previous pages like an offset does, the query for the next page starts right after the
+ * last element of this page as identified by {@link #getNextToken()}. Fetching a page therefore
+ * costs the same no matter how deep into the result set it is.
+ *
+ * @since 2.7.0
+ */
+public class KeysetPage<E> {
+
+	private final List<E> list;
+
+	private final String nextToken;
+
+	/**
+	 * @param list the elements of this page
+	 * @param nextToken the token of the next page or null if this is the last page
+	 */
+	public KeysetPage(List<E> list, String nextToken) {
+		Validate.notNull(list);
+		this.list = Collections.unmodifiableList(list);
+		this.nextToken = nextToken;
+	}
+
+	/**
+	 * Creates a page from the results of a query which fetched up to one element more than the
+	 * length of the page, which tells whether there is a next page without counting the results.
+	 *
+	 * @param results the results of the query
+	 * @param length the number of elements in a page
+	 * @param keyOf gets the continuation token of an element
+	 * @return the page
+	 */
+	public static <T> KeysetPage<T> of(List<T> results, int length, Function<T, ContinuationToken> keyOf) {
+		if (results.size() <= length) {
+			return new KeysetPage<>(results, null);
+		}
+		List<T> list = results.subList(0, length);
+		return new KeysetPage<>(list, keyOf.apply(list.get(length - 1)).encode());
+	}
+
+	/**
+	 * @return the elements of this page
+	 */
+	public List<E> getList() {
+		return list;
+	}
+
+	/**
+	 * @return the token to pass to get the next page or null if this is the last page
+	 */
+	public String getNextToken() {
+		return nextToken;
+	}
+
+	/**
+	 * @return true if there is a next page
+	 */
+	public boolean hasNext() {
+		return nextToken != null;
+	}
+}
@@ -17,6 +17,7 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.annotation.Logging;
 import org.openmrs.api.APIException;
 import org.openmrs.api.OpenmrsService;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.hl7.db.HL7DAO;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -147,6 +148,25 @@ public interface HL7Service extends OpenmrsService {
 	@Authorized(PrivilegeConstants.GET_HL7_IN_QUEUE)
 	public List<HL7InQueue> getHL7InQueueBatch(int start, int length, int messageState, String query) throws APIException;
 	
+	/**
+	 * Return a page of the hl7 in queues matching a query string ordered by date created. Unlike the
+	 * start of a batch, the continuation token of the previous page lets the database seek straight to
+	 * the first queue item of the page, so background jobs can walk a large queue at a constant cost
+	 * per page.
+	 * 
+	 * @param messageState status of the HL7InQueue message
+	 * @param query search string
+	 * @param continuationToken the token of the previous page, null for the first page
+	 * @param length the number of queue items in the page
+	 * @return the page of matching hl7 queue items with the token of the next page
+	 * @throws APIException
+	 * @since 2.7.0
+	 * <strong>Should</strong> page through the hl7 in queues with the given message state
+	 */
+	@Authorized(PrivilegeConstants.GET_HL7_IN_QUEUE)
+	public KeysetPage<HL7InQueue> getHL7InQueuePage(int messageState, String query, String continuationToken, int length)
+	        throws APIException;
+	
 	/**
 	 * the total count of all HL7InQueue objects in the database
 	 * 
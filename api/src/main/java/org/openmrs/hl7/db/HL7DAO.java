@@ -12,6 +12,8 @@ package org.openmrs.hl7.db;
 import java.util.List;
 
 import org.openmrs.api.db.DAOException;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.hl7.HL7InArchive;
 import org.openmrs.hl7.HL7InError;
 import org.openmrs.hl7.HL7InQueue;
@@ -98,6 +100,13 @@ public interface HL7DAO {
 	@SuppressWarnings("rawtypes")
 	public <T> List<T> getHL7Batch(Class clazz, int start, int length, Integer messageState, String query);
 	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#getHL7InQueuePage(int, String, String, int)
+	 * @since 2.7.0
+	 */
+	public KeysetPage<HL7InQueue> getHL7InQueuePage(Integer messageState, String query, ContinuationToken token,
+	        int length);
+	
 	/**
 	 * Returns the amount of HL7 items in the database
 	 * 
@@ -22,6 +22,9 @@ import org.hibernate.criterion.Restrictions;
 import org.hibernate.type.StandardBasicTypes;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
+import org.openmrs.api.db.hibernate.HibernateUtil;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.hl7.HL7Constants;
 import org.openmrs.hl7.HL7InArchive;
 import org.openmrs.hl7.HL7InError;
@@ -180,6 +183,17 @@ public class HibernateHL7DAO implements HL7DAO {
 		return crit.list();
 	}
 	
+	/**
+	 * @see org.openmrs.hl7.db.HL7DAO#getHL7InQueuePage(Integer, String, ContinuationToken, int)
+	 */
+	@Override
+	public KeysetPage<HL7InQueue> getHL7InQueuePage(Integer messageState, String query, ContinuationToken token,
+	        int length) {
+		return HibernateUtil.getKeysetPage(getHL7SearchCriteria(HL7InQueue.class, messageState, query), "dateCreated",
+		    "HL7InQueueId", true, token, length,
+		    (HL7InQueue hl7InQueue) -> new ContinuationToken(hl7InQueue.getDateCreated(), hl7InQueue.getHL7InQueueId()));
+	}
+	
 	/**
 	 * @see org.openmrs.hl7.db.HL7DAO#countHL7s(Class, Integer, String)
 	 */
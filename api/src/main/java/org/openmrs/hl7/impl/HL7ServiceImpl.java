@@ -41,6 +41,8 @@ import org.openmrs.api.PatientIdentifierException;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.collection.ContinuationToken;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.hl7.HL7Constants;
 import org.openmrs.hl7.HL7InArchive;
 import org.openmrs.hl7.HL7InError;
@@ -217,6 +219,16 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service {
 		return dao.getHL7Batch(HL7InQueue.class, start, length, messageState, query);
 	}
 	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#getHL7InQueuePage(int, String, String, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<HL7InQueue> getHL7InQueuePage(int messageState, String query, String continuationToken,
+	        int length) throws APIException {
+		return dao.getHL7InQueuePage(messageState, query, ContinuationToken.decode(continuationToken), length);
+	}
+	
 	/**
 	 * @see org.openmrs.hl7.HL7Service#getHL7InErrorBatch(int, int, java.lang.String)
 	 */
@@ -0,0 +1,181 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.liquibase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers that a set of Liquibase change log files had no un-run change sets. The fingerprint of
+ * a change log is the checksum of its files together with the number of change sets recorded in the
+ * liquibasechangelog table. As long as neither changes, the change log does not need to be parsed
+ * and compared with the database again.
+ * <p>
+ * Change logs including other files are never fingerprinted since a change of an included file would
+ * go unnoticed. The fingerprints are stored in the {@value #TABLE_NAME} table, if it does not exist
+ * yet every check simply reports the change log as not verified.
+ *
+ * @since 2.7.0
+ */
+public class ChangeLogFingerprint {
+
+	private static final Logger log = LoggerFactory.getLogger(ChangeLogFingerprint.class);
+
+	public static final String TABLE_NAME = "liquibase_fingerprint";
+
+	private static final Pattern INCLUDE = Pattern.compile("<include(All)?[\\s/>]");
+
+	private static final Pattern RERUNNABLE = Pattern
+	        .compile("runAlways\\s*=\\s*\"true\"|onFail\\s*=\\s*\"(CONTINUE|WARN)\"");
+
+	private ChangeLogFingerprint() {
+	}
+
+	/**
+	 * Computes the checksum of the given change log files
+	 *
+	 * @param classLoader the class loader to load the files from
+	 * @param changeLogFiles the names of the files
+	 * @param allowRerunnableChangeSets false if change logs containing change sets which run again on
+	 *            every update, i.e. with runAlways or a precondition failing with CONTINUE or WARN,
+	 *            must not be fingerprinted
+	 * @return the checksum as a hexadecimal string or null if the files cannot be fingerprinted
+	 * @throws IOException if a file cannot be read
+	 */
+	public static String getChecksum(ClassLoader classLoader, Collection<String> changeLogFiles,
+	        boolean allowRerunnableChangeSets) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		for (String changeLogFile : changeLogFiles) {
+			String resourceName = changeLogFile.replace('\\', '/');
+			byte[] content;
+			try (InputStream in = classLoader.getResourceAsStream(resourceName)) {
+				if (in == null) {
+					log.debug("Change log {} not found, it cannot be fingerprinted", changeLogFile);
+					return null;
+				}
+				content = IOUtils.toByteArray(in);
+			}
+
+			String text = new String(content, StandardCharsets.UTF_8);
+			if (INCLUDE.matcher(text).find()) {
+				log.debug("Change log {} includes other files, it cannot be fingerprinted", changeLogFile);
+				return null;
+			}
+			if (!allowRerunnableChangeSets && RERUNNABLE.matcher(text).find()) {
+				log.debug("Change log {} has change sets which run again on every update, it cannot be fingerprinted",
+				    changeLogFile);
+				return null;
+			}
+			digest.update(resourceName.getBytes(StandardCharsets.UTF_8));
+			digest.update(content);
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Checks whether the stored fingerprint of the given change log matches its current checksum and
+	 * the change sets recorded in the database
+	 *
+	 * @param connection the connection to the database
+	 * @param changeLog the name the fingerprint is stored under
+	 * @param checksum the current checksum of the change log
+	 * @return true if the change log was up to date when the fingerprint was saved and nothing changed
+	 *         since
+	 */
+	public static boolean isCurrent(Connection connection, String changeLog, String checksum) {
+		if (checksum == null) {
+			return false;
+		}
+		try (PreparedStatement ps = connection
+		        .prepareStatement("select checksum, executed_changesets from " + TABLE_NAME + " where changelog = ?")) {
+			ps.setString(1, changeLog);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					return false;
+				}
+				return checksum.equals(rs.getString(1)) && rs.getInt(2) == countExecutedChangeSets(connection);
+			}
+		}
+		catch (SQLException e) {
+			log.debug("Unable to read the fingerprint of change log " + changeLog, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Records that the given change log has no un-run change sets. Failures are logged, they only
+	 * cause the change log to be checked in full the next time.
+	 *
+	 * @param connection the connection to the database
+	 * @param changeLog the name the fingerprint is stored under
+	 * @param checksum the current checksum of the change log
+	 */
+	public static void save(Connection connection, String changeLog, String checksum) {
+		if (checksum == null) {
+			return;
+		}
+		try {
+			int executedChangeSets = countExecutedChangeSets(connection);
+			try (PreparedStatement delete = connection
+			        .prepareStatement("delete from " + TABLE_NAME + " where changelog = ?")) {
+				delete.setString(1, changeLog);
+				delete.executeUpdate();
+			}
+			try (PreparedStatement insert = connection.prepareStatement("insert into " + TABLE_NAME
+			        + " (changelog, checksum, executed_changesets, date_updated) values (?, ?, ?, ?)")) {
+				insert.setString(1, changeLog);
+				insert.setString(2, checksum);
+				insert.setInt(3, executedChangeSets);
+				insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+				insert.executeUpdate();
+			}
+			if (!connection.getAutoCommit()) {
+				connection.commit();
+			}
+		}
+		catch (SQLException e) {
+			log.debug("Unable to save the fingerprint of change log " + changeLog, e);
+		}
+	}
+
+	private static int countExecutedChangeSets(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+		        ResultSet rs = statement.executeQuery("select count(*) from liquibasechangelog")) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+}
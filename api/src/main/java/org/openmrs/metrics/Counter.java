@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A gauge whose value only grows until the application restarts, e.g. the number of times getting
+ * a connection timed out. It is registered like a gauge but exported as a counter, its name is
+ * expected to end with <i>_total</i>.
+ *
+ * @since 2.7.0
+ */
+public class Counter extends Gauge {
+	
+	/**
+	 * @param name the name of the counter, made of letters, digits and underscores
+	 * @param help a short description of the counter
+	 * @param value supplies the current value of the counter
+	 */
+	public Counter(String name, String help, Supplier<? extends Number> value) {
+		super(name, help, value);
+	}
+}
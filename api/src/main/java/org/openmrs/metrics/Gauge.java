@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A named value sampled each time the metrics are read, e.g. the number of active connections of a
+ * connection pool
+ *
+ * @since 2.7.0
+ */
+public class Gauge {
+	
+	private final String name;
+	
+	private final String help;
+	
+	private final Supplier<? extends Number> value;
+	
+	/**
+	 * @param name the name of the gauge, made of letters, digits and underscores
+	 * @param help a short description of the gauge
+	 * @param value supplies the current value of the gauge
+	 */
+	public Gauge(String name, String help, Supplier<? extends Number> value) {
+		if (name == null || !name.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+			throw new IllegalArgumentException("Invalid gauge name: " + name);
+		}
+		this.name = name;
+		this.help = help;
+		this.value = value;
+	}
+	
+	/**
+	 * @return the name of the gauge
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the description of the gauge
+	 */
+	public String getHelp() {
+		return help;
+	}
+	
+	/**
+	 * @return the current value of the gauge or NaN if it cannot be read
+	 */
+	public double getValue() {
+		try {
+			Number current = value.get();
+			return current == null ? Double.NaN : current.doubleValue();
+		}
+		catch (RuntimeException e) {
+			return Double.NaN;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named histogram of durations, published by components through
+ * {@link MetricsRegistry#registerHistogram(Histogram)}. Like {@link ServiceMethodMetrics} it only
+ * uses {@link LongAdder}s, so recording does not lock.
+ *
+ * @since 2.7.0
+ */
+public class Histogram {
+	
+	private final String name;
+	
+	private final String help;
+	
+	private final double[] bucketBounds;
+	
+	private final long[] bucketBoundsNanos;
+	
+	private final LongAdder[] buckets;
+	
+	private final LongAdder totalTimeNanos = new LongAdder();
+	
+	/**
+	 * @param name the name of the histogram, made of letters, digits and underscores
+	 * @param help a short description of the histogram
+	 * @param bucketBounds the upper bounds in seconds of the buckets in ascending order, a last
+	 *            bucket counts the durations longer than all of them
+	 */
+	public Histogram(String name, String help, double... bucketBounds) {
+		if (name == null || !name.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+			throw new IllegalArgumentException("Invalid histogram name: " + name);
+		}
+		for (int i = 1; i < bucketBounds.length; i++) {
+			if (bucketBounds[i] <= bucketBounds[i - 1]) {
+				throw new IllegalArgumentException("The bucket bounds must be in ascending order");
+			}
+		}
+		this.name = name;
+		this.help = help;
+		this.bucketBounds = bucketBounds.clone();
+		this.bucketBoundsNanos = new long[bucketBounds.length];
+		for (int i = 0; i < bucketBounds.length; i++) {
+			bucketBoundsNanos[i] = (long) (bucketBounds[i] * TimeUnit.SECONDS.toNanos(1));
+		}
+		this.buckets = new LongAdder[bucketBounds.length + 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * @param durationNanos the duration to record in nanoseconds
+	 */
+	public void record(long durationNanos) {
+		totalTimeNanos.add(durationNanos);
+		int bucket = 0;
+		while (bucket < bucketBoundsNanos.length && durationNanos > bucketBoundsNanos[bucket]) {
+			bucket++;
+		}
+		buckets[bucket].increment();
+	}
+	
+	/**
+	 * Clears all the recorded durations
+	 */
+	public void reset() {
+		totalTimeNanos.reset();
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+	}
+	
+	/**
+	 * @return the name of the histogram
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the description of the histogram
+	 */
+	public String getHelp() {
+		return help;
+	}
+	
+	/**
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+	
+	/**
+	 * @return the sum of the recorded durations in nanoseconds
+	 */
+	public long getTotalTimeNanos() {
+		return totalTimeNanos.sum();
+	}
+	
+	/**
+	 * @return the upper bounds in seconds of the buckets
+	 */
+	public double[] getBucketBounds() {
+		return bucketBounds.clone();
+	}
+	
+	/**
+	 * @return the number of durations per bucket, the last element being the number of durations
+	 *         longer than the largest bound
+	 * @see #getBucketBounds()
+	 */
+	public long[] getBucketCounts() {
+		long[] counts = new long[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return counts;
+	}
+}
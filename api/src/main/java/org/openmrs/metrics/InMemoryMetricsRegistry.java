@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default {@link MetricsRegistry} keeping the metrics in memory since the application started
+ *
+ * @since 2.7.0
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+	
+	private final Map<String, ServiceMethodMetrics> serviceMethodMetrics = new ConcurrentHashMap<>();
+	
+	private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+	
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	
+	/**
+	 * @see MetricsRegistry#getServiceMethodMetrics(String, String)
+	 */
+	@Override
+	public ServiceMethodMetrics getServiceMethodMetrics(String service, String method) {
+		return serviceMethodMetrics.computeIfAbsent(service + "#" + method, k -> new ServiceMethodMetrics(service, method));
+	}
+	
+	/**
+	 * @see MetricsRegistry#getServiceMethodMetrics()
+	 */
+	@Override
+	public List<ServiceMethodMetrics> getServiceMethodMetrics() {
+		List<ServiceMethodMetrics> metrics = new ArrayList<>();
+		for (ServiceMethodMetrics methodMetrics : serviceMethodMetrics.values()) {
+			if (methodMetrics.getCount() > 0) {
+				metrics.add(methodMetrics);
+			}
+		}
+		metrics.sort(Comparator.comparing(ServiceMethodMetrics::getService).thenComparing(ServiceMethodMetrics::getMethod));
+		return metrics;
+	}
+	
+	/**
+	 * @see MetricsRegistry#registerGauge(Gauge)
+	 */
+	@Override
+	public void registerGauge(Gauge gauge) {
+		gauges.put(gauge.getName(), gauge);
+	}
+	
+	/**
+	 * @see MetricsRegistry#unregisterGauge(String)
+	 */
+	@Override
+	public void unregisterGauge(String name) {
+		gauges.remove(name);
+	}
+	
+	/**
+	 * @see MetricsRegistry#getGauges()
+	 */
+	@Override
+	public List<Gauge> getGauges() {
+		List<Gauge> result = new ArrayList<>(gauges.values());
+		result.sort(Comparator.comparing(Gauge::getName));
+		return result;
+	}
+	
+	/**
+	 * @see MetricsRegistry#registerHistogram(Histogram)
+	 */
+	@Override
+	public void registerHistogram(Histogram histogram) {
+		histograms.put(histogram.getName(), histogram);
+	}
+	
+	/**
+	 * @see MetricsRegistry#unregisterHistogram(String)
+	 */
+	@Override
+	public void unregisterHistogram(String name) {
+		histograms.remove(name);
+	}
+	
+	/**
+	 * @see MetricsRegistry#getHistograms()
+	 */
+	@Override
+	public List<Histogram> getHistograms() {
+		List<Histogram> result = new ArrayList<>(histograms.values());
+		result.sort(Comparator.comparing(Histogram::getName));
+		return result;
+	}
+	
+	/**
+	 * @see MetricsRegistry#reset()
+	 */
+	@Override
+	public void reset() {
+		// the metrics are only cleared, callers keep recording into the instances they hold
+		for (ServiceMethodMetrics methodMetrics : serviceMethodMetrics.values()) {
+			methodMetrics.reset();
+		}
+		for (Histogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+	}
+}
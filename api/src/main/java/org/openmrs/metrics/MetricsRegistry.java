@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.List;
+
+/**
+ * Holds the metrics collected by OpenMRS. The default implementation keeps them in memory, an
+ * alternative implementation can be provided by overriding the <i>metricsRegistry</i> bean, e.g. to
+ * forward the metrics to a monitoring system.
+ *
+ * @since 2.7.0
+ */
+public interface MetricsRegistry {
+	
+	/**
+	 * Gets the metrics of a service method, creating them if they do not exist yet. The returned
+	 * object is meant to be kept by the caller to record the calls of the method.
+	 *
+	 * @param service the name of the service
+	 * @param method the name of the method
+	 * @return the metrics of the method
+	 */
+	ServiceMethodMetrics getServiceMethodMetrics(String service, String method);
+	
+	/**
+	 * @return the metrics of all the service methods called so far, sorted by service and method
+	 */
+	List<ServiceMethodMetrics> getServiceMethodMetrics();
+	
+	/**
+	 * Registers a gauge, replacing any gauge registered under the same name
+	 *
+	 * @param gauge the gauge to register
+	 */
+	void registerGauge(Gauge gauge);
+	
+	/**
+	 * @param name the name of the gauge to remove
+	 */
+	void unregisterGauge(String name);
+	
+	/**
+	 * @return all the registered gauges sorted by name
+	 */
+	List<Gauge> getGauges();
+	
+	/**
+	 * Registers a histogram, replacing any histogram registered under the same name. The caller keeps
+	 * recording into the histogram after registering it.
+	 *
+	 * @param histogram the histogram to register
+	 */
+	void registerHistogram(Histogram histogram);
+	
+	/**
+	 * @param name the name of the histogram to remove
+	 */
+	void unregisterHistogram(String name);
+	
+	/**
+	 * @return all the registered histograms sorted by name
+	 */
+	List<Histogram> getHistograms();
+	
+	/**
+	 * Resets the metrics of all the service methods and the registered histograms, gauges are left
+	 * untouched
+	 */
+	void reset();
+}
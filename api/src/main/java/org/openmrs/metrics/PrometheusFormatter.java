@@ -0,0 +1,161 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes metrics in the Prometheus text exposition format
+ *
+ * @since 2.7.0
+ */
+public class PrometheusFormatter {
+	
+	/**
+	 * The suffix of the keys of the Hibernate statistics which only grow until they are cleared,
+	 * exported as counters
+	 */
+	private static final String HIBERNATE_COUNT_SUFFIX = "Count";
+	
+	private static final String PREFIX = "openmrs_";
+	
+	private PrometheusFormatter() {
+	}
+	
+	/**
+	 * @param serviceMethodMetrics the metrics of the service methods
+	 * @param gauges the gauges, {@link Counter}s being exported as counters
+	 * @param histograms the histograms
+	 * @param hibernateStatistics the Hibernate statistics by name, those whose name ends with "Count"
+	 *            are exported as counters and the other ones as gauges, values which are not numbers
+	 *            such as the slowest query are ignored as each distinct value would make a new time
+	 *            series
+	 * @return the metrics in the Prometheus text format
+	 */
+	public static String format(List<ServiceMethodMetrics> serviceMethodMetrics, List<Gauge> gauges,
+	        List<Histogram> histograms, Map<String, Object> hibernateStatistics) {
+		StringBuilder sb = new StringBuilder();
+		if (!serviceMethodMetrics.isEmpty()) {
+			appendServiceMethodMetrics(sb, serviceMethodMetrics);
+		}
+		for (Gauge gauge : gauges) {
+			String name = PREFIX + gauge.getName();
+			appendHeader(sb, name, gauge.getHelp(), gauge instanceof Counter ? "counter" : "gauge");
+			sb.append(name).append(' ').append(formatValue(gauge.getValue())).append('\n');
+		}
+		for (Histogram histogram : histograms) {
+			appendHistogram(sb, histogram);
+		}
+		for (Map.Entry<String, Object> statistic : hibernateStatistics.entrySet()) {
+			if (!(statistic.getValue() instanceof Number)) {
+				continue;
+			}
+			String key = statistic.getKey();
+			String name;
+			String type;
+			if (key.endsWith(HIBERNATE_COUNT_SUFFIX)) {
+				name = PREFIX + "hibernate_"
+				        + toSnakeCase(key.substring(0, key.length() - HIBERNATE_COUNT_SUFFIX.length())) + "_total";
+				type = "counter";
+			} else {
+				name = PREFIX + "hibernate_" + toSnakeCase(key);
+				type = "gauge";
+			}
+			appendHeader(sb, name, "Hibernate statistic " + key, type);
+			sb.append(name).append(' ').append(formatValue(((Number) statistic.getValue()).doubleValue())).append('\n');
+		}
+		return sb.toString();
+	}
+	
+	private static void appendServiceMethodMetrics(StringBuilder sb, List<ServiceMethodMetrics> serviceMethodMetrics) {
+		String calls = PREFIX + "service_calls_total";
+		appendHeader(sb, calls, "Number of calls of service methods", "counter");
+		for (ServiceMethodMetrics metrics : serviceMethodMetrics) {
+			sb.append(calls).append(labels(metrics, null)).append(' ').append(metrics.getCount()).append('\n');
+		}
+		
+		String errors = PREFIX + "service_errors_total";
+		appendHeader(sb, errors, "Number of calls of service methods which threw an exception", "counter");
+		for (ServiceMethodMetrics metrics : serviceMethodMetrics) {
+			sb.append(errors).append(labels(metrics, null)).append(' ').append(metrics.getErrorCount()).append('\n');
+		}
+		
+		String duration = PREFIX + "service_duration_seconds";
+		appendHeader(sb, duration, "Duration of the calls of service methods", "histogram");
+		double[] bounds = ServiceMethodMetrics.getBucketBounds();
+		for (ServiceMethodMetrics metrics : serviceMethodMetrics) {
+			long[] counts = metrics.getBucketCounts();
+			long cumulative = 0;
+			for (int i = 0; i < counts.length; i++) {
+				cumulative += counts[i];
+				String le = i < bounds.length ? formatValue(bounds[i]) : "+Inf";
+				sb.append(duration).append("_bucket").append(labels(metrics, le)).append(' ').append(cumulative)
+				        .append('\n');
+			}
+			sb.append(duration).append("_sum").append(labels(metrics, null)).append(' ')
+			        .append(formatValue(metrics.getTotalTimeNanos() / (double) TimeUnit.SECONDS.toNanos(1))).append('\n');
+			sb.append(duration).append("_count").append(labels(metrics, null)).append(' ').append(cumulative).append('\n');
+		}
+	}
+	
+	private static void appendHistogram(StringBuilder sb, Histogram histogram) {
+		String name = PREFIX + histogram.getName();
+		appendHeader(sb, name, histogram.getHelp(), "histogram");
+		double[] bounds = histogram.getBucketBounds();
+		long[] counts = histogram.getBucketCounts();
+		long cumulative = 0;
+		for (int i = 0; i < counts.length; i++) {
+			cumulative += counts[i];
+			String le = i < bounds.length ? formatValue(bounds[i]) : "+Inf";
+			sb.append(name).append("_bucket{le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+		}
+		sb.append(name).append("_sum ")
+		        .append(formatValue(histogram.getTotalTimeNanos() / (double) TimeUnit.SECONDS.toNanos(1))).append('\n');
+		sb.append(name).append("_count ").append(cumulative).append('\n');
+	}
+	
+	private static void appendHeader(StringBuilder sb, String name, String help, String type) {
+		if (help != null) {
+			sb.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n"))
+			        .append('\n');
+		}
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+	
+	private static String labels(ServiceMethodMetrics metrics, String le) {
+		StringBuilder sb = new StringBuilder("{service=\"").append(escape(metrics.getService())).append("\",method=\"")
+		        .append(escape(metrics.getMethod())).append('"');
+		if (le != null) {
+			sb.append(",le=\"").append(le).append('"');
+		}
+		return sb.append('}').toString();
+	}
+	
+	private static String escape(String labelValue) {
+		return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+	
+	private static String formatValue(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		if (value == Math.rint(value) && !Double.isInfinite(value)) {
+			return Long.toString((long) value);
+		}
+		return String.valueOf(value);
+	}
+	
+	static String toSnakeCase(String name) {
+		return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+	}
+}
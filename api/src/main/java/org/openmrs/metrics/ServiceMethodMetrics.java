@@ -0,0 +1,166 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number of calls, failed calls and the latency histogram of a service method. Recording a call
+ * only updates a few striped counters so it can be done on every call of every service method.
+ *
+ * @since 2.7.0
+ */
+public class ServiceMethodMetrics {
+	
+	/**
+	 * The upper bounds in seconds of the buckets of the latency histogram, the last bucket counting
+	 * the calls slower than all of them
+	 */
+	private static final double[] BUCKET_BOUNDS = { 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+	
+	private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+	
+	static {
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+		}
+	}
+	
+	private final String service;
+	
+	private final String method;
+	
+	private final LongAdder count = new LongAdder();
+	
+	private final LongAdder errorCount = new LongAdder();
+	
+	private final LongAdder totalTimeNanos = new LongAdder();
+	
+	private final LongAccumulator maxTimeNanos = new LongAccumulator(Math::max, 0);
+	
+	private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+	
+	/**
+	 * @param service the name of the service
+	 * @param method the name of the method
+	 */
+	public ServiceMethodMetrics(String service, String method) {
+		this.service = service;
+		this.method = method;
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * Records a call of the method
+	 *
+	 * @param durationNanos the duration of the call in nanoseconds
+	 * @param failed true if the call threw an exception
+	 */
+	public void record(long durationNanos, boolean failed) {
+		count.increment();
+		if (failed) {
+			errorCount.increment();
+		}
+		totalTimeNanos.add(durationNanos);
+		maxTimeNanos.accumulate(durationNanos);
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS_NANOS.length && durationNanos > BUCKET_BOUNDS_NANOS[bucket]) {
+			bucket++;
+		}
+		buckets[bucket].increment();
+	}
+	
+	/**
+	 * Clears all the recorded calls
+	 */
+	public void reset() {
+		count.reset();
+		errorCount.reset();
+		totalTimeNanos.reset();
+		maxTimeNanos.reset();
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+	}
+	
+	/**
+	 * @return the name of the service
+	 */
+	public String getService() {
+		return service;
+	}
+	
+	/**
+	 * @return the name of the method
+	 */
+	public String getMethod() {
+		return method;
+	}
+	
+	/**
+	 * @return the number of calls
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * @return the number of calls which threw an exception
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+	
+	/**
+	 * @return the total duration of all the calls in nanoseconds
+	 */
+	public long getTotalTimeNanos() {
+		return totalTimeNanos.sum();
+	}
+	
+	/**
+	 * @return the duration of the slowest call in nanoseconds
+	 */
+	public long getMaxTimeNanos() {
+		return maxTimeNanos.get();
+	}
+	
+	/**
+	 * @return the mean duration of the calls in milliseconds
+	 */
+	public double getMeanTimeMillis() {
+		long calls = getCount();
+		return calls == 0 ? 0 : getTotalTimeNanos() / (double) calls / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	/**
+	 * @return the upper bounds in seconds of the buckets of the latency histogram
+	 */
+	public static double[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+	
+	/**
+	 * @return the number of calls per bucket of the latency histogram, the last element being the
+	 *         number of calls slower than the largest bound
+	 * @see #getBucketBounds()
+	 */
+	public long[] getBucketCounts() {
+		long[] counts = new long[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return counts;
+	}
+}
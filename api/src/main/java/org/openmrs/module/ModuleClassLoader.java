@@ -22,6 +22,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLStreamHandlerFactory;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
@@ -69,8 +70,17 @@ public class ModuleClassLoader extends URLClassLoader {
 	
 	private Set<String> providedPackages = new LinkedHashSet<>();
 	
-	private boolean disposed = false;
+	/**
+	 * Names of all the resources in the jars of this class loader, null if they could not be indexed
+	 * e.g. when the module is loaded from a development directory
+	 */
+	private volatile Set<String> providedResources;
 	
+	private volatile boolean disposed = false;
+	
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
 	
 	/**
 	 * @param module Module
@@ -123,12 +133,38 @@ public class ModuleClassLoader extends URLClassLoader {
 				}
 			}
 		} else {
+			long start = System.currentTimeMillis();
+			Set<String> resources = new HashSet<>();
 			for (URL url : urls) {
-				providedPackages.addAll(ModuleUtil.getPackagesFromFile(OpenmrsUtil.url2file(url)));
+				File file = OpenmrsUtil.url2file(url);
+				providedPackages.addAll(ModuleUtil.getPackagesFromFile(file));
+				resources = addResourceNames(resources, file);
 			}
+			providedResources = resources;
+			log.debug("Indexed {} resources of module {} in {} ms", resources == null ? "no" : resources.size(),
+			    module.getModuleId(), System.currentTimeMillis() - start);
 		}
 	}
 	
+	/**
+	 * Adds the names of the resources of the given jar to the given names
+	 *
+	 * @param resources the names collected so far, may be null
+	 * @param file the jar
+	 * @return the given names or null if they or the jar could not be indexed
+	 */
+	private static Set<String> addResourceNames(Set<String> resources, File file) {
+		if (resources == null) {
+			return null;
+		}
+		Set<String> jarResources = ModuleUtil.getResourceNamesFromFile(file);
+		if (jarResources == null) {
+			return null;
+		}
+		resources.addAll(jarResources);
+		return resources;
+	}
+	
 	private void addClassFilePackages(Collection<File> files, int dirLength) {
 		for (File file : files) {
 			String name = file.getAbsolutePath().substring(dirLength);
@@ -232,36 +268,24 @@ public class ModuleClassLoader extends URLClassLoader {
 		if (devDir == null) {
 			File tmpModuleJar = new File(tmpModuleDir, module.getModuleId() + ".jar");
 			
-			if (!tmpModuleJar.exists()) {
-				try {
-					tmpModuleJar.createNewFile();
-				}
-				catch (IOException io) {
-					log.warn("Unable to create tmpModuleFile", io);
-				}
-			}
-			
-			// copy the module jar into that temporary folder
-			FileInputStream in = null;
-			FileOutputStream out = null;
+			// copy the module jar into that temporary folder unless it is there already from a previous run
 			try {
-				in = new FileInputStream(module.getFile());
-				out = new FileOutputStream(tmpModuleJar);
-				OpenmrsUtil.copyFile(in, out);
+				String checksum = ModuleUtil.getChecksum(module.getFile());
+				File marker = new File(tmpModuleDir, ModuleUtil.EXPANSION_MARKER_PREFIX + module.getModuleId());
+				if (!ModuleUtil.isExpansionCurrent(ModuleUtil.readExpansionMarker(marker), checksum, tmpModuleDir)) {
+					deleteExpandedResources(tmpModuleDir, tmpModuleJar);
+					try (FileInputStream in = new FileInputStream(module.getFile());
+					        FileOutputStream out = new FileOutputStream(tmpModuleJar)) {
+						OpenmrsUtil.copyFile(in, out);
+					}
+					ModuleUtil.writeExpansionMarker(marker, checksum, Collections.singleton(tmpModuleJar.getName()));
+				} else {
+					log.debug("Reusing the copy of module {} from a previous run", module.getModuleId());
+				}
 			}
 			catch (IOException io) {
 				log.warn("Unable to copy tmpModuleFile", io);
 			}
-			finally {
-				try {
-					in.close();
-				}
-				catch (Exception e) { /* pass */}
-				try {
-					out.close();
-				}
-				catch (Exception e) { /* pass */}
-			}
 			
 			// add the module jar as a url in the classpath of the classloader
 			URL moduleFileURL;
@@ -278,7 +302,7 @@ public class ModuleClassLoader extends URLClassLoader {
 		try {
 			log.debug("Expanding /lib folder in module");
 			
-			ModuleUtil.expandJar(module.getFile(), tmpModuleDir, "lib", true);
+			ModuleUtil.expandJarIfChanged(module.getFile(), tmpModuleDir, "lib");
 			File libdir = new File(tmpModuleDir, "lib");
 			
 			if (libdir != null && libdir.exists()) {
@@ -405,6 +429,34 @@ public class ModuleClassLoader extends URLClassLoader {
 		return include;
 	}
 	
+	/**
+	 * Deletes the resources expanded on demand from a previous version of the module, the libraries
+	 * are kept as {@link ModuleUtil#expandJarIfChanged(File, File, String)} only rewrites the changed
+	 * ones
+	 */
+	private static void deleteExpandedResources(File tmpModuleDir, File tmpModuleJar) {
+		File[] files = tmpModuleDir.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (file.equals(tmpModuleJar) || "lib".equals(file.getName())
+			        || file.getName().startsWith(ModuleUtil.EXPANSION_MARKER_PREFIX)) {
+				continue;
+			}
+			try {
+				if (file.isDirectory()) {
+					OpenmrsUtil.deleteDirectory(file);
+				} else {
+					Files.delete(file.toPath());
+				}
+			}
+			catch (IOException e) {
+				log.warn("Unable to delete " + file.getAbsolutePath(), e);
+			}
+		}
+	}
+	
 	/**
 	 * Get the library cache folder for the given module. Each module has a different cache folder
 	 * to ease cleanup when unloading a module while openmrs is running
@@ -415,10 +467,9 @@ public class ModuleClassLoader extends URLClassLoader {
 	public static File getLibCacheFolderForModule(Module module) {
 		File tmpModuleDir = new File(OpenmrsClassLoader.getLibCacheFolder(), module.getModuleId());
 		
-		// each module gets its own folder named /moduleId/
+		// each module gets its own folder named /moduleId/, it is kept between runs
 		if (!tmpModuleDir.exists()) {
 			tmpModuleDir.mkdir();
-			tmpModuleDir.deleteOnExit();
 		}
 		return tmpModuleDir;
 	}
@@ -500,8 +551,18 @@ public class ModuleClassLoader extends URLClassLoader {
 	 */
 	protected void modulesSetChanged() {
 		List<URL> newUrls = getUrls(getModule(), getURLs());
+		Set<String> resources = providedResources;
+		if (resources != null && !newUrls.isEmpty()) {
+			// copied so that lookups never see a partially indexed jar
+			resources = new HashSet<>(resources);
+		}
 		for (URL u : newUrls) {
 			addURL(u);
+			resources = addResourceNames(resources, OpenmrsUtil.url2file(u));
+		}
+		if (!newUrls.isEmpty()) {
+			providedResources = resources;
+			OpenmrsClassLoader.clearMissingResources();
 		}
 		
 		if (log.isDebugEnabled()) {
@@ -597,7 +658,7 @@ public class ModuleClassLoader extends URLClassLoader {
 	 * @return Class that has been loaded
 	 * @throws ClassNotFoundException if no class found
 	 */
-	protected synchronized Class<?> loadClass(final String name, final boolean resolve, final ModuleClassLoader requestor,
+	protected Class<?> loadClass(final String name, final boolean resolve, final ModuleClassLoader requestor,
 	        Set<String> seenModules) throws ClassNotFoundException {
 		
 		if (log.isTraceEnabled()) {
@@ -632,13 +693,19 @@ public class ModuleClassLoader extends URLClassLoader {
 		// Check if the class has already been loaded by this class loader
 		Class<?> result = findLoadedClass(name);
 		
-		// Try loading the class with this class loader 
+		// Try loading the class with this class loader, only threads loading the same class
+		// need to wait for each other
 		if (result == null) {
-			try {
-				result = findClass(name);
-			}
-			catch (ClassNotFoundException e) {
-				// Continue trying...
+			synchronized (getClassLoadingLock(name)) {
+				result = findLoadedClass(name);
+				if (result == null) {
+					try {
+						result = findClass(name);
+					}
+					catch (ClassNotFoundException e) {
+						// Continue trying...
+					}
+				}
 			}
 		}
 		
@@ -1045,6 +1112,20 @@ public class ModuleClassLoader extends URLClassLoader {
 		return providedPackages;
 	}
 	
+	/**
+	 * Contains the names of all resources provided by the module, including those contained in jars.
+	 * <p>
+	 * It is used by {@link ModuleFactory#getModuleClassLoadersForResource(String)} so that
+	 * {@link OpenmrsClassLoader} only asks the class loaders actually containing a resource for it
+	 * instead of probing the jars of every module.
+	 * 
+	 * @return the provided resources or null if the resources of this module could not be indexed
+	 * @since 2.7.0
+	 */
+	public Set<String> getProvidedResources() {
+		return providedResources;
+	}
+	
 	/**
 	 * @see java.lang.Object#toString()
 	 */
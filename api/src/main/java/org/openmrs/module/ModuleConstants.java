@@ -78,6 +78,16 @@ public class ModuleConstants {
 	 */
 	public static final String REPOSITORY_FOLDER_RUNTIME_PROPERTY = "module.repository_folder";
 	
+	/**
+	 * Name of the runtime property setting the number of threads used to start modules at startup.
+	 * Modules which do not depend on each other are started in parallel when it is greater than 1,
+	 * apart from their sql diffs and liquibase changesets which are run one at a time. By default
+	 * modules are started one at a time.
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final String RUNTIMEPROPERTY_MODULE_STARTUP_THREADS = "module.startup_threads";
+	
 	/**
 	 * A module message.properties file containing this key mapped to "true" will be allowed to define messages outside of the module's namespace.
 	 *
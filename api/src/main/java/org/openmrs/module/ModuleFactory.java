@@ -21,14 +21,18 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -40,6 +44,7 @@ import org.openmrs.api.AdministrationService;
 import org.openmrs.api.OpenmrsService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.Daemon;
+import org.openmrs.liquibase.ChangeLogFingerprint;
 import org.openmrs.module.Extension.MEDIA_TYPE;
 import org.openmrs.util.CycleException;
 import org.openmrs.util.DatabaseUpdater;
@@ -49,6 +54,7 @@ import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.openmrs.util.StartupProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.Advisor;
@@ -79,7 +85,11 @@ public class ModuleFactory {
 	protected static final Cache<Module, ModuleClassLoader> moduleClassLoaders = CacheBuilder.newBuilder().weakKeys()
 		.softValues().build();
 	
-	private static final Map<String, Set<ModuleClassLoader>> providedPackages = new ConcurrentHashMap<>();
+	/**
+	 * Immutable snapshot of the module class loaders providing each package. Class loading reads it
+	 * without locking, it is only replaced as a whole when a module is started or stopped.
+	 */
+	private static volatile Map<String, Set<ModuleClassLoader>> providedPackages = Collections.emptyMap();
 	
 	// the name of the file within a module file
 	private static final String MODULE_CHANGELOG_FILENAME = "liquibase.xml";
@@ -88,6 +98,10 @@ public class ModuleFactory {
 	
 	private static final Set<String> actualStartupOrder = new LinkedHashSet<>();
 	
+	private static final Object CORE_DATASET_LOCK = new Object();
+	
+	private static final Object DATABASE_UPDATE_LOCK = new Object();
+	
 	/**
 	 * Add a module (in the form of a jar file) to the list of openmrs modules Returns null if an error
 	 * occurred and/or module was not successfully loaded
@@ -245,34 +259,152 @@ public class ModuleFactory {
 				modules = (List<Module>) ex.getExtraData();
 			}
 			
-			// try and start the modules that should be started
-			for (Module mod : modules) {
-				
-				if (mod.isStarted()) {
-					// skip over modules that are already started
-					continue;
+			int threads = getStartupThreads();
+			if (threads > 1 && modules.size() > 1) {
+				startModulesInParallel(modules, threads);
+			} else {
+				// try and start the modules that should be started
+				for (Module mod : modules) {
+					startModuleAtStartup(mod, StartupProfiler.current());
 				}
-				
-				// Skip module if required ones are not started
-				if (!requiredModulesStarted(mod)) {
-					String message = getFailedToStartModuleMessage(mod);
-					log.error(message);
-					mod.setStartupErrorMessage(message);
-					notifySuperUsersAboutModuleFailure(mod);
-					continue;
+			}
+		}
+	}
+	
+	private static void startModuleAtStartup(Module mod, StartupProfiler.Phase parentPhase) {
+		if (mod.isStarted()) {
+			// skip over modules that are already started
+			return;
+		}
+		
+		// Skip module if required ones are not started
+		if (!requiredModulesStarted(mod)) {
+			String message = getFailedToStartModuleMessage(mod);
+			log.error(message);
+			mod.setStartupErrorMessage(message);
+			notifySuperUsersAboutModuleFailure(mod);
+			return;
+		}
+		
+		try (StartupProfiler.Phase phase = StartupProfiler.start("module " + mod.getModuleId(), parentPhase)) {
+			log.debug("starting module: {}", mod.getModuleId());
+			startModule(mod);
+		}
+		catch (Exception e) {
+			log.error("Error while starting module: " + mod.getName(), e);
+			mod.setStartupErrorMessage("Error while starting module", e);
+			notifySuperUsersAboutModuleFailure(mod);
+		}
+	}
+	
+	private static int getStartupThreads() {
+		String threads = Context.getRuntimeProperties().getProperty(ModuleConstants.RUNTIMEPROPERTY_MODULE_STARTUP_THREADS);
+		if (StringUtils.hasText(threads)) {
+			try {
+				return Integer.parseInt(threads.trim());
+			}
+			catch (NumberFormatException e) {
+				log.warn("Invalid value for runtime property {}: {}", ModuleConstants.RUNTIMEPROPERTY_MODULE_STARTUP_THREADS,
+				    threads);
+			}
+		}
+		return 1;
+	}
+	
+	/**
+	 * Starts the given modules using a bounded pool of threads. A module is only started once all the
+	 * modules it requires or is aware of have been dealt with, so modules which do not depend on each
+	 * other have their class loaders created and their activators called at the same time. Their sql
+	 * diffs and liquibase changesets are still run one at a time. Each module is started exactly like
+	 * it would be sequentially, a module failing to start only prevents the modules requiring it from
+	 * starting.
+	 *
+	 * @param modules the modules to start in startup order
+	 * @param threads the maximum number of modules to start at the same time
+	 */
+	static void startModulesInParallel(List<Module> modules, int threads) {
+		Map<Module, Set<Module>> dependencies = getStartupDependencies(modules);
+		Map<Module, List<Module>> dependents = new HashMap<>();
+		for (Map.Entry<Module, Set<Module>> entry : dependencies.entrySet()) {
+			for (Module dependency : entry.getValue()) {
+				dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(entry.getKey());
+			}
+		}
+		
+		log.info("Starting {} modules using {} threads", modules.size(), threads);
+		long start = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, modules.size()), runnable -> {
+			Thread thread = new Thread(runnable, "module-startup");
+			thread.setDaemon(true);
+			return thread;
+		});
+		CompletionService<Module> completionService = new ExecutorCompletionService<>(executor);
+		StartupProfiler.Phase parentPhase = StartupProfiler.current();
+		try {
+			int pending = 0;
+			for (Module mod : modules) {
+				if (dependencies.get(mod).isEmpty()) {
+					submitStartup(completionService, mod, parentPhase);
+					pending++;
 				}
-				
-				try {
-					log.debug("starting module: {}", mod.getModuleId());
-					startModule(mod);
+			}
+			
+			while (pending > 0) {
+				Module done = completionService.take().get();
+				pending--;
+				for (Module dependent : dependents.getOrDefault(done, Collections.emptyList())) {
+					Set<Module> remaining = dependencies.get(dependent);
+					remaining.remove(done);
+					if (remaining.isEmpty()) {
+						submitStartup(completionService, dependent, parentPhase);
+						pending++;
+					}
 				}
-				catch (Exception e) {
-					log.error("Error while starting module: " + mod.getName(), e);
-					mod.setStartupErrorMessage("Error while starting module", e);
-					notifySuperUsersAboutModuleFailure(mod);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ModuleException("Interrupted while starting modules", e);
+		}
+		catch (ExecutionException e) {
+			throw new ModuleException("Unexpected error while starting modules", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		log.info("Started modules in {} ms", System.currentTimeMillis() - start);
+	}
+	
+	private static void submitStartup(CompletionService<Module> completionService, Module mod,
+	        StartupProfiler.Phase parentPhase) {
+		completionService.submit(() -> {
+			startModuleAtStartup(mod, parentPhase);
+			return mod;
+		});
+	}
+	
+	/**
+	 * Gets for each module the modules of the given list it requires or is aware of
+	 *
+	 * @param modules the modules to start
+	 * @return the dependencies of each module, cycles are broken following the order of the list
+	 */
+	static Map<Module, Set<Module>> getStartupDependencies(List<Module> modules) {
+		Map<Module, Set<Module>> dependencies = new LinkedHashMap<>();
+		for (Module mod : modules) {
+			Set<Module> moduleDependencies = new HashSet<>();
+			List<String> packages = new ArrayList<>(mod.getRequiredModules());
+			packages.addAll(mod.getAwareOfModules());
+			for (String modulePackage : packages) {
+				Module dependency = getModuleByPackage(modulePackage);
+				// only wait for the modules listed before, i.e. ignore missing modules and cycles
+				if (dependency != null && dependencies.containsKey(dependency)) {
+					moduleDependencies.add(dependency);
 				}
 			}
+			dependencies.put(mod, moduleDependencies);
 		}
+		return dependencies;
 	}
 	
 	/**
@@ -492,8 +624,10 @@ public class ModuleFactory {
 	public static List<Module> getStartedModulesInOrder() {
 		List<Module> modules = new ArrayList<>();
 		if (actualStartupOrder != null) {
-			for (String moduleId : actualStartupOrder) {
-				modules.add(getStartedModulesMap().get(moduleId));
+			synchronized (actualStartupOrder) {
+				for (String moduleId : actualStartupOrder) {
+					modules.add(getStartedModulesMap().get(moduleId));
+				}
 			}
 		} else {
 			modules.addAll(getStartedModules());
@@ -647,9 +781,13 @@ public class ModuleFactory {
 				}
 				
 				// fire up the classloader for this module
-				ModuleClassLoader moduleClassLoader = new ModuleClassLoader(module, ModuleFactory.class.getClassLoader());
+				ModuleClassLoader moduleClassLoader;
+				try (StartupProfiler.Phase phase = StartupProfiler.start("class loader")) {
+					moduleClassLoader = new ModuleClassLoader(module, ModuleFactory.class.getClassLoader());
+				}
 				getModuleClassLoaderMap().put(module, moduleClassLoader);
 				registerProvidedPackages(moduleClassLoader);
+				OpenmrsClassLoader.clearMissingResources();
 				
 				// don't load the advice objects into the Context
 				// At startup, the spring context isn't refreshed until all modules
@@ -671,17 +809,19 @@ public class ModuleFactory {
 				
 				// Sort this module's extensions, and merge them into the full extensions map
 				Comparator<Extension> sortOrder = (e1, e2) -> Integer.valueOf(e1.getOrder()).compareTo(e2.getOrder());
-				for (Map.Entry<String, List<Extension>> moduleExtensionEntry : moduleExtensionMap.entrySet()) {
-					// Sort this module's extensions for current extension point
-					List<Extension> sortedModuleExtensions = moduleExtensionEntry.getValue();
-					sortedModuleExtensions.sort(sortOrder);
-					
-					// Get existing extensions, and append the ones from the new module
-					List<Extension> extensions = getExtensionMap().computeIfAbsent(moduleExtensionEntry.getKey(),
-						k -> new ArrayList<>());
-					for (Extension ext : sortedModuleExtensions) {
-						log.debug("Adding to mapping ext: " + ext.getExtensionId() + " ext.class: " + ext.getClass());
-						extensions.add(ext);
+				synchronized (extensionMap) {
+					for (Map.Entry<String, List<Extension>> moduleExtensionEntry : moduleExtensionMap.entrySet()) {
+						// Sort this module's extensions for current extension point
+						List<Extension> sortedModuleExtensions = moduleExtensionEntry.getValue();
+						sortedModuleExtensions.sort(sortOrder);
+						
+						// Get existing extensions, and append the ones from the new module
+						List<Extension> extensions = getExtensionMap().computeIfAbsent(moduleExtensionEntry.getKey(),
+							k -> new ArrayList<>());
+						for (Extension ext : sortedModuleExtensions) {
+							log.debug("Adding to mapping ext: " + ext.getExtensionId() + " ext.class: " + ext.getClass());
+							extensions.add(ext);
+						}
 					}
 				}
 				
@@ -691,33 +831,41 @@ public class ModuleFactory {
 				// calls that might hinder startup
 				SortedMap<String, String> diffs = SqlDiffFileParser.getSqlDiffs(module);
 				
-				try {
-					// this method must check and run queries against the database.
-					// to do this, it must be "authenticated".  Give the current
-					// "user" the proxy privilege so this can be done. ("user" might
-					// be nobody because this is being run at startup)
-					Context.addProxyPrivilege("");
-					
-					for (Map.Entry<String, String> entry : diffs.entrySet()) {
-						String version = entry.getKey();
-						String sql = entry.getValue();
-						if (StringUtils.hasText(sql)) {
-							runDiff(module, version, sql);
+				// modules started in parallel would only queue on the lock liquibase takes in the database,
+				// so their database updates are run one at a time
+				synchronized (DATABASE_UPDATE_LOCK) {
+					try (StartupProfiler.Phase phase = StartupProfiler.start("sqldiff")) {
+						// this method must check and run queries against the database.
+						// to do this, it must be "authenticated".  Give the current
+						// "user" the proxy privilege so this can be done. ("user" might
+						// be nobody because this is being run at startup)
+						Context.addProxyPrivilege("");
+						
+						for (Map.Entry<String, String> entry : diffs.entrySet()) {
+							String version = entry.getKey();
+							String sql = entry.getValue();
+							if (StringUtils.hasText(sql)) {
+								runDiff(module, version, sql);
+							}
 						}
 					}
-				}
-				finally {
-					// take the "authenticated" privilege away from the current "user"
-					Context.removeProxyPrivilege("");
+					finally {
+						// take the "authenticated" privilege away from the current "user"
+						Context.removeProxyPrivilege("");
+					}
+					
+					// run module's optional liquibase.xml immediately after sqldiff.xml
+					try (StartupProfiler.Phase phase = StartupProfiler.start("liquibase")) {
+						runLiquibase(module);
+					}
 				}
 				
-				// run module's optional liquibase.xml immediately after sqldiff.xml
-				runLiquibase(module);
-				
 				// effectively mark this module as started successfully
 				getStartedModulesMap().put(moduleId, module);
 
-				actualStartupOrder.add(moduleId);
+				synchronized (actualStartupOrder) {
+					actualStartupOrder.add(moduleId);
+				}
 				
 				try {
 					// save the state of this module for future restarts
@@ -742,7 +890,10 @@ public class ModuleFactory {
 				// done at initial app startup)
 				if (!module.getPrivileges().isEmpty() || !module.getGlobalProperties().isEmpty()) {
 					log.debug("Updating core dataset");
-					Context.checkCoreDataset();
+					// modules might be started in parallel, only let one of them create the missing rows
+					synchronized (CORE_DATASET_LOCK) {
+						Context.checkCoreDataset();
+					}
 					// checkCoreDataset() currently doesn't throw an error. If
 					// it did, it needs to be
 					// caught and the module needs to be stopped and given a
@@ -751,7 +902,7 @@ public class ModuleFactory {
 				
 				// should be near the bottom so the module has all of its stuff
 				// set up for it already.
-				try {
+				try (StartupProfiler.Phase phase = StartupProfiler.start("activator willStart")) {
 					if (module.getModuleActivator() != null) {
 						// if extends BaseModuleActivator
 						module.getModuleActivator().willStart();
@@ -799,41 +950,77 @@ public class ModuleFactory {
 		return module;
 	}
 	
-	private static void registerProvidedPackages(ModuleClassLoader moduleClassLoader) {
+	private static synchronized void registerProvidedPackages(ModuleClassLoader moduleClassLoader) {
+		Map<String, Set<ModuleClassLoader>> newProvidedPackages = copyProvidedPackages();
 		for (String providedPackage : moduleClassLoader.getProvidedPackages()) {
-			Set<ModuleClassLoader> newSet = new HashSet<>();
-			
-			Set<ModuleClassLoader> set = providedPackages.get(providedPackage);
-			if (set != null) {
-				newSet.addAll(set);
-			}
-			
-			newSet.add(moduleClassLoader);
-			providedPackages.put(providedPackage, newSet);
+			newProvidedPackages.computeIfAbsent(providedPackage, p -> new LinkedHashSet<>()).add(moduleClassLoader);
 		}
+		swapProvidedPackages(newProvidedPackages);
 	}
 	
-	private static void unregisterProvidedPackages(ModuleClassLoader moduleClassLoader) {
+	private static synchronized void unregisterProvidedPackages(ModuleClassLoader moduleClassLoader) {
+		Map<String, Set<ModuleClassLoader>> newProvidedPackages = copyProvidedPackages();
 		for (String providedPackage : moduleClassLoader.getProvidedPackages()) {
-			Set<ModuleClassLoader> newSet = new HashSet<>();
-			
-			Set<ModuleClassLoader> set = providedPackages.get(providedPackage);
+			Set<ModuleClassLoader> set = newProvidedPackages.get(providedPackage);
 			if (set != null) {
-				newSet.addAll(set);
+				set.remove(moduleClassLoader);
+				if (set.isEmpty()) {
+					newProvidedPackages.remove(providedPackage);
+				}
 			}
-			newSet.remove(moduleClassLoader);
-			
-			providedPackages.put(providedPackage, newSet);
 		}
+		swapProvidedPackages(newProvidedPackages);
 	}
 	
-	public static Set<ModuleClassLoader> getModuleClassLoadersForPackage(String packageName) {
-		Set<ModuleClassLoader> set = providedPackages.get(packageName);
-		if (set == null) {
-			return Collections.emptySet();
-		} else {
-			return new HashSet<>(set);
+	private static Map<String, Set<ModuleClassLoader>> copyProvidedPackages() {
+		Map<String, Set<ModuleClassLoader>> copy = new HashMap<>();
+		if (providedPackages != null) {
+			for (Map.Entry<String, Set<ModuleClassLoader>> entry : providedPackages.entrySet()) {
+				copy.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+			}
 		}
+		return copy;
+	}
+	
+	private static void swapProvidedPackages(Map<String, Set<ModuleClassLoader>> newProvidedPackages) {
+		for (Map.Entry<String, Set<ModuleClassLoader>> entry : newProvidedPackages.entrySet()) {
+			entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+		}
+		providedPackages = Collections.unmodifiableMap(newProvidedPackages);
+		
+		// classes which could not be found before might be provided by the started module
+		OpenmrsClassLoader.clearMissingClasses();
+	}
+	
+	/**
+	 * Gets the class loaders of the started modules which may contain the given resource, i.e. those
+	 * whose index lists the resource and those which could not be indexed.
+	 * 
+	 * @param name the name of the resource as passed to {@link ClassLoader#getResource(String)}
+	 * @return an unmodifiable collection of module class loaders, never null
+	 * @since 2.7.0
+	 */
+	public static Collection<ModuleClassLoader> getModuleClassLoadersForResource(String name) {
+		List<ModuleClassLoader> loaders = new ArrayList<>();
+		for (ModuleClassLoader moduleClassLoader : getModuleClassLoaders()) {
+			Set<String> resources = moduleClassLoader.getProvidedResources();
+			if (resources == null || resources.contains(name)) {
+				loaders.add(moduleClassLoader);
+			}
+		}
+		return Collections.unmodifiableList(loaders);
+	}
+	
+	/**
+	 * Gets the class loaders of the started modules providing classes in the given package
+	 * 
+	 * @param packageName the name of the package
+	 * @return an unmodifiable set of module class loaders, never null
+	 */
+	public static Set<ModuleClassLoader> getModuleClassLoadersForPackage(String packageName) {
+		Map<String, Set<ModuleClassLoader>> snapshot = providedPackages;
+		Set<ModuleClassLoader> set = snapshot == null ? null : snapshot.get(packageName);
+		return set == null ? Collections.emptySet() : set;
 	}
 	
 	/**
@@ -979,6 +1166,22 @@ public class ModuleFactory {
 		}
 		
 		if (liquibaseFileExists) {
+			String fingerprintName = module.getModuleId() + ":" + MODULE_CHANGELOG_FILENAME;
+			String checksum = null;
+			try {
+				checksum = ChangeLogFingerprint.getChecksum(moduleClassLoader,
+				    Collections.singletonList(MODULE_CHANGELOG_FILENAME), false);
+			}
+			catch (IOException e) {
+				log.debug("Unable to compute the checksum of " + MODULE_CHANGELOG_FILENAME + " of " + module.getModuleId(),
+				    e);
+			}
+			if (DatabaseUpdater.isChangeLogFingerprintCurrent(fingerprintName, checksum)) {
+				log.debug("Skipping {} of module {}, it did not change since it was last run", MODULE_CHANGELOG_FILENAME,
+				    module.getModuleId());
+				return;
+			}
+			
 			try {
 				// run liquibase.xml by Liquibase API
 				DatabaseUpdater.executeChangelog(MODULE_CHANGELOG_FILENAME, new Contexts(), null, moduleClassLoader);
@@ -991,6 +1194,7 @@ public class ModuleFactory {
 				throw new ModuleException("Unable to update data model using " + MODULE_CHANGELOG_FILENAME + ".",
 					module.getName(), e);
 			}
+			DatabaseUpdater.saveChangeLogFingerprint(fingerprintName, checksum);
 		}
 	}
 	
@@ -1080,9 +1284,11 @@ public class ModuleFactory {
 			
 			getStartedModulesMap().remove(moduleId);
 			if (actualStartupOrder != null) {
-				actualStartupOrder.remove(moduleId);
-				for (Module depModule : dependentModulesStopped) {
-					actualStartupOrder.remove(depModule.getModuleId());
+				synchronized (actualStartupOrder) {
+					actualStartupOrder.remove(moduleId);
+					for (Module depModule : dependentModulesStopped) {
+						actualStartupOrder.remove(depModule.getModuleId());
+					}
 				}
 			}
 			
@@ -1093,6 +1299,7 @@ public class ModuleFactory {
 			ModuleClassLoader moduleClassLoader = getModuleClassLoaderMap().get(mod);
 			if (moduleClassLoader != null) {
 				unregisterProvidedPackages(moduleClassLoader);
+				OpenmrsClassLoader.clearMissingResources();
 				
 				log.debug("Mod was in classloader map.  Removing advice and extensions.");
 				// remove all advice by this module
@@ -1121,15 +1328,17 @@ public class ModuleFactory {
 				
 				// remove all extensions by this module
 				try {
-					for (Extension ext : mod.getExtensions()) {
-						String extId = ext.getExtensionId();
-						try {
-							List<Extension> tmpExtensions = getExtensions(extId);
-							tmpExtensions.remove(ext);
-							getExtensionMap().put(extId, tmpExtensions);
-						}
-						catch (Exception exterror) {
-							log.warn("Error while getting extension: " + ext, exterror);
+					synchronized (extensionMap) {
+						for (Extension ext : mod.getExtensions()) {
+							String extId = ext.getExtensionId();
+							try {
+								List<Extension> tmpExtensions = getExtensions(extId);
+								tmpExtensions.remove(ext);
+								getExtensionMap().put(extId, tmpExtensions);
+							}
+							catch (Exception exterror) {
+								log.warn("Error while getting extension: " + ext, exterror);
+							}
 						}
 					}
 				}
@@ -1172,14 +1381,17 @@ public class ModuleFactory {
 			ModuleClassLoader cl = removeClassLoader(mod);
 			if (cl != null) {
 				cl.dispose();
-				// remove files from lib cache
-				File folder = OpenmrsClassLoader.getLibCacheFolder();
-				File tmpModuleDir = new File(folder, moduleId);
-				try {
-					OpenmrsUtil.deleteDirectory(tmpModuleDir);
-				}
-				catch (IOException e) {
-					log.warn("Unable to delete libcachefolder for " + moduleId);
+				// remove files from lib cache, unless shutting down, they are reused by the next run
+				// as long as the module does not change
+				if (!skipOverStartedProperty) {
+					File folder = OpenmrsClassLoader.getLibCacheFolder();
+					File tmpModuleDir = new File(folder, moduleId);
+					try {
+						OpenmrsUtil.deleteDirectory(tmpModuleDir);
+					}
+					catch (IOException e) {
+						log.warn("Unable to delete libcachefolder for " + moduleId);
+					}
 				}
 			}
 		}
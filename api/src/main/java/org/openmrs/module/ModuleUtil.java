@@ -12,6 +12,7 @@ package org.openmrs.module;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -20,6 +21,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,10 +36,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.io.IOUtils;
@@ -48,6 +55,7 @@ import org.openmrs.scheduler.SchedulerUtil;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
+import org.openmrs.util.StartupProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.AbstractRefreshableApplicationContext;
@@ -62,6 +70,13 @@ public class ModuleUtil {
 	
 	private static final Logger log = LoggerFactory.getLogger(ModuleUtil.class);
 	
+	/**
+	 * Prefix of the files recording what has been expanded from a jar
+	 */
+	public static final String EXPANSION_MARKER_PREFIX = ".expanded-";
+	
+	private static final Map<String, String> checksums = new ConcurrentHashMap<>();
+	
 	/**
 	 * Start up the module system with the given properties.
 	 *
@@ -75,7 +90,9 @@ public class ModuleUtil {
 			// Attempt to get all of the modules from the modules folder
 			// and store them in the modules list
 			log.debug("Starting all modules");
-			ModuleFactory.loadModules();
+			try (StartupProfiler.Phase phase = StartupProfiler.start("ModuleFactory.loadModules")) {
+				ModuleFactory.loadModules();
+			}
 		} else {
 			// use the list of modules and load only those
 			log.debug("Starting all modules in this list: " + moduleListString);
@@ -123,11 +140,15 @@ public class ModuleUtil {
 				}
 			}
 			
-			ModuleFactory.loadModules(modulesToLoad);
+			try (StartupProfiler.Phase phase = StartupProfiler.start("ModuleFactory.loadModules")) {
+				ModuleFactory.loadModules(modulesToLoad);
+			}
 		}
 		
 		// start all of the modules we just loaded
-		ModuleFactory.startModules();
+		try (StartupProfiler.Phase phase = StartupProfiler.start("ModuleFactory.startModules")) {
+			ModuleFactory.startModules();
+		}
 		
 		// some debugging info
 		if (log.isDebugEnabled()) {
@@ -543,7 +564,42 @@ public class ModuleUtil {
 	 * <strong>Should</strong> expand file with parent tree if name is file and keepFullPath is true
 	 */
 	public static void expandJar(File fileToExpand, File tmpModuleDir, String name, boolean keepFullPath) throws IOException {
+		expandJarEntries(fileToExpand, tmpModuleDir, name, keepFullPath);
+	}
+	
+	/**
+	 * Expands the files of the given jar under the given path like
+	 * {@link #expandJar(File, File, String, boolean)} with keepFullPath set to true, unless the very
+	 * same jar has been expanded there already. The checksum of the jar and the expanded files are
+	 * recorded next to them, so that unchanged jars are not expanded again when OpenMRS restarts and
+	 * files which are not part of a changed jar anymore are removed.
+	 *
+	 * @param fileToExpand file pointing at a .jar
+	 * @param tmpModuleDir directory in which to place the files
+	 * @param name path inside of the jar to expand
+	 * @return true if the jar was expanded, false if the expanded files were up to date already
+	 * @throws IOException if the jar could not be expanded
+	 * @since 2.7.0
+	 */
+	public static boolean expandJarIfChanged(File fileToExpand, File tmpModuleDir, String name) throws IOException {
+		String checksum = getChecksum(fileToExpand);
+		File marker = new File(tmpModuleDir, EXPANSION_MARKER_PREFIX + name.replaceAll("\\W", "_"));
+		List<String> previous = readExpansionMarker(marker);
+		if (isExpansionCurrent(previous, checksum, tmpModuleDir)) {
+			log.debug("{} of {} is expanded already", name, fileToExpand.getName());
+			return false;
+		}
+		
+		Set<String> expanded = expandJarEntries(fileToExpand, tmpModuleDir, name, true);
+		deleteStaleFiles(previous, expanded, tmpModuleDir);
+		writeExpansionMarker(marker, checksum, expanded);
+		return true;
+	}
+	
+	private static Set<String> expandJarEntries(File fileToExpand, File tmpModuleDir, String name, boolean keepFullPath)
+	        throws IOException {
 		String docBase = tmpModuleDir.getAbsolutePath();
+		Set<String> expanded = new LinkedHashSet<>();
 		try (JarFile jarFile = new JarFile(fileToExpand)) {
 			Enumeration<JarEntry> jarEntries = jarFile.entries();
 			boolean foundName = (name == null);
@@ -569,9 +625,13 @@ public class ModuleUtil {
 					if (entryName.endsWith("/") || "".equals(entryName)) {
 						continue;
 					}
-					try(InputStream input = jarFile.getInputStream(jarEntry)) {
-						expand(input, docBase, entryName);
+					// only rewrite the files which changed since the last expansion
+					if (!isUpToDate(new File(docBase, entryName), jarEntry)) {
+						try (InputStream input = jarFile.getInputStream(jarEntry)) {
+							setLastModified(expand(input, docBase, entryName), jarEntry);
+						}
 					}
+					expanded.add(entryName);
 					foundName = true;
 				}
 			}
@@ -584,6 +644,162 @@ public class ModuleUtil {
 			log.warn("Unable to delete tmpModuleFile on error", e);
 			throw e;
 		}
+		return expanded;
+	}
+	
+	/**
+	 * Computes the SHA-256 checksum of the given file. Checksums are cached for as long as the size
+	 * and last modification date of the file do not change.
+	 *
+	 * @param file the file to compute the checksum of
+	 * @return the checksum as a hexadecimal string
+	 * @throws IOException if the file cannot be read
+	 * @since 2.7.0
+	 */
+	public static String getChecksum(File file) throws IOException {
+		String key = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+		String checksum = checksums.get(key);
+		if (checksum == null) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IOException(e);
+			}
+			try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+				byte[] buffer = new byte[8192];
+				while (in.read(buffer) != -1) {
+					// the digest is updated while reading
+				}
+			}
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hex.append(String.format("%02x", b));
+			}
+			checksum = hex.toString();
+			checksums.put(key, checksum);
+		}
+		return checksum;
+	}
+	
+	/**
+	 * Checks whether the given file has been expanded from the given jar entry already, i.e. whether
+	 * it has the size and the CRC-32 checksum of the entry. The modification date is not trusted as
+	 * reproducible builds give all the entries of a jar the same fixed date.
+	 *
+	 * @param file the expanded file
+	 * @param entry the jar entry
+	 * @return true if the file does not need to be expanded again
+	 * @since 2.7.0
+	 */
+	public static boolean isUpToDate(File file, ZipEntry entry) {
+		if (entry.getCrc() == -1 || !file.isFile() || file.length() != entry.getSize()) {
+			return false;
+		}
+		CRC32 crc = new CRC32();
+		try (InputStream in = new FileInputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		catch (IOException e) {
+			log.debug("Unable to read {}, expanding it again", file, e);
+			return false;
+		}
+		return crc.getValue() == entry.getCrc();
+	}
+	
+	/**
+	 * Sets the modification date of a file expanded from the given jar entry to the one of the entry
+	 *
+	 * @param file the expanded file
+	 * @param entry the jar entry
+	 * @since 2.7.0
+	 */
+	public static void setLastModified(File file, ZipEntry entry) {
+		if (entry.getTime() > 0 && !file.setLastModified(entry.getTime())) {
+			log.debug("Unable to set the modification date of {}", file);
+		}
+	}
+	
+	/**
+	 * Reads a file written by {@link #writeExpansionMarker(File, String, Collection)}
+	 *
+	 * @param marker the marker file
+	 * @return the checksum followed by the paths of the expanded files, or an empty list if there is
+	 *         no readable marker
+	 * @since 2.7.0
+	 */
+	public static List<String> readExpansionMarker(File marker) {
+		if (marker.isFile()) {
+			try {
+				return Files.readAllLines(marker.toPath(), StandardCharsets.UTF_8);
+			}
+			catch (IOException e) {
+				log.warn("Unable to read " + marker.getAbsolutePath(), e);
+			}
+		}
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Records the checksum of the file which was expanded and the paths of the files expanded from it
+	 *
+	 * @param marker the marker file
+	 * @param checksum the checksum of the expanded file
+	 * @param expanded the paths of the expanded files relative to the directory they were expanded to
+	 * @since 2.7.0
+	 */
+	public static void writeExpansionMarker(File marker, String checksum, Collection<String> expanded) {
+		List<String> lines = new ArrayList<>(expanded.size() + 1);
+		lines.add(checksum);
+		lines.addAll(expanded);
+		try {
+			Files.write(marker.toPath(), lines, StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			log.warn("Unable to write " + marker.getAbsolutePath(), e);
+		}
+	}
+	
+	/**
+	 * @param previous the content of the marker of a previous expansion
+	 * @param checksum the checksum of the file to expand
+	 * @param dir the directory the file was expanded to
+	 * @return true if the previous expansion was done from the same file and all expanded files are
+	 *         still there
+	 * @since 2.7.0
+	 */
+	public static boolean isExpansionCurrent(List<String> previous, String checksum, File dir) {
+		if (previous.isEmpty() || !previous.get(0).equals(checksum)) {
+			return false;
+		}
+		for (String path : previous.subList(1, previous.size())) {
+			if (!new File(dir, path).isFile()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Deletes the files of a previous expansion which have not been expanded again
+	 *
+	 * @param previous the content of the marker of the previous expansion
+	 * @param expanded the paths of the files expanded this time
+	 * @param dir the directory the files were expanded to
+	 * @since 2.7.0
+	 */
+	public static void deleteStaleFiles(List<String> previous, Set<String> expanded, File dir) {
+		for (String path : previous.size() > 1 ? previous.subList(1, previous.size()) : Collections.<String> emptyList()) {
+			File stale = new File(dir, path);
+			if (!expanded.contains(path) && stale.isFile() && !stale.delete()) {
+				log.warn("Unable to delete {}", stale.getAbsolutePath());
+			}
+		}
 	}
 	
 	/**
@@ -849,7 +1065,7 @@ public class ModuleUtil {
 		Thread.currentThread().setContextClassLoader(OpenmrsClassLoader.getInstance());
 		
 		ServiceContext.getInstance().startRefreshingContext();
-		try {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("ServiceContext refresh")) {
 			ctx.refresh();
 		}
 		finally {
@@ -1137,6 +1353,39 @@ public class ModuleUtil {
 		return packagesProvided;
 	}
 	
+	/**
+	 * Lists the names of all the entries of the given jar as they can be looked up through
+	 * {@link ClassLoader#getResource(String)}. Directory entries are listed with and without their
+	 * trailing slash.
+	 *
+	 * @param file jar file to look into
+	 * @return the resource names, or null if the given file is not a jar or cannot be read
+	 * @since 2.7.0
+	 */
+	public static Set<String> getResourceNamesFromFile(File file) {
+		if (!file.isFile() || !file.getName().endsWith(".jar")) {
+			return null;
+		}
+		
+		Set<String> resourceNames = new HashSet<>();
+		try (JarFile jar = new JarFile(file)) {
+			Enumeration<JarEntry> jarEntries = jar.entries();
+			while (jarEntries.hasMoreElements()) {
+				String name = jarEntries.nextElement().getName();
+				resourceNames.add(name);
+				if (name.endsWith("/")) {
+					resourceNames.add(name.substring(0, name.length() - 1));
+				}
+			}
+		}
+		catch (IOException e) {
+			log.error("Error while reading file: " + file.getAbsolutePath(), e);
+			return null;
+		}
+		
+		return resourceNames;
+	}
+	
 	/**
 	 * Get a resource as from the module's api jar. Api jar should be in the omod's lib folder.
 	 * 
@@ -44,6 +44,13 @@ public interface ComplexObsHandler {
 	
 	public static final String URI_VIEW = "URI_VIEW";
 	
+	/**
+	 * A small rendition of the complex data suited for lists and galleries
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final String THUMBNAIL_VIEW = "THUMBNAIL_VIEW";
+	
 	/**
 	 * Save a complex obs. This extracts the ComplexData from an Obs, stores it to a location
 	 * determined by the handler, and returns the Obs with the ComplexData nullified.
@@ -0,0 +1,212 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.obs;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The observations of a person for a list of concepts over a period of time, as returned by
+ * {@link org.openmrs.api.ObsService#getFlowsheet(org.openmrs.Person, List, Date, Date)}. Each row is
+ * an obs, ordered by obsDatetime and then obs id, and the values are held in one array per column
+ * rather than in {@link org.openmrs.Obs} objects, which keeps years of observations compact.
+ * <p>
+ * Only the numeric, coded and text values are held. A row without a value of a type returns null
+ * for it.
+ *
+ * @since 2.7.0
+ */
+public class Flowsheet implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final List<Integer> columnConceptIds;
+	
+	private final int size;
+	
+	private final int[] obsIds;
+	
+	private final int[] conceptIds;
+	
+	private final long[] obsDatetimes;
+	
+	private final double[] valueNumerics;
+	
+	private final int[] valueCodeds;
+	
+	private final String[] valueTexts;
+	
+	private Flowsheet(Builder builder) {
+		this.columnConceptIds = Collections.unmodifiableList(new ArrayList<>(builder.columnConceptIds));
+		this.size = builder.size;
+		this.obsIds = Arrays.copyOf(builder.obsIds, size);
+		this.conceptIds = Arrays.copyOf(builder.conceptIds, size);
+		this.obsDatetimes = Arrays.copyOf(builder.obsDatetimes, size);
+		this.valueNumerics = Arrays.copyOf(builder.valueNumerics, size);
+		this.valueCodeds = Arrays.copyOf(builder.valueCodeds, size);
+		this.valueTexts = Arrays.copyOf(builder.valueTexts, size);
+	}
+	
+	/**
+	 * @return the ids of the concepts of the flowsheet in the order they were asked for, concept sets
+	 *         being replaced by their members
+	 */
+	public List<Integer> getColumnConceptIds() {
+		return columnConceptIds;
+	}
+	
+	/**
+	 * @return the number of rows, i.e. obs
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the id of the obs
+	 */
+	public Integer getObsId(int row) {
+		return obsIds[checkRow(row)];
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the id of the concept of the obs
+	 */
+	public Integer getConceptId(int row) {
+		return conceptIds[checkRow(row)];
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the obsDatetime of the obs
+	 */
+	public Date getObsDatetime(int row) {
+		return new Date(obsDatetimes[checkRow(row)]);
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the numeric value of the obs or null
+	 */
+	public Double getValueNumeric(int row) {
+		double value = valueNumerics[checkRow(row)];
+		return Double.isNaN(value) ? null : value;
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the id of the coded value of the obs or null
+	 */
+	public Integer getValueCoded(int row) {
+		int value = valueCodeds[checkRow(row)];
+		return value == 0 ? null : value;
+	}
+	
+	/**
+	 * @param row the index of the row
+	 * @return the text value of the obs or null
+	 */
+	public String getValueText(int row) {
+		return valueTexts[checkRow(row)];
+	}
+	
+	/**
+	 * @param conceptId the id of a concept
+	 * @return the indexes of the rows of the concept in ascending order, e.g. to fill a column of a
+	 *         flowsheet grid
+	 */
+	public int[] getRows(int conceptId) {
+		return IntStream.range(0, size).filter(row -> conceptIds[row] == conceptId).toArray();
+	}
+	
+	private int checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+		}
+		return row;
+	}
+	
+	/**
+	 * Builds a flowsheet one row at a time, growing the columns as needed
+	 */
+	public static class Builder {
+		
+		private static final int INITIAL_CAPACITY = 64;
+		
+		private final List<Integer> columnConceptIds;
+		
+		private int size;
+		
+		private int[] obsIds = new int[INITIAL_CAPACITY];
+		
+		private int[] conceptIds = new int[INITIAL_CAPACITY];
+		
+		private long[] obsDatetimes = new long[INITIAL_CAPACITY];
+		
+		private double[] valueNumerics = new double[INITIAL_CAPACITY];
+		
+		private int[] valueCodeds = new int[INITIAL_CAPACITY];
+		
+		private String[] valueTexts = new String[INITIAL_CAPACITY];
+		
+		/**
+		 * @param columnConceptIds the ids of the concepts of the flowsheet
+		 */
+		public Builder(List<Integer> columnConceptIds) {
+			this.columnConceptIds = columnConceptIds;
+		}
+		
+		/**
+		 * Adds a row, rows being expected in the order of the flowsheet
+		 *
+		 * @param obsId the id of the obs
+		 * @param conceptId the id of the concept of the obs
+		 * @param obsDatetime the obsDatetime of the obs
+		 * @param valueNumeric the numeric value or null
+		 * @param valueCoded the id of the coded value or null
+		 * @param valueText the text value or null
+		 * @return this builder
+		 */
+		public Builder addRow(Integer obsId, Integer conceptId, Date obsDatetime, Double valueNumeric,
+		        Integer valueCoded, String valueText) {
+			if (size == obsIds.length) {
+				int capacity = size * 2;
+				obsIds = Arrays.copyOf(obsIds, capacity);
+				conceptIds = Arrays.copyOf(conceptIds, capacity);
+				obsDatetimes = Arrays.copyOf(obsDatetimes, capacity);
+				valueNumerics = Arrays.copyOf(valueNumerics, capacity);
+				valueCodeds = Arrays.copyOf(valueCodeds, capacity);
+				valueTexts = Arrays.copyOf(valueTexts, capacity);
+			}
+			obsIds[size] = obsId;
+			conceptIds[size] = conceptId;
+			obsDatetimes[size] = obsDatetime.getTime();
+			valueNumerics[size] = valueNumeric == null ? Double.NaN : valueNumeric;
+			valueCodeds[size] = valueCoded == null ? 0 : valueCoded;
+			valueTexts[size] = valueText;
+			size++;
+			return this;
+		}
+		
+		/**
+		 * @return the flowsheet holding the rows added so far
+		 */
+		public Flowsheet build() {
+			return new Flowsheet(this);
+		}
+	}
+}
@@ -11,9 +11,7 @@ package org.openmrs.obs.handler;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.InputStream;
-import java.io.OutputStream;
 
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
@@ -71,6 +69,7 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 				if (file.exists()) {
 					FileInputStream fileInputStream = new FileInputStream(file);
 					complexData = new ComplexData(originalFilename, fileInputStream);
+					complexData.setLength(file.length());
 				} else {
 					log.error("Unable to find file associated with complex obs " + obs.getId());
 				}
@@ -113,15 +112,11 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 			String fileName = obs.getComplexData().getTitle();
 			InputStream in = (InputStream) obs.getComplexData().getData();
 			File outfile = getOutputFileToWrite(obs);
-			OutputStream out = new FileOutputStream(outfile, false);
-			OpenmrsUtil.copyFile(in, out);
+			OpenmrsUtil.copyToFile(in, outfile);
 			
 			// Store the filename in the Obs
 			obs.setComplexData(null);
 			obs.setValueComplex(fileName + "|" + outfile.getName());
-			
-			// close the stream
-			out.close();
 		}
 		catch (Exception e) {
 			throw new APIException("Obs.error.writing.binary.data.complex", null, e);
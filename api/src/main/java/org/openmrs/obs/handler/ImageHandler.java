@@ -9,20 +9,30 @@
  */
 package org.openmrs.obs.handler;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.FileImageInputStream;
 
+import org.apache.commons.io.FilenameUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 import org.openmrs.obs.ComplexData;
@@ -44,12 +54,46 @@ import org.slf4j.LoggerFactory;
 public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.PREVIEW_VIEW,
+	        ComplexObsHandler.THUMBNAIL_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(ImageHandler.class);
 	
+	/**
+	 * The maximum width and height in pixels of the images returned for the
+	 * {@link ComplexObsHandler#THUMBNAIL_VIEW}
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final int THUMBNAIL_SIZE = 150;
+	
+	/**
+	 * The maximum width and height in pixels of the images returned for the
+	 * {@link ComplexObsHandler#PREVIEW_VIEW}
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final int PREVIEW_SIZE = 800;
+	
+	/**
+	 * Shared pool generating the derivatives of newly saved images in the background. The queue is
+	 * bounded and overflowing jobs are dropped, the derivatives are then generated on first request.
+	 */
+	private static final ThreadPoolExecutor DERIVATIVE_EXECUTOR = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+	        new ArrayBlockingQueue<>(100), runnable -> {
+		        Thread thread = new Thread(runnable, "complex-obs-image-derivatives");
+		        thread.setDaemon(true);
+		        return thread;
+	        }, new ThreadPoolExecutor.DiscardPolicy());
+	
+	static {
+		DERIVATIVE_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+	
 	private Set<String> extensions;
 	
+	private Executor derivativeExecutor = DERIVATIVE_EXECUTOR;
+	
 	/**
 	 * Constructor initializes formats for alternative file names to protect from unintentionally
 	 * overwriting existing files.
@@ -63,7 +107,10 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 	}
 	
 	/**
-	 * Currently supports all views and puts the Image file data into the ComplexData object
+	 * Puts the Image file data into the ComplexData object. The {@link ComplexObsHandler#RAW_VIEW}
+	 * returns the original image, the {@link ComplexObsHandler#PREVIEW_VIEW} and
+	 * {@link ComplexObsHandler#THUMBNAIL_VIEW} return scaled down derivatives which are stored beside
+	 * the original and only generated here if they do not exist yet.
 	 * 
 	 * @see org.openmrs.obs.ComplexObsHandler#getObs(org.openmrs.Obs, java.lang.String)
 	 */
@@ -71,53 +118,64 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 	public Obs getObs(Obs obs, String view) {
 		File file = getComplexDataFile(obs);
 		
-		// Raw image
-		if (ComplexObsHandler.RAW_VIEW.equals(view)) {
-			BufferedImage img = null;
-			try {
-				img = ImageIO.read(file);
-			}
-			catch (IOException e) {
-				log.error("Trying to read file: " + file.getAbsolutePath(), e);
-			}
-			
-			ComplexData complexData = new ComplexData(file.getName(), img);
-			
-			String mimeType = null;
-			
-			// Image MIME type
-			try {
-				FileImageInputStream imgStream = new FileImageInputStream(file);
-				Iterator<ImageReader> imgReader = ImageIO.getImageReaders(imgStream);
-				imgStream.close();
-				if (imgReader.hasNext()) {
-					mimeType = "image/" + imgReader.next().getFormatName().toLowerCase();
-				} else {
-					log.warn("MIME type of " + file.getAbsolutePath() + " is not known");
-				}
-			}
-			catch (FileNotFoundException e) {
-				log.error("Image " + file.getAbsolutePath() + " was not found", e);
+		if (ComplexObsHandler.PREVIEW_VIEW.equals(view) || ComplexObsHandler.THUMBNAIL_VIEW.equals(view)) {
+			File derivative = getDerivativeFile(file, view);
+			if (!derivative.exists() && file.exists()) {
+				createDerivative(file, derivative, getDerivativeSize(view));
 			}
-			catch (IOException e) {
-				log.error("Trying to determine MIME type of " + file.getAbsolutePath(), e);
+			if (derivative.exists()) {
+				file = derivative;
 			}
-					
-			// If the mimetype is still null, determine it via getFileMimeType()
-			mimeType = mimeType != null ? mimeType : OpenmrsUtil.getFileMimeType(file);
-			
-			complexData.setMimeType(mimeType);	
-			
-			obs.setComplexData(complexData);
-		} else {
+		} else if (!ComplexObsHandler.RAW_VIEW.equals(view)) {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
 			return null;
 		}
 		
+		BufferedImage img = null;
+		try {
+			img = ImageIO.read(file);
+		}
+		catch (IOException e) {
+			log.error("Trying to read file: " + file.getAbsolutePath(), e);
+		}
+		
+		ComplexData complexData = new ComplexData(file.getName(), img);
+		complexData.setMimeType(getMimeType(file));
+		
+		obs.setComplexData(complexData);
+		
 		return obs;
 	}
 	
+	/**
+	 * Determines the MIME type of an image from its content, falling back to its file name
+	 */
+	private String getMimeType(File file) {
+		String mimeType = null;
+		
+		// Image MIME type
+		try {
+			FileImageInputStream imgStream = new FileImageInputStream(file);
+			Iterator<ImageReader> imgReader = ImageIO.getImageReaders(imgStream);
+			imgStream.close();
+			if (imgReader.hasNext()) {
+				mimeType = "image/" + imgReader.next().getFormatName().toLowerCase();
+			} else {
+				log.warn("MIME type of " + file.getAbsolutePath() + " is not known");
+			}
+		}
+		catch (FileNotFoundException e) {
+			log.error("Image " + file.getAbsolutePath() + " was not found", e);
+		}
+		catch (IOException e) {
+			log.error("Trying to determine MIME type of " + file.getAbsolutePath(), e);
+		}
+		
+		// If the mimetype is still null, determine it via getFileMimeType()
+		return mimeType != null ? mimeType : OpenmrsUtil.getFileMimeType(file);
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -173,6 +231,8 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 			// Write the file to the file system.
 			ImageIO.write(img, extension, outfile);
 			
+			scheduleDerivatives(outfile);
+			
 			// Set the Title and URI for the valueComplex
 			obs.setValueComplex(extension + " image |" + outfile.getName());
 			
@@ -190,4 +250,135 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * Deletes the original image along with its derivatives
+	 * 
+	 * @see org.openmrs.obs.handler.AbstractHandler#purgeComplexData(org.openmrs.Obs)
+	 */
+	@Override
+	public boolean purgeComplexData(Obs obs) {
+		File file = getComplexDataFile(obs);
+		for (String view : new String[] { ComplexObsHandler.PREVIEW_VIEW, ComplexObsHandler.THUMBNAIL_VIEW }) {
+			File derivative = getDerivativeFile(file, view);
+			if (derivative.exists() && !derivative.delete()) {
+				log.warn("Could not delete image derivative " + derivative.getAbsolutePath());
+			}
+		}
+		return super.purgeComplexData(obs);
+	}
+	
+	/**
+	 * Sets the executor generating the derivatives of newly saved images, by default a small shared
+	 * pool of background threads is used.
+	 * 
+	 * @param derivativeExecutor the executor to use
+	 * @since 2.7.0
+	 */
+	public void setDerivativeExecutor(Executor derivativeExecutor) {
+		this.derivativeExecutor = derivativeExecutor;
+	}
+	
+	/**
+	 * Gets the file in which the derivative of an image for the given view is stored, i.e. a file
+	 * next to the original named after the original and the view
+	 * 
+	 * @param file the original image
+	 * @param view {@link ComplexObsHandler#PREVIEW_VIEW} or {@link ComplexObsHandler#THUMBNAIL_VIEW}
+	 * @return the derivative file, which might not exist yet
+	 * @since 2.7.0
+	 */
+	public static File getDerivativeFile(File file, String view) {
+		String suffix = ComplexObsHandler.THUMBNAIL_VIEW.equals(view) ? "thumbnail" : "preview";
+		String name = FilenameUtils.getBaseName(file.getName()) + "_" + suffix + "."
+		        + getDerivativeFormat(file.getName());
+		return new File(file.getParentFile(), name);
+	}
+	
+	private static int getDerivativeSize(String view) {
+		return ComplexObsHandler.THUMBNAIL_VIEW.equals(view) ? THUMBNAIL_SIZE : PREVIEW_SIZE;
+	}
+	
+	/**
+	 * Derivatives keep the format of the original if it can be written, otherwise they are stored as
+	 * png
+	 */
+	private static String getDerivativeFormat(String filename) {
+		String extension = FilenameUtils.getExtension(filename).toLowerCase();
+		return ImageIO.getImageWritersBySuffix(extension).hasNext() ? extension : "png";
+	}
+	
+	private void scheduleDerivatives(final File original) {
+		for (final String view : new String[] { ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW }) {
+			try {
+				derivativeExecutor.execute(() -> {
+					File derivative = getDerivativeFile(original, view);
+					if (!derivative.exists()) {
+						createDerivative(original, derivative, getDerivativeSize(view));
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+				log.debug("Derivative of {} will be generated on first request", original.getName());
+			}
+		}
+	}
+	
+	/**
+	 * Writes a copy of the original image scaled down to fit in a square of the given size. The image
+	 * is written to a temporary file first and then moved in place so that readers never see a
+	 * partial derivative.
+	 * 
+	 * @return true if the derivative was written
+	 */
+	static boolean createDerivative(File original, File derivative, int maxSize) {
+		try {
+			BufferedImage img = ImageIO.read(original);
+			if (img == null) {
+				log.warn("Unable to decode image " + original.getAbsolutePath() + " to create its derivative");
+				return false;
+			}
+			
+			String format = getDerivativeFormat(derivative.getName());
+			BufferedImage scaled = scale(img, maxSize, "jpg".equals(format) || "jpeg".equals(format) || "bmp".equals(format));
+			
+			File tmp = File.createTempFile(derivative.getName(), ".tmp", derivative.getParentFile());
+			try {
+				if (!ImageIO.write(scaled, format, tmp)) {
+					log.warn("No image writer found for format " + format);
+					return false;
+				}
+				Files.move(tmp.toPath(), derivative.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				    StandardCopyOption.ATOMIC_MOVE);
+				return true;
+			}
+			finally {
+				Files.deleteIfExists(tmp.toPath());
+			}
+		}
+		catch (IOException e) {
+			log.error("Unable to create derivative " + derivative.getAbsolutePath(), e);
+			return false;
+		}
+	}
+	
+	private static BufferedImage scale(BufferedImage img, int maxSize, boolean opaque) {
+		int width = img.getWidth();
+		int height = img.getHeight();
+		double ratio = Math.min(1d, (double) maxSize / Math.max(width, height));
+		int scaledWidth = Math.max(1, (int) Math.round(width * ratio));
+		int scaledHeight = Math.max(1, (int) Math.round(height * ratio));
+		
+		BufferedImage scaled = new BufferedImage(scaledWidth, scaledHeight,
+		        opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(img, 0, 0, scaledWidth, scaledHeight, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return scaled;
+	}
 }
@@ -33,6 +33,27 @@ public class SchedulerConstants {
 	/** Scheduler admin email property - Used to email administrator if a task fails */
 	public static final String SCHEDULER_ADMIN_EMAIL_PROPERTY = "scheduler.admin_email";
 	
+	/**
+	 * Runtime property enabling database backed task leases, so that only one node of a cluster
+	 * executes a given task
+	 */
+	public static final String SCHEDULER_LEASE_ENABLED_PROPERTY = "scheduler.lease.enabled";
+	
+	/** Runtime property holding the identifier of this node when task leases are enabled */
+	public static final String SCHEDULER_NODE_ID_PROPERTY = "scheduler.lease.node_id";
+	
+	/** Runtime property holding the number of seconds a task lease is valid without a heartbeat */
+	public static final String SCHEDULER_LEASE_TTL_PROPERTY = "scheduler.lease.ttl_seconds";
+	
+	/** The default number of seconds a task lease is valid without a heartbeat */
+	public static final long SCHEDULER_DEFAULT_LEASE_TTL = 120;
+	
+	/**
+	 * Task property that, when set to true, lets a task execute on every node instead of only on the
+	 * node holding its lease
+	 */
+	public static final String TASK_PROPERTY_RUN_ON_ALL_NODES = "scheduler.runOnAllNodes";
+	
 	private SchedulerConstants() {
 	}
 	
@@ -247,6 +247,19 @@ public class TaskDefinition extends BaseChangeableOpenmrsMetadata {
 		this.properties.put(key, value);
 	}
 	
+	/**
+	 * Gets whether this task should execute on every node of a clustered installation instead of
+	 * only on the node currently holding its lease. This is controlled by the
+	 * {@link SchedulerConstants#TASK_PROPERTY_RUN_ON_ALL_NODES} task property.
+	 * 
+	 * @return true if the task should run on every node
+	 * @since 2.7.0
+	 */
+	public boolean isRunOnAllNodes() {
+		return this.properties != null
+		        && Boolean.parseBoolean(this.properties.get(SchedulerConstants.TASK_PROPERTY_RUN_ON_ALL_NODES));
+	}
+	
 	/**
 	 * Convenience method that asks SchedulerUtil for it's next execution time.
 	 * 
@@ -0,0 +1,126 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler;
+
+import java.util.Date;
+
+/**
+ * Records which node of a clustered installation currently owns the right to execute a task. A
+ * lease is only valid until its expiry date, the owning node extends it with periodic heartbeats.
+ *
+ * @since 2.7.0
+ */
+public class TaskLease {
+
+	private String taskUuid;
+
+	private String nodeId;
+
+	private Date dateAcquired;
+
+	private Date lastHeartbeat;
+
+	private Date leaseExpires;
+
+	/**
+	 * Default no-arg public constructor
+	 */
+	public TaskLease() {
+	}
+
+	/**
+	 * Public constructor
+	 */
+	public TaskLease(String taskUuid, String nodeId, Date dateAcquired, Date leaseExpires) {
+		this.taskUuid = taskUuid;
+		this.nodeId = nodeId;
+		this.dateAcquired = dateAcquired;
+		this.lastHeartbeat = dateAcquired;
+		this.leaseExpires = leaseExpires;
+	}
+
+	/**
+	 * @return the uuid of the leased {@link TaskDefinition}
+	 */
+	public String getTaskUuid() {
+		return taskUuid;
+	}
+
+	/**
+	 * @param taskUuid the uuid of the leased {@link TaskDefinition}
+	 */
+	public void setTaskUuid(String taskUuid) {
+		this.taskUuid = taskUuid;
+	}
+
+	/**
+	 * @return the identifier of the node owning the lease
+	 */
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * @param nodeId the identifier of the node owning the lease
+	 */
+	public void setNodeId(String nodeId) {
+		this.nodeId = nodeId;
+	}
+
+	/**
+	 * @return the date the current owner acquired the lease
+	 */
+	public Date getDateAcquired() {
+		return dateAcquired;
+	}
+
+	/**
+	 * @param dateAcquired the date the current owner acquired the lease
+	 */
+	public void setDateAcquired(Date dateAcquired) {
+		this.dateAcquired = dateAcquired;
+	}
+
+	/**
+	 * @return the date of the last heartbeat of the owner
+	 */
+	public Date getLastHeartbeat() {
+		return lastHeartbeat;
+	}
+
+	/**
+	 * @param lastHeartbeat the date of the last heartbeat of the owner
+	 */
+	public void setLastHeartbeat(Date lastHeartbeat) {
+		this.lastHeartbeat = lastHeartbeat;
+	}
+
+	/**
+	 * @return the date after which the lease can be taken over by another node
+	 */
+	public Date getLeaseExpires() {
+		return leaseExpires;
+	}
+
+	/**
+	 * @param leaseExpires the date after which the lease can be taken over by another node
+	 */
+	public void setLeaseExpires(Date leaseExpires) {
+		this.leaseExpires = leaseExpires;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[TaskLease taskUuid=" + taskUuid + " nodeId=" + nodeId + " leaseExpires=" + leaseExpires + "]";
+	}
+}
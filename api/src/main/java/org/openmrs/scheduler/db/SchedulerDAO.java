@@ -9,11 +9,13 @@
  */
 package org.openmrs.scheduler.db;
 
+import java.util.Date;
 import java.util.List;
 
 import org.openmrs.api.db.DAOException;
 import org.openmrs.scheduler.Schedule;
 import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.TaskLease;
 
 /**
  * Scheduler-related database methods.
@@ -94,4 +96,52 @@ public interface SchedulerDAO {
 	 * @throws DAOException
 	 */
 	public TaskDefinition getTaskByName(String name) throws DAOException;
+	
+	/**
+	 * Acquires the lease of a task for the given node. The lease is granted if no lease exists for
+	 * the task yet, if the given node already owns it or if the lease of another node has expired.
+	 * The change is committed immediately in its own transaction so that other nodes see it.
+	 * 
+	 * @param taskUuid the uuid of the task to lease
+	 * @param nodeId the identifier of the node requesting the lease
+	 * @param now the current date
+	 * @param leaseExpires the date until which the lease is valid
+	 * @return true if the node owns the lease, false if another node owns it
+	 * @throws DAOException
+	 * @since 2.7.0
+	 */
+	public boolean acquireTaskLease(String taskUuid, String nodeId, Date now, Date leaseExpires) throws DAOException;
+	
+	/**
+	 * Extends a lease owned by the given node, the change is committed immediately.
+	 * 
+	 * @param taskUuid the uuid of the leased task
+	 * @param nodeId the identifier of the node owning the lease
+	 * @param now the current date
+	 * @param leaseExpires the new date until which the lease is valid
+	 * @return true if the lease was extended, false if the node no longer owns it
+	 * @throws DAOException
+	 * @since 2.7.0
+	 */
+	public boolean renewTaskLease(String taskUuid, String nodeId, Date now, Date leaseExpires) throws DAOException;
+	
+	/**
+	 * Releases a lease owned by the given node, the change is committed immediately.
+	 * 
+	 * @param taskUuid the uuid of the leased task
+	 * @param nodeId the identifier of the node owning the lease
+	 * @throws DAOException
+	 * @since 2.7.0
+	 */
+	public void releaseTaskLease(String taskUuid, String nodeId) throws DAOException;
+	
+	/**
+	 * Gets the current lease of a task
+	 * 
+	 * @param taskUuid the uuid of the leased task
+	 * @return the lease or null if the task was never leased
+	 * @throws DAOException
+	 * @since 2.7.0
+	 */
+	public TaskLease getTaskLease(String taskUuid) throws DAOException;
 }
@@ -9,14 +9,19 @@
  */
 package org.openmrs.scheduler.db.hibernate;
 
+import java.util.Date;
 import java.util.List;
 
 import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.scheduler.Schedule;
 import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.TaskLease;
 import org.openmrs.scheduler.db.SchedulerDAO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -175,4 +180,104 @@ public class HibernateSchedulerDAO implements SchedulerDAO {
 		return (TaskDefinition) sessionFactory.getCurrentSession()
 				.createQuery("from TaskDefinition o where o.uuid = :uuid").setString("uuid", uuid).uniqueResult();
 	}
+	
+	/**
+	 * Leases are written through a stateless session with its own transaction so that they are
+	 * visible to other nodes right away, independently of the transaction of the caller.
+	 * 
+	 * @see org.openmrs.scheduler.db.SchedulerDAO#acquireTaskLease(String, String, Date, Date)
+	 */
+	@Override
+	public boolean acquireTaskLease(String taskUuid, String nodeId, Date now, Date leaseExpires) throws DAOException {
+		StatelessSession session = sessionFactory.openStatelessSession();
+		Transaction tx = session.beginTransaction();
+		try {
+			int updated = session.createQuery(
+			    "update TaskLease l set l.nodeId = :nodeId, l.lastHeartbeat = :now, l.leaseExpires = :leaseExpires "
+			            + "where l.taskUuid = :taskUuid and (l.nodeId = :nodeId or l.leaseExpires < :now)")
+			        .setParameter("nodeId", nodeId).setParameter("now", now).setParameter("leaseExpires", leaseExpires)
+			        .setParameter("taskUuid", taskUuid).executeUpdate();
+			
+			boolean acquired = updated > 0;
+			if (!acquired && session.get(TaskLease.class, taskUuid) == null) {
+				session.insert(new TaskLease(taskUuid, nodeId, now, leaseExpires));
+				acquired = true;
+			}
+			tx.commit();
+			return acquired;
+		}
+		catch (ConstraintViolationException e) {
+			// another node inserted the lease concurrently and won
+			log.debug("Lost the race to create the lease for task {}", taskUuid);
+			tx.rollback();
+			return false;
+		}
+		catch (RuntimeException e) {
+			tx.rollback();
+			throw e;
+		}
+		finally {
+			session.close();
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.db.SchedulerDAO#renewTaskLease(String, String, Date, Date)
+	 */
+	@Override
+	public boolean renewTaskLease(String taskUuid, String nodeId, Date now, Date leaseExpires) throws DAOException {
+		StatelessSession session = sessionFactory.openStatelessSession();
+		Transaction tx = session.beginTransaction();
+		try {
+			int updated = session.createQuery(
+			    "update TaskLease l set l.lastHeartbeat = :now, l.leaseExpires = :leaseExpires "
+			            + "where l.taskUuid = :taskUuid and l.nodeId = :nodeId")
+			        .setParameter("now", now).setParameter("leaseExpires", leaseExpires)
+			        .setParameter("taskUuid", taskUuid).setParameter("nodeId", nodeId).executeUpdate();
+			tx.commit();
+			return updated > 0;
+		}
+		catch (RuntimeException e) {
+			tx.rollback();
+			throw e;
+		}
+		finally {
+			session.close();
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.db.SchedulerDAO#releaseTaskLease(String, String)
+	 */
+	@Override
+	public void releaseTaskLease(String taskUuid, String nodeId) throws DAOException {
+		StatelessSession session = sessionFactory.openStatelessSession();
+		Transaction tx = session.beginTransaction();
+		try {
+			session.createQuery("delete from TaskLease l where l.taskUuid = :taskUuid and l.nodeId = :nodeId")
+			        .setParameter("taskUuid", taskUuid).setParameter("nodeId", nodeId).executeUpdate();
+			tx.commit();
+		}
+		catch (RuntimeException e) {
+			tx.rollback();
+			throw e;
+		}
+		finally {
+			session.close();
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.db.SchedulerDAO#getTaskLease(String)
+	 */
+	@Override
+	public TaskLease getTaskLease(String taskUuid) throws DAOException {
+		StatelessSession session = sessionFactory.openStatelessSession();
+		try {
+			return (TaskLease) session.get(TaskLease.class, taskUuid);
+		}
+		finally {
+			session.close();
+		}
+	}
 }
@@ -11,6 +11,8 @@ package org.openmrs.scheduler.tasks;
 
 import java.util.Date;
 
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.api.VisitService;
 import org.openmrs.api.context.Context;
 import org.openmrs.util.OpenmrsConstants;
 import org.slf4j.Logger;
@@ -27,6 +29,13 @@ public class AutoCloseVisitsTask extends AbstractTask {
 	
 	private static final Logger log = LoggerFactory.getLogger(AutoCloseVisitsTask.class);
 	
+	/**
+	 * Task property holding the number of visits to stop per transaction
+	 */
+	public static final String BATCH_SIZE_PROPERTY = "batchSize";
+	
+	private static final int DEFAULT_BATCH_SIZE = 1000;
+	
 	/**
 	 * @see org.openmrs.scheduler.tasks.AbstractTask#execute()
 	 */
@@ -37,7 +46,20 @@ public class AutoCloseVisitsTask extends AbstractTask {
 
 			startExecuting();
 			try {
-				Context.getVisitService().stopVisits(new Date());
+				// stop the visits in batches so that each batch is committed in its own transaction
+				VisitService visitService = Context.getVisitService();
+				Date maximumStartDate = new Date();
+				int batchSize = getBatchSize();
+				long startTime = System.currentTimeMillis();
+				int total = 0;
+				int stopped;
+				do {
+					stopped = visitService.stopVisits(maximumStartDate, batchSize);
+					total += stopped;
+				} while (stopped > 0);
+				
+				long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+				log.info("Auto closed {} visits in {} ms ({} visits per second)", total, elapsed, total * 1000L / elapsed);
 			}
 			catch (Exception e) {
 				log.error("Error while auto closing visits:", e);
@@ -47,4 +69,22 @@ public class AutoCloseVisitsTask extends AbstractTask {
 			}
 		}
 	}
+	
+	private int getBatchSize() {
+		String batchSize = taskDefinition != null ? taskDefinition.getProperty(BATCH_SIZE_PROPERTY) : null;
+		if (StringUtils.isNotBlank(batchSize)) {
+			try {
+				int value = Integer.parseInt(batchSize.trim());
+				if (value > 0) {
+					return value;
+				}
+			}
+			catch (NumberFormatException e) {
+				// fall back to the default below
+			}
+			log.warn("Invalid {} task property {}, using the default of {}", BATCH_SIZE_PROPERTY, batchSize,
+			    DEFAULT_BATCH_SIZE);
+		}
+		return DEFAULT_BATCH_SIZE;
+	}
 }
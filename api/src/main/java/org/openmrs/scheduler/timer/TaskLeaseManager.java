@@ -0,0 +1,183 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.timer;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openmrs.scheduler.SchedulerConstants;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.db.SchedulerDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes sure that a task is only executed by one node of a clustered installation at a time. Before
+ * each execution the node must own the lease of the task in the database. Leases are kept alive by
+ * a heartbeat running every third of the lease time to live, so the node owning a lease keeps
+ * executing the task until it shuts down, stops the task or stops sending heartbeats, in which case
+ * another node takes over once the lease has expired. Tasks flagged with
+ * {@link TaskDefinition#isRunOnAllNodes()} are never leased.
+ *
+ * @since 2.7.0
+ */
+public class TaskLeaseManager {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskLeaseManager.class);
+
+	private final SchedulerDAO schedulerDAO;
+
+	private final String nodeId;
+
+	private final long leaseTtlMillis;
+
+	/**
+	 * The uuids of the tasks whose lease is currently owned by this node
+	 */
+	private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+	private Timer heartbeatTimer;
+
+	/**
+	 * @param schedulerDAO the DAO used to persist the leases
+	 * @param nodeId the unique identifier of this node
+	 * @param leaseTtlSeconds the number of seconds a lease stays valid without a heartbeat
+	 */
+	public TaskLeaseManager(SchedulerDAO schedulerDAO, String nodeId, long leaseTtlSeconds) {
+		if (leaseTtlSeconds <= 0) {
+			throw new IllegalArgumentException("The lease time to live must be positive");
+		}
+		this.schedulerDAO = schedulerDAO;
+		this.nodeId = nodeId;
+		this.leaseTtlMillis = leaseTtlSeconds * SchedulerConstants.SCHEDULER_MILLIS_PER_SECOND;
+	}
+
+	/**
+	 * @return the identifier of this node
+	 */
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * Starts the heartbeat that renews the leases held by this node
+	 */
+	public synchronized void start() {
+		if (heartbeatTimer == null) {
+			heartbeatTimer = new Timer("scheduler-lease-heartbeat-" + nodeId, true);
+			long period = Math.max(leaseTtlMillis / 3, 1);
+			heartbeatTimer.scheduleAtFixedRate(new TimerTask() {
+
+				@Override
+				public void run() {
+					heartbeat();
+				}
+			}, period, period);
+		}
+	}
+
+	/**
+	 * Stops the heartbeat and releases all the leases held by this node so that other nodes can take
+	 * over right away
+	 */
+	public synchronized void shutdown() {
+		if (heartbeatTimer != null) {
+			heartbeatTimer.cancel();
+			heartbeatTimer = null;
+		}
+		for (String taskUuid : heldLeases) {
+			releaseQuietly(taskUuid);
+		}
+		heldLeases.clear();
+	}
+
+	/**
+	 * Checks whether this node may execute the given task now, acquiring or renewing its lease if
+	 * needed.
+	 *
+	 * @param taskDefinition the task about to be executed
+	 * @return true if the task should be executed on this node
+	 */
+	public boolean acquire(TaskDefinition taskDefinition) {
+		if (taskDefinition == null || taskDefinition.isRunOnAllNodes()) {
+			return true;
+		}
+
+		String taskUuid = taskDefinition.getUuid();
+		Date now = new Date();
+		boolean acquired;
+		try {
+			acquired = schedulerDAO.acquireTaskLease(taskUuid, nodeId, now, new Date(now.getTime() + leaseTtlMillis));
+		}
+		catch (Exception e) {
+			log.warn("Unable to acquire the lease for task " + taskDefinition.getName() + ", skipping this execution", e);
+			acquired = false;
+		}
+
+		if (acquired) {
+			if (heldLeases.add(taskUuid)) {
+				log.info("Node {} acquired the lease for task {}", nodeId, taskDefinition.getName());
+			}
+		} else {
+			heldLeases.remove(taskUuid);
+			log.debug("Node {} skips task {} because another node holds its lease", nodeId, taskDefinition.getName());
+		}
+		return acquired;
+	}
+
+	/**
+	 * Releases the lease of the given task if it is held by this node
+	 *
+	 * @param taskDefinition the task whose lease should be released
+	 */
+	public void release(TaskDefinition taskDefinition) {
+		if (taskDefinition != null && heldLeases.remove(taskDefinition.getUuid())) {
+			releaseQuietly(taskDefinition.getUuid());
+		}
+	}
+
+	/**
+	 * @param taskDefinition the task to check
+	 * @return true if this node currently believes it holds the lease of the given task
+	 */
+	public boolean isHeld(TaskDefinition taskDefinition) {
+		return taskDefinition != null && heldLeases.contains(taskDefinition.getUuid());
+	}
+
+	/**
+	 * Renews all the leases held by this node, leases that could not be renewed are forgotten
+	 */
+	void heartbeat() {
+		for (String taskUuid : heldLeases) {
+			Date now = new Date();
+			try {
+				if (!schedulerDAO.renewTaskLease(taskUuid, nodeId, now, new Date(now.getTime() + leaseTtlMillis))) {
+					log.warn("Node {} lost the lease for task {}", nodeId, taskUuid);
+					heldLeases.remove(taskUuid);
+				}
+			}
+			catch (Exception e) {
+				log.warn("Unable to renew the lease for task " + taskUuid, e);
+			}
+		}
+	}
+
+	private void releaseQuietly(String taskUuid) {
+		try {
+			schedulerDAO.releaseTaskLease(taskUuid, nodeId);
+		}
+		catch (Exception e) {
+			log.warn("Unable to release the lease for task " + taskUuid, e);
+		}
+	}
+}
@@ -9,6 +9,8 @@
  */
 package org.openmrs.scheduler.timer;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -16,13 +18,17 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.Timer;
 import java.util.TreeMap;
+import java.util.UUID;
 import java.util.WeakHashMap;
 
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
+import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.scheduler.SchedulerConstants;
 import org.openmrs.scheduler.SchedulerException;
@@ -74,6 +80,11 @@ public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements Sch
 	 */
 	private SchedulerDAO schedulerDAO;
 	
+	/**
+	 * Grants the right to execute tasks when running in a cluster, null when task leasing is disabled
+	 */
+	private TaskLeaseManager taskLeaseManager;
+	
 	/**
 	 * Gets the scheduler data access object.
 	 */
@@ -88,6 +99,65 @@ public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements Sch
 		this.schedulerDAO = dao;
 	}
 	
+	/**
+	 * Gets the lease manager used to coordinate task executions across the nodes of a cluster.
+	 * 
+	 * @return the lease manager or null if task leasing is disabled
+	 * @since 2.7.0
+	 */
+	public TaskLeaseManager getTaskLeaseManager() {
+		return taskLeaseManager;
+	}
+	
+	/**
+	 * Sets the lease manager used to coordinate task executions across the nodes of a cluster,
+	 * tasks scheduled afterwards only execute while this node holds their lease.
+	 * 
+	 * @param taskLeaseManager the lease manager or null to execute every task on this node
+	 * @since 2.7.0
+	 */
+	public void setTaskLeaseManager(TaskLeaseManager taskLeaseManager) {
+		this.taskLeaseManager = taskLeaseManager;
+	}
+	
+	/**
+	 * Creates the lease manager if task leasing is enabled in the runtime properties
+	 */
+	private void initTaskLeaseManager() {
+		Properties runtimeProperties = Context.getRuntimeProperties();
+		if (taskLeaseManager != null
+		        || !Boolean.parseBoolean(runtimeProperties.getProperty(SchedulerConstants.SCHEDULER_LEASE_ENABLED_PROPERTY))) {
+			return;
+		}
+		
+		String nodeId = runtimeProperties.getProperty(SchedulerConstants.SCHEDULER_NODE_ID_PROPERTY);
+		if (StringUtils.isBlank(nodeId)) {
+			try {
+				nodeId = InetAddress.getLocalHost().getHostName();
+			}
+			catch (UnknownHostException e) {
+				nodeId = UUID.randomUUID().toString();
+			}
+			log.warn("No {} runtime property set, using {} as the scheduler node id",
+			    SchedulerConstants.SCHEDULER_NODE_ID_PROPERTY, nodeId);
+		}
+		
+		long leaseTtl = SchedulerConstants.SCHEDULER_DEFAULT_LEASE_TTL;
+		String leaseTtlProperty = runtimeProperties.getProperty(SchedulerConstants.SCHEDULER_LEASE_TTL_PROPERTY);
+		if (StringUtils.isNotBlank(leaseTtlProperty)) {
+			try {
+				leaseTtl = Long.parseLong(leaseTtlProperty.trim());
+			}
+			catch (NumberFormatException e) {
+				log.warn("Invalid value {} for runtime property {}, using the default of {} seconds", leaseTtlProperty,
+				    SchedulerConstants.SCHEDULER_LEASE_TTL_PROPERTY, leaseTtl);
+			}
+		}
+		
+		log.info("Task leasing enabled for scheduler node {} with a lease time to live of {} seconds", nodeId, leaseTtl);
+		taskLeaseManager = new TaskLeaseManager(getSchedulerDAO(), nodeId, leaseTtl);
+	}
+	
 	/**
 	 * Start up hook for the scheduler and all of its scheduled tasks.
 	 */
@@ -95,6 +165,11 @@ public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements Sch
 	public void onStartup() {
 		log.debug("Starting scheduler service ...");
 		
+		initTaskLeaseManager();
+		if (taskLeaseManager != null) {
+			taskLeaseManager.start();
+		}
+		
 		// Get all of the tasks in the database
 		Collection<TaskDefinition> taskDefinitions = getSchedulerDAO().getTasks();
 		
@@ -140,6 +215,9 @@ public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements Sch
 		}
 		finally {
 			setScheduledTasks(null);
+			if (taskLeaseManager != null) {
+				taskLeaseManager.shutdown();
+			}
 		}
 		
 	}
@@ -221,7 +299,7 @@ public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements Sch
 				// if we were unable to get a class, just quit
 				if (clientTask != null) {
 					
-					schedulerTask = new TimerSchedulerTask(clientTask);
+					schedulerTask = new TimerSchedulerTask(clientTask, taskLeaseManager);
 					taskDefinition.setTaskInstance(clientTask);
 					
 					// Once this method is called, the timer is set to start at the given start time.
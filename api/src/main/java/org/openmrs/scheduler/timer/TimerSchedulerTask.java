@@ -29,11 +29,27 @@ public class TimerSchedulerTask extends TimerTask {
 	/** Logger */
 	private static final Logger log = LoggerFactory.getLogger(TimerSchedulerTask.class);
 	
+	/** Guards executions in a cluster, null if every execution should run on this node */
+	private TaskLeaseManager taskLeaseManager;
+	
 	/** * Public constructor */
 	public TimerSchedulerTask(Task task) {
 		this.task = task;
 	}
 	
+	/**
+	 * Public constructor
+	 * 
+	 * @param task the task to execute
+	 * @param taskLeaseManager the lease manager this node must get the task lease from before each
+	 *            execution, may be null
+	 * @since 2.7.0
+	 */
+	public TimerSchedulerTask(Task task, TaskLeaseManager taskLeaseManager) {
+		this.task = task;
+		this.taskLeaseManager = taskLeaseManager;
+	}
+	
 	/**
 	 * * Executes the action to be performed by this timer task.
 	 * 
@@ -41,6 +57,10 @@ public class TimerSchedulerTask extends TimerTask {
 	 */
 	@Override
 	public void run() {
+		if (taskLeaseManager != null && !taskLeaseManager.acquire(task.getTaskDefinition())) {
+			return;
+		}
+		
 		try {
 			Daemon.executeScheduledTask(task);
 		}
@@ -85,6 +105,9 @@ public class TimerSchedulerTask extends TimerTask {
 	public void shutdown() {
 		super.cancel();
 		task.shutdown();
+		if (taskLeaseManager != null) {
+			taskLeaseManager.release(task.getTaskDefinition());
+		}
 	}
 	
 	/**
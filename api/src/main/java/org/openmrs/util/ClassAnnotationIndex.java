@@ -0,0 +1,268 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+
+/**
+ * The annotations of the classes of a jar as used by {@link OpenmrsClassScanner}. The index of a jar
+ * is stored in a small binary file so that the class files of the jar do not need to be read again
+ * at the next startup. The file records the path, size, modification date and checksum of the jar
+ * it was built from, so that the jar only needs to be hashed when its size or date changed.
+ *
+ * @since 2.7.0
+ */
+class ClassAnnotationIndex {
+	
+	private static final int MAGIC = 0x4f4d4349;
+	
+	private static final int VERSION = 2;
+	
+	/**
+	 * The extension of the index files
+	 */
+	static final String EXTENSION = ".idx";
+	
+	private final String jarPath;
+	
+	private final long jarLength;
+	
+	private final long jarLastModified;
+	
+	private final String jarChecksum;
+	
+	private final Map<String, ClassEntry> entries;
+	
+	/**
+	 * @param jar the jar the entries were read from
+	 * @param jarChecksum the checksum of the jar
+	 * @param entries the entries keyed by class name
+	 */
+	ClassAnnotationIndex(File jar, String jarChecksum, Map<String, ClassEntry> entries) {
+		this(jar.getAbsolutePath(), jar.length(), jar.lastModified(), jarChecksum, entries);
+	}
+	
+	private ClassAnnotationIndex(String jarPath, long jarLength, long jarLastModified, String jarChecksum,
+	    Map<String, ClassEntry> entries) {
+		this.jarPath = jarPath;
+		this.jarLength = jarLength;
+		this.jarLastModified = jarLastModified;
+		this.jarChecksum = jarChecksum;
+		this.entries = entries;
+	}
+	
+	/**
+	 * @return the entries keyed by class name
+	 */
+	Map<String, ClassEntry> getEntries() {
+		return entries;
+	}
+	
+	/**
+	 * @return the checksum of the jar the index was built from
+	 */
+	String getJarChecksum() {
+		return jarChecksum;
+	}
+	
+	/**
+	 * Tells whether this index was built from the given jar as it is now without reading the jar,
+	 * i.e. whether its path, size and modification date are the recorded ones
+	 *
+	 * @param jar the jar
+	 * @return true if the path, size and modification date of the jar match
+	 */
+	boolean isOf(File jar) {
+		return jarPath.equals(jar.getAbsolutePath()) && jarLength == jar.length() && jarLastModified == jar.lastModified();
+	}
+	
+	/**
+	 * What is known about a class without loading it
+	 */
+	static final class ClassEntry {
+		
+		private final String superClassName;
+		
+		private final Set<String> annotationTypes;
+		
+		ClassEntry(String superClassName, Set<String> annotationTypes) {
+			this.superClassName = superClassName;
+			this.annotationTypes = annotationTypes;
+		}
+		
+		/**
+		 * @return the name of the super class or null if there is none
+		 */
+		String getSuperClassName() {
+			return superClassName;
+		}
+		
+		/**
+		 * @return the names of the annotations present on the class including their meta-annotations
+		 */
+		Set<String> getAnnotationTypes() {
+			return annotationTypes;
+		}
+	}
+	
+	/**
+	 * @param metadataReader the reader of a class file
+	 * @return the index entry of the class
+	 */
+	static ClassEntry toEntry(MetadataReader metadataReader) {
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		Set<String> annotationTypes = new LinkedHashSet<>();
+		for (String annotationType : metadata.getAnnotationTypes()) {
+			annotationTypes.add(annotationType);
+			annotationTypes.addAll(metadata.getMetaAnnotationTypes(annotationType));
+		}
+		String superClassName = metadataReader.getClassMetadata().getSuperClassName();
+		return new ClassEntry(superClassName,
+		        annotationTypes.isEmpty() ? Collections.emptySet() : annotationTypes);
+	}
+	
+	/**
+	 * @param folder the folder holding the index files
+	 * @param jar a jar
+	 * @return the file holding the index of the given jar, named after the jar and a hash of its path
+	 */
+	static File getFile(File folder, File jar) {
+		String path = jar.getAbsolutePath();
+		return new File(folder, jar.getName() + "-" + Integer.toHexString(path.hashCode()) + EXTENSION);
+	}
+	
+	/**
+	 * Reads an index written by {@link #write(File)}
+	 *
+	 * @param file the index file
+	 * @return the index
+	 * @throws IOException if the file cannot be read or is not an index
+	 */
+	static ClassAnnotationIndex read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(file.getAbsolutePath() + " is not a class annotation index");
+			}
+			String jarPath = in.readUTF();
+			long jarLength = in.readLong();
+			long jarLastModified = in.readLong();
+			String jarChecksum = in.readUTF();
+			int classCount = in.readInt();
+			Map<String, ClassEntry> entries = new HashMap<>(classCount * 2);
+			for (int i = 0; i < classCount; i++) {
+				String className = in.readUTF();
+				String superClassName = in.readUTF();
+				int annotationCount = in.readShort();
+				Set<String> annotationTypes = annotationCount == 0 ? Collections.emptySet()
+				        : new LinkedHashSet<>(annotationCount * 2);
+				for (int j = 0; j < annotationCount; j++) {
+					annotationTypes.add(in.readUTF());
+				}
+				entries.put(className, new ClassEntry(superClassName.isEmpty() ? null : superClassName, annotationTypes));
+			}
+			return new ClassAnnotationIndex(jarPath, jarLength, jarLastModified, jarChecksum, entries);
+		}
+	}
+	
+	/**
+	 * Reads only the path of the jar an index file was built from
+	 *
+	 * @param file the index file
+	 * @return the path of the jar
+	 * @throws IOException if the file cannot be read or is not an index
+	 */
+	private static String readJarPath(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(file.getAbsolutePath() + " is not a class annotation index");
+			}
+			return in.readUTF();
+		}
+	}
+	
+	/**
+	 * Writes this index to a temporary file which is then moved to the given file so that a
+	 * partially written index is never read
+	 *
+	 * @param file the index file
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(File file) throws IOException {
+		File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(jarPath);
+				out.writeLong(jarLength);
+				out.writeLong(jarLastModified);
+				out.writeUTF(jarChecksum);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, ClassEntry> entry : entries.entrySet()) {
+					ClassEntry classEntry = entry.getValue();
+					out.writeUTF(entry.getKey());
+					out.writeUTF(classEntry.getSuperClassName() == null ? "" : classEntry.getSuperClassName());
+					out.writeShort(classEntry.getAnnotationTypes().size());
+					for (String annotationType : classEntry.getAnnotationTypes()) {
+						out.writeUTF(annotationType);
+					}
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tmp.toPath());
+		}
+	}
+	
+	/**
+	 * Deletes the index files of the given folder whose jar no longer exists, and the ones which
+	 * cannot be read such as those written by earlier versions
+	 *
+	 * @param folder the folder holding the index files
+	 * @return the number of deleted files
+	 */
+	static int prune(File folder) {
+		File[] files = folder.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		if (files == null) {
+			return 0;
+		}
+		int deleted = 0;
+		for (File file : files) {
+			boolean stale;
+			try {
+				stale = !new File(readJarPath(file)).isFile();
+			}
+			catch (IOException e) {
+				stale = true;
+			}
+			if (stale && file.delete()) {
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+}
@@ -37,6 +37,7 @@ import org.apache.commons.io.IOUtils;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.context.Context;
 import org.openmrs.liquibase.ChangeLogDetective;
+import org.openmrs.liquibase.ChangeLogFingerprint;
 import org.openmrs.liquibase.ChangeLogVersionFinder;
 import org.openmrs.liquibase.ChangeSetExecutorCallback;
 import org.openmrs.liquibase.LiquibaseProvider;
@@ -59,6 +60,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -67,6 +69,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * This class uses Liquibase to update the database. <br>
@@ -87,6 +90,8 @@ public class DatabaseUpdater {
 	
 	public static final String DATABASE_UPDATES_LOG_FILE = "liquibaseUpdateLogs.txt";
 	
+	private static final String CORE_CHANGELOG_FINGERPRINT = "core";
+	
 	private static Integer authenticatedUserId;
 	
 	private static final ChangeLogDetective changeLogDetective;
@@ -149,7 +154,9 @@ public class DatabaseUpdater {
 		
 		for (String changeLog : changeLogs) {
 			log.debug("applying Liquibase changelog '{}'", changeLog);
-			executeChangelog(changeLog, (ChangeSetExecutorCallback) null);
+			try (StartupProfiler.Phase phase = StartupProfiler.start(changeLog)) {
+				executeChangelog(changeLog, (ChangeSetExecutorCallback) null);
+			}
 		}
 	}
 	
@@ -268,7 +275,15 @@ public class DatabaseUpdater {
 	 */
 	public static boolean updatesRequired() throws Exception {
 		log.debug("checking for updates");
-		List<OpenMRSChangeSet> changesets = getUnrunDatabaseChanges(new DatabaseUpdaterLiquibaseProvider());
+		String checksum = getCoreChangeLogChecksum();
+		boolean upToDate = isChangeLogFingerprintCurrent(CORE_CHANGELOG_FINGERPRINT, checksum);
+		List<OpenMRSChangeSet> changesets;
+		if (upToDate) {
+			log.debug("core change logs and executed change sets did not change since the last check");
+			changesets = Collections.emptyList();
+		} else {
+			changesets = getUnrunDatabaseChanges(new DatabaseUpdaterLiquibaseProvider());
+		}
 		
 		// if the db is locked, it means there was a crash
 		// or someone is executing db updates right now. either way
@@ -279,12 +294,75 @@ public class DatabaseUpdater {
 			// lock
 			DatabaseUpdater.releaseDatabaseLock();
 			log.debug("db lock found and released automatically");
-			return false;
+		}
+		
+		if (changesets.isEmpty() && !upToDate) {
+			saveChangeLogFingerprint(CORE_CHANGELOG_FINGERPRINT, checksum);
 		}
 		
 		return !changesets.isEmpty();
 	}
 	
+	/**
+	 * Checks whether the change log stored under the given name was found up to date before, and
+	 * neither its files nor the change sets executed on the database changed since
+	 *
+	 * @param changeLog the name the fingerprint of the change log is stored under
+	 * @param checksum the checksum of the change log files as returned by
+	 *            {@link ChangeLogFingerprint#getChecksum(ClassLoader, java.util.Collection, boolean)}
+	 * @return true if the change log does not need to be checked for un-run change sets
+	 * @since 2.7.0
+	 */
+	public static boolean isChangeLogFingerprintCurrent(String changeLog, String checksum) {
+		if (checksum == null) {
+			return false;
+		}
+		try (Connection connection = getConnection()) {
+			return ChangeLogFingerprint.isCurrent(connection, changeLog, checksum);
+		}
+		catch (Exception e) {
+			log.debug("Unable to check the fingerprint of change log " + changeLog, e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Records that the change log stored under the given name has no un-run change sets
+	 *
+	 * @param changeLog the name to store the fingerprint under
+	 * @param checksum the checksum of the change log files
+	 * @since 2.7.0
+	 */
+	public static void saveChangeLogFingerprint(String changeLog, String checksum) {
+		if (checksum == null) {
+			return;
+		}
+		try (Connection connection = getConnection()) {
+			ChangeLogFingerprint.save(connection, changeLog, checksum);
+		}
+		catch (Exception e) {
+			log.debug("Unable to save the fingerprint of change log " + changeLog, e);
+		}
+	}
+	
+	/**
+	 * @return the checksum of all the core snapshot and update change logs or null if it cannot be
+	 *         computed
+	 */
+	private static String getCoreChangeLogChecksum() {
+		Set<String> changeLogFiles = new TreeSet<>();
+		for (List<String> combination : changeLogVersionFinder.getChangeLogCombinations().values()) {
+			changeLogFiles.addAll(combination);
+		}
+		try {
+			return ChangeLogFingerprint.getChecksum(OpenmrsClassLoader.getInstance(), changeLogFiles, true);
+		}
+		catch (IOException e) {
+			log.debug("Unable to compute the checksum of the core change logs", e);
+			return null;
+		}
+	}
+	
 	/**
 	 * Ask Liquibase if it needs to do any updates
 	 *
@@ -20,6 +20,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -67,9 +70,30 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	 */
 	private Map<String, WeakReference<Class<?>>> cachedClasses = new ConcurrentHashMap<>();
 	
+	/**
+	 * Names of the classes which could neither be found in the modules nor in the parent class loader.
+	 * Cleared whenever a module is started or stopped.
+	 */
+	private Map<String, Boolean> missingClasses = new ConcurrentHashMap<>();
+	
+	/**
+	 * Names of the resources which could neither be found in the modules nor in the parent class
+	 * loader. Cleared whenever a module is started or stopped.
+	 */
+	private Map<String, Boolean> missingResources = new ConcurrentHashMap<>();
+	
+	private static final int MAX_MISSING_ENTRIES = 10000;
+	
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+	
 	// suffix of the OpenMRS required library cache folder
 	private static final String LIBCACHESUFFIX = ".openmrs-lib-cache";
 	
+	// file recording the OpenMRS version and build which created the library cache folder
+	private static final String LIBCACHEVERSIONFILE = ".openmrs-version";
+	
 	/**
 	 * Creates the instance for the OpenmrsClassLoader
 	 */
@@ -139,35 +163,22 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	 * <strong>Should</strong> load class if two module class loaders have same packages
 	 */
 	@Override
-	public synchronized Class<?> loadClass(String name, final boolean resolve) throws ClassNotFoundException {
+	public Class<?> loadClass(String name, final boolean resolve) throws ClassNotFoundException {
 		// Check if the class has already been requested from this class loader
 		Class<?> c = getCachedClass(name);
 		if (c == null) {
-			// We do not try to load classes using this.findClass on purpose.
-			// All classes are loaded by web container or by module class loaders.
-			
-			// First try loading from modules such that we allow modules to load
-			// different versions of the same libraries that may already be used
-			// by core or the web container. An example is the chartsearch module
-			// which uses different versions of lucene and solr from core
-			String packageName = StringUtils.substringBeforeLast(name, ".");
-			Set<ModuleClassLoader> moduleClassLoaders = ModuleFactory.getModuleClassLoadersForPackage(packageName);
-			for (ModuleClassLoader moduleClassLoader : moduleClassLoaders) {
-				try {
-					c = moduleClassLoader.loadClass(name);
-					break;
-				}
-				catch (ClassNotFoundException e) {
-					// Continue trying...
-				}
+			if (missingClasses.containsKey(name)) {
+				throw new ClassNotFoundException(name);
 			}
 			
-			if (c == null) {
-				// Finally try loading from web container
-				c = getParent().loadClass(name);
+			// Only threads loading the same class wait for each other
+			synchronized (getClassLoadingLock(name)) {
+				c = getCachedClass(name);
+				if (c == null) {
+					c = loadClassFromModulesOrParent(name);
+					cacheClass(name, c);
+				}
 			}
-			
-			cacheClass(name, c);
 		}
 		
 		if (resolve) {
@@ -177,6 +188,68 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		return c;
 	}
 	
+	private Class<?> loadClassFromModulesOrParent(String name) throws ClassNotFoundException {
+		// We do not try to load classes using this.findClass on purpose.
+		// All classes are loaded by web container or by module class loaders.
+		
+		// First try loading from modules such that we allow modules to load
+		// different versions of the same libraries that may already be used
+		// by core or the web container. An example is the chartsearch module
+		// which uses different versions of lucene and solr from core
+		String packageName = StringUtils.substringBeforeLast(name, ".");
+		for (ModuleClassLoader moduleClassLoader : ModuleFactory.getModuleClassLoadersForPackage(packageName)) {
+			try {
+				return moduleClassLoader.loadClass(name);
+			}
+			catch (ClassNotFoundException e) {
+				// Continue trying...
+			}
+		}
+		
+		// Finally try loading from web container
+		try {
+			return getParent().loadClass(name);
+		}
+		catch (ClassNotFoundException e) {
+			remember(missingClasses, name);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Forgets about the classes which could not be found so far, needs to be called whenever the set of
+	 * classes available to this class loader changes, i.e. when a module is started or stopped.
+	 * 
+	 * @since 2.7.0
+	 */
+	public static void clearMissingClasses() {
+		OpenmrsClassLoader instance = OpenmrsClassLoaderHolder.INSTANCE;
+		if (instance != null && instance.missingClasses != null) {
+			instance.missingClasses.clear();
+		}
+	}
+	
+	/**
+	 * Forgets about the resources which could not be found so far, needs to be called whenever the
+	 * set of resources available to this class loader changes, i.e. when a module is started or
+	 * stopped.
+	 * 
+	 * @since 2.7.0
+	 */
+	public static void clearMissingResources() {
+		OpenmrsClassLoader instance = OpenmrsClassLoaderHolder.INSTANCE;
+		if (instance != null && instance.missingResources != null) {
+			instance.missingResources.clear();
+		}
+	}
+	
+	private static void remember(Map<String, Boolean> missing, String name) {
+		if (missing.size() >= MAX_MISSING_ENTRIES) {
+			missing.clear();
+		}
+		missing.put(name, Boolean.TRUE);
+	}
+	
 	private Class<?> getCachedClass(String name) {
 		WeakReference<Class<?>> ref = cachedClasses.get(name);
 		if (ref != null) {
@@ -211,7 +284,7 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		log.trace("finding resource: {}", name);
 		
 		URL result;
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
+		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoadersForResource(name)) {
 			result = classLoader.findResource(name);
 			if (result != null) {
 				return result;
@@ -235,7 +308,7 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	@Override
 	public Enumeration<URL> findResources(final String name) throws IOException {
 		Set<URI> results = new HashSet<>();
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
+		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoadersForResource(name)) {
 			Enumeration<URL> urls = classLoader.findResources(name);
 			while (urls.hasMoreElements()) {
 				URL result = urls.nextElement();
@@ -279,7 +352,11 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	 */
 	@Override
 	public InputStream getResourceAsStream(String file) {
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
+		if (missingResources.containsKey(file)) {
+			return null;
+		}
+		
+		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoadersForResource(file)) {
 			InputStream result = classLoader.getResourceAsStream(file);
 			if (result != null) {
 				return result;
@@ -289,6 +366,25 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		return super.getResourceAsStream(file);
 	}
 	
+	/**
+	 * Looks the resource up in the parent class loader and then in the modules, remembering the
+	 * resources found nowhere
+	 *
+	 * @see java.lang.ClassLoader#getResource(java.lang.String)
+	 */
+	@Override
+	public URL getResource(String name) {
+		if (missingResources.containsKey(name)) {
+			return null;
+		}
+		
+		URL result = super.getResource(name);
+		if (result == null) {
+			remember(missingResources, name);
+		}
+		return result;
+	}
+	
 	/**
 	 * Searches all known module classloaders first, then parent classloaders
 	 *
@@ -297,7 +393,7 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	@Override
 	public Enumeration<URL> getResources(String packageName) throws IOException {
 		Set<URI> results = new HashSet<>();
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
+		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoadersForResource(packageName)) {
 			Enumeration<URL> urls = classLoader.getResources(packageName);
 			while (urls.hasMoreElements()) {
 				URL result = urls.nextElement();
@@ -559,6 +655,8 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		OpenmrsClassLoader.log = null;
 		
 		getInstance().cachedClasses.clear();
+		getInstance().missingClasses.clear();
+		getInstance().missingResources.clear();
 	}
 	
 	/**
@@ -693,23 +791,27 @@ public class OpenmrsClassLoader extends URLClassLoader {
 			
 			log.debug("libraries cache folder is {}", libCacheFolder);
 			
-			if (libCacheFolder.exists()) {
+			// the expanded module files are kept between runs of the same OpenMRS build, each
+			// module folder is checked against the checksum of the module when it is started
+			String cacheKey = getLibCacheKey();
+			File versionFile = new File(libCacheFolder, LIBCACHEVERSIONFILE);
+			if (libCacheFolder.exists() && !isLibCacheFolderVersion(versionFile, cacheKey)) {
 				// clean up and empty the folder if it exists (and is not locked)
 				try {
 					OpenmrsUtil.deleteDirectory(libCacheFolder);
-					
-					libCacheFolder.mkdirs();
 				}
 				catch (IOException io) {
 					log.warn("Unable to delete: {}", libCacheFolder.getName());
 				}
-			} else {
-				// otherwise just create the dir structure
-				libCacheFolder.mkdirs();
 			}
+			libCacheFolder.mkdirs();
 			
-			// mark the lock and entire library cache to be deleted when the jvm exits
-			libCacheFolder.deleteOnExit();
+			try {
+				Files.write(versionFile.toPath(), cacheKey.getBytes(StandardCharsets.UTF_8));
+			}
+			catch (IOException io) {
+				log.warn("Unable to write: {}", versionFile.getAbsolutePath(), io);
+			}
 			
 			// mark the lib cache folder as ready
 			libCacheFolderInitialized = true;
@@ -718,6 +820,38 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		return libCacheFolder;
 	}
 	
+	/**
+	 * The key of the library cache folder, made of the version of OpenMRS and of the size and
+	 * modification date of the jar holding the api, so that a rebuilt snapshot of the same version
+	 * does not reuse the files expanded by the previous build
+	 *
+	 * @return the key
+	 */
+	static String getLibCacheKey() {
+		StringBuilder key = new StringBuilder(OpenmrsConstants.OPENMRS_VERSION);
+		try {
+			CodeSource codeSource = OpenmrsConstants.class.getProtectionDomain().getCodeSource();
+			if (codeSource != null && codeSource.getLocation() != null) {
+				File apiJar = new File(codeSource.getLocation().toURI());
+				key.append(' ').append(apiJar.length()).append(' ').append(apiJar.lastModified());
+			}
+		}
+		catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+			log.debug("Unable to locate the jar of the api, keying the library cache on the version only", e);
+		}
+		return key.toString();
+	}
+	
+	private static boolean isLibCacheFolderVersion(File versionFile, String cacheKey) {
+		try {
+			return versionFile.isFile()
+			        && cacheKey.equals(new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8));
+		}
+		catch (IOException io) {
+			return false;
+		}
+	}
+	
 	/**
 	 * Expand the given URL into the given folder
 	 *
@@ -9,12 +9,20 @@
  */
 package org.openmrs.util;
 
+import java.io.File;
 import java.io.IOException;
+import java.lang.annotation.Inherited;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.openmrs.module.ModuleUtil;
+import org.openmrs.util.ClassAnnotationIndex.ClassEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
@@ -25,10 +33,16 @@ import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ResourceUtils;
 
 /**
  * Reflection utilities to search the classpath for classes that have a given annotation, implement
  * a given interface, etc
+ * <p>
+ * The class files of a jar are only read the first time the jar is seen, the names of the annotations
+ * found on its classes are then stored in an index file and reused as long as the jar does not
+ * change. The jar is only hashed to find out whether it changed when its size or modification date
+ * differ from the recorded ones. Classes found in directories are always read.
  * 
  * @since 1.10
  */
@@ -40,8 +54,20 @@ public class OpenmrsClassScanner {
 	
 	private final ResourcePatternResolver resourceResolver;
 	
+	private static final String CLASS_PATTERN = "classpath*:org/openmrs/**/*.class";
+	
+	private static final String INDEX_FOLDER = "class-index";
+	
 	private Map<Class<?>, Set<Class<?>>> annotationToClassMap;
 	
+	private Map<String, ClassEntry> classEntries;
+	
+	/**
+	 * Whether an index file was written while reading the class entries, in which case the indexes of
+	 * jars which no longer exist are deleted
+	 */
+	private boolean indexWritten;
+	
 	private OpenmrsClassScanner() {
 		this.metadataReaderFactory = new SimpleMetadataReaderFactory(OpenmrsClassLoader.getInstance());
 		this.resourceResolver = new PathMatchingResourcePatternResolver(OpenmrsClassLoader.getInstance());
@@ -79,27 +105,19 @@ public class OpenmrsClassScanner {
 		}
 		
 		Set<Class<?>> types = new HashSet<>();
-		String pattern = "classpath*:org/openmrs/**/*.class";
 		
 		try {
-			Resource[] resources = resourceResolver.getResources(pattern);
+			Map<String, ClassEntry> entries = getClassEntries();
 			TypeFilter typeFilter = new AnnotationTypeFilter(annotationClass);
-			for (Resource resource : resources) {
-				try {
-					MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(resource);
-					if (typeFilter.match(metadataReader, metadataReaderFactory)) {
-						String classname = metadataReader.getClassMetadata().getClassName();
-						try {
-							Class<?> metadata = OpenmrsClassLoader.getInstance().loadClass(classname);
-							types.add(metadata);
-						}
-						catch (ClassNotFoundException e) {
-							throw new IOException("Class cannot be loaded: " + classname, e);
-						}
+			boolean inherited = annotationClass.isAnnotationPresent(Inherited.class);
+			for (String classname : entries.keySet()) {
+				if (hasAnnotation(classname, annotationClass.getName(), inherited, typeFilter, entries)) {
+					try {
+						types.add(OpenmrsClassLoader.getInstance().loadClass(classname));
+					}
+					catch (ClassNotFoundException e) {
+						log.warn("Class cannot be loaded: " + classname, e);
 					}
-				}
-				catch (IOException e) {
-					log.debug("Resource cannot be loaded: " + resource);
 				}
 			}
 		}
@@ -112,6 +130,158 @@ public class OpenmrsClassScanner {
 		return types;
 	}
 	
+	/**
+	 * Checks whether the given class carries the annotation, directly, as a meta-annotation or, for
+	 * inherited annotations, on one of its super classes. Classes that are not part of the index such
+	 * as super classes from third party libraries are matched by reading their class file.
+	 */
+	private boolean hasAnnotation(String className, String annotationName, boolean inherited, TypeFilter typeFilter,
+	        Map<String, ClassEntry> entries) {
+		ClassEntry entry = entries.get(className);
+		if (entry == null) {
+			try {
+				return typeFilter.match(metadataReaderFactory.getMetadataReader(className), metadataReaderFactory);
+			}
+			catch (IOException e) {
+				log.debug("Class cannot be read: " + className);
+				return false;
+			}
+		}
+		if (entry.getAnnotationTypes().contains(annotationName)) {
+			return true;
+		}
+		String superClassName = entry.getSuperClassName();
+		return inherited && superClassName != null && !Object.class.getName().equals(superClassName)
+		        && hasAnnotation(superClassName, annotationName, inherited, typeFilter, entries);
+	}
+	
+	/**
+	 * @return the index entries of all the openmrs classes on the classpath keyed by class name
+	 */
+	private Map<String, ClassEntry> getClassEntries() throws IOException {
+		if (classEntries == null) {
+			long start = System.currentTimeMillis();
+			Map<String, List<Resource>> resourcesByJar = new LinkedHashMap<>();
+			List<Resource> otherResources = new ArrayList<>();
+			for (Resource resource : resourceResolver.getResources(CLASS_PATTERN)) {
+				URL url = resource.getURL();
+				if (ResourceUtils.isJarURL(url)) {
+					resourcesByJar.computeIfAbsent(ResourceUtils.extractJarFileURL(url).toString(), k -> new ArrayList<>())
+					        .add(resource);
+				} else {
+					otherResources.add(resource);
+				}
+			}
+			
+			Map<String, ClassEntry> entries = new HashMap<>();
+			for (Map.Entry<String, List<Resource>> jar : resourcesByJar.entrySet()) {
+				entries.putAll(getJarClassEntries(jar.getKey(), jar.getValue()));
+			}
+			entries.putAll(readClassEntries(otherResources));
+			if (indexWritten) {
+				File indexFolder = getIndexFolder();
+				int pruned = indexFolder == null ? 0 : ClassAnnotationIndex.prune(indexFolder);
+				log.debug("Deleted {} class indexes of jars which no longer exist", pruned);
+				indexWritten = false;
+			}
+			
+			log.debug("Indexed {} classes from {} jars in {}ms", entries.size(), resourcesByJar.size(),
+			    System.currentTimeMillis() - start);
+			classEntries = entries;
+		}
+		return classEntries;
+	}
+	
+	/**
+	 * Loads the index of the given jar, the index is created from the class files of the jar if it
+	 * does not exist yet or the jar changed
+	 */
+	private Map<String, ClassEntry> getJarClassEntries(String jarUrl, List<Resource> resources) {
+		File jar = getJarFile(jarUrl);
+		File indexFolder = jar == null ? null : getIndexFolder();
+		if (indexFolder == null) {
+			return readClassEntries(resources);
+		}
+		
+		File indexFile = ClassAnnotationIndex.getFile(indexFolder, jar);
+		ClassAnnotationIndex index = null;
+		if (indexFile.isFile()) {
+			try {
+				index = ClassAnnotationIndex.read(indexFile);
+			}
+			catch (IOException e) {
+				log.warn("Unable to read the class index " + indexFile.getAbsolutePath() + ", rescanning " + jarUrl, e);
+			}
+		}
+		if (index != null && index.isOf(jar)) {
+			return index.getEntries();
+		}
+		
+		String checksum;
+		try {
+			checksum = ModuleUtil.getChecksum(jar);
+		}
+		catch (IOException e) {
+			log.warn("Unable to compute the checksum of " + jarUrl, e);
+			return readClassEntries(resources);
+		}
+		
+		// the jar was touched or replaced, only rescan it if its content changed
+		Map<String, ClassEntry> entries = index != null && checksum.equals(index.getJarChecksum()) ? index.getEntries()
+		        : readClassEntries(resources);
+		try {
+			new ClassAnnotationIndex(jar, checksum, entries).write(indexFile);
+			indexWritten = true;
+		}
+		catch (IOException e) {
+			log.warn("Unable to write the class index " + indexFile.getAbsolutePath(), e);
+		}
+		return entries;
+	}
+	
+	private Map<String, ClassEntry> readClassEntries(List<Resource> resources) {
+		Map<String, ClassEntry> entries = new HashMap<>();
+		for (Resource resource : resources) {
+			try {
+				MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(resource);
+				entries.put(metadataReader.getClassMetadata().getClassName(), ClassAnnotationIndex.toEntry(metadataReader));
+			}
+			catch (IOException e) {
+				log.debug("Resource cannot be loaded: " + resource);
+			}
+		}
+		return entries;
+	}
+	
+	/**
+	 * @return the given jar as a local file or null if it is not one
+	 */
+	private File getJarFile(String jarUrl) {
+		try {
+			File jar = ResourceUtils.getFile(new URL(jarUrl));
+			return jar.isFile() ? jar : null;
+		}
+		catch (IOException e) {
+			log.debug("Unable to locate " + jarUrl, e);
+			return null;
+		}
+	}
+	
+	/**
+	 * @return the folder holding the class indexes or null if there is none
+	 */
+	private File getIndexFolder() {
+		File libCacheFolder = OpenmrsClassLoader.getLibCacheFolder();
+		if (libCacheFolder == null) {
+			return null;
+		}
+		File indexFolder = new File(libCacheFolder, INDEX_FOLDER);
+		if (!indexFolder.isDirectory() && !indexFolder.mkdirs()) {
+			return null;
+		}
+		return indexFolder;
+	}
+	
 	/**
 	 * Private class to hold the one class scanner used throughout openmrs. This is an alternative
 	 * to storing the instance object on {@link OpenmrsClassScanner} itself so that garbage
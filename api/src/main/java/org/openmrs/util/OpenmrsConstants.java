@@ -586,6 +586,14 @@ public final class OpenmrsConstants {
 	
 	public static final String GP_ORDER_NUMBER_GENERATOR_BEAN_ID = "order.orderNumberGeneratorBeanId";
 	
+	/**
+	 * Specifies how many order number seeds each node reserves at once from
+	 * {@link #GP_NEXT_ORDER_NUMBER_SEED}
+	 * 
+	 * @since 2.7.0
+	 */
+	public static final String GP_ORDER_NUMBER_SEED_BLOCK_SIZE = "order.orderNumberSeedBlockSize";
+	
 	/**
 	 * Specifies the uuid of the concept set where its members represent the possible drug routes
 	 */
@@ -1048,6 +1056,11 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GP_ORDER_NUMBER_GENERATOR_BEAN_ID, "",
 		        "Specifies spring bean id of the order generator to use when assigning order numbers"));
 		
+		props.add(new GlobalProperty(GP_ORDER_NUMBER_SEED_BLOCK_SIZE, "1",
+		        "The number of order number seeds reserved at once by each server from " + GP_NEXT_ORDER_NUMBER_SEED
+		                + ", values greater than 1 reduce contention on that property when many orders are placed"
+		                + " but leave gaps in the order numbers when the server restarts"));
+		
 		props.add(new GlobalProperty(GP_DRUG_ROUTES_CONCEPT_UUID, "",
 		        "Specifies the uuid of the concept set where its members represent the possible drug routes"));
 		
@@ -28,9 +28,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -125,6 +130,11 @@ public class OpenmrsUtil {
 	
 	private static Map<Locale, SimpleDateFormat> timeFormatCache = new HashMap<>();
 	
+	/**
+	 * The maximum number of bytes moved per call to the file channel transfer methods
+	 */
+	private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+	
 	/**
 	 * Compares origList to newList returning map of differences
 	 * 
@@ -288,6 +298,62 @@ public class OpenmrsUtil {
 		
 	}
 	
+	/**
+	 * Copies the given stream into the given file through a file channel so that the data is moved
+	 * by the file system instead of through a heap buffer whenever the source allows it, e.g. when
+	 * the stream reads from a file. The file is overwritten, the input stream is not closed.
+	 * 
+	 * @param inputStream Stream to copy from
+	 * @param file the file to write to
+	 * @return the number of bytes written
+	 * @throws IOException thrown if an error occurs during read/write
+	 * @since 2.7.0
+	 * <strong>Should</strong> copy the whole stream into the file
+	 */
+	public static long copyToFile(InputStream inputStream, File file) throws IOException {
+		ReadableByteChannel in = inputStream instanceof FileInputStream ? ((FileInputStream) inputStream).getChannel()
+		        : Channels.newChannel(inputStream);
+		try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+		    StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = 0;
+			long transferred;
+			while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0) {
+				position += transferred;
+			}
+			return position;
+		}
+	}
+	
+	/**
+	 * Writes the given range of a file to the output stream with {@link FileChannel#transferTo},
+	 * which lets the operating system send the data directly when the target allows it. Neither the
+	 * file nor the output stream are kept in memory and the output stream is not closed.
+	 * 
+	 * @param file the file to read from
+	 * @param position the offset of the first byte to write
+	 * @param count the maximum number of bytes to write
+	 * @param outputStream Stream to write to
+	 * @return the number of bytes written
+	 * @throws IOException thrown if an error occurs during read/write
+	 * @since 2.7.0
+	 * <strong>Should</strong> write the given range of the file
+	 */
+	public static long transferFile(File file, long position, long count, OutputStream outputStream) throws IOException {
+		WritableByteChannel out = Channels.newChannel(outputStream);
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long end = Math.min(in.size(), position + count);
+			long current = position;
+			while (current < end) {
+				long transferred = in.transferTo(current, end - current, out);
+				if (transferred <= 0) {
+					break;
+				}
+				current += transferred;
+			}
+			return current - position;
+		}
+	}
+	
 	/**
 	 * Get mime type of the given file
 	 *
@@ -0,0 +1,426 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records how long the phases of the startup of OpenMRS take. Phases are nested, a phase started
+ * while another one is running on the same thread becomes its child. For each phase the wall time,
+ * the CPU time and the bytes allocated by the thread running it are recorded, the CPU time and the
+ * allocated bytes are reported as -1 when the JVM cannot measure them or when the phase did not end
+ * on the thread it was started on.
+ * <p>
+ * Phases are only recorded between {@link #begin()} and {@link #finish()}, at any other time
+ * {@link #start(String)} returns a phase which does nothing, so instrumented code such as the
+ * startup of a module from the administration pages has no overhead. When finished, the timeline is
+ * written to {@value #REPORT_FILE_NAME} in the application data directory and summarized in the log.
+ * Usage:
+ *
+ * <pre>
+ * try (StartupProfiler.Phase phase = StartupProfiler.start("Context.startup")) {
+ * 	...
+ * }
+ * </pre>
+ *
+ * @since 2.7.0
+ */
+public final class StartupProfiler {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupProfiler.class);
+
+	public static final String REPORT_FILE_NAME = "startup-profile.json";
+
+	private static final int SLOWEST_STEPS_LOGGED = 10;
+
+	private static final Phase NOOP = new Phase(null, null);
+
+	private static final ThreadLocal<Deque<Phase>> runningPhases = new ThreadLocal<>();
+
+	private static volatile Phase root;
+
+	private StartupProfiler() {
+	}
+
+	/**
+	 * Starts recording the startup timeline, does nothing if it is already being recorded
+	 */
+	public static synchronized void begin() {
+		if (root == null) {
+			Phase startup = new Phase("startup", null);
+			startup.begin();
+			root = startup;
+		}
+	}
+
+	/**
+	 * @return true if the startup timeline is being recorded
+	 */
+	public static boolean isActive() {
+		return root != null;
+	}
+
+	/**
+	 * Starts a phase as a child of the phase currently running on this thread, or of the startup
+	 * itself if there is none
+	 *
+	 * @param name the name of the phase
+	 * @return the phase to close once it is done
+	 */
+	public static Phase start(String name) {
+		return start(name, current());
+	}
+
+	/**
+	 * Starts a phase as a child of the given one, used to attach the work done by other threads to
+	 * the phase which handed it out
+	 *
+	 * @param name the name of the phase
+	 * @param parent the parent phase as returned by {@link #current()}
+	 * @return the phase to close once it is done
+	 */
+	public static Phase start(String name, Phase parent) {
+		if (root == null || parent == null || parent == NOOP) {
+			return NOOP;
+		}
+		Phase phase = new Phase(name, parent);
+		parent.addChild(phase);
+		Deque<Phase> phases = runningPhases.get();
+		if (phases == null) {
+			phases = new ArrayDeque<>();
+			runningPhases.set(phases);
+		}
+		phases.push(phase);
+		phase.begin();
+		return phase;
+	}
+
+	/**
+	 * Makes the given phase the current phase of this thread until the returned binding is closed, so
+	 * that the phases started by a thread doing work on behalf of another one, e.g. the daemon thread
+	 * starting a module, are attached to the phase of the thread which handed the work out
+	 *
+	 * @param phase the phase as returned by {@link #current()} on the other thread
+	 * @return the binding to close once the work is done
+	 */
+	public static Binding bind(Phase phase) {
+		if (root == null || phase == null || phase == NOOP) {
+			return () -> {
+			};
+		}
+		Deque<Phase> phases = runningPhases.get();
+		if (phases == null) {
+			phases = new ArrayDeque<>();
+			runningPhases.set(phases);
+		}
+		phases.push(phase);
+		return () -> {
+			Deque<Phase> running = runningPhases.get();
+			if (running != null) {
+				running.remove(phase);
+				if (running.isEmpty()) {
+					runningPhases.remove();
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the phase running on this thread, the startup itself if there is none or a phase doing
+	 *         nothing when the startup timeline is not being recorded
+	 */
+	public static Phase current() {
+		Phase startup = root;
+		if (startup == null) {
+			return NOOP;
+		}
+		Deque<Phase> phases = runningPhases.get();
+		return phases == null || phases.isEmpty() ? startup : phases.peek();
+	}
+
+	/**
+	 * Stops recording the startup timeline, writes the report to the application data directory and
+	 * logs a summary of it. Does nothing if the timeline is not being recorded.
+	 */
+	public static void finish() {
+		Phase startup = stop();
+		if (startup == null) {
+			return;
+		}
+
+		logSummary(startup);
+		File report = new File(OpenmrsUtil.getApplicationDataDirectoryAsFile(), REPORT_FILE_NAME);
+		try {
+			writeReport(startup, report);
+			log.info("Startup profile written to {}", report.getAbsolutePath());
+		}
+		catch (IOException e) {
+			log.warn("Unable to write the startup profile to " + report.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Stops recording the startup timeline without writing nor logging it
+	 *
+	 * @return the startup phase or null if the timeline was not being recorded
+	 */
+	public static Phase stop() {
+		Phase startup;
+		synchronized (StartupProfiler.class) {
+			startup = root;
+			root = null;
+		}
+		runningPhases.remove();
+		if (startup != null) {
+			startup.end();
+		}
+		return startup;
+	}
+
+	/**
+	 * Writes the timeline of the given phase as JSON
+	 *
+	 * @param phase the phase to write
+	 * @param file the file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeReport(Phase phase, File file) throws IOException {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("openmrsVersion", OpenmrsConstants.OPENMRS_VERSION);
+		report.put("date", new Date(phase.startMillis));
+		report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+		report.put("maxMemory", Runtime.getRuntime().maxMemory());
+		report.put("timeline", toMap(phase, phase.startNanos));
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+	}
+
+	private static Map<String, Object> toMap(Phase phase, long originNanos) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("name", phase.getName());
+		map.put("thread", phase.threadName);
+		map.put("startMs", TimeUnit.NANOSECONDS.toMillis(phase.startNanos - originNanos));
+		map.put("wallMs", phase.getWallTimeMillis());
+		map.put("cpuMs", phase.getCpuTimeMillis());
+		map.put("allocatedBytes", phase.getAllocatedBytes());
+		List<Phase> children = phase.getChildren();
+		if (!children.isEmpty()) {
+			List<Map<String, Object>> childMaps = new ArrayList<>(children.size());
+			for (Phase child : children) {
+				childMaps.add(toMap(child, originNanos));
+			}
+			map.put("children", childMaps);
+		}
+		return map;
+	}
+
+	private static void logSummary(Phase startup) {
+		StringBuilder summary = new StringBuilder("OpenMRS startup took ").append(format(startup));
+		for (Phase phase : startup.getChildren()) {
+			summary.append(System.lineSeparator()).append("  ").append(phase.getName()).append(": ").append(format(phase));
+			for (Phase child : phase.getChildren()) {
+				summary.append(System.lineSeparator()).append("    ").append(child.getName()).append(": ")
+				        .append(format(child));
+			}
+		}
+
+		List<Phase> steps = new ArrayList<>();
+		collectSteps(startup, steps);
+		steps.sort((p1, p2) -> Long.compare(p2.getWallTimeMillis(), p1.getWallTimeMillis()));
+		if (!steps.isEmpty()) {
+			summary.append(System.lineSeparator()).append("Slowest steps:");
+			for (Phase step : steps.subList(0, Math.min(SLOWEST_STEPS_LOGGED, steps.size()))) {
+				summary.append(System.lineSeparator()).append("  ").append(step.getName()).append(": ").append(format(step));
+			}
+		}
+		log.info(summary.toString());
+	}
+
+	private static void collectSteps(Phase phase, List<Phase> steps) {
+		for (Phase child : phase.getChildren()) {
+			if (child.getChildren().isEmpty()) {
+				steps.add(child);
+			} else {
+				collectSteps(child, steps);
+			}
+		}
+	}
+
+	private static String format(Phase phase) {
+		StringBuilder sb = new StringBuilder().append(phase.getWallTimeMillis()).append(" ms");
+		if (phase.getCpuTimeMillis() >= 0) {
+			sb.append(", cpu ").append(phase.getCpuTimeMillis()).append(" ms");
+		}
+		if (phase.getAllocatedBytes() >= 0) {
+			sb.append(", allocated ").append(phase.getAllocatedBytes() / (1024 * 1024)).append(" MB");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A phase made current on a thread by {@link #bind(Phase)}
+	 */
+	public interface Binding extends AutoCloseable {
+		
+		/**
+		 * Restores the phase which was current on this thread before
+		 */
+		@Override
+		void close();
+	}
+
+	/**
+	 * A step of the startup, closing it records its duration
+	 */
+	public static class Phase implements AutoCloseable {
+
+		private final String name;
+
+		private final Phase parent;
+
+		private final List<Phase> children = Collections.synchronizedList(new ArrayList<>());
+
+		private String threadName;
+
+		private long threadId;
+
+		private long startMillis;
+
+		private long startNanos;
+
+		private long startCpuNanos;
+
+		private long startAllocatedBytes;
+
+		private volatile long wallNanos = -1;
+
+		private volatile long cpuNanos = -1;
+
+		private volatile long allocatedBytes = -1;
+
+		private Phase(String name, Phase parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+
+		private void begin() {
+			Thread thread = Thread.currentThread();
+			threadName = thread.getName();
+			threadId = thread.getId();
+			startCpuNanos = getCurrentThreadCpuTime();
+			startAllocatedBytes = getCurrentThreadAllocatedBytes();
+			startMillis = System.currentTimeMillis();
+			startNanos = System.nanoTime();
+		}
+
+		private void end() {
+			wallNanos = System.nanoTime() - startNanos;
+			if (Thread.currentThread().getId() == threadId) {
+				long cpu = getCurrentThreadCpuTime();
+				cpuNanos = cpu >= 0 && startCpuNanos >= 0 ? cpu - startCpuNanos : -1;
+				long allocated = getCurrentThreadAllocatedBytes();
+				allocatedBytes = allocated >= 0 && startAllocatedBytes >= 0 ? allocated - startAllocatedBytes : -1;
+			}
+		}
+
+		private void addChild(Phase child) {
+			children.add(child);
+		}
+
+		/**
+		 * Ends this phase
+		 */
+		@Override
+		public void close() {
+			if (this == NOOP || parent == null) {
+				return;
+			}
+			end();
+			Deque<Phase> phases = runningPhases.get();
+			if (phases != null) {
+				phases.remove(this);
+				if (phases.isEmpty()) {
+					runningPhases.remove();
+				}
+			}
+		}
+
+		/**
+		 * @return the name of this phase
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the phases started within this one in the order they were started
+		 */
+		public List<Phase> getChildren() {
+			synchronized (children) {
+				return new ArrayList<>(children);
+			}
+		}
+
+		/**
+		 * @return the wall time of this phase or -1 if it is still running
+		 */
+		public long getWallTimeMillis() {
+			return wallNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(wallNanos);
+		}
+
+		/**
+		 * @return the CPU time used by the thread running this phase or -1 if unknown
+		 */
+		public long getCpuTimeMillis() {
+			return cpuNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(cpuNanos);
+		}
+
+		/**
+		 * @return the bytes allocated by the thread running this phase or -1 if unknown
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+	}
+
+	private static long getCurrentThreadCpuTime() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
+			return threadMXBean.getCurrentThreadCpuTime();
+		}
+		return -1;
+	}
+
+	private static long getCurrentThreadAllocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+			if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+				return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link CohortBitmap} class.
+ */
+public class CohortBitmapTest {
+	
+	@Test
+	public void of_shouldIgnoreNullAndDuplicateIds() {
+		CohortBitmap bitmap = CohortBitmap.of(Arrays.asList(3, null, 1, 3));
+		
+		assertEquals(2, bitmap.size());
+		assertArrayEquals(new int[] { 1, 3 }, bitmap.toArray());
+	}
+	
+	@Test
+	public void contains_shouldReturnTrueOnlyForTheIdsInTheBitmap() {
+		CohortBitmap bitmap = CohortBitmap.of(2, 70000, 1000000);
+		
+		assertTrue(bitmap.contains(70000));
+		assertFalse(bitmap.contains(3));
+		assertFalse(CohortBitmap.EMPTY.contains(2));
+		assertTrue(CohortBitmap.EMPTY.isEmpty());
+	}
+	
+	@Test
+	public void union_shouldReturnTheIdsInEitherBitmap() {
+		assertEquals(CohortBitmap.of(1, 2, 3, 4), CohortBitmap.of(1, 2, 3).union(CohortBitmap.of(3, 4)));
+	}
+	
+	@Test
+	public void intersect_shouldReturnTheIdsInBothBitmaps() {
+		assertEquals(CohortBitmap.of(3), CohortBitmap.of(1, 2, 3).intersect(CohortBitmap.of(3, 4)));
+	}
+	
+	@Test
+	public void subtract_shouldReturnTheIdsNotInTheOtherBitmap() {
+		CohortBitmap a = CohortBitmap.of(1, 2, 3);
+		
+		assertEquals(CohortBitmap.of(1, 2), a.subtract(CohortBitmap.of(3, 4)));
+		assertEquals(3, a.size());
+	}
+	
+	@Test
+	public void iterator_shouldReturnTheIdsInAscendingOrder() {
+		List<Integer> ids = new ArrayList<>();
+		CohortBitmap.of(5, 1, 100000).forEach(ids::add);
+		
+		assertEquals(Arrays.asList(1, 5, 100000), ids);
+		assertEquals(100006, CohortBitmap.of(5, 1, 100000).stream().sum());
+	}
+	
+	@Test
+	public void build_shouldNotChangeBitmapsBuiltBefore() {
+		CohortBitmap.Builder builder = CohortBitmap.builder().add(1);
+		CohortBitmap first = builder.build();
+		builder.add(2);
+		
+		assertEquals(1, first.size());
+		assertEquals(2, builder.build().size());
+	}
+	
+	@Test
+	public void toCohort_shouldCreateActiveMembershipsForAllIds() {
+		Cohort cohort = CohortBitmap.of(4, 8).toCohort();
+		
+		assertEquals(2, cohort.size());
+		assertTrue(cohort.hasActiveMembership(4));
+		assertEquals(CohortBitmap.of(4, 8), cohort.getActiveMemberBitmap());
+	}
+}
@@ -188,6 +188,21 @@ public class CohortTest {
 		assertEquals(cohort.size(), allIds.length);
 	}
 	
+	@Test
+	public void contains_shouldReturnFalseIfTheMembershipsAreNull() {
+		Cohort cohort = new Cohort() {
+			
+			@Override
+			public Collection<CohortMembership> getMemberships() {
+				return null;
+			}
+		};
+		
+		assertFalse(cohort.contains(1));
+		assertFalse(cohort.hasActiveMembership(1));
+		assertTrue(cohort.getActiveMemberBitmap().isEmpty());
+	}
+	
 	@Test
 	public void contains_shouldOnlyContainNonVoidedMembers() {
 		
@@ -336,4 +351,55 @@ public class CohortTest {
 		assertFalse(cohort.hasNoActiveMemberships());
 		
 	}
+	
+	@Test
+	public void contains_shouldReflectMembershipsVoidedAfterTheIndexWasBuilt() {
+		Cohort cohort = new Cohort("1,2,3");
+		assertTrue(cohort.contains(2));
+		
+		CohortMembership membership = cohort.getMemberships().stream().filter(m -> m.getPatientId() == 2).findFirst()
+		        .get();
+		membership.setVoided(true);
+		
+		assertFalse(cohort.contains(2));
+		assertFalse(cohort.hasActiveMembership(2));
+		assertTrue(cohort.contains(3));
+	}
+	
+	@Test
+	public void hasActiveMembership_shouldReflectMembershipsEndedAfterTheIndexWasBuilt() {
+		Cohort cohort = new Cohort();
+		CohortMembership membership = new CohortMembership(4, new Date(System.currentTimeMillis() - 10000));
+		cohort.addMembership(membership);
+		assertTrue(cohort.hasActiveMembership(4));
+		
+		membership.setEndDate(new Date(System.currentTimeMillis() - 5000));
+		
+		assertFalse(cohort.hasActiveMembership(4));
+		assertTrue(cohort.contains(4));
+	}
+	
+	@Test
+	public void hasActiveMembership_shouldReflectMembershipsStartingAfterTheIndexWasBuilt() throws Exception {
+		Cohort cohort = new Cohort();
+		cohort.addMembership(new CohortMembership(5, new Date(System.currentTimeMillis() + 50)));
+		assertFalse(cohort.hasActiveMembership(5));
+		
+		Thread.sleep(100);
+		
+		assertTrue(cohort.hasActiveMembership(5));
+	}
+	
+	@Test
+	public void getActiveMemberBitmap_shouldReturnTheIdsOfTheActiveMembers() throws Exception {
+		Cohort cohort = new Cohort("1,2,3");
+		Date longAgo = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-01");
+		CohortMembership ended = new CohortMembership(7, longAgo);
+		ended.setEndDate(new SimpleDateFormat("yyyy-MM-dd").parse("2001-01-01"));
+		cohort.addMembership(ended);
+		cohort.removeMembership(cohort.getMemberships().stream().filter(m -> m.getPatientId() == 3).findFirst().get());
+		
+		assertEquals(CohortBitmap.of(1, 2), cohort.getActiveMemberBitmap());
+		assertEquals(CohortBitmap.of(7), cohort.getActiveMemberBitmap(new SimpleDateFormat("yyyy-MM-dd").parse("2000-06-01")));
+	}
 }
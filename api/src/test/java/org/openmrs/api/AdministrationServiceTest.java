@@ -24,9 +24,11 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +48,7 @@ import org.openmrs.customdatatype.datatype.BooleanDatatype;
 import org.openmrs.customdatatype.datatype.DateDatatype;
 import org.openmrs.messagesource.MutableMessageSource;
 import org.openmrs.messagesource.impl.MutableResourceBundleMessageSource;
+import org.openmrs.metrics.ServiceMethodMetrics;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.HttpClient;
 import org.openmrs.util.LocaleUtility;
@@ -1114,6 +1117,72 @@ public class AdministrationServiceTest extends BaseContextSensitiveTest {
 		assertThat(getCacheForCurrentUser(), nullValue());
 	}
 
+	@Test
+	public void getServiceMethodMetrics_shouldIncludeTheCallsOfServiceMethods() {
+		adminService.resetMetrics();
+		Context.getPatientService().getPatient(2);
+		Context.getPatientService().getPatient(2);
+		
+		ServiceMethodMetrics metrics = getServiceMethodMetrics(PatientService.class, "getPatient");
+		
+		assertNotNull(metrics);
+		assertEquals(2, metrics.getCount());
+		assertEquals(0, metrics.getErrorCount());
+		assertEquals(2, Arrays.stream(metrics.getBucketCounts()).sum());
+	}
+	
+	@Test
+	public void getServiceMethodMetrics_shouldCountTheCallsThrowingAnException() {
+		adminService.resetMetrics();
+		
+		assertThrows(APIException.class, () -> adminService.setImplementationId(new ImplementationId()));
+		
+		ServiceMethodMetrics metrics = getServiceMethodMetrics(AdministrationService.class, "setImplementationId");
+		assertNotNull(metrics);
+		assertEquals(1, metrics.getErrorCount());
+	}
+	
+	@Test
+	public void resetMetrics_shouldClearTheServiceMethodMetrics() {
+		Context.getPatientService().getPatient(2);
+		
+		adminService.resetMetrics();
+		
+		assertNull(getServiceMethodMetrics(PatientService.class, "getPatient"));
+	}
+	
+	@Test
+	public void getHibernateStatistics_shouldReturnTheHibernateStatistics() {
+		Context.getPatientService().getAllPatients();
+		
+		Map<String, Object> statistics = adminService.getHibernateStatistics();
+		
+		assertTrue(statistics.containsKey("queryExecutionCount"));
+		assertTrue(statistics.containsKey("secondLevelCacheHitRatio"));
+	}
+	
+	@Test
+	public void getMetricsInPrometheusFormat_shouldExportTheServiceMethodMetrics() {
+		adminService.resetMetrics();
+		Context.getPatientService().getPatient(2);
+		
+		String metrics = adminService.getMetricsInPrometheusFormat();
+		
+		String labels = "service=\"" + PatientService.class.getName() + "\",method=\"getPatient\"";
+		assertThat(metrics, containsString("openmrs_service_calls_total{" + labels + "} 1\n"));
+		assertThat(metrics, containsString("openmrs_service_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 1\n"));
+		assertThat(metrics, containsString("# TYPE openmrs_service_duration_seconds histogram\n"));
+	}
+	
+	private ServiceMethodMetrics getServiceMethodMetrics(Class<?> service, String method) {
+		for (ServiceMethodMetrics metrics : adminService.getServiceMethodMetrics()) {
+			if (metrics.getService().equals(service.getName()) && metrics.getMethod().equals(method)) {
+				return metrics;
+			}
+		}
+		return null;
+	}
+	
 	private Cache.ValueWrapper getCacheForCurrentUser(){
 		Object[] params = { Context.getLocale(), Context.getAuthenticatedUser() };
 		Object key = (new SimpleKeyGenerator()).generate(null, null, params);
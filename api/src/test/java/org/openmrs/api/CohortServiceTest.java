@@ -29,6 +29,7 @@ import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
 import org.openmrs.User;
@@ -824,4 +825,47 @@ public class CohortServiceTest extends BaseContextSensitiveTest {
 
 		assertTrue(foundVoidedCohortMembership, "Expected to find a membership from a voided cohort");
 	}
+	
+	/**
+	 * @see CohortService#getActiveMemberBitmap(Cohort, Date)
+	 */
+	@Test
+	public void getActiveMemberBitmap_shouldReturnTheIdsOfTheActiveMembers() throws Exception {
+		executeDataSet(COHORT_XML);
+		Cohort cohort = service.getCohort(2);
+		
+		CohortBitmap bitmap = service.getActiveMemberBitmap(cohort, null);
+		
+		assertEquals(CohortBitmap.of(6), bitmap);
+		assertEquals(cohort.getActiveMemberBitmap(), bitmap);
+		assertEquals(CohortBitmap.of(6), service.getActiveMemberBitmap(cohort, DateUtils.parseDate("2000-06-01", "yyyy-MM-dd")));
+	}
+	
+	/**
+	 * @see CohortService#getActiveMemberBitmap(Cohort, Date)
+	 */
+	@Test
+	public void getActiveMemberBitmap_shouldExcludeVoidedAndEndedMemberships() throws Exception {
+		executeDataSet(COHORT_XML);
+		Cohort cohort = service.getCohort(2);
+		
+		assertTrue(service.getActiveMemberBitmap(cohort, DateUtils.parseDate("2001-06-01", "yyyy-MM-dd")).isEmpty());
+		
+		service.voidCohortMembership(service.getCohortMembershipByUuid("v9a9m5i6-17e6-9d4v-407c-hbi8teu9lf0f"), "test");
+		Context.flushSession();
+		
+		assertTrue(service.getActiveMemberBitmap(cohort, null).isEmpty());
+		assertFalse(cohort.hasActiveMembership(6));
+	}
+	
+	/**
+	 * @see CohortService#getActiveMemberBitmap(Cohort, Date)
+	 */
+	@Test
+	public void getActiveMemberBitmap_shouldUseTheMembershipsOfACohortWhichIsNotSaved() {
+		Cohort cohort = new Cohort("2,7");
+		
+		assertEquals(CohortBitmap.of(2, 7), service.getActiveMemberBitmap(cohort, null));
+		assertTrue(service.getActiveMemberBitmap(null, null).isEmpty());
+	}
 }
@@ -42,10 +42,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import net.sf.ehcache.Ehcache;
 import org.apache.commons.collections.CollectionUtils;
 import org.dbunit.dataset.IDataSet;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -707,6 +710,36 @@ public class ConceptServiceTest extends BaseContextSensitiveTest {
 		assertEquals(numberofconcepts, iteratorCount);
 	}
 	
+	/**
+	 * @see ConceptService#conceptIterator(int)
+	 */
+	@Test
+	public void conceptIterator_shouldIterateOverAllConceptsAcrossPages() {
+		List<Integer> expected = new ArrayList<>();
+		for (Concept concept : conceptService.getAllConcepts()) {
+			expected.add(concept.getConceptId());
+		}
+		Context.clearSession();
+		
+		List<Integer> actual = new ArrayList<>();
+		Iterator<Concept> iterator = conceptService.conceptIterator(2);
+		while (iterator.hasNext()) {
+			Concept concept = iterator.next();
+			assertTrue(Hibernate.isInitialized(concept.getNames()));
+			assertTrue(Hibernate.isInitialized(concept.getConceptMappings()));
+			actual.add(concept.getConceptId());
+		}
+		assertEquals(expected, actual);
+	}
+	
+	/**
+	 * @see ConceptService#conceptIterator(int)
+	 */
+	@Test
+	public void conceptIterator_shouldFailIfThePageSizeIsNotPositive() {
+		assertThrows(IllegalArgumentException.class, () -> conceptService.conceptIterator(0));
+	}
+	
 	/**
 	 * @see ConceptService#saveConcept(Concept)
 	 */
@@ -3910,4 +3943,31 @@ public class ConceptServiceTest extends BaseContextSensitiveTest {
 		assertNull(conceptService.getConceptByReference("id, name or map which does not match to any concept"));
 		assertNull(conceptService.getConceptByReference("1000")); //invalid uuid but exists in standardTestDataset
 	}
+	
+	/**
+	 * @see ConceptService#streamAllConcepts(boolean)
+	 */
+	@Test
+	public void streamAllConcepts_shouldStreamTheConceptsOrderedByConceptId() {
+		List<Integer> expected = new ArrayList<>();
+		for (Concept concept : conceptService.getAllConcepts()) {
+			expected.add(concept.getConceptId());
+		}
+		try (Stream<Concept> concepts = conceptService.streamAllConcepts(true)) {
+			assertEquals(expected, concepts.map(Concept::getConceptId).collect(Collectors.toList()));
+		}
+	}
+	
+	/**
+	 * @see ConceptService#streamAllConcepts(boolean)
+	 */
+	@Test
+	public void streamAllConcepts_shouldExcludeRetiredConceptsWhenSetIncludeRetiredToFalse() {
+		int unretired = conceptService.getAllConcepts(null, true, false).size();
+		try (Stream<Concept> concepts = conceptService.streamAllConcepts(false)) {
+			List<Concept> streamed = concepts.collect(Collectors.toList());
+			assertEquals(unretired, streamed.size());
+			assertFalse(streamed.stream().anyMatch(Concept::getRetired));
+		}
+	}
 }
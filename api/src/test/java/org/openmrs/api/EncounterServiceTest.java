@@ -30,6 +30,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +38,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -81,6 +84,7 @@ import org.openmrs.api.handler.EncounterVisitHandler;
 import org.openmrs.api.handler.ExistingOrNewVisitAssignmentHandler;
 import org.openmrs.api.handler.ExistingVisitAssignmentHandler;
 import org.openmrs.api.handler.NoVisitAssignmentHandler;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
@@ -3235,4 +3239,168 @@ public class EncounterServiceTest extends BaseContextSensitiveTest {
 		assertTrue(allergies.contains(allergy));
 		assertEquals(NAMESPACE + "^" + FORMFIELD_PATH, allergies.iterator().next().getFormNamespaceAndPath());
 	}
+	
+	/**
+	 * @see EncounterService#getEncounters(String,Integer,Integer,Integer,boolean)
+	 */
+	@Test
+	public void getEncounters_shouldReturnFullPagesOfTheEncountersTheUserIsAllowedToView() {
+		EncounterService encounterService = Context.getEncounterService();
+		restrictViewingEncounterType(1);
+		
+		Context.logout();
+		Context.authenticate("test_user", "test");
+		Context.addProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+		List<Encounter> encounters = encounterService.getEncounters(null, 7, 0, 1, false);
+		Context.removeProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+		Context.logout();
+		
+		assertEquals(1, encounters.size());
+		assertEquals(3, encounters.get(0).getEncounterId().intValue());
+	}
+	
+	/**
+	 * @see EncounterService#getEncountersByVisitsAndPatientCount(Patient,boolean,String)
+	 */
+	@Test
+	public void getEncountersByVisitsAndPatientCount_shouldNotCountTheEncountersTheUserIsNotAllowedToView() {
+		EncounterService encounterService = Context.getEncounterService();
+		Patient patient = Context.getPatientService().getPatient(7);
+		int count = encounterService.getEncountersByVisitsAndPatientCount(patient, false, null);
+		long restricted = encounterService.getEncountersByVisitsAndPatient(patient, false, null, null, null).stream()
+		        .filter(e -> e.getEncounterType() != null && e.getEncounterType().getEncounterTypeId() == 1).count();
+		restrictViewingEncounterType(1);
+		
+		Context.logout();
+		Context.authenticate("test_user", "test");
+		Context.addProxyPrivilege(PrivilegeConstants.GET_VISITS);
+		int countForUser = encounterService.getEncountersByVisitsAndPatientCount(patient, false, null);
+		Context.removeProxyPrivilege(PrivilegeConstants.GET_VISITS);
+		Context.logout();
+		
+		assertTrue(restricted > 0);
+		assertEquals(count - restricted, countForUser);
+	}
+	
+	/**
+	 * @see EncounterService#getEncounters(String,Integer,Integer,Integer,boolean)
+	 */
+	@Test
+	public void getEncounters_shouldLeaveOutTheEncounterTypesRestrictedSinceTheUserLastReadEncounters() {
+		EncounterService encounterService = Context.getEncounterService();
+		Context.logout();
+		Context.authenticate("test_user", "test");
+		Context.addProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+		Context.addProxyPrivilege(PrivilegeConstants.GET_ENCOUNTER_TYPES);
+		Context.addProxyPrivilege(PrivilegeConstants.MANAGE_ENCOUNTER_TYPES);
+		Context.addProxyPrivilege(PrivilegeConstants.GET_PRIVILEGES);
+		List<Encounter> before;
+		List<Encounter> after;
+		try {
+			before = encounterService.getEncounters(null, 7, null, null, false);
+			restrictViewingEncounterType(1);
+			after = encounterService.getEncounters(null, 7, null, null, false);
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_ENCOUNTER_TYPES);
+			Context.removeProxyPrivilege(PrivilegeConstants.MANAGE_ENCOUNTER_TYPES);
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_PRIVILEGES);
+			Context.logout();
+		}
+	
+		assertTrue(before.stream().anyMatch(e -> e.getEncounterType().getEncounterTypeId() == 1));
+		assertFalse(after.isEmpty());
+		assertTrue(after.stream().noneMatch(e -> e.getEncounterType().getEncounterTypeId() == 1));
+	}
+	
+	private void restrictViewingEncounterType(int encounterTypeId) {
+		EncounterType encounterType = Context.getEncounterService().getEncounterType(encounterTypeId);
+		encounterType.setViewPrivilege(Context.getUserService().getPrivilege("Some Privilege For View Encounter Types"));
+		Context.getEncounterService().saveEncounterType(encounterType);
+		Context.flushSession();
+	}
+	
+	/**
+	 * @see EncounterService#streamEncounters(EncounterSearchCriteria)
+	 */
+	@Test
+	public void streamEncounters_shouldStreamTheSameEncountersAsGetEncounters() {
+		EncounterSearchCriteria criteria = new EncounterSearchCriteriaBuilder().setIncludeVoided(true)
+		        .createEncounterSearchCriteria();
+		List<Encounter> expected = Context.getEncounterService().getEncounters(criteria);
+		
+		try (Stream<Encounter> encounters = Context.getEncounterService().streamEncounters(criteria)) {
+			assertEquals(new HashSet<>(expected), encounters.collect(Collectors.toSet()));
+		}
+	}
+	
+	/**
+	 * @see EncounterService#streamEncounters(EncounterSearchCriteria)
+	 */
+	@Test
+	public void streamEncounters_shouldNotStreamTheEncountersTheUserIsNotAllowedToView() {
+		EncounterSearchCriteria criteria = new EncounterSearchCriteriaBuilder()
+		        .setPatient(Context.getPatientService().getPatient(7)).createEncounterSearchCriteria();
+		restrictViewingEncounterType(1);
+		
+		Context.logout();
+		Context.authenticate("test_user", "test");
+		Context.addProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+		Context.addProxyPrivilege(PrivilegeConstants.GET_PATIENTS);
+		List<Encounter> encounters;
+		try (Stream<Encounter> stream = Context.getEncounterService().streamEncounters(criteria)) {
+			encounters = stream.collect(Collectors.toList());
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_ENCOUNTERS);
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_PATIENTS);
+			Context.logout();
+		}
+		
+		assertFalse(encounters.isEmpty());
+		assertTrue(encounters.stream().noneMatch(e -> e.getEncounterType().getEncounterTypeId() == 1));
+	}
+	
+	/**
+	 * @see EncounterService#getEncountersPage(EncounterSearchCriteria, String, int)
+	 */
+	@Test
+	public void getEncountersPage_shouldPageThroughTheSameEncountersAsGetEncounters() {
+		EncounterSearchCriteria criteria = new EncounterSearchCriteriaBuilder().setIncludeVoided(true)
+		        .createEncounterSearchCriteria();
+		List<Encounter> expected = new ArrayList<>(Context.getEncounterService().getEncounters(criteria));
+		expected.sort(Comparator.comparing(Encounter::getEncounterDatetime).thenComparing(Encounter::getEncounterId));
+		
+		List<Encounter> actual = new ArrayList<>();
+		String token = null;
+		do {
+			KeysetPage<Encounter> page = Context.getEncounterService().getEncountersPage(criteria, token, 3);
+			actual.addAll(page.getList());
+			token = page.getNextToken();
+		} while (token != null);
+		
+		assertEquals(expected, actual);
+	}
+	
+	/**
+	 * @see EncounterService#getEncountersPage(EncounterSearchCriteria, String, int)
+	 */
+	@Test
+	public void getEncountersPage_shouldOrderEncountersWithTheSameEncounterDatetimeByEncounterId() {
+		Encounter encounter = Context.getEncounterService().getEncounter(3);
+		Encounter other = Context.getEncounterService().getEncounter(4);
+		other.setEncounterDatetime(encounter.getEncounterDatetime());
+		Context.getEncounterService().saveEncounter(other);
+		EncounterSearchCriteria criteria = new EncounterSearchCriteriaBuilder().setPatient(encounter.getPatient())
+		        .setFromDate(encounter.getEncounterDatetime()).setToDate(encounter.getEncounterDatetime())
+		        .createEncounterSearchCriteria();
+		
+		KeysetPage<Encounter> first = Context.getEncounterService().getEncountersPage(criteria, null, 1);
+		KeysetPage<Encounter> second = Context.getEncounterService().getEncountersPage(criteria, first.getNextToken(), 1);
+		
+		assertEquals(encounter, first.getList().get(0));
+		assertEquals(other, second.getList().get(0));
+		assertFalse(second.hasNext());
+	}
 }
@@ -26,11 +26,15 @@ import java.io.CharArrayReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -39,8 +43,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -52,9 +61,12 @@ import org.openmrs.Order;
 import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.db.hibernate.HibernateUtil;
 import org.openmrs.api.impl.ObsServiceImpl;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.obs.Flowsheet;
 import org.openmrs.obs.handler.BinaryDataHandler;
 import org.openmrs.obs.handler.ImageHandler;
 import org.openmrs.obs.handler.TextHandler;
@@ -1969,4 +1981,266 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 		assertThat(existing.getVoided(), is(true));
 		assertThat(newObs.getStatus(), is(Obs.Status.FINAL));
 	}
+	
+	/**
+	 * @see ObsService#streamObservations(List, List, List, List, List, List, List, Integer, Date, Date, boolean, String)
+	 */
+	@Test
+	public void streamObservations_shouldStreamTheSameObsAsGetObservations() {
+		ObsService obsService = Context.getObsService();
+		List<Obs> expected = obsService.getObservations(null, null, null, null, null, null, null, null, null, null, null,
+		    true, null);
+		
+		try (Stream<Obs> obs = obsService.streamObservations(null, null, null, null, null, null,
+		    Collections.singletonList("obsId asc"), null, null, null, true, null)) {
+			assertEquals(new HashSet<>(expected), obs.collect(Collectors.toSet()));
+		}
+	}
+	
+	/**
+	 * @see ObsService#streamObservations(List, List, List, List, List, List, List, Integer, Date, Date, boolean, String)
+	 */
+	@Test
+	public void streamObservations_shouldNotIncludeVoidedObs() {
+		ObsService obsService = Context.getObsService();
+		int count = obsService.getObservationCount(null, null, null, null, null, null, null, null, null, false);
+		
+		try (Stream<Obs> obs = obsService.streamObservations(null, null, null, null, null, null, null, null, null, null,
+		    false, null)) {
+			List<Obs> streamed = obs.collect(Collectors.toList());
+			assertEquals(count, streamed.size());
+			assertTrue(streamed.stream().noneMatch(Obs::getVoided));
+		}
+	}
+	
+	/**
+	 * @see ObsService#streamObservations(List, List, List, List, List, List, List, Integer, Date, Date, boolean, String)
+	 */
+	@Test
+	public void streamObservations_shouldDetachTheObsInBatchesWhenStreamingMoreThanOneBatch() throws SQLException {
+		int added = HibernateUtil.STREAM_FETCH_SIZE + 10;
+		try (PreparedStatement insert = getConnection().prepareStatement(
+		    "insert into obs (person_id, concept_id, obs_datetime, location_id, value_numeric, creator, date_created, "
+		            + "voided, status, uuid) values (7, 5089, ?, 1, ?, 1, ?, false, 'FINAL', ?)")) {
+			for (int i = 0; i < added; i++) {
+				Timestamp date = new Timestamp(System.currentTimeMillis());
+				insert.setTimestamp(1, date);
+				insert.setDouble(2, i);
+				insert.setTimestamp(3, date);
+				insert.setString(4, UUID.randomUUID().toString());
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+		ObsService obsService = Context.getObsService();
+		int count = obsService.getObservationCount(null, null, null, null, null, null, null, null, null, false);
+		Session session = ((SessionFactory) applicationContext.getBean("sessionFactory")).getCurrentSession();
+		
+		List<Obs> streamed = new ArrayList<>();
+		try (Stream<Obs> obs = obsService.streamObservations(null, null, null, null, null, null,
+		    Collections.singletonList("obsId asc"), null, null, null, false, null)) {
+			obs.forEach(o -> {
+				streamed.add(o);
+				if (streamed.size() == HibernateUtil.STREAM_FETCH_SIZE + 1) {
+					// the first batch was detached when moving on to the second one
+					assertFalse(session.contains(streamed.get(0)));
+					assertTrue(session.contains(o));
+				}
+			});
+		}
+		
+		assertTrue(count > HibernateUtil.STREAM_FETCH_SIZE);
+		assertEquals(count, streamed.size());
+		for (int i = 1; i < streamed.size(); i++) {
+			assertTrue(streamed.get(i).getObsId() > streamed.get(i - 1).getObsId());
+		}
+	}
+	
+	/**
+	 * @see ObsService#getObservationsPage(List, List, List, List, List, List, Integer, Date, Date,
+	 *      boolean, String, String, int)
+	 */
+	@Test
+	public void getObservationsPage_shouldPageThroughTheSameObsAsGetObservations() {
+		ObsService obsService = Context.getObsService();
+		List<Obs> expected = obsService.getObservations(null, null, null, null, null, null,
+		    Arrays.asList("obsDatetime", "obsId"), null, null, null, null, false, null);
+		
+		List<Obs> actual = new ArrayList<>();
+		String token = null;
+		do {
+			KeysetPage<Obs> page = obsService.getObservationsPage(null, null, null, null, null, null, null, null, null,
+			    false, null, token, 4);
+			actual.addAll(page.getList());
+			token = page.getNextToken();
+		} while (token != null);
+		
+		assertEquals(expected, actual);
+	}
+	
+	/**
+	 * @see ObsService#getObservationsPage(List, List, List, List, List, List, Integer, Date, Date,
+	 *      boolean, String, String, int)
+	 */
+	@Test
+	public void getObservationsPage_shouldFailIfTheLengthIsNotPositive() {
+		assertThrows(IllegalArgumentException.class, () -> Context.getObsService().getObservationsPage(null, null,
+		    null, null, null, null, null, null, null, false, null, null, 0));
+	}
+	
+	/**
+	 * @see ObsService#rebuildLatestObs()
+	 */
+	@Test
+	public void rebuildLatestObs_shouldPointToTheSameObsAsGetObservationsWithMostRecentOne() {
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		
+		Map<Integer, Map<Integer, Obs>> expected = new HashMap<>();
+		Comparator<Obs> mostRecent = Comparator.comparing(Obs::getObsDatetime).thenComparing(Obs::getObsId);
+		for (Obs obs : obsService.getObservations(null, null, null, null, null, null, null, null, null, null, null,
+		    false)) {
+			expected.computeIfAbsent(obs.getPerson().getPersonId(), personId -> new HashMap<>()).merge(
+			    obs.getConcept().getConceptId(), obs, (a, b) -> mostRecent.compare(a, b) >= 0 ? a : b);
+		}
+		Set<Integer> conceptIds = expected.values().stream().flatMap(obs -> obs.keySet().stream())
+		        .collect(Collectors.toSet());
+		
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, obsService.getLatestObs(expected.keySet(), conceptIds));
+	}
+	
+	/**
+	 * @see ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Test
+	public void getLatestObs_shouldReturnTheMostRecentObsOfEachConceptForEachPerson() {
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		Obs obs = new Obs(new Person(7), Context.getConceptService().getConcept(5089), new Date(), null);
+		obs.setValueNumeric(70.0);
+		obsService.saveObs(obs, null);
+		
+		Map<Integer, Map<Integer, Obs>> latestObs = obsService.getLatestObs(Arrays.asList(7, 8), Arrays.asList(5089));
+		
+		assertEquals(obs, latestObs.get(7).get(5089));
+		assertNull(latestObs.get(8));
+		assertTrue(obsService.getLatestObs(Collections.emptyList(), Arrays.asList(5089)).isEmpty());
+	}
+	
+	/**
+	 * @see ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Test
+	public void getLatestObs_shouldReturnThePreviousObsAfterTheMostRecentOneIsVoided() {
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		Obs previous = obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089)).get(7).get(5089);
+		Obs obs = new Obs(new Person(7), Context.getConceptService().getConcept(5089), new Date(), null);
+		obs.setValueNumeric(70.0);
+		obsService.saveObs(obs, null);
+		
+		obsService.voidObs(obs, "wrong patient");
+		
+		assertEquals(previous, obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089)).get(7).get(5089));
+	}
+	
+	/**
+	 * @see ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Test
+	public void getLatestObs_shouldReturnThePreviousObsAfterTheMostRecentOneIsEditedToAnEarlierDate()
+	        throws ParseException {
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		Obs obs = obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089)).get(7).get(5089);
+		assertEquals(Integer.valueOf(16), obs.getObsId());
+		
+		obs.setObsDatetime(new SimpleDateFormat("yyyy-MM-dd").parse("2008-01-01"));
+		obsService.saveObs(obs, "wrong date");
+		
+		Obs latest = obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089)).get(7).get(5089);
+		assertEquals(Integer.valueOf(10), latest.getObsId());
+	}
+	
+	/**
+	 * @see ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Test
+	public void getLatestObs_shouldReturnThePreviousObsAfterTheConceptOfTheMostRecentOneIsChanged() {
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		Obs obs = obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089)).get(7).get(5089);
+		assertEquals(Integer.valueOf(16), obs.getObsId());
+		
+		obs.setConcept(Context.getConceptService().getConcept(5497));
+		Obs newObs = obsService.saveObs(obs, "wrong concept");
+		
+		Map<Integer, Obs> latest = obsService.getLatestObs(Arrays.asList(7), Arrays.asList(5089, 5497)).get(7);
+		assertEquals(Integer.valueOf(10), latest.get(5089).getObsId());
+		assertEquals(newObs, latest.get(5497));
+	}
+	
+	/**
+	 * @see ObsService#getLatestObs(java.util.Collection, java.util.Collection)
+	 */
+	@Test
+	public void getLatestObs_shouldReturnThePreviousObsOfTheGroupMembersAfterTheGroupIsVoided() {
+		executeDataSet(INITIAL_OBS_XML);
+		ObsService obsService = Context.getObsService();
+		obsService.rebuildLatestObs();
+		Map<Integer, Map<Integer, Obs>> latestObs = obsService.getLatestObs(Arrays.asList(2, 9), Arrays.asList(1, 21));
+		assertEquals(Integer.valueOf(9), latestObs.get(9).get(1).getObsId());
+		assertEquals(Integer.valueOf(18), latestObs.get(2).get(21).getObsId());
+		
+		// voids the members 9, 10 and 17 and the member 18 of 17 along with it
+		obsService.voidObs(obsService.getObs(2), "testing");
+		
+		latestObs = obsService.getLatestObs(Arrays.asList(2, 9), Arrays.asList(1, 21));
+		assertNull(latestObs.get(9));
+		assertEquals(Integer.valueOf(1), latestObs.get(2).get(1).getObsId());
+		assertEquals(Integer.valueOf(11), latestObs.get(2).get(21).getObsId());
+	}
+	
+	/**
+	 * @see ObsService#getFlowsheet(Person, List, Date, Date)
+	 */
+	@Test
+	public void getFlowsheet_shouldGetTheValuesOfTheObsOfTheConceptsAndOfTheMembersOfConceptSets() {
+		ConceptService conceptService = Context.getConceptService();
+		Flowsheet flowsheet = Context.getObsService().getFlowsheet(new Person(7),
+		    Arrays.asList(conceptService.getConcept(5089), conceptService.getConcept(23)), null, null);
+		
+		assertEquals(new HashSet<>(Arrays.asList(5089, 18, 19, 20)), new HashSet<>(flowsheet.getColumnConceptIds()));
+		assertEquals(6, flowsheet.size());
+		int[] weights = flowsheet.getRows(5089);
+		assertEquals(3, weights.length);
+		assertEquals(Integer.valueOf(7), flowsheet.getObsId(weights[0]));
+		assertEquals(Double.valueOf(50.0), flowsheet.getValueNumeric(weights[0]));
+		assertEquals(Double.valueOf(61.0), flowsheet.getValueNumeric(weights[2]));
+		assertNull(flowsheet.getValueCoded(weights[0]));
+		int coded = flowsheet.getRows(18)[0];
+		assertEquals(Integer.valueOf(13), flowsheet.getObsId(coded));
+		assertEquals(Integer.valueOf(7), flowsheet.getValueCoded(coded));
+		assertNull(flowsheet.getValueNumeric(coded));
+		assertEquals("PB and J", flowsheet.getValueText(flowsheet.getRows(19)[0]));
+		for (int row = 1; row < flowsheet.size(); row++) {
+			assertFalse(flowsheet.getObsDatetime(row).before(flowsheet.getObsDatetime(row - 1)));
+		}
+	}
+	
+	/**
+	 * @see ObsService#getFlowsheet(Person, List, Date, Date)
+	 */
+	@Test
+	public void getFlowsheet_shouldOnlyGetTheObsInTheDateRange() throws ParseException {
+		DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+		Flowsheet flowsheet = Context.getObsService().getFlowsheet(new Person(7),
+		    Arrays.asList(Context.getConceptService().getConcept(5089)), dateFormat.parse("2008-08-01"),
+		    dateFormat.parse("2008-08-15"));
+		
+		assertEquals(1, flowsheet.size());
+		assertEquals(Integer.valueOf(10), flowsheet.getObsId(0));
+		assertEquals(Double.valueOf(55.0), flowsheet.getValueNumeric(0));
+	}
 }
@@ -266,6 +266,36 @@ public class OrderServiceTest extends BaseContextSensitiveTest {
 		assertEquals(N, uniqueOrderNumbers.size());
 	}
 
+	/**
+	 * @see OrderNumberGenerator#getNewOrderNumber(OrderContext)
+	 */
+	@Test
+	public void getNewOrderNumber_shouldHandOutConsecutiveNumbersFromAReservedBlock() {
+		GlobalProperty blockSize = new GlobalProperty(OpenmrsConstants.GP_ORDER_NUMBER_SEED_BLOCK_SIZE, "10");
+		Context.getAdministrationService().saveGlobalProperty(blockSize);
+		try {
+			OrderNumberGenerator generator = (OrderNumberGenerator) orderService;
+			long firstSeed = Long.parseLong(generator.getNewOrderNumber(null).substring("ORD-".length()));
+			for (int i = 1; i < 10; i++) {
+				assertEquals("ORD-" + (firstSeed + i), generator.getNewOrderNumber(null));
+			}
+		}
+		finally {
+			blockSize.setPropertyValue("1");
+			Context.getAdministrationService().saveGlobalProperty(blockSize);
+		}
+	}
+	
+	/**
+	 * @see OrderService#getNextOrderNumberSeedSequenceValue(int)
+	 */
+	@Test
+	public void getNextOrderNumberSeedSequenceValue_shouldReserveConsecutiveSeeds() {
+		Long firstBlock = orderService.getNextOrderNumberSeedSequenceValue(5);
+		Long secondBlock = orderService.getNextOrderNumberSeedSequenceValue(5);
+		assertEquals(firstBlock + 5, (long) secondBlock);
+	}
+	
 	/**
 	 * @see OrderService#getOrderByOrderNumber(String)
 	 */
@@ -40,6 +40,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.hamcrest.Description;
@@ -59,6 +60,7 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientIdentifierType.UniquenessBehavior;
 import org.openmrs.PatientProgram;
+import org.openmrs.PatientSummary;
 import org.openmrs.Person;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttribute;
@@ -70,6 +72,7 @@ import org.openmrs.Visit;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.PatientServiceImpl;
 import org.openmrs.api.impl.PatientServiceImplTest;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.comparator.PatientIdentifierTypeDefaultComparator;
 import org.openmrs.patient.IdentifierValidator;
 import org.openmrs.patient.impl.LuhnIdentifierValidator;
@@ -3294,4 +3297,87 @@ public class PatientServiceTest extends BaseContextSensitiveTest {
 		assertEquals(patientIdentifier.iterator().next().getIdentifier(), "XXXCCCAAA11");
 	}
 
+	
+	@Test
+	public void streamAllPatients_shouldStreamTheSamePatientsAsGetAllPatients() {
+		for (boolean includeVoided : new boolean[] { false, true }) {
+			List<Integer> expected = patientService.getAllPatients(includeVoided).stream().map(Patient::getPatientId)
+			        .sorted().collect(Collectors.toList());
+			try (Stream<Patient> patients = patientService.streamAllPatients(includeVoided)) {
+				assertEquals(expected, patients.map(Patient::getPatientId).collect(Collectors.toList()));
+			}
+		}
+	}
+	
+	@Test
+	public void getPatientsPage_shouldPageThroughAllThePatientsOrderedByPatientId() {
+		List<Integer> expected = patientService.getAllPatients(true).stream().map(Patient::getPatientId).sorted()
+		        .collect(Collectors.toList());
+		
+		List<Integer> actual = new ArrayList<>();
+		String token = null;
+		do {
+			KeysetPage<Patient> page = patientService.getPatientsPage(true, token, 2);
+			assertTrue(page.getList().size() <= 2);
+			page.getList().forEach(p -> actual.add(p.getPatientId()));
+			token = page.getNextToken();
+		} while (token != null);
+		
+		assertEquals(expected, actual);
+	}
+	
+	@Test
+	public void getPatientsPage_shouldFailIfTheContinuationTokenIsInvalid() {
+		assertThrows(IllegalArgumentException.class, () -> patientService.getPatientsPage(false, "invalid", 2));
+	}
+	
+	@Test
+	public void getPatientSummaries_shouldGetTheSummariesInTheOrderOfTheGivenIds() {
+		List<PatientSummary> summaries = patientService.getPatientSummaries(Arrays.asList(7, 2));
+		
+		assertEquals(Arrays.asList(7, 2), summaries.stream().map(PatientSummary::getPatientId).collect(Collectors.toList()));
+	}
+	
+	@Test
+	public void getPatientSummaries_shouldUseThePreferredNameAndIdentifier() {
+		Patient patient = patientService.getPatient(2);
+		
+		PatientSummary summary = patientService.getPatientSummaries(Collections.singletonList(2)).get(0);
+		
+		assertEquals(patient.getUuid(), summary.getUuid());
+		assertEquals(patient.getGivenName(), summary.getGivenName());
+		assertEquals(patient.getMiddleName(), summary.getMiddleName());
+		assertEquals(patient.getFamilyName(), summary.getFamilyName());
+		assertEquals("Horatio Test Hornblower", summary.getFullName());
+		assertEquals(patient.getPatientIdentifier().getIdentifier(), summary.getIdentifier());
+		assertEquals(patient.getPatientIdentifier().getIdentifierType().getName(), summary.getIdentifierType());
+		assertEquals(patient.getGender(), summary.getGender());
+		assertEquals(patient.getBirthdate().getTime(), summary.getBirthdate().getTime());
+		assertEquals(patient.getAge(), summary.getAge());
+		assertEquals(patient.getDead(), summary.getDead());
+		
+		// patient 7 has no preferred name
+		assertEquals("Collet", patientService.getPatientSummaries(Collections.singletonList(7)).get(0).getGivenName());
+	}
+	
+	@Test
+	public void getPatientSummaries_shouldSkipIdsOfPatientsWhichDoNotExist() {
+		List<PatientSummary> summaries = patientService.getPatientSummaries(Arrays.asList(2, 99999));
+		
+		assertEquals(1, summaries.size());
+		assertEquals(Integer.valueOf(2), summaries.get(0).getPatientId());
+	}
+	
+	@Test
+	public void getPatientSummaries_shouldGetTheSummariesOfTheSamePatientsAsGetPatients() {
+		updateSearchIndex();
+		
+		List<Integer> expected = patientService.getPatients("Hornblower", false, 0, null).stream()
+		        .map(Patient::getPatientId).collect(Collectors.toList());
+		List<Integer> actual = patientService.getPatientSummaries("Hornblower", false, 0, null).stream()
+		        .map(PatientSummary::getPatientId).collect(Collectors.toList());
+		
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, actual);
+	}
 }
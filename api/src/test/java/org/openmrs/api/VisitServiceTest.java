@@ -874,6 +874,41 @@ public class VisitServiceTest extends BaseContextSensitiveTest {
 		assertTrue(activeVisitCount == 0, "Not all active unvoided vists were closed");
 	}
 	
+	@Test
+	public void stopVisits_shouldStopAtMostTheGivenNumberOfVisits() {
+		executeDataSet("org/openmrs/api/include/VisitServiceTest-includeVisitsAndTypeToAutoClose.xml");
+		String[] visitTypeNames = StringUtils.split(Context.getAdministrationService().getGlobalProperty(
+		    OpenmrsConstants.GP_VISIT_TYPES_TO_AUTO_CLOSE), ",");
+		
+		String openVisitsQuery = "SELECT visit_id FROM visit WHERE voided = false AND date_stopped IS NULL AND visit_type_id IN (SELECT visit_type_id FROM visit_type WHERE NAME IN ('"
+		        + StringUtils.join(visitTypeNames, "','") + "'))";
+		int activeVisitCount = Context.getAdministrationService().executeSQL(openVisitsQuery, true).size();
+		assertTrue(activeVisitCount > 1, "There should be several active visits for this test to be valid");
+		
+		assertEquals(1, visitService.stopVisits(null, 1));
+		
+		assertEquals(activeVisitCount - 1, Context.getAdministrationService().executeSQL(openVisitsQuery, true).size());
+		List<List<Object>> changedVisits = Context.getAdministrationService().executeSQL(
+		    "SELECT visit_id FROM visit WHERE date_stopped IS NOT NULL AND changed_by IS NOT NULL AND date_changed IS NOT NULL",
+		    true);
+		assertEquals(1, changedVisits.size());
+	}
+	
+	@Test
+	public void stopVisits_shouldFailIfTheBatchSizeIsNotGreaterThan0() {
+		assertThrows(IllegalArgumentException.class, () -> visitService.stopVisits(null, 0));
+	}
+	
+	@Test
+	public void stopVisits_shouldNotLeaveStaleVisitsInTheSession() {
+		executeDataSet("org/openmrs/api/include/VisitServiceTest-includeVisitsAndTypeToAutoClose.xml");
+		assertNull(visitService.getVisit(104).getStopDatetime());
+		
+		assertTrue(visitService.stopVisits(null, Integer.MAX_VALUE) > 0);
+		
+		assertNotNull(visitService.getVisit(104).getStopDatetime());
+	}
+	
 	/**
 	 * @see VisitService#saveVisit(Visit)
 	 */
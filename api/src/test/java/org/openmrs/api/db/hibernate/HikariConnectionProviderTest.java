@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.metrics.Counter;
+import org.openmrs.metrics.Gauge;
+import org.openmrs.metrics.InMemoryMetricsRegistry;
+import org.openmrs.metrics.MetricsRegistry;
+
+public class HikariConnectionProviderTest {
+
+	private HikariConnectionProvider connectionProvider;
+
+	@AfterEach
+	public void after() {
+		if (connectionProvider != null) {
+			connectionProvider.stop();
+		}
+	}
+
+	@Test
+	public void isSelected_shouldBeTrueOnlyIfTheHikariPoolIsAskedFor() {
+		assertTrue(HikariConnectionProvider.isSelected(
+		    Collections.singletonMap(HikariConnectionProvider.CONNECTION_POOL_PROPERTY, " Hikari")));
+		assertFalse(HikariConnectionProvider.isSelected(
+		    Collections.singletonMap(HikariConnectionProvider.CONNECTION_POOL_PROPERTY, "c3p0")));
+		assertFalse(HikariConnectionProvider.isSelected(Collections.emptyMap()));
+	}
+
+	@Test
+	public void configure_shouldCarryOverTheC3p0Settings() {
+		Map<String, Object> settings = createSettings();
+		settings.put("hibernate.c3p0.max_size", "7");
+		settings.put("hibernate.c3p0.min_size", "1");
+		settings.put("hibernate.c3p0.timeout", "100");
+
+		HikariDataSource dataSource = configure(settings);
+
+		assertEquals(7, dataSource.getMaximumPoolSize());
+		assertEquals(1, dataSource.getMinimumIdle());
+		assertEquals(TimeUnit.SECONDS.toMillis(100), dataSource.getIdleTimeout());
+		assertFalse(dataSource.isAutoCommit());
+	}
+
+	@Test
+	public void configure_shouldPreferTheHikariSettingsOverTheC3p0Settings() {
+		Map<String, Object> settings = createSettings();
+		settings.put("hibernate.c3p0.max_size", "7");
+		settings.put("hibernate.hikari.maximumPoolSize", "3");
+
+		HikariDataSource dataSource = configure(settings);
+
+		assertEquals(3, dataSource.getMaximumPoolSize());
+	}
+
+	@Test
+	public void registerMetrics_shouldPublishTheConnectionsAndTheAcquisitionTime() throws SQLException {
+		configure(createSettings());
+		MetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+		connectionProvider.registerMetrics(metricsRegistry);
+
+		Connection connection = connectionProvider.getConnection();
+		assertEquals(1, getGauge(metricsRegistry, "connection_pool_active_connections").getValue());
+		connectionProvider.closeConnection(connection);
+
+		assertEquals(0, getGauge(metricsRegistry, "connection_pool_active_connections").getValue());
+		assertEquals(0, getGauge(metricsRegistry, "connection_pool_pending_threads").getValue());
+		assertTrue(getGauge(metricsRegistry, "connection_pool_timeouts_total") instanceof Counter);
+		assertEquals(0, getGauge(metricsRegistry, "connection_pool_timeouts_total").getValue());
+		assertEquals("connection_pool_acquire_seconds", metricsRegistry.getHistograms().get(0).getName());
+		assertEquals(1, metricsRegistry.getHistograms().get(0).getCount());
+	}
+
+	private Map<String, Object> createSettings() {
+		Map<String, Object> settings = new HashMap<>();
+		settings.put(AvailableSettings.DRIVER, "org.h2.Driver");
+		settings.put(AvailableSettings.URL, "jdbc:h2:mem:hikari;DB_CLOSE_DELAY=-1");
+		settings.put(AvailableSettings.USER, "sa");
+		settings.put(AvailableSettings.PASS, "");
+		return settings;
+	}
+
+	private HikariDataSource configure(Map<String, Object> settings) {
+		connectionProvider = new HikariConnectionProvider();
+		connectionProvider.configure(settings);
+		return connectionProvider.unwrap(HikariDataSource.class);
+	}
+
+	private Gauge getGauge(MetricsRegistry metricsRegistry, String name) {
+		return metricsRegistry.getGauges().stream().filter(gauge -> gauge.getName().equals(name)).findFirst().get();
+	}
+}
@@ -0,0 +1,213 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ReplicaRoutingConnectionProvider} with two in-memory databases, each of which
+ * holds its own name.
+ */
+public class ReplicaRoutingConnectionProviderTest {
+
+	private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+
+	private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+	private StandardServiceRegistry serviceRegistry;
+
+	private ReplicaRoutingConnectionProvider connectionProvider;
+
+	@BeforeEach
+	public void before() throws SQLException {
+		createDatabase(PRIMARY_URL, "primary");
+		createDatabase(REPLICA_URL, "replica");
+		serviceRegistry = new StandardServiceRegistryBuilder().build();
+	}
+
+	@AfterEach
+	public void after() {
+		ReplicaRoutingConnectionProvider.setRoutingKey(null);
+		if (connectionProvider != null) {
+			connectionProvider.stop();
+		}
+		StandardServiceRegistryBuilder.destroy(serviceRegistry);
+	}
+
+	@Test
+	public void getConnection_shouldRouteReadOnlyConnectionsToTheReplica() throws SQLException {
+		createConnectionProvider(Collections.emptyMap());
+
+		Connection connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+
+		assertEquals("replica", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	@Test
+	public void getConnection_shouldRouteReadWriteConnectionsToThePrimary() throws SQLException {
+		createConnectionProvider(Collections.emptyMap());
+
+		Connection connection = connectionProvider.getConnection();
+
+		assertEquals("primary", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	@Test
+	public void getConnection_shouldRouteTheConnectionAgainAfterAReadOnlyTransaction() throws SQLException {
+		createConnectionProvider(Collections.emptyMap());
+
+		Connection connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+		assertEquals("replica", getDatabaseName(connection));
+		connection.commit();
+		connection.setReadOnly(false);
+
+		assertEquals("primary", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	@Test
+	public void getConnection_shouldKeepReadsOnThePrimaryAfterAWriteWithTheSameRoutingKey() throws SQLException {
+		createConnectionProvider(Collections.emptyMap());
+		ReplicaRoutingConnectionProvider.setRoutingKey("session");
+
+		Connection connection = connectionProvider.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("update database_name set lag = 0");
+		}
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+
+		connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+		assertEquals("primary", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+
+		ReplicaRoutingConnectionProvider.setRoutingKey("another session");
+		connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+		assertEquals("replica", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	@Test
+	public void getConnection_shouldForgetTheExpiredRoutingKeysWithoutAHealthCheck() throws Exception {
+		createConnectionProvider(
+		    Collections.singletonMap(ReplicaRoutingConnectionProvider.STICKY_PRIMARY_SECONDS_PROPERTY, "1"));
+
+		ReplicaRoutingConnectionProvider.setRoutingKey("expired session");
+		write();
+		ReplicaRoutingConnectionProvider.setRoutingKey("another expired session");
+		write();
+		assertEquals(2, connectionProvider.getStickyPrimaryKeyCount());
+		Thread.sleep(1100);
+
+		Connection connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+		assertEquals("replica", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+		assertEquals(1, connectionProvider.getStickyPrimaryKeyCount());
+
+		ReplicaRoutingConnectionProvider.setRoutingKey("session");
+		write();
+		assertEquals(1, connectionProvider.getStickyPrimaryKeyCount());
+	}
+
+	@Test
+	public void checkReplicas_shouldStopRoutingToReplicasLaggingBehindTooMuch() throws SQLException {
+		Map<String, Object> settings = new HashMap<>();
+		settings.put(ReplicaRoutingConnectionProvider.LAG_QUERY_PROPERTY, "select lag from database_name");
+		settings.put(ReplicaRoutingConnectionProvider.MAX_LAG_SECONDS_PROPERTY, "10");
+		createConnectionProvider(settings);
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+		        Statement statement = connection.createStatement()) {
+			statement.executeUpdate("update database_name set lag = 60");
+		}
+
+		connectionProvider.checkReplicas();
+
+		assertTrue(connectionProvider.getHealthyReplicaUrls().isEmpty());
+		Connection connection = connectionProvider.getConnection();
+		connection.setReadOnly(true);
+		assertEquals("primary", getDatabaseName(connection));
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	private void write() throws SQLException {
+		Connection connection = connectionProvider.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("update database_name set lag = 0");
+		}
+		connection.commit();
+		connectionProvider.closeConnection(connection);
+	}
+
+	private void createConnectionProvider(Map<String, Object> extraSettings) {
+		Map<String, Object> settings = new HashMap<>();
+		settings.put(AvailableSettings.DRIVER, "org.h2.Driver");
+		settings.put(AvailableSettings.URL, PRIMARY_URL);
+		settings.put(AvailableSettings.USER, "sa");
+		settings.put(AvailableSettings.PASS, "");
+		settings.put("hibernate.c3p0.min_size", "0");
+		settings.put("hibernate.c3p0.max_size", "2");
+		settings.put(ReplicaRoutingConnectionProvider.REPLICA_URLS_PROPERTY, REPLICA_URL);
+		settings.put(ReplicaRoutingConnectionProvider.HEALTH_CHECK_INTERVAL_SECONDS_PROPERTY, "0");
+		settings.putAll(extraSettings);
+
+		connectionProvider = new ReplicaRoutingConnectionProvider();
+		connectionProvider.injectServices((ServiceRegistryImplementor) serviceRegistry);
+		connectionProvider.configure(settings);
+	}
+
+	private void createDatabase(String url, String name) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+		        Statement statement = connection.createStatement()) {
+			statement.execute("drop table if exists database_name");
+			statement.execute("create table database_name (name varchar(10), lag int)");
+			statement.execute("insert into database_name values ('" + name + "', 0)");
+		}
+	}
+
+	private String getDatabaseName(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+		        ResultSet resultSet = statement.executeQuery("select name from database_name")) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class StatementMonitorTest extends BaseContextSensitiveTest {
+	
+	@Autowired
+	private SessionFactory sessionFactory;
+	
+	@AfterEach
+	public void resetConfiguration() {
+		StatementMonitor.configure(new Properties());
+	}
+	
+	private void getLocation(int locationId) {
+		sessionFactory.getCurrentSession().createQuery("from Location where locationId = :id")
+		        .setParameter("id", locationId).list();
+	}
+	
+	@Test
+	public void current_shouldReturnTheUnitOfWorkBegunByTheTransaction() {
+		StatementMonitor.UnitOfWork transaction = StatementMonitor.current();
+		assertNotNull(transaction);
+		
+		int statements = transaction.getStatementCount();
+		getLocation(1);
+		
+		assertEquals(statements + 1, transaction.getStatementCount());
+	}
+	
+	@Test
+	public void begin_shouldCountTheStatementsInAllOpenUnitsOfWork() {
+		try (StatementMonitor.UnitOfWork outer = StatementMonitor.begin("outer")) {
+			getLocation(1);
+			try (StatementMonitor.UnitOfWork inner = StatementMonitor.begin("inner")) {
+				assertSame(inner, StatementMonitor.current());
+				getLocation(2);
+				assertEquals(1, inner.getStatementCount());
+			}
+			assertSame(outer, StatementMonitor.current());
+			assertEquals(2, outer.getStatementCount());
+		}
+	}
+	
+	@Test
+	public void getRepeatedStatements_shouldReturnTheStatementsExecutedAtLeastTheThresholdTimes() {
+		Properties properties = new Properties();
+		properties.setProperty(StatementMonitor.REPEATED_STATEMENT_THRESHOLD_PROPERTY, "3");
+		StatementMonitor.configure(properties);
+		
+		try (StatementMonitor.UnitOfWork work = StatementMonitor.begin("loop")) {
+			getLocation(1);
+			getLocation(2);
+			assertTrue(work.getRepeatedStatements().isEmpty());
+			
+			getLocation(3);
+			Map<String, Integer> repeated = work.getRepeatedStatements();
+			assertEquals(1, repeated.size());
+			assertEquals(3, repeated.values().iterator().next().intValue());
+		}
+	}
+	
+	@Test
+	public void begin_shouldFailWhenTheStatementBudgetIsExceeded() {
+		try (StatementMonitor.UnitOfWork work = StatementMonitor.begin("budget", 1)) {
+			getLocation(1);
+			assertThrows(StatementBudgetExceededException.class, () -> getLocation(2));
+		}
+	}
+	
+	@Test
+	public void begin_shouldOnlyEnforceTheDefaultBudgetIfConfiguredTo() {
+		Properties properties = new Properties();
+		properties.setProperty(StatementMonitor.STATEMENT_BUDGET_PROPERTY, "1");
+		StatementMonitor.configure(properties);
+		try (StatementMonitor.UnitOfWork work = StatementMonitor.begin("logged")) {
+			getLocation(1);
+			getLocation(2);
+			assertEquals(2, work.getStatementCount());
+		}
+		
+		properties.setProperty(StatementMonitor.FAIL_ON_EXCEEDED_BUDGET_PROPERTY, "true");
+		StatementMonitor.configure(properties);
+		try (StatementMonitor.UnitOfWork work = StatementMonitor.begin("enforced")) {
+			getLocation(1);
+			assertThrows(StatementBudgetExceededException.class, () -> getLocation(2));
+		}
+	}
+	
+	@Test
+	public void begin_shouldLeaveNoStateOnTheThreadOnceTheUnitOfWorkIsClosed() throws Exception {
+		AtomicBoolean hasState = new AtomicBoolean(true);
+		Thread thread = new Thread(() -> {
+			StatementMonitor.begin("pooled").close();
+			StatementMonitor.statementPrepared("select 1");
+			StatementMonitor.statementExecuted(0);
+			hasState.set(StatementMonitor.hasState());
+		});
+		thread.start();
+		thread.join();
+		
+		assertFalse(hasState.get());
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ContinuationToken} and {@link KeysetPage} classes.
+ */
+public class ContinuationTokenTest {
+	
+	@Test
+	public void decode_shouldReturnTheEncodedToken() {
+		ContinuationToken token = new ContinuationToken(new Date(-86400000L), 42);
+		
+		assertEquals(token, ContinuationToken.decode(token.encode()));
+	}
+	
+	@Test
+	public void decode_shouldReturnTheEncodedTokenWithoutSortKey() {
+		ContinuationToken token = ContinuationToken.decode(new ContinuationToken(null, 7).encode());
+		
+		assertNull(token.getSortKey());
+		assertEquals(7, token.getId());
+	}
+	
+	@Test
+	public void decode_shouldReturnNullForAnEmptyToken() {
+		assertNull(ContinuationToken.decode(null));
+		assertNull(ContinuationToken.decode(""));
+	}
+	
+	@Test
+	public void decode_shouldFailForAnInvalidToken() {
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token"));
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("MTIz"));
+	}
+	
+	@Test
+	public void of_shouldReturnTheTokenOfTheLastElementIfThereAreMoreResults() {
+		KeysetPage<Integer> page = KeysetPage.of(Arrays.asList(1, 2, 3), 2, i -> new ContinuationToken(null, i));
+		
+		assertEquals(Arrays.asList(1, 2), page.getList());
+		assertTrue(page.hasNext());
+		assertEquals(2, ContinuationToken.decode(page.getNextToken()).getId());
+	}
+	
+	@Test
+	public void of_shouldReturnTheLastPageIfThereAreNoMoreResults() {
+		KeysetPage<Integer> page = KeysetPage.of(Arrays.asList(1, 2), 2, i -> new ContinuationToken(null, i));
+		
+		assertEquals(Arrays.asList(1, 2), page.getList());
+		assertFalse(page.hasNext());
+		assertNull(page.getNextToken());
+	}
+}
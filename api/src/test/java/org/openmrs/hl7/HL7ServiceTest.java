@@ -12,6 +12,7 @@ package org.openmrs.hl7;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -44,6 +45,7 @@ import org.openmrs.Obs;
 import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.openmrs.api.context.Context;
+import org.openmrs.collection.KeysetPage;
 import org.openmrs.hl7.handler.ORUR01Handler;
 import org.openmrs.hl7.impl.HL7ServiceImpl;
 import org.openmrs.module.ModuleConstants;
@@ -799,4 +801,22 @@ public class HL7ServiceTest extends BaseContextSensitiveTest {
 		Integer userId = hl7service.resolveUserId(xcn);
 		assertThat(userId, is(502));
 	}
+	
+	/**
+	 * @see HL7Service#getHL7InQueuePage(int, String, String, int)
+	 */
+	@Test
+	public void getHL7InQueuePage_shouldPageThroughTheHl7InQueuesWithTheGivenMessageState() {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		HL7Service hl7service = Context.getHL7Service();
+		
+		KeysetPage<HL7InQueue> first = hl7service.getHL7InQueuePage(HL7Constants.HL7_STATUS_PENDING, null, null, 1);
+		assertEquals(1, first.getList().get(0).getHL7InQueueId().intValue());
+		assertTrue(first.hasNext());
+		
+		KeysetPage<HL7InQueue> second = hl7service.getHL7InQueuePage(HL7Constants.HL7_STATUS_PENDING, null,
+		    first.getNextToken(), 1);
+		assertEquals(2, second.getList().get(0).getHL7InQueueId().intValue());
+		assertFalse(second.hasNext());
+	}
 }
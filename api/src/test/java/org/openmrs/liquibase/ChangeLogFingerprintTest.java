@@ -0,0 +1,131 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.liquibase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChangeLogFingerprintTest {
+	
+	private static final String CHECKSUM = "abc";
+	
+	@TempDir
+	public Path tempDir;
+	
+	private Connection connection;
+	
+	@BeforeEach
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:changelogfingerprint");
+		execute("create table liquibasechangelog (id varchar(255))");
+	}
+	
+	@AfterEach
+	public void tearDown() throws SQLException {
+		execute("drop all objects");
+		connection.close();
+	}
+	
+	@Test
+	public void getChecksum_shouldChangeWhenAChangeLogChanges() throws IOException {
+		write("a.xml", "<databaseChangeLog><changeSet id=\"1\" author=\"test\"/></databaseChangeLog>");
+		write("b.xml", "<databaseChangeLog/>");
+		String checksum = ChangeLogFingerprint.getChecksum(getClassLoader(), Arrays.asList("a.xml", "b.xml"), false);
+		
+		assertNotNull(checksum);
+		assertEquals(checksum, ChangeLogFingerprint.getChecksum(getClassLoader(), Arrays.asList("a.xml", "b.xml"), false));
+		
+		write("b.xml", "<databaseChangeLog><changeSet id=\"2\" author=\"test\"/></databaseChangeLog>");
+		assertNotEquals(checksum, ChangeLogFingerprint.getChecksum(getClassLoader(), Arrays.asList("a.xml", "b.xml"),
+		    false));
+	}
+	
+	@Test
+	public void getChecksum_shouldReturnNullForMissingChangeLogsOrChangeLogsIncludingOtherFiles() throws IOException {
+		write("a.xml", "<databaseChangeLog><include file=\"b.xml\"/></databaseChangeLog>");
+		
+		assertNull(ChangeLogFingerprint.getChecksum(getClassLoader(), Collections.singletonList("a.xml"), true));
+		assertNull(ChangeLogFingerprint.getChecksum(getClassLoader(), Collections.singletonList("missing.xml"), true));
+	}
+	
+	@Test
+	public void getChecksum_shouldReturnNullForRerunnableChangeSetsUnlessAllowed() throws IOException {
+		write("a.xml", "<databaseChangeLog><changeSet id=\"1\" author=\"test\" runAlways=\"true\"/></databaseChangeLog>");
+		
+		assertNull(ChangeLogFingerprint.getChecksum(getClassLoader(), Collections.singletonList("a.xml"), false));
+		assertNotNull(ChangeLogFingerprint.getChecksum(getClassLoader(), Collections.singletonList("a.xml"), true));
+	}
+	
+	@Test
+	public void isCurrent_shouldReturnFalseIfTheFingerprintTableDoesNotExist() {
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+		
+		ChangeLogFingerprint.save(connection, "core", CHECKSUM);
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+	}
+	
+	@Test
+	public void isCurrent_shouldMatchTheSavedFingerprintUntilChangeSetsAreExecuted() throws SQLException {
+		createFingerprintTable();
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+		
+		ChangeLogFingerprint.save(connection, "core", CHECKSUM);
+		assertTrue(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "core", "other"));
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "module:liquibase.xml", CHECKSUM));
+		
+		execute("insert into liquibasechangelog (id) values ('1')");
+		assertFalse(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+		
+		ChangeLogFingerprint.save(connection, "core", CHECKSUM);
+		assertTrue(ChangeLogFingerprint.isCurrent(connection, "core", CHECKSUM));
+	}
+	
+	private void createFingerprintTable() throws SQLException {
+		execute("create table " + ChangeLogFingerprint.TABLE_NAME + " (changelog varchar(255) primary key, "
+		        + "checksum varchar(64) not null, executed_changesets int not null, date_updated timestamp not null)");
+	}
+	
+	private void execute(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+	
+	private void write(String name, String content) throws IOException {
+		Files.write(tempDir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private ClassLoader getClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] { tempDir.toUri().toURL() }, null);
+	}
+}
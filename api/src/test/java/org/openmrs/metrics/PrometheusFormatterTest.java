@@ -0,0 +1,101 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class PrometheusFormatterTest {
+	
+	@Test
+	public void format_shouldWriteCumulativeHistogramBuckets() {
+		ServiceMethodMetrics metrics = new ServiceMethodMetrics("org.openmrs.api.PatientService", "getPatient");
+		metrics.record(TimeUnit.MICROSECONDS.toNanos(500), false);
+		metrics.record(TimeUnit.MILLISECONDS.toNanos(20), false);
+		metrics.record(TimeUnit.SECONDS.toNanos(30), true);
+		
+		String output = PrometheusFormatter.format(Collections.singletonList(metrics), Collections.emptyList(),
+		    Collections.emptyList(), Collections.emptyMap());
+		
+		String labels = "service=\"org.openmrs.api.PatientService\",method=\"getPatient\"";
+		assertThat(output, containsString("openmrs_service_calls_total{" + labels + "} 3\n"));
+		assertThat(output, containsString("openmrs_service_errors_total{" + labels + "} 1\n"));
+		assertThat(output, containsString("openmrs_service_duration_seconds_bucket{" + labels + ",le=\"0.001\"} 1\n"));
+		assertThat(output, containsString("openmrs_service_duration_seconds_bucket{" + labels + ",le=\"0.025\"} 2\n"));
+		assertThat(output, containsString("openmrs_service_duration_seconds_bucket{" + labels + ",le=\"10\"} 2\n"));
+		assertThat(output, containsString("openmrs_service_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+		assertThat(output, containsString("openmrs_service_duration_seconds_count{" + labels + "} 3\n"));
+		assertEquals(TimeUnit.SECONDS.toNanos(30), metrics.getMaxTimeNanos());
+	}
+	
+	@Test
+	public void format_shouldWriteGaugesAndNumericHibernateStatisticsWithoutTheSlowestQuery() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("queryExecutionCount", 12L);
+		statistics.put("queryExecutionMaxTime", 40L);
+		statistics.put("slowestQuery", "from Patient where name = \"x\"");
+		
+		String output = PrometheusFormatter.format(Collections.emptyList(),
+		    Collections.singletonList(new Gauge("active_sessions", "Active sessions", () -> 4)), Collections.emptyList(),
+		    statistics);
+		
+		assertThat(output, containsString("# TYPE openmrs_active_sessions gauge\nopenmrs_active_sessions 4\n"));
+		assertThat(output, containsString(
+		    "# TYPE openmrs_hibernate_query_execution_total counter\nopenmrs_hibernate_query_execution_total 12\n"));
+		assertThat(output, containsString(
+		    "# TYPE openmrs_hibernate_query_execution_max_time gauge\nopenmrs_hibernate_query_execution_max_time 40\n"));
+		assertThat(output, not(containsString("query=")));
+		assertThat(output, not(containsString("openmrs_hibernate_slowest_query")));
+		assertThat(output, not(containsString("openmrs_service_calls_total")));
+	}
+	
+	@Test
+	public void format_shouldWriteCountersAsCounters() {
+		String output = PrometheusFormatter.format(Collections.emptyList(),
+		    Collections.singletonList(new Counter("connection_pool_timeouts_total", "Timeouts", () -> 3)),
+		    Collections.emptyList(), Collections.emptyMap());
+		
+		assertThat(output, containsString(
+		    "# TYPE openmrs_connection_pool_timeouts_total counter\nopenmrs_connection_pool_timeouts_total 3\n"));
+	}
+	
+	@Test
+	public void format_shouldWriteCumulativeBucketsOfTheHistograms() {
+		Histogram histogram = new Histogram("connection_pool_acquire_seconds", "Connection acquisition time", 0.001, 0.1);
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(200));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+		histogram.record(TimeUnit.SECONDS.toNanos(2));
+		
+		String output = PrometheusFormatter.format(Collections.emptyList(), Collections.emptyList(),
+		    Collections.singletonList(histogram), Collections.emptyMap());
+		
+		String name = "openmrs_connection_pool_acquire_seconds";
+		assertThat(output, containsString("# TYPE " + name + " histogram\n"));
+		assertThat(output, containsString(name + "_bucket{le=\"0.001\"} 1\n"));
+		assertThat(output, containsString(name + "_bucket{le=\"0.1\"} 2\n"));
+		assertThat(output, containsString(name + "_bucket{le=\"+Inf\"} 3\n"));
+		assertThat(output, containsString(name + "_sum 2.0502\n"));
+		assertThat(output, containsString(name + "_count 3\n"));
+	}
+	
+	@Test
+	public void toSnakeCase_shouldSeparateWordsWithUnderscores() {
+		assertEquals("second_level_cache_hit_ratio", PrometheusFormatter.toSnakeCase("secondLevelCacheHitRatio"));
+	}
+}
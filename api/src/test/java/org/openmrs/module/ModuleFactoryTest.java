@@ -18,12 +18,18 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.StartupProfiler;
 
 public class ModuleFactoryTest extends BaseContextSensitiveTest {
 	
@@ -129,6 +135,31 @@ public class ModuleFactoryTest extends BaseContextSensitiveTest {
 		assertTrue(test2.isStarted());
 	}
 	
+	@Test
+	public void startModule_shouldAttachTheStartupPhasesToThePhaseOfTheModule() {
+		Module test2 = loadModule(MODULE2_PATH, MODULE2, true);
+		
+		StartupProfiler.Phase startup;
+		StartupProfiler.begin();
+		try {
+			try (StartupProfiler.Phase phase = StartupProfiler.start("module " + MODULE2)) {
+				ModuleFactory.startModule(test2);
+			}
+		}
+		finally {
+			startup = StartupProfiler.stop();
+		}
+		
+		assertTrue(test2.isStarted());
+		assertEquals(1, startup.getChildren().size());
+		StartupProfiler.Phase modulePhase = startup.getChildren().get(0);
+		assertEquals("module " + MODULE2, modulePhase.getName());
+		List<String> steps = modulePhase.getChildren().stream().map(StartupProfiler.Phase::getName)
+		        .collect(Collectors.toList());
+		assertTrue(steps.containsAll(Arrays.asList("class loader", "sqldiff", "liquibase", "activator willStart")),
+		    steps.toString());
+	}
+	
 	@Test
 	public void loadModules_shouldNotCrashWhenFileIsNotFoundOrBroken() {
 		ModuleFactory.unloadModule(ModuleFactory.getModuleById(MODULE1));
@@ -179,6 +210,36 @@ public class ModuleFactoryTest extends BaseContextSensitiveTest {
 		assertFalse(test3.isStarted());
 	}
 	
+	@Test
+	public void getStartupDependencies_shouldListTheModulesEachModuleWaitsFor() throws Exception {
+		ModuleFactory.unloadModule(ModuleFactory.getModuleById(MODULE1));
+		ModuleFactory.loadModules(getModuleFiles());
+		Module test1 = ModuleFactory.getModuleById(MODULE1);
+		Module test2 = ModuleFactory.getModuleById(MODULE2);
+		Module test3 = ModuleFactory.getModuleById(MODULE3);
+		
+		Map<Module, Set<Module>> dependencies = ModuleFactory
+		        .getStartupDependencies(ModuleFactory.getModulesInStartupOrder(ModuleFactory.getLoadedModules()));
+		
+		assertTrue(dependencies.get(test1).isEmpty());
+		assertEquals(Collections.singleton(test1), dependencies.get(test2));
+		assertEquals(Collections.singleton(test2), dependencies.get(test3));
+	}
+	
+	@Test
+	public void startModulesInParallel_shouldStartEachModuleAfterItsDependencies() throws Exception {
+		ModuleFactory.unloadModule(ModuleFactory.getModuleById(MODULE1));
+		ModuleFactory.loadModules(getModuleFiles());
+		
+		ModuleFactory.startModulesInParallel(ModuleFactory.getModulesInStartupOrder(ModuleFactory.getLoadedModules()), 3);
+		
+		List<Module> startedModules = ModuleFactory.getStartedModulesInOrder();
+		assertEquals(3, startedModules.size());
+		assertEquals(MODULE1, startedModules.get(0).getModuleId());
+		assertEquals(MODULE2, startedModules.get(1).getModuleId());
+		assertEquals(MODULE3, startedModules.get(2).getModuleId());
+	}
+	
 	private Module loadModule(String location, String moduleName, boolean replace) {
 		String moduleLocation = ModuleUtil.class.getClassLoader().getResource(location).getPath();
 
@@ -27,10 +27,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -749,6 +754,111 @@ public class ModuleUtilTest extends BaseContextSensitiveTest {
 		}
 	}
 	
+	/**
+	 * @see ModuleUtil#expandJarIfChanged(File,File,String)
+	 */
+	@Test
+	public void expandJarIfChanged_shouldOnlyExpandTheJarAgainIfItChanged() throws IOException {
+		String directoryPath = "META-INF/maven/org.openmrs.module/test1-api";
+		File destinationFolder = this.getEmptyJarDestinationFolder();
+		
+		assertTrue(ModuleUtil.expandJarIfChanged(getJarFile(), destinationFolder, directoryPath));
+		File expandedFile = new File(destinationFolder, directoryPath + "/pom.xml");
+		assertTrue(expandedFile.isFile());
+		
+		assertFalse(ModuleUtil.expandJarIfChanged(getJarFile(), destinationFolder, directoryPath));
+		
+		// expanded files which went missing are restored
+		assertTrue(expandedFile.delete());
+		assertTrue(ModuleUtil.expandJarIfChanged(getJarFile(), destinationFolder, directoryPath));
+		assertTrue(expandedFile.isFile());
+		
+		FileUtils.deleteDirectory(destinationFolder);
+	}
+	
+	/**
+	 * @see ModuleUtil#deleteStaleFiles(List,Set,File)
+	 */
+	@Test
+	public void deleteStaleFiles_shouldDeleteOnlyTheFilesWhichWereNotExpandedAgain() throws IOException {
+		File destinationFolder = this.getEmptyJarDestinationFolder();
+		File stale = new File(destinationFolder, "stale.txt");
+		File kept = new File(destinationFolder, "kept.txt");
+		FileUtils.writeStringToFile(stale, "stale", "UTF-8");
+		FileUtils.writeStringToFile(kept, "kept", "UTF-8");
+		
+		ModuleUtil.deleteStaleFiles(Arrays.asList("checksum", "stale.txt", "kept.txt"), Collections.singleton("kept.txt"),
+		    destinationFolder);
+		
+		assertFalse(stale.exists());
+		assertTrue(kept.exists());
+		
+		FileUtils.deleteDirectory(destinationFolder);
+	}
+	
+	/**
+	 * @see ModuleUtil#isUpToDate(File,ZipEntry)
+	 */
+	@Test
+	public void isUpToDate_shouldDetectAChangedFileOfTheSameSizeAndDate() throws IOException {
+		File destinationFolder = this.getEmptyJarDestinationFolder();
+		File file = new File(destinationFolder, "resource.txt");
+		FileUtils.writeStringToFile(file, "version 1", "UTF-8");
+		
+		// reproducible builds give every entry the same date
+		ZipEntry entry = new ZipEntry("resource.txt");
+		entry.setTime(file.lastModified());
+		entry.setSize(file.length());
+		CRC32 crc = new CRC32();
+		crc.update("version 1".getBytes("UTF-8"));
+		entry.setCrc(crc.getValue());
+		assertTrue(ModuleUtil.isUpToDate(file, entry));
+		
+		crc.reset();
+		crc.update("version 2".getBytes("UTF-8"));
+		entry.setCrc(crc.getValue());
+		assertFalse(ModuleUtil.isUpToDate(file, entry));
+		
+		FileUtils.deleteDirectory(destinationFolder);
+	}
+	
+	/**
+	 * @see ModuleUtil#getChecksum(File)
+	 */
+	@Test
+	public void getChecksum_shouldReturnTheSameChecksumForTheSameFile() throws IOException {
+		String checksum = ModuleUtil.getChecksum(getJarFile());
+		
+		assertEquals(64, checksum.length());
+		assertEquals(checksum, ModuleUtil.getChecksum(getJarFile()));
+	}
+	
+	/**
+	 * @see ModuleUtil#getResourceNamesFromFile(File)
+	 */
+	@Test
+	public void getResourceNamesFromFile_shouldReturnNullIfNonJarFile() {
+		File f = new File(this.getClass().getResource("/org/openmrs/module/include/test1-1.0-SNAPSHOT.omod").getFile());
+		assertNull(ModuleUtil.getResourceNamesFromFile(f));
+	}
+	
+	/**
+	 * @see ModuleUtil#getResourceNamesFromFile(File)
+	 */
+	@Test
+	public void getResourceNamesFromFile_shouldListFilesAndDirectoriesIfJarFile() throws IOException {
+		File f = new File(this.getClass().getResource("/org/openmrs/module/include/test1-1.0-SNAPSHOT.omod").getFile());
+		File d = new File("/tmp/test1-1.0-SNAPSHOT.jar");
+		FileUtils.copyFile(f, d);
+		
+		Set<String> resourceNames = ModuleUtil.getResourceNamesFromFile(d);
+		
+		assertTrue(resourceNames.contains("META-INF/MANIFEST.MF"));
+		assertTrue(resourceNames.contains("org/openmrs/module/test1/"));
+		assertTrue(resourceNames.contains("org/openmrs/module/test1"));
+		assertFalse(resourceNames.contains("org/openmrs/module/test1/NoSuchClass.class"));
+	}
+	
 	/**
 	 * Gets Jar file to be expanded.
 	 * 
@@ -12,6 +12,7 @@ package org.openmrs.obs;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.image.BufferedImage;
@@ -44,12 +45,14 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 	@BeforeEach
 	public void setUp() {
 		handler = new ImageHandler();
+		handler.setDerivativeExecutor(Runnable::run);
 	}
 	
 	@Test
 	public void shouldReturnSupportedViews() {
 		String[] actualViews = handler.getSupportedViews();
-		String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+		String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.PREVIEW_VIEW,
+		        ComplexObsHandler.THUMBNAIL_VIEW };
 		
 		assertArrayEquals(actualViews, expectedViews);
 	}
@@ -60,11 +63,17 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 		assertTrue(handler.supportsView(ComplexObsHandler.RAW_VIEW));
 	}
 	
+	@Test
+	public void shouldSupportDerivativeViews() {
+		
+		assertTrue(handler.supportsView(ComplexObsHandler.PREVIEW_VIEW));
+		assertTrue(handler.supportsView(ComplexObsHandler.THUMBNAIL_VIEW));
+	}
+	
 	@Test
 	public void shouldNotSupportOtherViews() {
 		
 		assertFalse(handler.supportsView(ComplexObsHandler.HTML_VIEW));
-		assertFalse(handler.supportsView(ComplexObsHandler.PREVIEW_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TEXT_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TITLE_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.URI_VIEW));
@@ -115,4 +124,71 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 		        complexObsTestFolder.toAbsolutePath().toString()));
 		handler.saveObs(obs);
 	}
+	
+	@Test
+	public void getObs_shouldReturnScaledDownDerivativesForThumbnailAndPreviewViews() {
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        complexObsTestFolder.toAbsolutePath().toString()));
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingDerivatives.png", new BufferedImage(1200, 600,
+		        BufferedImage.TYPE_INT_ARGB)));
+		handler.saveObs(obs);
+		
+		File original = ImageHandler.getComplexDataFile(obs);
+		File thumbnailFile = ImageHandler.getDerivativeFile(original, ComplexObsHandler.THUMBNAIL_VIEW);
+		File previewFile = ImageHandler.getDerivativeFile(original, ComplexObsHandler.PREVIEW_VIEW);
+		assertTrue(thumbnailFile.exists());
+		assertTrue(previewFile.exists());
+		
+		BufferedImage thumbnail = (BufferedImage) handler.getObs(obs, ComplexObsHandler.THUMBNAIL_VIEW).getComplexData()
+		        .getData();
+		assertEquals(ImageHandler.THUMBNAIL_SIZE, thumbnail.getWidth());
+		assertEquals(ImageHandler.THUMBNAIL_SIZE / 2, thumbnail.getHeight());
+		
+		BufferedImage preview = (BufferedImage) handler.getObs(obs, ComplexObsHandler.PREVIEW_VIEW).getComplexData()
+		        .getData();
+		assertEquals(ImageHandler.PREVIEW_SIZE, preview.getWidth());
+		
+		BufferedImage raw = (BufferedImage) handler.getObs(obs, ComplexObsHandler.RAW_VIEW).getComplexData().getData();
+		assertEquals(1200, raw.getWidth());
+	}
+	
+	@Test
+	public void getObs_shouldGenerateMissingDerivativesOnRequest() {
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        complexObsTestFolder.toAbsolutePath().toString()));
+		handler.setDerivativeExecutor(runnable -> {});
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingDerivatives.png", new BufferedImage(100, 50,
+		        BufferedImage.TYPE_INT_ARGB)));
+		handler.saveObs(obs);
+		File thumbnailFile = ImageHandler.getDerivativeFile(ImageHandler.getComplexDataFile(obs),
+		    ComplexObsHandler.THUMBNAIL_VIEW);
+		assertFalse(thumbnailFile.exists());
+		
+		BufferedImage thumbnail = (BufferedImage) handler.getObs(obs, ComplexObsHandler.THUMBNAIL_VIEW).getComplexData()
+		        .getData();
+		
+		assertTrue(thumbnailFile.exists());
+		// smaller images are never scaled up
+		assertNotNull(thumbnail);
+		assertEquals(100, thumbnail.getWidth());
+	}
+	
+	@Test
+	public void purgeComplexData_shouldDeleteTheDerivatives() {
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        complexObsTestFolder.toAbsolutePath().toString()));
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingDerivatives.png", new BufferedImage(400, 400,
+		        BufferedImage.TYPE_INT_ARGB)));
+		handler.saveObs(obs);
+		File original = ImageHandler.getComplexDataFile(obs);
+		
+		assertTrue(handler.purgeComplexData(obs));
+		
+		assertFalse(original.exists());
+		assertFalse(ImageHandler.getDerivativeFile(original, ComplexObsHandler.THUMBNAIL_VIEW).exists());
+		assertFalse(ImageHandler.getDerivativeFile(original, ComplexObsHandler.PREVIEW_VIEW).exists());
+	}
 }
@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.timer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.scheduler.SchedulerConstants;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.db.SchedulerDAO;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Simulates two scheduler nodes sharing the same database
+ */
+public class TaskLeaseManagerTest extends BaseContextSensitiveTest {
+
+	@Autowired
+	private SchedulerDAO schedulerDAO;
+
+	private TaskLeaseManager nodeA;
+
+	private TaskLeaseManager nodeB;
+
+	private TaskDefinition taskDefinition;
+
+	@BeforeEach
+	public void setUp() {
+		nodeA = new TaskLeaseManager(schedulerDAO, "node-a", 60);
+		nodeB = new TaskLeaseManager(schedulerDAO, "node-b", 60);
+		taskDefinition = new TaskDefinition(null, "Lease test", null, "org.openmrs.scheduler.tasks.TestTask");
+		taskDefinition.setUuid(UUID.randomUUID().toString());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		// leases are committed in their own transaction so they are not rolled back with the test
+		nodeA.shutdown();
+		nodeB.shutdown();
+	}
+
+	@Test
+	public void acquire_shouldGrantTheLeaseToOnlyOneNode() {
+		assertTrue(nodeA.acquire(taskDefinition));
+		assertFalse(nodeB.acquire(taskDefinition));
+		assertTrue(nodeA.acquire(taskDefinition));
+		assertEquals("node-a", schedulerDAO.getTaskLease(taskDefinition.getUuid()).getNodeId());
+	}
+
+	@Test
+	public void acquire_shouldLetAnotherNodeTakeOverAnExpiredLease() {
+		Date now = new Date();
+		assertTrue(schedulerDAO.acquireTaskLease(taskDefinition.getUuid(), "node-a", now, new Date(now.getTime() - 1)));
+
+		assertTrue(nodeB.acquire(taskDefinition));
+		assertEquals("node-b", schedulerDAO.getTaskLease(taskDefinition.getUuid()).getNodeId());
+	}
+
+	@Test
+	public void release_shouldLetAnotherNodeAcquireTheLease() {
+		assertTrue(nodeA.acquire(taskDefinition));
+		nodeA.release(taskDefinition);
+
+		assertNull(schedulerDAO.getTaskLease(taskDefinition.getUuid()));
+		assertTrue(nodeB.acquire(taskDefinition));
+	}
+
+	@Test
+	public void heartbeat_shouldForgetLeasesTakenOverByAnotherNode() {
+		assertTrue(nodeA.acquire(taskDefinition));
+		Date now = new Date();
+		schedulerDAO.renewTaskLease(taskDefinition.getUuid(), "node-a", now, new Date(now.getTime() - 1));
+		assertTrue(nodeB.acquire(taskDefinition));
+
+		nodeA.heartbeat();
+
+		assertFalse(nodeA.isHeld(taskDefinition));
+		assertTrue(nodeB.isHeld(taskDefinition));
+	}
+
+	@Test
+	public void acquire_shouldAlwaysGrantTasksThatRunOnAllNodes() {
+		taskDefinition.setProperty(SchedulerConstants.TASK_PROPERTY_RUN_ON_ALL_NODES, "true");
+
+		assertTrue(nodeA.acquire(taskDefinition));
+		assertTrue(nodeB.acquire(taskDefinition));
+		assertNull(schedulerDAO.getTaskLease(taskDefinition.getUuid()));
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openmrs.annotation.Handler;
+import org.openmrs.util.ClassAnnotationIndex.ClassEntry;
+import org.openmrs.validator.PatientValidator;
+import org.openmrs.validator.PersonValidator;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+public class ClassAnnotationIndexTest {
+	
+	@TempDir
+	public File tempDir;
+	
+	@Test
+	public void toEntry_shouldRecordTheAnnotationsAndTheSuperClass() throws IOException {
+		ClassEntry entry = ClassAnnotationIndex.toEntry(new SimpleMetadataReaderFactory()
+		        .getMetadataReader(PatientValidator.class.getName()));
+		
+		assertTrue(entry.getAnnotationTypes().contains(Handler.class.getName()));
+		assertEquals(PersonValidator.class.getName(), entry.getSuperClassName());
+	}
+	
+	@Test
+	public void read_shouldReturnTheEntriesWritten() throws IOException {
+		Map<String, ClassEntry> entries = new HashMap<>();
+		entries.put(PatientValidator.class.getName(), ClassAnnotationIndex.toEntry(new SimpleMetadataReaderFactory()
+		        .getMetadataReader(PatientValidator.class.getName())));
+		entries.put(Object.class.getName(), ClassAnnotationIndex.toEntry(new SimpleMetadataReaderFactory()
+		        .getMetadataReader(Object.class.getName())));
+		File jar = createJar("test.jar");
+		File indexFile = new File(tempDir, "test.idx");
+		
+		new ClassAnnotationIndex(jar, "checksum", entries).write(indexFile);
+		ClassAnnotationIndex index = ClassAnnotationIndex.read(indexFile);
+		Map<String, ClassEntry> read = index.getEntries();
+		
+		assertTrue(index.isOf(jar));
+		assertEquals("checksum", index.getJarChecksum());
+		assertEquals(entries.keySet(), read.keySet());
+		for (String className : entries.keySet()) {
+			assertEquals(entries.get(className).getSuperClassName(), read.get(className).getSuperClassName());
+			assertEquals(entries.get(className).getAnnotationTypes(), read.get(className).getAnnotationTypes());
+		}
+		assertEquals(2, tempDir.list().length);
+	}
+	
+	@Test
+	public void isOf_shouldReturnFalseIfTheJarWasModified() throws IOException {
+		File jar = createJar("test.jar");
+		File indexFile = new File(tempDir, "test.idx");
+		new ClassAnnotationIndex(jar, "checksum", new HashMap<>()).write(indexFile);
+		
+		assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+		
+		assertFalse(ClassAnnotationIndex.read(indexFile).isOf(jar));
+	}
+	
+	@Test
+	public void prune_shouldDeleteTheIndexesOfJarsWhichNoLongerExist() throws IOException {
+		File kept = createJar("kept.jar");
+		File removed = createJar("removed.jar");
+		File keptIndex = ClassAnnotationIndex.getFile(tempDir, kept);
+		File removedIndex = ClassAnnotationIndex.getFile(tempDir, removed);
+		new ClassAnnotationIndex(kept, "kept", new HashMap<>()).write(keptIndex);
+		new ClassAnnotationIndex(removed, "removed", new HashMap<>()).write(removedIndex);
+		File unreadableIndex = new File(tempDir, "old" + ClassAnnotationIndex.EXTENSION);
+		Files.write(unreadableIndex.toPath(), "not an index".getBytes(StandardCharsets.UTF_8));
+		assertTrue(removed.delete());
+		
+		assertEquals(2, ClassAnnotationIndex.prune(tempDir));
+		
+		assertTrue(keptIndex.isFile());
+		assertFalse(removedIndex.exists());
+		assertFalse(unreadableIndex.exists());
+	}
+	
+	@Test
+	public void read_shouldFailForFilesThatAreNotAnIndex() throws IOException {
+		File indexFile = new File(tempDir, "test.idx");
+		Files.write(indexFile.toPath(), "not an index".getBytes(StandardCharsets.UTF_8));
+		
+		assertThrows(IOException.class, () -> ClassAnnotationIndex.read(indexFile));
+	}
+	
+	private File createJar(String name) throws IOException {
+		File jar = new File(tempDir, name);
+		Files.write(jar.toPath(), name.getBytes(StandardCharsets.UTF_8));
+		return jar;
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.module.ModuleFactory;
+
+public class OpenmrsClassLoaderTest {
+	
+	@Test
+	public void loadClass_shouldLoadTheSameClassFromConcurrentThreads() throws Exception {
+		OpenmrsClassLoader classLoader = OpenmrsClassLoader.getInstance();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Class<?>>> loads = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				loads.add(() -> classLoader.loadClass("org.openmrs.util.OpenmrsUtil"));
+			}
+			for (Future<Class<?>> loaded : executor.invokeAll(loads)) {
+				assertSame(OpenmrsUtil.class, loaded.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void loadClass_shouldKeepFailingForMissingClasses() {
+		OpenmrsClassLoader classLoader = OpenmrsClassLoader.getInstance();
+		
+		assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("org.openmrs.NoSuchClass"));
+		assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("org.openmrs.NoSuchClass"));
+		OpenmrsClassLoader.clearMissingClasses();
+		assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("org.openmrs.NoSuchClass"));
+	}
+	
+	@Test
+	public void getResource_shouldKeepFindingAndMissingTheSameResources() {
+		OpenmrsClassLoader classLoader = OpenmrsClassLoader.getInstance();
+		
+		assertNull(classLoader.getResource("org/openmrs/no-such-resource.xml"));
+		assertNull(classLoader.getResource("org/openmrs/no-such-resource.xml"));
+		assertNull(classLoader.getResourceAsStream("org/openmrs/no-such-resource.xml"));
+		assertNotNull(classLoader.getResource("hibernate.cfg.xml"));
+		assertNotNull(classLoader.getResource("hibernate.cfg.xml"));
+	}
+	
+	@Test
+	public void getModuleClassLoadersForResource_shouldReturnAnEmptyCollectionForResourcesNotProvidedByModules() {
+		assertTrue(ModuleFactory.getModuleClassLoadersForResource("org/openmrs/no-such-resource.xml").isEmpty());
+	}
+	
+	@Test
+	public void getModuleClassLoadersForPackage_shouldReturnAnEmptySetForPackagesNotProvidedByModules() {
+		assertTrue(ModuleFactory.getModuleClassLoadersForPackage("org.openmrs.no.such.module").isEmpty());
+	}
+	
+	@Test
+	public void getLibCacheKey_shouldIncludeTheBuildOfTheApiBesidesTheVersion() {
+		String key = OpenmrsClassLoader.getLibCacheKey();
+		
+		assertTrue(key.startsWith(OpenmrsConstants.OPENMRS_VERSION + " "));
+		// the size and the modification date of the jar, or of the folder of the classes in tests
+		assertEquals(2, key.substring(OpenmrsConstants.OPENMRS_VERSION.length() + 1).split(" ").length);
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.annotation.Handler;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.validator.PatientValidator;
+import org.openmrs.validator.PersonValidator;
+
+public class OpenmrsClassScannerTest extends BaseContextSensitiveTest {
+	
+	@AfterEach
+	public void tearDown() {
+		OpenmrsClassScanner.destroyInstance();
+	}
+	
+	@Test
+	public void getClassesWithAnnotation_shouldFindAnnotatedClasses() {
+		Set<Class<?>> classes = OpenmrsClassScanner.getInstance().getClassesWithAnnotation(Handler.class);
+		
+		assertTrue(classes.contains(PatientValidator.class));
+		assertTrue(classes.contains(PersonValidator.class));
+		assertFalse(classes.contains(OpenmrsClassScanner.class));
+	}
+	
+	@Test
+	public void getClassesWithAnnotation_shouldReturnTheSameClassesAfterReloading() {
+		Set<Class<?>> classes = OpenmrsClassScanner.getInstance().getClassesWithAnnotation(Handler.class);
+		OpenmrsClassScanner.destroyInstance();
+		
+		assertEquals(classes, OpenmrsClassScanner.getInstance().getClassesWithAnnotation(Handler.class));
+	}
+}
@@ -12,6 +12,7 @@ package org.openmrs.util;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -28,6 +29,7 @@ import static org.mockito.Mockito.verify;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -35,6 +37,8 @@ import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -55,6 +59,7 @@ import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.openmrs.Concept;
 import org.openmrs.GlobalProperty;
 import org.openmrs.PatientIdentifier;
@@ -771,6 +776,37 @@ public class OpenmrsUtilTest extends BaseContextSensitiveTest {
 		verify(output, times(1)).close();
 	}
 
+	/**
+	 * @see OpenmrsUtil#copyToFile(InputStream, File)
+	 */
+	@Test
+	public void copyToFile_shouldCopyTheWholeStreamIntoTheFile(@TempDir Path tempDir) throws IOException {
+		byte[] content = "ExampleInputStream".getBytes(StandardCharsets.UTF_8);
+		File file = tempDir.resolve("copy.dat").toFile();
+		
+		long copied = OpenmrsUtil.copyToFile(new ByteArrayInputStream(content), file);
+		
+		assertEquals(content.length, copied);
+		assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+	}
+	
+	/**
+	 * @see OpenmrsUtil#transferFile(File, long, long, OutputStream)
+	 */
+	@Test
+	public void transferFile_shouldWriteTheGivenRangeOfTheFile(@TempDir Path tempDir) throws IOException {
+		File file = tempDir.resolve("range.dat").toFile();
+		Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		assertEquals(4, OpenmrsUtil.transferFile(file, 3, 4, output));
+		assertEquals("3456", new String(output.toByteArray(), StandardCharsets.UTF_8));
+		
+		output.reset();
+		assertEquals(2, OpenmrsUtil.transferFile(file, 8, 100, output));
+		assertEquals("89", new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+	
 	/**
 	 * @see OpenmrsUtil#applyLogLevels()
 	 */
@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StartupProfilerTest {
+	
+	@AfterEach
+	public void tearDown() {
+		StartupProfiler.stop();
+	}
+	
+	@Test
+	public void start_shouldNotRecordAnythingWhenNotActive() {
+		assertFalse(StartupProfiler.isActive());
+		
+		try (StartupProfiler.Phase phase = StartupProfiler.start("phase")) {
+			assertSame(phase, StartupProfiler.current());
+			assertTrue(phase.getChildren().isEmpty());
+		}
+		assertNull(StartupProfiler.stop());
+	}
+	
+	@Test
+	public void start_shouldNestPhasesStartedOnTheSameThread() {
+		StartupProfiler.begin();
+		try (StartupProfiler.Phase outer = StartupProfiler.start("outer")) {
+			assertSame(outer, StartupProfiler.current());
+			try (StartupProfiler.Phase inner = StartupProfiler.start("inner")) {
+				assertSame(inner, StartupProfiler.current());
+			}
+			assertSame(outer, StartupProfiler.current());
+		}
+		try (StartupProfiler.Phase sibling = StartupProfiler.start("sibling")) {
+		}
+		
+		StartupProfiler.Phase startup = StartupProfiler.stop();
+		
+		List<StartupProfiler.Phase> phases = startup.getChildren();
+		assertEquals(2, phases.size());
+		assertEquals("outer", phases.get(0).getName());
+		assertEquals("sibling", phases.get(1).getName());
+		assertEquals(1, phases.get(0).getChildren().size());
+		assertEquals("inner", phases.get(0).getChildren().get(0).getName());
+		assertTrue(phases.get(0).getWallTimeMillis() >= 0);
+		assertTrue(startup.getWallTimeMillis() >= phases.get(0).getWallTimeMillis());
+	}
+	
+	@Test
+	public void start_shouldAttachPhasesOfOtherThreadsToTheGivenParent() throws InterruptedException {
+		StartupProfiler.begin();
+		try (StartupProfiler.Phase parent = StartupProfiler.start("parent")) {
+			Thread thread = new Thread(() -> {
+				try (StartupProfiler.Phase child = StartupProfiler.start("child", parent)) {
+					try (StartupProfiler.Phase step = StartupProfiler.start("step")) {
+					}
+				}
+			});
+			thread.start();
+			thread.join();
+		}
+		
+		StartupProfiler.Phase parent = StartupProfiler.stop().getChildren().get(0);
+		
+		assertEquals(1, parent.getChildren().size());
+		StartupProfiler.Phase child = parent.getChildren().get(0);
+		assertEquals("child", child.getName());
+		assertEquals("step", child.getChildren().get(0).getName());
+	}
+	
+	@Test
+	public void writeReport_shouldWriteTheTimelineAsJson(@TempDir Path tempDir) throws IOException {
+		StartupProfiler.begin();
+		try (StartupProfiler.Phase outer = StartupProfiler.start("outer")) {
+			try (StartupProfiler.Phase inner = StartupProfiler.start("inner")) {
+			}
+		}
+		File report = tempDir.resolve(StartupProfiler.REPORT_FILE_NAME).toFile();
+		
+		StartupProfiler.writeReport(StartupProfiler.stop(), report);
+		
+		JsonNode timeline = new ObjectMapper().readTree(report).get("timeline");
+		assertEquals("startup", timeline.get("name").asText());
+		JsonNode outer = timeline.get("children").get(0);
+		assertEquals("outer", outer.get("name").asText());
+		assertTrue(outer.has("wallMs"));
+		assertTrue(outer.has("cpuMs"));
+		assertTrue(outer.has("allocatedBytes"));
+		assertEquals("inner", outer.get("children").get(0).get("name").asText());
+	}
+}
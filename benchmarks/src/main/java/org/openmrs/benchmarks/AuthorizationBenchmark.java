@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Privilege;
+import org.openmrs.Role;
+import org.openmrs.User;
+import org.openmrs.aop.AuthorizationAdvice;
+import org.openmrs.api.PatientService;
+import org.openmrs.api.context.Context;
+import org.openmrs.util.PrivilegeConstants;
+
+/**
+ * Benchmarks the privilege checks done before every call of a service method
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class AuthorizationBenchmark {
+	
+	private final AuthorizationAdvice authorizationAdvice = new AuthorizationAdvice();
+	
+	private final Object[] getPatientArguments = { 2 };
+	
+	private Method getPatient;
+	
+	private User clerk;
+	
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		getPatient = PatientService.class.getMethod("getPatient", Integer.class);
+		
+		// a user who is not a super user and inherits the privilege through a role hierarchy
+		Role provider = new Role("Benchmark Provider");
+		for (int i = 0; i < 50; i++) {
+			provider.addPrivilege(new Privilege("Benchmark Privilege " + i));
+		}
+		provider.addPrivilege(new Privilege(PrivilegeConstants.GET_PATIENTS));
+		Role clerkRole = new Role("Benchmark Clerk");
+		clerkRole.getInheritedRoles().add(provider);
+		clerk = new User();
+		clerk.addRole(clerkRole);
+	}
+	
+	@Benchmark
+	public boolean userContextHasPrivilege(UserSession session) {
+		return Context.getUserContext().hasPrivilege(PrivilegeConstants.GET_PATIENTS);
+	}
+	
+	@Benchmark
+	public boolean userHasInheritedPrivilege() {
+		return clerk.hasPrivilege(PrivilegeConstants.GET_PATIENTS);
+	}
+	
+	@Benchmark
+	public void authorizationAdvice(UserSession session) throws Throwable {
+		authorizationAdvice.before(getPatient, getPatientArguments, null);
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the given JMH command line options and writes the results as JSON
+ * so that they can be compared between releases, e.g. with the JMH visualizer.
+ */
+public class BenchmarkRunner {
+	
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+	
+	private BenchmarkRunner() {
+	}
+	
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+		new Runner(options.build()).run();
+	}
+}
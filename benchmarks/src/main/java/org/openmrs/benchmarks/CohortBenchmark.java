@@ -0,0 +1,116 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Cohort;
+import org.openmrs.CohortBitmap;
+
+/**
+ * Benchmarks the set operations on cohorts used by reporting, on the memberships as well as on the
+ * bitmaps of the active members
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class CohortBenchmark {
+	
+	@Param({ "1000", "100000" })
+	public int size;
+	
+	private Cohort first;
+	
+	private Cohort second;
+	
+	private CohortBitmap firstBitmap;
+	
+	private CohortBitmap secondBitmap;
+	
+	private int[] lookups;
+	
+	private int lookup;
+	
+	@Setup
+	public void setUp() {
+		// the members are drawn from a range four times the size of the cohorts, so they overlap partially
+		Random random = new Random(42);
+		first = randomCohort(random);
+		second = randomCohort(random);
+		firstBitmap = first.getActiveMemberBitmap();
+		secondBitmap = second.getActiveMemberBitmap();
+		lookups = new int[1024];
+		for (int i = 0; i < lookups.length; i++) {
+			lookups[i] = random.nextInt(size * 4);
+		}
+	}
+	
+	private Cohort randomCohort(Random random) {
+		Set<Integer> memberIds = new HashSet<>();
+		while (memberIds.size() < size) {
+			memberIds.add(random.nextInt(size * 4));
+		}
+		return new Cohort(memberIds);
+	}
+	
+	@Benchmark
+	public Cohort union() {
+		return Cohort.union(first, second);
+	}
+	
+	@Benchmark
+	public Cohort intersect() {
+		return Cohort.intersect(first, second);
+	}
+	
+	@Benchmark
+	public Cohort subtract() {
+		return Cohort.subtract(first, second);
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public boolean contains() {
+		lookup = (lookup + 1) & (lookups.length - 1);
+		return first.contains(lookups[lookup]);
+	}
+	
+	@Benchmark
+	public CohortBitmap bitmapUnion() {
+		return firstBitmap.union(secondBitmap);
+	}
+	
+	@Benchmark
+	public CohortBitmap bitmapIntersect() {
+		return firstBitmap.intersect(secondBitmap);
+	}
+	
+	@Benchmark
+	public CohortBitmap bitmapSubtract() {
+		return firstBitmap.subtract(secondBitmap);
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.LocaleUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Concept;
+import org.openmrs.ConceptName;
+import org.openmrs.api.ConceptNameType;
+
+/**
+ * Benchmarks the lookup of the name of a concept in a locale, done for every concept displayed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ConceptNameBenchmark {
+	
+	private static final String[] NAME_LOCALES = { "en", "fr", "es", "pt", "sw", "rw", "km", "ht" };
+	
+	/**
+	 * A locale with names, a country specific locale falling back to its language and a locale
+	 * without names
+	 */
+	@Param({ "fr", "en_GB", "de" })
+	public String locale;
+	
+	private Locale requestedLocale;
+	
+	private Concept concept;
+	
+	@Setup
+	public void setUp() {
+		requestedLocale = LocaleUtils.toLocale(locale);
+		concept = new Concept();
+		for (String nameLocale : NAME_LOCALES) {
+			Locale l = LocaleUtils.toLocale(nameLocale);
+			ConceptName fullySpecified = new ConceptName("Benchmark concept " + nameLocale, l);
+			fullySpecified.setConceptNameType(ConceptNameType.FULLY_SPECIFIED);
+			concept.addName(fullySpecified);
+			ConceptName shortName = new ConceptName("BC " + nameLocale, l);
+			shortName.setConceptNameType(ConceptNameType.SHORT);
+			concept.addName(shortName);
+			for (int i = 0; i < 3; i++) {
+				concept.addName(new ConceptName("Benchmark synonym " + i + " " + nameLocale, l));
+			}
+		}
+	}
+	
+	@Benchmark
+	public ConceptName getName() {
+		return concept.getName(requestedLocale);
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.test.context.TestContextManager;
+
+/**
+ * Starts the api on an in-memory H2 database with the standard test dataset, the same way the tests
+ * extending {@link BaseContextSensitiveTest} do. The context is started once per forked JVM and
+ * shared by all benchmark threads, which open their own session through {@link UserSession}.
+ */
+@State(Scope.Benchmark)
+public class ContextState extends BaseContextSensitiveTest {
+	
+	@Setup(Level.Trial)
+	public void startContext() throws Exception {
+		new TestContextManager(ContextState.class).prepareTestInstance(this);
+		try {
+			baseSetupWithStandardDataAndAuthentication();
+		}
+		finally {
+			Context.closeSession();
+		}
+	}
+	
+	/**
+	 * Loads an additional dataset from the test resources of the api and commits it
+	 * 
+	 * @param datasetFilename the classpath location of the dataset
+	 */
+	public void loadDataSet(String datasetFilename) throws Exception {
+		Context.openSession();
+		try {
+			executeDataSet(datasetFilename);
+			getConnection().commit();
+		}
+		finally {
+			Context.closeSession();
+		}
+	}
+}
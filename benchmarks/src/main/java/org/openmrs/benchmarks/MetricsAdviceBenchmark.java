@@ -0,0 +1,77 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.aop.MetricsAdvice;
+import org.openmrs.metrics.InMemoryMetricsRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Measures the overhead {@link MetricsAdvice} adds to every call of a service method by comparing
+ * calls through proxies with and without it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MetricsAdviceBenchmark {
+	
+	public interface EchoService {
+		
+		int echo(int value);
+	}
+	
+	private EchoService withoutMetrics;
+	
+	private EchoService withMetrics;
+	
+	@Setup
+	public void setUp() {
+		EchoService target = value -> value;
+		withoutMetrics = (EchoService) new ProxyFactory(target).getProxy();
+		
+		MetricsAdvice metricsAdvice = new MetricsAdvice();
+		metricsAdvice.setMetricsRegistry(new InMemoryMetricsRegistry());
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addAdvice(metricsAdvice);
+		withMetrics = (EchoService) proxyFactory.getProxy();
+	}
+	
+	@Benchmark
+	public int withoutMetrics() {
+		return withoutMetrics.echo(1);
+	}
+	
+	@Benchmark
+	public int withMetrics() {
+		return withMetrics.echo(1);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public int withMetricsConcurrently() {
+		return withMetrics.echo(1);
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ca.uhn.hl7v2.app.MessageTypeRouter;
+import ca.uhn.hl7v2.model.Message;
+import ca.uhn.hl7v2.parser.GenericParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.api.context.Context;
+import org.openmrs.hl7.handler.ORUR01Handler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Benchmarks the processing of an ORU^R01 message creating an encounter with two observations.
+ * Every invocation runs in a transaction which is rolled back once the encounter is flushed, so each
+ * one processes the message against the same data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ORUR01HandlerBenchmark {
+	
+	private static final String ORU_INITIAL_DATA_XML = "org/openmrs/hl7/include/ORUTest-initialData.xml";
+	
+	private static final String MESSAGE = "MSH|^~\\&|FORMENTRY|AMRS.ELD|HL7LISTENER|AMRS.ELD|20080226102656||ORU^R01|JqnfhKKtouEz8kzTk6Zo|P|2.5|1||||||||16^AMRS.ELD.FORMID\r"
+	        + "PID|||3^^^^||John3^Doe^||\r"
+	        + "PV1||O|1^Unknown Location||||1^Super User (1-8)|||||||||||||||||||||||||||||||||||||20080212|||||||V\r"
+	        + "ORC|RE||||||||20080226102537|1^Super User\r" + "OBR|1|||1238^MEDICAL RECORD OBSERVATIONS^99DCT\r"
+	        + "OBX|1|NM|5497^CD4, BY FACS^99DCT||450|||||||||20080206\r"
+	        + "OBX|2|DT|5096^RETURN VISIT DATE^99DCT||20080229|||||||||20080212";
+	
+	private final GenericParser parser = new GenericParser();
+	
+	private final MessageTypeRouter router = new MessageTypeRouter();
+	
+	private PlatformTransactionManager transactionManager;
+	
+	@Setup(Level.Trial)
+	public void setUp(ContextState context) throws Exception {
+		context.loadDataSet(ORU_INITIAL_DATA_XML);
+		router.registerApplication("ORU", "R01", new ORUR01Handler());
+		transactionManager = Context.getRegisteredComponent("transactionManager", PlatformTransactionManager.class);
+	}
+	
+	@Benchmark
+	public Message parse() throws Exception {
+		return parser.parse(MESSAGE);
+	}
+	
+	@Benchmark
+	public Message processMessage(UserSession session) throws Exception {
+		TransactionStatus transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		try {
+			Message ack = router.processMessage(parser.parse(MESSAGE));
+			Context.flushSession();
+			return ack;
+		}
+		finally {
+			transactionManager.rollback(transaction);
+			Context.clearSession();
+		}
+	}
+}
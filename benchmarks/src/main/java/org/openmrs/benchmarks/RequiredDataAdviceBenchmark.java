@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Location;
+import org.openmrs.Person;
+import org.openmrs.PersonAddress;
+import org.openmrs.PersonName;
+import org.openmrs.aop.RequiredDataAdvice;
+import org.openmrs.api.LocationService;
+import org.openmrs.api.PersonService;
+
+/**
+ * Benchmarks the validation and the save handlers run before an object is saved
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class RequiredDataAdviceBenchmark {
+	
+	private final RequiredDataAdvice requiredDataAdvice = new RequiredDataAdvice();
+	
+	private Method saveLocation;
+	
+	private Method savePerson;
+	
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		saveLocation = LocationService.class.getMethod("saveLocation", Location.class);
+		savePerson = PersonService.class.getMethod("savePerson", Person.class);
+	}
+	
+	@Benchmark
+	public Location saveLocation(UserSession session) throws Throwable {
+		Location location = new Location();
+		location.setName("Benchmark Location");
+		location.setDescription("A location which is never saved");
+		requiredDataAdvice.before(saveLocation, new Object[] { location }, null);
+		return location;
+	}
+	
+	@Benchmark
+	public Person savePerson(UserSession session) throws Throwable {
+		Person person = new Person();
+		person.setGender("F");
+		person.setBirthdate(new Date(0));
+		person.addName(new PersonName("Jane", null, "Benchmark"));
+		PersonAddress address = new PersonAddress();
+		address.setAddress1("1 Benchmark Street");
+		person.addAddress(address);
+		requiredDataAdvice.before(savePerson, new Object[] { person }, null);
+		return person;
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.util.ThreadSafeCircularFifoQueue;
+
+/**
+ * Benchmarks the queue keeping the recent log lines shown on the administration pages, which every
+ * logging thread writes to
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Group)
+public class ThreadSafeCircularFifoQueueBenchmark {
+	
+	private static final int CAPACITY = 1000;
+	
+	private ThreadSafeCircularFifoQueue<String> queue;
+	
+	@Setup
+	public void setUp() {
+		queue = new ThreadSafeCircularFifoQueue<>(CAPACITY);
+		for (int i = 0; i < CAPACITY; i++) {
+			queue.add("line " + i);
+		}
+	}
+	
+	/**
+	 * Adds to the full queue, which evicts the oldest element
+	 */
+	@Benchmark
+	public boolean offerToFullQueue() {
+		return queue.offer("line");
+	}
+	
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(3)
+	public boolean offer() {
+		return queue.offer("line");
+	}
+	
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public Object[] snapshot() {
+		return queue.toArray();
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openmrs.api.context.Context;
+
+/**
+ * A session authenticated as the administrator for each benchmark thread
+ */
+@State(Scope.Thread)
+public class UserSession {
+	
+	@Setup(Level.Trial)
+	public void open(ContextState context) {
+		Context.openSession();
+		context.authenticate();
+	}
+	
+	@TearDown(Level.Trial)
+	public void close() {
+		Context.closeSession();
+	}
+}
@@ -10,7 +10,6 @@
 package org.openmrs.module.web;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 
 import javax.servlet.ServletException;
@@ -48,6 +47,12 @@ public class ModuleResourcesServlet extends HttpServlet {
 		return f.lastModified();
 	}
 	
+	/**
+	 * Serves the requested module resource straight from the file system with
+	 * {@link OpenmrsUtil#transferFile(File, long, long, java.io.OutputStream)}. Supports
+	 * conditional requests through an ETag and single byte ranges so that clients can resume
+	 * downloads of large resources.
+	 */
 	@Override
 	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 		
@@ -59,18 +64,128 @@ public class ModuleResourcesServlet extends HttpServlet {
 			return;
 		}
 		
-		response.setDateHeader("Last-Modified", f.lastModified());
-		response.setContentLength(Long.valueOf(f.length()).intValue());
+		long length = f.length();
+		long lastModified = f.lastModified();
+		String etag = getETag(length, lastModified);
+		
+		response.setDateHeader("Last-Modified", lastModified);
+		response.setHeader("ETag", etag);
+		response.setHeader("Accept-Ranges", "bytes");
+		
+		if (matchesETag(request.getHeader("If-None-Match"), etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		
 		String mimeType = getServletContext().getMimeType(f.getName());
 		response.setContentType(mimeType);
 		
-		FileInputStream is = new FileInputStream(f);
+		long start = 0;
+		long end = length - 1;
+		String rangeHeader = request.getHeader("Range");
+		String ifRange = request.getHeader("If-Range");
+		if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+			long[] range = parseRange(rangeHeader, length);
+			if (range == null) {
+				response.setHeader("Content-Range", "bytes */" + length);
+				response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			}
+			if (range.length == 2) {
+				start = range[0];
+				end = range[1];
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+		
+		long contentLength = Math.max(end - start + 1, 0);
+		response.setContentLengthLong(contentLength);
+		if (contentLength > 0) {
+			OpenmrsUtil.transferFile(f, start, contentLength, response.getOutputStream());
+		}
+	}
+	
+	/**
+	 * Builds a strong ETag for a resource out of its size and modification date, like the default
+	 * servlet of Tomcat does. It is strong so that it can be compared with the If-Range header.
+	 *
+	 * @param length the size of the resource
+	 * @param lastModified the modification date of the resource
+	 * @return the quoted ETag
+	 */
+	static String getETag(long length, long lastModified) {
+		return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+	}
+	
+	/**
+	 * @param ifNoneMatch the value of the If-None-Match header, may be null
+	 * @param etag the ETag of the requested resource
+	 * @return true if the header lists the given ETag or is a wildcard
+	 */
+	static boolean matchesETag(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.startsWith("W/")) {
+				trimmed = trimmed.substring(2);
+			}
+			if ("*".equals(trimmed) || etag.equals(trimmed)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Parses a Range header for a resource of the given size. Only a single range is supported, a
+	 * header asking for several ranges or with an invalid syntax is ignored as allowed by RFC 7233.
+	 *
+	 * @param rangeHeader the value of the Range header
+	 * @param length the size of the requested resource
+	 * @return the first and last byte positions of the range, an empty array if the whole resource
+	 *         should be sent or null if the range cannot be satisfied
+	 */
+	static long[] parseRange(String rangeHeader, long length) {
+		String value = rangeHeader.trim();
+		if (!value.startsWith("bytes=") || value.contains(",")) {
+			return new long[0];
+		}
+		
+		String spec = value.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return new long[0];
+		}
+		
+		long start;
+		long end;
 		try {
-			OpenmrsUtil.copyFile(is, response.getOutputStream());
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			if (first.isEmpty()) {
+				// suffix range, i.e. the last N bytes
+				long suffixLength = Long.parseLong(last);
+				if (suffixLength <= 0) {
+					return null;
+				}
+				start = Math.max(length - suffixLength, 0);
+				end = length - 1;
+			} else {
+				start = Long.parseLong(first);
+				end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+			}
+		}
+		catch (NumberFormatException e) {
+			return new long[0];
 		}
-		finally {
-			OpenmrsUtil.closeStream(is);
+		
+		if (start < 0 || start >= length || end < start) {
+			return null;
 		}
+		return new long[] { start, end };
 	}
 	
 	/**
@@ -25,10 +25,12 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
@@ -144,41 +146,47 @@ public class WebModuleUtil {
 			
 			// copy the html files into the webapp (from /web/module/ in the module)
 			// also looks for a spring context file. If found, schedules spring to be restarted
-			JarFile jarFile = null;
-			OutputStream outStream = null;
-			InputStream inStream = null;
-			try {
-				File modFile = mod.getFile();
-				jarFile = new JarFile(modFile);
-				Enumeration<JarEntry> entries = jarFile.entries();
+			// the files are only copied again if the module changed since the last time
+			File modFile = mod.getFile();
+			File marker = new File(webInf, ModuleUtil.EXPANSION_MARKER_PREFIX + mod.getModuleId());
+			try (JarFile jarFile = new JarFile(modFile)) {
+				String checksum = ModuleUtil.getChecksum(modFile);
+				List<String> previous = ModuleUtil.readExpansionMarker(marker);
+				boolean copyFiles = !ModuleUtil.isExpansionCurrent(previous, checksum, webInf);
+				Set<String> copiedFiles = new LinkedHashSet<>();
 				
+				Enumeration<JarEntry> entries = jarFile.entries();
 				while (entries.hasMoreElements()) {
 					JarEntry entry = entries.nextElement();
 					String name = entry.getName();
 					log.debug("Entry name: " + name);
 					if (name.startsWith("web/module/")) {
+						if (!copyFiles) {
+							continue;
+						}
+						
 						// trim out the starting path of "web/module/"
 						String filepath = name.substring(11);
 						
-						StringBuilder absPath = new StringBuilder(realPath + "/WEB-INF");
+						StringBuilder relativePath = new StringBuilder();
 						
 						// If this is within the tag file directory, copy it into /WEB-INF/tags/module/moduleId/...
 						if (filepath.startsWith("tags/")) {
 							filepath = filepath.substring(5);
-							absPath.append("/tags/module/");
+							relativePath.append("tags/module/");
 						}
 						// Otherwise, copy it into /WEB-INF/view/module/moduleId/...
 						else {
-							absPath.append("/view/module/");
+							relativePath.append("view/module/");
 						}
 						
 						// if a module id has a . in it, we should treat that as a /, i.e. files in the module
 						// ui.springmvc should go in folder names like .../ui/springmvc/...
-						absPath.append(mod.getModuleIdAsPath()).append("/").append(filepath);
-						log.debug("Moving file from: {} to {}", name, absPath);
+						relativePath.append(mod.getModuleIdAsPath()).append("/").append(filepath);
+						log.debug("Moving file from: {} to {}/WEB-INF/{}", name, realPath, relativePath);
 						
 						// get the output file
-						File outFile = new File(absPath.toString().replace("/", File.separator));
+						File outFile = new File(webInf, relativePath.toString().replace("/", File.separator));
 						if (entry.isDirectory()) {
 							if (!outFile.exists()) {
 								outFile.mkdirs();
@@ -190,10 +198,15 @@ public class WebModuleUtil {
 								parentDir.mkdirs();
 							}
 							
-							// copy the contents over to the webapp for non directories
-							outStream = new FileOutputStream(outFile, false);
-							inStream = jarFile.getInputStream(entry);
-							OpenmrsUtil.copyFile(inStream, outStream);
+							// copy the contents over to the webapp for non directories that changed
+							if (!ModuleUtil.isUpToDate(outFile, entry)) {
+								try (InputStream inStream = jarFile.getInputStream(entry);
+								        OutputStream outStream = new FileOutputStream(outFile, false)) {
+									OpenmrsUtil.copyFile(inStream, outStream);
+								}
+								ModuleUtil.setLastModified(outFile, entry);
+							}
+							copiedFiles.add(relativePath.toString());
 						}
 					} else if ("moduleApplicationContext.xml".equals(name) || "webModuleApplicationContext.xml".equals(name)) {
 						moduleNeedsContextRefresh = true;
@@ -203,36 +216,17 @@ public class WebModuleUtil {
 						throw new ModuleException(msg, mod.getModuleId());
 					}
 				}
+				
+				if (copyFiles) {
+					ModuleUtil.deleteStaleFiles(previous, copiedFiles, webInf);
+					ModuleUtil.writeExpansionMarker(marker, checksum, copiedFiles);
+				} else {
+					log.debug("Web files of module {} are up to date", mod.getModuleId());
+				}
 			}
 			catch (IOException io) {
 				log.warn("Unable to copy files from module " + mod.getModuleId() + " to the web layer", io);
 			}
-			finally {
-				if (jarFile != null) {
-					try {
-						jarFile.close();
-					}
-					catch (IOException io) {
-						log.warn("Couldn't close jar file: " + jarFile.getName(), io);
-					}
-				}
-				if (inStream != null) {
-					try {
-						inStream.close();
-					}
-					catch (IOException io) {
-						log.warn("Couldn't close InputStream: " + io);
-					}
-				}
-				if (outStream != null) {
-					try {
-						outStream.close();
-					}
-					catch (IOException io) {
-						log.warn("Couldn't close OutputStream: " + io);
-					}
-				}
-			}
 			
 			// find and add the dwr code to the dwr-modules.xml file (if defined)
 			InputStream inputStream = null;
@@ -790,9 +784,9 @@ public class WebModuleUtil {
 			}
 		}
 		
-		// call web shutdown for each module
+		// call web shutdown for each module, keeping their web files for the next startup
 		for (Module mod : ModuleFactory.getLoadedModules()) {
-			stopModule(mod, servletContext, true);
+			stopModule(mod, servletContext, true, true);
 		}
 		
 	}
@@ -815,6 +809,20 @@ public class WebModuleUtil {
 	 * @param skipRefresh
 	 */
 	public static void stopModule(Module mod, ServletContext servletContext, boolean skipRefresh) {
+		stopModule(mod, servletContext, skipRefresh, false);
+	}
+	
+	/**
+	 * Reverses all visible activities done by startModule(org.openmrs.module.Module)
+	 *
+	 * @param mod
+	 * @param servletContext
+	 * @param skipRefresh
+	 * @param keepWebFiles true to keep the files copied to the webapp so that they can be reused when
+	 *            the same module is started again
+	 */
+	private static void stopModule(Module mod, ServletContext servletContext, boolean skipRefresh,
+	        boolean keepWebFiles) {
 		
 		String moduleId = mod.getModuleId();
 		String modulePackage = mod.getPackageName();
@@ -822,7 +830,7 @@ public class WebModuleUtil {
 		// stop all dependent modules
 		for (Module dependentModule : ModuleFactory.getStartedModules()) {
 			if (!dependentModule.equals(mod) && dependentModule.getRequiredModules().contains(modulePackage)) {
-				stopModule(dependentModule, servletContext, skipRefresh);
+				stopModule(dependentModule, servletContext, skipRefresh, keepWebFiles);
 			}
 		}
 		
@@ -831,12 +839,19 @@ public class WebModuleUtil {
 		// delete the web files from the webapp
 		String absPath = realPath + "/WEB-INF/view/module/" + moduleId;
 		File moduleWebFolder = new File(absPath.replace("/", File.separator));
-		if (moduleWebFolder.exists()) {
-			try {
-				OpenmrsUtil.deleteDirectory(moduleWebFolder);
+		if (!keepWebFiles) {
+			File marker = new File(realPath + "/WEB-INF/".replace("/", File.separator),
+			        ModuleUtil.EXPANSION_MARKER_PREFIX + moduleId);
+			if (marker.exists() && !marker.delete()) {
+				log.warn("Couldn't delete: " + marker.getAbsolutePath());
 			}
-			catch (IOException io) {
-				log.warn("Couldn't delete: " + moduleWebFolder.getAbsolutePath(), io);
+			if (moduleWebFolder.exists()) {
+				try {
+					OpenmrsUtil.deleteDirectory(moduleWebFolder);
+				}
+				catch (IOException io) {
+					log.warn("Couldn't delete: " + moduleWebFolder.getAbsolutePath(), io);
+				}
 			}
 		}
 		
@@ -27,6 +27,7 @@ import org.openmrs.util.MemoryLeakUtil;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
+import org.openmrs.util.StartupProfiler;
 import org.openmrs.web.filter.initialization.DatabaseDetective;
 import org.openmrs.web.filter.initialization.InitializationFilter;
 import org.openmrs.web.filter.update.UpdateFilter;
@@ -200,6 +201,7 @@ public final class Listener extends ContextLoader implements ServletContextListe
 	@Override
 	public void contextInitialized(ServletContextEvent event) {
 		log.debug("Starting the OpenMRS webapp");
+		StartupProfiler.begin();
 		
 		try {
 			// validate the current JVM version
@@ -252,7 +254,9 @@ public final class Listener extends ContextLoader implements ServletContextListe
 				 * of calling that so that the context is not cached and hence not garbage collected
 				 */
 				XmlWebApplicationContext context = (XmlWebApplicationContext) createWebApplicationContext(servletContext);
-				configureAndRefreshWebApplicationContext(context, servletContext);
+				try (StartupProfiler.Phase phase = StartupProfiler.start("web application context refresh")) {
+					configureAndRefreshWebApplicationContext(context, servletContext);
+				}
 				servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
 				
 				WebDaemon.startOpenmrs(event.getServletContext());
@@ -265,6 +269,9 @@ public final class Listener extends ContextLoader implements ServletContextListe
 			setErrorAtStartup(e);
 			log.error(MarkerFactory.getMarker("FATAL"), "Failed to obtain JDBC connection", e);
 		}
+		finally {
+			StartupProfiler.finish();
+		}
 	}
 
 	private void loadCsrfGuardProperties(ServletContext servletContext) throws IOException {
@@ -341,11 +348,19 @@ public final class Listener extends ContextLoader implements ServletContextListe
 	 * @throws ServletException
 	 */
 	public static void startOpenmrs(ServletContext servletContext) throws ServletException {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("Listener.startOpenmrs")) {
+			doStartOpenmrs(servletContext);
+		}
+	}
+	
+	private static void doStartOpenmrs(ServletContext servletContext) throws ServletException {
 		openmrsStarted = false;
 		// start openmrs
 		try {
 			// load bundled modules that are packaged into the webapp
-			Listener.loadBundledModules(servletContext);
+			try (StartupProfiler.Phase phase = StartupProfiler.start("Listener.loadBundledModules")) {
+				Listener.loadBundledModules(servletContext);
+			}
 			
 			Context.startup(getRuntimeProperties());
 		}
@@ -366,10 +381,14 @@ public final class Listener extends ContextLoader implements ServletContextListe
 		try {
 			
 			// web load modules
-			Listener.performWebStartOfModules(servletContext);
+			try (StartupProfiler.Phase phase = StartupProfiler.start("Listener.performWebStartOfModules")) {
+				Listener.performWebStartOfModules(servletContext);
+			}
 			
 			// start the scheduled tasks
-			SchedulerUtil.startup(getRuntimeProperties());
+			try (StartupProfiler.Phase phase = StartupProfiler.start("SchedulerUtil.startup")) {
+				SchedulerUtil.startup(getRuntimeProperties());
+			}
 		}
 		catch (Exception t) {
 			Context.shutdown();
@@ -708,7 +727,7 @@ public final class Listener extends ContextLoader implements ServletContextListe
 		
 		boolean someModuleNeedsARefresh = false;
 		for (Module mod : startedModules) {
-			try {
+			try (StartupProfiler.Phase phase = StartupProfiler.start("web module " + mod.getModuleId())) {
 				boolean thisModuleCausesRefresh = WebModuleUtil.startModule(mod, servletContext,
 				    /* delayContextRefresh */true);
 				someModuleNeedsARefresh = someModuleNeedsARefresh || thisModuleCausesRefresh;
@@ -719,7 +738,7 @@ public final class Listener extends ContextLoader implements ServletContextListe
 		}
 		
 		if (someModuleNeedsARefresh) {
-			try {
+			try (StartupProfiler.Phase phase = StartupProfiler.start("WebModuleUtil.refreshWAC")) {
 				WebModuleUtil.refreshWAC(servletContext, true, null);
 			}
 			catch (ModuleMustStartException | BeanCreationException ex) {
@@ -768,9 +787,11 @@ public final class Listener extends ContextLoader implements ServletContextListe
 		
 		// because we delayed the refresh, we need to load+start all servlets and filters now
 		// (this is to protect servlets/filters that depend on their module's spring xml config being available)
-		for (Module mod : ModuleFactory.getStartedModulesInOrder()) {
-			WebModuleUtil.loadServlets(mod, servletContext);
-			WebModuleUtil.loadFilters(mod, servletContext);
+		try (StartupProfiler.Phase phase = StartupProfiler.start("WebModuleUtil servlets and filters")) {
+			for (Module mod : ModuleFactory.getStartedModulesInOrder()) {
+				WebModuleUtil.loadServlets(mod, servletContext);
+				WebModuleUtil.loadFilters(mod, servletContext);
+			}
 		}
 		servletContext.setAttribute(OpenmrsJspServlet.OPENMRS_TLD_SCAN_NEEDED, true);
 	}
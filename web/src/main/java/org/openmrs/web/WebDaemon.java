@@ -16,6 +16,7 @@ import org.openmrs.api.context.Daemon;
 import org.openmrs.module.ModuleException;
 import org.openmrs.util.DatabaseUpdateException;
 import org.openmrs.util.InputRequiredException;
+import org.openmrs.util.StartupProfiler;
 
 /**
  * This class provides {@link Daemon} functionality in a web context.
@@ -32,6 +33,9 @@ public class WebDaemon extends Daemon {
 	public static void startOpenmrs(final ServletContext servletContext) throws DatabaseUpdateException,
 	        InputRequiredException {
 		
+		// profiles the startup done by the setup wizards, a no-op when already profiled by the Listener
+		StartupProfiler.begin();
+		
 		// create a new thread and start openmrs in it.
 		DaemonThread startOpenmrsThread = new DaemonThread() {
 			
@@ -64,6 +68,8 @@ public class WebDaemon extends Daemon {
 			// ignore
 		}
 		
+		StartupProfiler.finish();
+		
 		if (startOpenmrsThread.getExceptionThrown() != null) {
 			throw new ModuleException("Unable to start OpenMRS. Error thrown was: "
 			        + startOpenmrsThread.getExceptionThrown().getMessage(), startOpenmrsThread.getExceptionThrown());
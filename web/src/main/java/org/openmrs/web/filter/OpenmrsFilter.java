@@ -20,6 +20,8 @@ import javax.servlet.http.HttpSession;
 import org.openmrs.User;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.UserContext;
+import org.openmrs.api.db.hibernate.ReplicaRoutingConnectionProvider;
+import org.openmrs.api.db.hibernate.StatementMonitor;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.web.WebConstants;
 import org.slf4j.Logger;
@@ -109,11 +111,17 @@ public class OpenmrsFilter extends OncePerRequestFilter {
 		
 		log.debug("before chain.Filter");
 		
+		// keep the reads of this session on the primary database for a while after it wrote something
+		ReplicaRoutingConnectionProvider.setRoutingKey(httpSession.getId());
+		
 		// continue the filter chain (going on to spring, authorization, etc)
-		try {
+		// the statements of all transactions of the request are counted together
+		try (StatementMonitor.UnitOfWork work = StatementMonitor
+		        .begin(httpRequest.getMethod() + " " + httpRequest.getRequestURI())) {
 			chain.doFilter(httpRequest, httpResponse);
 		}
 		finally {
+			ReplicaRoutingConnectionProvider.setRoutingKey(null);
 			Context.clearUserContext();
 		}
 		
@@ -0,0 +1,52 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.web;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ModuleResourcesServletTest {
+
+	@Test
+	public void parseRange_shouldParseASingleByteRange() {
+		assertArrayEquals(new long[] { 0, 99 }, ModuleResourcesServlet.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] { 500, 999 }, ModuleResourcesServlet.parseRange("bytes=500-", 1000));
+		assertArrayEquals(new long[] { 900, 999 }, ModuleResourcesServlet.parseRange("bytes=-100", 1000));
+		assertArrayEquals(new long[] { 990, 999 }, ModuleResourcesServlet.parseRange("bytes=990-5000", 1000));
+	}
+
+	@Test
+	public void parseRange_shouldIgnoreMultipleOrMalformedRanges() {
+		assertArrayEquals(new long[0], ModuleResourcesServlet.parseRange("bytes=0-1,5-6", 1000));
+		assertArrayEquals(new long[0], ModuleResourcesServlet.parseRange("items=0-1", 1000));
+		assertArrayEquals(new long[0], ModuleResourcesServlet.parseRange("bytes=a-b", 1000));
+	}
+
+	@Test
+	public void parseRange_shouldReturnNullForUnsatisfiableRanges() {
+		assertNull(ModuleResourcesServlet.parseRange("bytes=1000-", 1000));
+		assertNull(ModuleResourcesServlet.parseRange("bytes=-0", 1000));
+	}
+
+	@Test
+	public void matchesETag_shouldMatchListedOrWildcardETags() {
+		String etag = ModuleResourcesServlet.getETag(10, 20);
+
+		assertTrue(ModuleResourcesServlet.matchesETag(etag, etag));
+		assertTrue(ModuleResourcesServlet.matchesETag("\"other\", W/" + etag, etag));
+		assertTrue(ModuleResourcesServlet.matchesETag("*", etag));
+		assertFalse(ModuleResourcesServlet.matchesETag("\"other\"", etag));
+		assertFalse(ModuleResourcesServlet.matchesETag(null, etag));
+	}
+}